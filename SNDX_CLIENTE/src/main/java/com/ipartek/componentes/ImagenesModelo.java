@@ -0,0 +1,30 @@
+package com.ipartek.componentes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+/**
+ * Publica en todas las vistas la URL base de las imágenes del catálogo.
+ * <p>
+ * Las fotos y los logos los sirve SNDX_REST en {@code /api/imagenes}, con
+ * caché inmutable para las imágenes nombradas por su hash; las plantillas
+ * las enlazan como {@code @{__${urlImagenes}__/discos/{foto}(foto=...)}}.
+ * </p>
+ */
+@ControllerAdvice
+public class ImagenesModelo {
+
+    @Value("${url.imagenes}")
+    private String urlImagenes;
+
+    /**
+     * URL base de las imágenes, sin barra final.
+     *
+     * @return la URL de {@code /api/imagenes} en SNDX_REST
+     */
+    @ModelAttribute("urlImagenes")
+    public String urlImagenes() {
+        return urlImagenes;
+    }
+}
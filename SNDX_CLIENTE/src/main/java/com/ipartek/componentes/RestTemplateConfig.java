@@ -0,0 +1,45 @@
+package com.ipartek.componentes;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cliente HTTP compartido por los servicios que llaman a SNDX_REST.
+ * <p>
+ * Prefiere Smile (JSON binario de Jackson, {@code application/x-jackson-smile})
+ * frente a JSON: el conversor de Smile se coloca delante del de JSON, de modo
+ * que la cabecera Accept lo pide primero y los cuerpos de las peticiones se
+ * envían en Smile. Si el servidor no lo ofrece, responde en JSON y se sigue
+ * leyendo con el conversor de JSON.
+ * </p>
+ */
+@Configuration
+public class RestTemplateConfig {
+
+    /**
+     * Crea el {@link RestTemplate} con el conversor de Smile antes que el de JSON.
+     *
+     * @return un {@link RestTemplate} que negocia Smile con JSON como alternativa
+     */
+    @Bean
+    public RestTemplate restTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        List<HttpMessageConverter<?>> conversores = restTemplate.getMessageConverters();
+
+        conversores.removeIf(conversor -> conversor instanceof MappingJackson2SmileHttpMessageConverter);
+        int posicionJson = 0;
+        while (posicionJson < conversores.size()
+                && !(conversores.get(posicionJson) instanceof MappingJackson2HttpMessageConverter)) {
+            posicionJson++;
+        }
+        conversores.add(posicionJson, new MappingJackson2SmileHttpMessageConverter());
+
+        return restTemplate;
+    }
+}
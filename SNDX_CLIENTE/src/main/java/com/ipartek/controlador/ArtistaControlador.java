@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
 import com.ipartek.pojos.Artista;
 import com.ipartek.pojos.Disco;
@@ -29,6 +30,7 @@ import java.util.List;
  *   <li>Mostrar el detalle de un artista y su discografía</li>
  *   <li>Gestionar artistas desde el panel de administración</li>
  *   <li>Insertar nuevos artistas junto con su imagen</li>
+ *   <li>Modificar artistas existentes</li>
  * </ul>
  * </p>
  * <p>
@@ -173,4 +175,63 @@ public class ArtistaControlador {
 
         return "redirect:/artistas";
     }
+
+    /**
+     * Muestra el formulario de administración cargado con un artista
+     * existente para modificarlo.
+     * <p>
+     * El formulario lleva la versión leída en un campo oculto, para que el
+     * servicio REST rechace la modificación si otro usuario lo cambió antes.
+     * </p>
+     *
+     * @param id identificador del artista a modificar
+     * @param session sesión HTTP del usuario
+     * @param model modelo para enviar datos a la vista
+     * @return vista de administración de artistas
+     */
+    @GetMapping("/FrmModificarArtista")
+    public String frmModificarArtista(@RequestParam("id") int id,
+                                      HttpSession session,
+                                      Model model) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        model.addAttribute("listaArtistas", artistaServicio.obtenerTodosArtistas(token));
+        model.addAttribute("obj_artista", artistaServicio.obtenerArtistaPorId(id, token));
+
+        return "artistas_crud";
+    }
+
+    /**
+     * Modifica un artista existente con los datos del formulario.
+     * <p>
+     * Si el servicio REST responde 409 (el artista cambió desde que se abrió
+     * el formulario) se vuelve a mostrar con los datos actuales y un aviso.
+     * </p>
+     *
+     * @param session sesión HTTP del usuario
+     * @param obj_artista artista recibido desde el formulario, con id y versión
+     * @return redirección al listado de artistas o de nuevo al formulario
+     */
+    @PostMapping("/ModificarArtista")
+    public String modificarArtista(HttpSession session,
+                                   @ModelAttribute Artista obj_artista) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        try {
+            artistaServicio.modificarArtista(obj_artista, token);
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Conflicto de versión al modificar el artista {}", obj_artista.getId());
+            return "redirect:/FrmModificarArtista?id=" + obj_artista.getId() + "&conflicto";
+        }
+
+        return "redirect:/artistas";
+    }
 }
@@ -12,8 +12,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
+import com.ipartek.pojos.Artista;
 import com.ipartek.pojos.Disco;
+import com.ipartek.pojos.Discografica;
+import com.ipartek.pojos.Genero;
+import com.ipartek.pojos.Productor;
 import com.ipartek.servicios.ArtistaServicio;
 import com.ipartek.servicios.DiscoServicio;
 import com.ipartek.servicios.DiscograficaServicio;
@@ -31,6 +36,7 @@ import jakarta.servlet.http.HttpSession;
  *   <li>Mostrar la ficha detallada de un disco</li>
  *   <li>Gestionar discos desde el panel de administración</li>
  *   <li>Insertar nuevos discos con sus relaciones e imagen</li>
+ *   <li>Modificar discos existentes</li>
  * </ul>
  * </p>
  * <p>
@@ -152,10 +158,10 @@ public class DiscoControlador {
 
         model.addAttribute("listaDiscos", discoServicio.obtenerTodosDiscos(token));
         model.addAttribute("obj_disco", new Disco());
-        model.addAttribute("listaArtistas", artistaServicio.obtenerTodosArtistas(token));
-        model.addAttribute("listaDiscograficas", discograficaServicio.obtenerTodasDiscograficas(token));
-        model.addAttribute("listaGeneros", generoServicio.obtenerTodosGeneros(token));
-        model.addAttribute("listaProductores", productorServicio.obtenerTodosProductores(token));
+        model.addAttribute("listaArtistas", artistaServicio.obtenerNombresArtistas(token));
+        model.addAttribute("listaDiscograficas", discograficaServicio.obtenerNombresDiscograficas(token));
+        model.addAttribute("listaGeneros", generoServicio.obtenerNombresGeneros(token));
+        model.addAttribute("listaProductores", productorServicio.obtenerNombresProductores(token));
 
         return "discos_crud";
     }
@@ -210,10 +216,7 @@ public class DiscoControlador {
         obj_disco.setEnlaceWikipedia(enlaceWikipedia);
         obj_disco.setEnlaceSpotify(enlaceSpotify);
         obj_disco.setEnlaceTidal(enlaceTidal);
-        obj_disco.setArtista(artistaServicio.obtenerArtistaPorId(artistaId, token));
-        obj_disco.setDiscografica(discograficaServicio.obtenerDiscograficaPorId(discograficaId, token));
-        obj_disco.setGenero(generoServicio.obtenerGeneroPorId(generoId, token));
-        obj_disco.setProductor(productorServicio.obtenerProductorPorId(productorId, token));
+        asignarRelaciones(obj_disco, artistaId, discograficaId, generoId, productorId);
 
         try {
             discoServicio.insertarDisco(obj_disco, archivo, token);
@@ -225,4 +228,119 @@ public class DiscoControlador {
 
         return "redirect:/discos";
     }
+
+    /**
+     * Muestra el formulario de administración cargado con un disco
+     * existente para modificarlo.
+     * <p>
+     * El formulario lleva la versión leída en un campo oculto, para que el
+     * servicio REST rechace la modificación si otro usuario lo cambió antes.
+     * </p>
+     *
+     * @param id identificador del disco a modificar
+     * @param session sesión HTTP del usuario
+     * @param model modelo para enviar datos a la vista
+     * @return vista de administración de discos
+     */
+    @GetMapping("/FrmModificarDisco")
+    public String frmModificarDisco(@RequestParam("id") int id,
+                                    HttpSession session,
+                                    Model model) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        model.addAttribute("listaDiscos", discoServicio.obtenerTodosDiscos(token));
+        model.addAttribute("obj_disco", discoServicio.obtenerDiscoPorId(id, token));
+        model.addAttribute("listaArtistas", artistaServicio.obtenerNombresArtistas(token));
+        model.addAttribute("listaDiscograficas", discograficaServicio.obtenerNombresDiscograficas(token));
+        model.addAttribute("listaGeneros", generoServicio.obtenerNombresGeneros(token));
+        model.addAttribute("listaProductores", productorServicio.obtenerNombresProductores(token));
+
+        return "discos_crud";
+    }
+
+    /**
+     * Modifica un disco existente con los datos del formulario.
+     * <p>
+     * Si el servicio REST responde 409 (el disco cambió desde que se abrió
+     * el formulario) se vuelve a mostrar con los datos actuales y un aviso.
+     * </p>
+     *
+     * @param session sesión HTTP del usuario
+     * @param id identificador del disco
+     * @param version versión del disco leída al abrir el formulario
+     * @param foto foto actual del disco
+     * @param nombre nombre del disco
+     * @param puntuacion puntuación del disco
+     * @param fecha fecha de lanzamiento
+     * @param enlaceWikipedia enlace a Wikipedia
+     * @param enlaceSpotify enlace a Spotify
+     * @param enlaceTidal enlace a Tidal
+     * @param artistaId identificador del artista
+     * @param discograficaId identificador de la discográfica
+     * @param generoId identificador del género
+     * @param productorId identificador del productor
+     * @return redirección al listado de discos o de nuevo al formulario
+     */
+    @PostMapping("/ModificarDisco")
+    public String modificarDisco(HttpSession session,
+                                 @RequestParam("id") int id,
+                                 @RequestParam(name = "version", required = false) Long version,
+                                 @RequestParam("foto") String foto,
+                                 @RequestParam("nombre") String nombre,
+                                 @RequestParam("puntuacion") int puntuacion,
+                                 @RequestParam("fecha") String fecha,
+                                 @RequestParam("enlaceWikipedia") String enlaceWikipedia,
+                                 @RequestParam("enlaceSpotify") String enlaceSpotify,
+                                 @RequestParam("enlaceTidal") String enlaceTidal,
+                                 @RequestParam("artista") int artistaId,
+                                 @RequestParam("discografica") int discograficaId,
+                                 @RequestParam("genero") int generoId,
+                                 @RequestParam("productor") int productorId) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        Disco obj_disco = new Disco();
+        obj_disco.setId(id);
+        obj_disco.setVersion(version);
+        obj_disco.setFoto(foto);
+        obj_disco.setNombre(nombre);
+        obj_disco.setPuntuacion(puntuacion);
+        obj_disco.setFecha(fecha);
+        obj_disco.setEnlaceWikipedia(enlaceWikipedia);
+        obj_disco.setEnlaceSpotify(enlaceSpotify);
+        obj_disco.setEnlaceTidal(enlaceTidal);
+        asignarRelaciones(obj_disco, artistaId, discograficaId, generoId, productorId);
+
+        try {
+            discoServicio.modificarDisco(obj_disco, token);
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Conflicto de versión al modificar el disco {}", id);
+            return "redirect:/FrmModificarDisco?id=" + id + "&conflicto";
+        }
+
+        return "redirect:/discos";
+    }
+
+    /**
+     * Asigna al disco sus relaciones a partir de los identificadores del
+     * formulario. La API solo necesita el id de cada relación: no se descargan.
+     */
+    private void asignarRelaciones(Disco obj_disco, int artistaId, int discograficaId,
+                                   int generoId, int productorId) {
+        obj_disco.setArtista(new Artista());
+        obj_disco.getArtista().setId(artistaId);
+        obj_disco.setDiscografica(new Discografica());
+        obj_disco.getDiscografica().setId(discograficaId);
+        obj_disco.setGenero(new Genero());
+        obj_disco.getGenero().setId(generoId);
+        obj_disco.setProductor(new Productor());
+        obj_disco.getProductor().setId(productorId);
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,7 @@ import jakarta.servlet.http.HttpSession;
  *   <li>Mostrar la ficha detallada de una discográfica</li>
  *   <li>Gestionar discográficas desde el panel de administración</li>
  *   <li>Insertar nuevas discográficas junto con su imagen</li>
+ *   <li>Modificar discográficas existentes</li>
  * </ul>
  * </p>
  * <p>
@@ -164,4 +166,63 @@ public class DiscograficaControlador {
 
         return "redirect:/discograficas";
     }
+
+    /**
+     * Muestra el formulario de administración cargado con una discográfica
+     * existente para modificarla.
+     * <p>
+     * El formulario lleva la versión leída en un campo oculto, para que el
+     * servicio REST rechace la modificación si otro usuario la cambió antes.
+     * </p>
+     *
+     * @param id identificador de la discográfica a modificar
+     * @param session sesión HTTP del usuario
+     * @param model modelo para enviar datos a la vista
+     * @return vista de administración de discográficas
+     */
+    @GetMapping("/FrmModificarDiscografica")
+    public String frmModificarDiscografica(@RequestParam("id") int id,
+                                           HttpSession session,
+                                           Model model) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        model.addAttribute("listaDiscograficas", discograficaServicio.obtenerTodasDiscograficas(token));
+        model.addAttribute("obj_discografica", discograficaServicio.obtenerDiscograficaPorId(id, token));
+
+        return "discograficas_crud";
+    }
+
+    /**
+     * Modifica una discográfica existente con los datos del formulario.
+     * <p>
+     * Si el servicio REST responde 409 (la discográfica cambió desde que se abrió
+     * el formulario) se vuelve a mostrar con los datos actuales y un aviso.
+     * </p>
+     *
+     * @param session sesión HTTP del usuario
+     * @param obj_discografica discográfica recibida desde el formulario, con id y versión
+     * @return redirección al listado de discográficas o de nuevo al formulario
+     */
+    @PostMapping("/ModificarDiscografica")
+    public String modificarDiscografica(HttpSession session,
+                                        @ModelAttribute Discografica obj_discografica) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        try {
+            discograficaServicio.modificarDiscografica(obj_discografica, token);
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Conflicto de versión al modificar la discográfica {}", obj_discografica.getId());
+            return "redirect:/FrmModificarDiscografica?id=" + obj_discografica.getId() + "&conflicto";
+        }
+
+        return "redirect:/discograficas";
+    }
 }
@@ -1,11 +1,17 @@
 package com.ipartek.controlador;
 
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
 import com.ipartek.pojos.Disco;
 import com.ipartek.pojos.Genero;
 import com.ipartek.servicios.GeneroServicio;
@@ -20,6 +26,7 @@ import jakarta.servlet.http.HttpSession;
  *   <li>Listar todos los géneros</li>
  *   <li>Mostrar el detalle de un género concreto</li>
  *   <li>Gestionar géneros desde el panel de administración</li>
+ *   <li>Insertar y modificar géneros</li>
  * </ul>
  * </p>
  * <p>
@@ -36,6 +43,11 @@ public class GeneroControlador {
     @Autowired
     private GeneroServicio generoServicio;
 
+    /**
+     * Logger para el registro de mensajes y errores del controlador.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(GeneroControlador.class);
+
     /**
      * Muestra el listado de todos los géneros musicales.
      * <p>
@@ -110,4 +122,84 @@ public class GeneroControlador {
 
         return "genero_crud";
     }
+
+    /**
+     * Guarda un nuevo género en el sistema.
+     *
+     * @param session sesión HTTP del usuario
+     * @param obj_genero objeto género recibido desde el formulario
+     * @return redirección al listado de géneros
+     */
+    @PostMapping("/GuardarGenero")
+    public String guardarGenero(HttpSession session,
+                                @ModelAttribute Genero obj_genero) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        generoServicio.insertarGenero(obj_genero, token);
+
+        return "redirect:/generos";
+    }
+
+    /**
+     * Muestra el formulario de administración cargado con un género
+     * existente para modificarlo.
+     * <p>
+     * El formulario lleva la versión leída en un campo oculto, para que el
+     * servicio REST rechace la modificación si otro usuario lo cambió antes.
+     * </p>
+     *
+     * @param id identificador del género a modificar
+     * @param session sesión HTTP del usuario
+     * @param model modelo para enviar datos a la vista
+     * @return vista de administración de géneros
+     */
+    @GetMapping("/FrmModificarGenero")
+    public String frmModificarGenero(@RequestParam("id") int id,
+                                     HttpSession session,
+                                     Model model) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        model.addAttribute("listaGeneros", generoServicio.obtenerTodosGeneros(token));
+        model.addAttribute("obj_genero", generoServicio.obtenerGeneroPorId(id, token));
+
+        return "genero_crud";
+    }
+
+    /**
+     * Modifica un género existente con los datos del formulario.
+     * <p>
+     * Si el servicio REST responde 409 (el género cambió desde que se abrió
+     * el formulario) se vuelve a mostrar con los datos actuales y un aviso.
+     * </p>
+     *
+     * @param session sesión HTTP del usuario
+     * @param obj_genero género recibido desde el formulario, con id y versión
+     * @return redirección al listado de géneros o de nuevo al formulario
+     */
+    @PostMapping("/ModificarGenero")
+    public String modificarGenero(HttpSession session,
+                                  @ModelAttribute Genero obj_genero) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        try {
+            generoServicio.modificarGenero(obj_genero, token);
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Conflicto de versión al modificar el género {}", obj_genero.getId());
+            return "redirect:/FrmModificarGenero?id=" + obj_genero.getId() + "&conflicto";
+        }
+
+        return "redirect:/generos";
+    }
 }
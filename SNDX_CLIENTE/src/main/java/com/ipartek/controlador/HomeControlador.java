@@ -4,10 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import com.ipartek.servicios.ArtistaServicio;
-import com.ipartek.servicios.DiscoServicio;
-import com.ipartek.servicios.DiscograficaServicio;
-import com.ipartek.servicios.ProductorServicio;
+import com.ipartek.pojos.Portada;
+import com.ipartek.servicios.PortadaServicio;
 import jakarta.servlet.http.HttpSession;
 
 /**
@@ -31,34 +29,16 @@ import jakarta.servlet.http.HttpSession;
 public class HomeControlador {
 
     /**
-     * Servicio encargado de la gestión de discos.
+     * Servicio encargado de obtener los datos de la página principal.
      */
     @Autowired
-    private DiscoServicio discoService;
-
-    /**
-     * Servicio encargado de la gestión de artistas.
-     */
-    @Autowired
-    private ArtistaServicio artistaService;
-
-    /**
-     * Servicio encargado de la gestión de productores.
-     */
-    @Autowired
-    private ProductorServicio productorService;
-
-    /**
-     * Servicio encargado de la gestión de discográficas.
-     */
-    @Autowired
-    private DiscograficaServicio discograficaService;
+    private PortadaServicio portadaServicio;
 
     /**
      * Muestra la página principal de la aplicación.
      * <p>
-     * Obtiene elementos destacados de forma aleatoria y los envía
-     * a la vista para su visualización.
+     * Obtiene los elementos destacados de la semana y sus discografías
+     * con una sola llamada a la API y los envía a la vista.
      * </p>
      *
      * @param session sesión HTTP del usuario
@@ -74,10 +54,15 @@ public class HomeControlador {
             return "redirect:/";
         }
 
-        model.addAttribute("discoSemana", discoService.obtenerDiscoAleatorio(jwtToken));
-        model.addAttribute("artistaSemana", artistaService.obtenerArtistaAleatorio(jwtToken));
-        model.addAttribute("productorSemana", productorService.obtenerProductorAleatorio(jwtToken));
-        model.addAttribute("discograficaSemana", discograficaService.obtenerDiscograficaAleatorio(jwtToken));
+        Portada portada = portadaServicio.obtenerPortada(jwtToken);
+
+        model.addAttribute("discoSemana", portada.getDiscoSemana());
+        model.addAttribute("artistaSemana", portada.getArtistaSemana());
+        model.addAttribute("productorSemana", portada.getProductorSemana());
+        model.addAttribute("discograficaSemana", portada.getDiscograficaSemana());
+        model.addAttribute("artistaSemanaDiscografia", portada.getArtistaSemanaDiscografia());
+        model.addAttribute("productorSemanaDiscografia", portada.getProductorSemanaDiscografia());
+        model.addAttribute("discograficaSemanaDiscografia", portada.getDiscograficaSemanaDiscografia());
 
         return "home";
     }
@@ -8,16 +8,10 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import com.ipartek.componentes.JwtUtil;
 import com.ipartek.modelo.Usuario;
-import com.ipartek.pojos.Artista;
 import com.ipartek.pojos.Disco;
-import com.ipartek.pojos.Discografica;
-import com.ipartek.pojos.Productor;
+import com.ipartek.pojos.Portada;
 import com.ipartek.repositorio.UsuarioRepositorio;
-import com.ipartek.servicios.ArtistaServicio;
-import com.ipartek.servicios.DiscoServicio;
-import com.ipartek.servicios.DiscograficaServicio;
-import com.ipartek.servicios.GeneroServicio;
-import com.ipartek.servicios.ProductorServicio;
+import com.ipartek.servicios.PortadaServicio;
 import jakarta.servlet.http.HttpSession;
 
 /**
@@ -37,34 +31,10 @@ import jakarta.servlet.http.HttpSession;
 public class LoginControlador {
 
     /**
-     * Servicio encargado de la gestión de artistas.
+     * Servicio encargado de obtener los datos de la página principal.
      */
     @Autowired
-    private ArtistaServicio artistaServicio;
-
-    /**
-     * Servicio encargado de la gestión de discos.
-     */
-    @Autowired
-    private DiscoServicio discoServicio;
-
-    /**
-     * Servicio encargado de la gestión de discográficas.
-     */
-    @Autowired
-    private DiscograficaServicio discograficaServicio;
-
-    /**
-     * Servicio encargado de la gestión de productores.
-     */
-    @Autowired
-    private ProductorServicio productorServicio;
-
-    /**
-     * Servicio encargado de la gestión de géneros musicales.
-     */
-    @Autowired
-    private GeneroServicio generoServicio;
+    private PortadaServicio portadaServicio;
 
     /**
      * Repositorio encargado del acceso a los usuarios registrados.
@@ -112,34 +82,21 @@ public class LoginControlador {
             session.setAttribute("rol", usuario.get().getRole());
             session.setAttribute("name", usuario.get().getName());
 
-            // Obtener elementos destacados para la página principal
-            Disco discoSemana = discoServicio.obtenerDiscoAleatorio(token);
-            Artista artistaSemana = artistaServicio.obtenerArtistaAleatorio(token);
-            Productor productorSemana = productorServicio.obtenerProductorAleatorio(token);
-            Discografica discograficaSemana = discograficaServicio.obtenerDiscograficaAleatorio(token);
+            // Destacados, discografías y desplegables en una sola llamada a la API
+            Portada portada = portadaServicio.obtenerPortada(token);
 
             model.addAttribute("obj_disco", new Disco());
-            model.addAttribute("listaDiscos", discoServicio.obtenerTodosDiscos(token));
-            model.addAttribute("listaArtistas", artistaServicio.obtenerTodosArtistas(token));
-            model.addAttribute("listaDiscograficas", discograficaServicio.obtenerTodasDiscograficas(token));
-            model.addAttribute("listaProductores", productorServicio.obtenerTodosProductores(token));
-            model.addAttribute("listaGeneros", generoServicio.obtenerTodosGeneros(token));
-            model.addAttribute("discoSemana", discoSemana);
-            model.addAttribute("artistaSemana", artistaSemana);
-            model.addAttribute("productorSemana", productorSemana);
-            model.addAttribute("discograficaSemana", discograficaSemana);
-
-            if (discograficaSemana != null) {
-                model.addAttribute("discograficaSemanaDiscografia", discograficaServicio.obtenerDiscografiaPorDiscografica(discograficaSemana.getId(), token));
-            }
-
-            if (artistaSemana != null) {
-                model.addAttribute("artistaSemanaDiscografia", artistaServicio.obtenerDiscografiaPorArtista(artistaSemana.getId(), token));
-            }
-
-            if (productorSemana != null) {
-                model.addAttribute("productorSemanaDiscografia", productorServicio.obtenerDiscografiaPorProductor(productorSemana.getId(), token));
-            }
+            model.addAttribute("listaArtistas", portada.getArtistas());
+            model.addAttribute("listaDiscograficas", portada.getDiscograficas());
+            model.addAttribute("listaProductores", portada.getProductores());
+            model.addAttribute("listaGeneros", portada.getGeneros());
+            model.addAttribute("discoSemana", portada.getDiscoSemana());
+            model.addAttribute("artistaSemana", portada.getArtistaSemana());
+            model.addAttribute("productorSemana", portada.getProductorSemana());
+            model.addAttribute("discograficaSemana", portada.getDiscograficaSemana());
+            model.addAttribute("artistaSemanaDiscografia", portada.getArtistaSemanaDiscografia());
+            model.addAttribute("productorSemanaDiscografia", portada.getProductorSemanaDiscografia());
+            model.addAttribute("discograficaSemanaDiscografia", portada.getDiscograficaSemanaDiscografia());
 
             return "home";
         }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
 import com.ipartek.pojos.Disco;
 import com.ipartek.pojos.Productor;
@@ -28,6 +29,7 @@ import jakarta.servlet.http.HttpSession;
  *   <li>Mostrar la ficha detallada de un productor</li>
  *   <li>Gestionar productores desde el panel de administración</li>
  *   <li>Insertar nuevos productores junto con su imagen</li>
+ *   <li>Modificar productores existentes</li>
  * </ul>
  * </p>
  * <p>
@@ -161,4 +163,63 @@ public class ProductorControlador {
 
         return "redirect:/productores";
     }
+
+    /**
+     * Muestra el formulario de administración cargado con un productor
+     * existente para modificarlo.
+     * <p>
+     * El formulario lleva la versión leída en un campo oculto, para que el
+     * servicio REST rechace la modificación si otro usuario lo cambió antes.
+     * </p>
+     *
+     * @param id identificador del productor a modificar
+     * @param session sesión HTTP del usuario
+     * @param model modelo para enviar datos a la vista
+     * @return vista de administración de productores
+     */
+    @GetMapping("/FrmModificarProductor")
+    public String frmModificarProductor(@RequestParam("id") int id,
+                                        HttpSession session,
+                                        Model model) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        model.addAttribute("listaProductores", productorServicio.obtenerTodosProductores(token));
+        model.addAttribute("obj_productor", productorServicio.obtenerProductorPorId(id, token));
+
+        return "productor_crud";
+    }
+
+    /**
+     * Modifica un productor existente con los datos del formulario.
+     * <p>
+     * Si el servicio REST responde 409 (el productor cambió desde que se abrió
+     * el formulario) se vuelve a mostrar con los datos actuales y un aviso.
+     * </p>
+     *
+     * @param session sesión HTTP del usuario
+     * @param obj_productor productor recibido desde el formulario, con id y versión
+     * @return redirección al listado de productores o de nuevo al formulario
+     */
+    @PostMapping("/ModificarProductor")
+    public String modificarProductor(HttpSession session,
+                                     @ModelAttribute Productor obj_productor) {
+
+        String token = (String) session.getAttribute("jwt_token");
+        if (token == null) {
+            return "redirect:/";
+        }
+
+        try {
+            productorServicio.modificarProductor(obj_productor, token);
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Conflicto de versión al modificar el productor {}", obj_productor.getId());
+            return "redirect:/FrmModificarProductor?id=" + obj_productor.getId() + "&conflicto";
+        }
+
+        return "redirect:/productores";
+    }
 }
@@ -6,9 +6,12 @@ import java.util.List;
 public class Artista {
 ////ATRIBUTOS
     private int id;
+    private Long version;
 	private int notaMedia;
     private String nombre;
     private String foto;
+    private String fotoMiniatura;
+    private String fotoMedia;
     private String enlaceWikipedia;
     private String enlaceSpotify;
     private String enlaceTidal;
@@ -51,6 +54,14 @@ public class Artista {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getNotaMedia() {
 		return notaMedia;
 	}
@@ -75,6 +86,23 @@ public class Artista {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas que publica el API; sin ellas (imágenes antiguas) se usa la original
+	public String getFotoMiniatura() {
+		return fotoMiniatura != null ? fotoMiniatura : foto;
+	}
+
+	public void setFotoMiniatura(String fotoMiniatura) {
+		this.fotoMiniatura = fotoMiniatura;
+	}
+
+	public String getFotoMedia() {
+		return fotoMedia != null ? fotoMedia : foto;
+	}
+
+	public void setFotoMedia(String fotoMedia) {
+		this.fotoMedia = fotoMedia;
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
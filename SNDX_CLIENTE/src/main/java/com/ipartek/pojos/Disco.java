@@ -3,10 +3,13 @@ package com.ipartek.pojos;
 public class Disco {
 ////ATRIBUTOS
 	private int id;
+	private Long version;
 	private int puntuacion;	
 	private String fecha;
 	private String nombre;
 	private String foto;
+	private String fotoMiniatura;
+	private String fotoMedia;
 	private String enlaceWikipedia;
 	private String enlaceSpotify;
 	private String enlaceTidal;
@@ -61,6 +64,14 @@ public class Disco {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getPuntuacion() {
 		return puntuacion;
 	}
@@ -93,6 +104,23 @@ public class Disco {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas que publica el API; sin ellas (imágenes antiguas) se usa la original
+	public String getFotoMiniatura() {
+		return fotoMiniatura != null ? fotoMiniatura : foto;
+	}
+
+	public void setFotoMiniatura(String fotoMiniatura) {
+		this.fotoMiniatura = fotoMiniatura;
+	}
+
+	public String getFotoMedia() {
+		return fotoMedia != null ? fotoMedia : foto;
+	}
+
+	public void setFotoMedia(String fotoMedia) {
+		this.fotoMedia = fotoMedia;
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
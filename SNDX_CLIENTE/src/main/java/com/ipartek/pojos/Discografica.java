@@ -7,9 +7,12 @@ import java.util.List;
 public class Discografica {
 ////ATRIBUTOS
     private int id;
+    private Long version;
     private String nombre;   
     private String enlaceWikipedia;
     private String logo;
+    private String logoMiniatura;
+    private String logoMedia;
     private List<Disco> discografia;
 
     
@@ -40,6 +43,14 @@ public class Discografica {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public String getNombre() {
 		return nombre;
 	}
@@ -71,6 +82,23 @@ public class Discografica {
 	public void setLogo(String logo) {
 		this.logo = logo;
 	}
+
+	// Versiones reducidas que publica el API; sin ellas (imágenes antiguas) se usa la original
+	public String getLogoMiniatura() {
+		return logoMiniatura != null ? logoMiniatura : logo;
+	}
+
+	public void setLogoMiniatura(String logoMiniatura) {
+		this.logoMiniatura = logoMiniatura;
+	}
+
+	public String getLogoMedia() {
+		return logoMedia != null ? logoMedia : logo;
+	}
+
+	public void setLogoMedia(String logoMedia) {
+		this.logoMedia = logoMedia;
+	}
 	
 	
 
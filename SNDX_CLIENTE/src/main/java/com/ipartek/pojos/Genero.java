@@ -6,6 +6,7 @@ import java.util.List;
 public class Genero {
 	
 	private int id;
+	private Long version;
 	private String nombre;
     private List<Disco> discos;
 	
@@ -32,6 +33,14 @@ public class Genero {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public String getNombre() {
 		return nombre;
 	}
@@ -0,0 +1,121 @@
+package com.ipartek.pojos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de la página principal recibidos de /api/portada en una sola
+ * llamada. Los destacados llegan a null si no hay elementos de ese tipo;
+ * los desplegables traen solo los datos de resumen (id, nombre e imagen).
+ */
+public class Portada {
+	
+	private Disco discoSemana;
+	private Artista artistaSemana;
+	private Productor productorSemana;
+	private Discografica discograficaSemana;
+	private List<Disco> artistaSemanaDiscografia;
+	private List<Disco> productorSemanaDiscografia;
+	private List<Disco> discograficaSemanaDiscografia;
+	private List<Artista> artistas;
+	private List<Genero> generos;
+	private List<Productor> productores;
+	private List<Discografica> discograficas;
+
+	public Portada() {
+		super();
+		this.artistas = new ArrayList<>();
+		this.generos = new ArrayList<>();
+		this.productores = new ArrayList<>();
+		this.discograficas = new ArrayList<>();
+	}
+
+	public Disco getDiscoSemana() {
+		return discoSemana;
+	}
+
+	public void setDiscoSemana(Disco discoSemana) {
+		this.discoSemana = discoSemana;
+	}
+
+	public Artista getArtistaSemana() {
+		return artistaSemana;
+	}
+
+	public void setArtistaSemana(Artista artistaSemana) {
+		this.artistaSemana = artistaSemana;
+	}
+
+	public Productor getProductorSemana() {
+		return productorSemana;
+	}
+
+	public void setProductorSemana(Productor productorSemana) {
+		this.productorSemana = productorSemana;
+	}
+
+	public Discografica getDiscograficaSemana() {
+		return discograficaSemana;
+	}
+
+	public void setDiscograficaSemana(Discografica discograficaSemana) {
+		this.discograficaSemana = discograficaSemana;
+	}
+
+	public List<Disco> getArtistaSemanaDiscografia() {
+		return artistaSemanaDiscografia;
+	}
+
+	public void setArtistaSemanaDiscografia(List<Disco> artistaSemanaDiscografia) {
+		this.artistaSemanaDiscografia = artistaSemanaDiscografia;
+	}
+
+	public List<Disco> getProductorSemanaDiscografia() {
+		return productorSemanaDiscografia;
+	}
+
+	public void setProductorSemanaDiscografia(List<Disco> productorSemanaDiscografia) {
+		this.productorSemanaDiscografia = productorSemanaDiscografia;
+	}
+
+	public List<Disco> getDiscograficaSemanaDiscografia() {
+		return discograficaSemanaDiscografia;
+	}
+
+	public void setDiscograficaSemanaDiscografia(List<Disco> discograficaSemanaDiscografia) {
+		this.discograficaSemanaDiscografia = discograficaSemanaDiscografia;
+	}
+
+	public List<Artista> getArtistas() {
+		return artistas;
+	}
+
+	public void setArtistas(List<Artista> artistas) {
+		this.artistas = artistas;
+	}
+
+	public List<Genero> getGeneros() {
+		return generos;
+	}
+
+	public void setGeneros(List<Genero> generos) {
+		this.generos = generos;
+	}
+
+	public List<Productor> getProductores() {
+		return productores;
+	}
+
+	public void setProductores(List<Productor> productores) {
+		this.productores = productores;
+	}
+
+	public List<Discografica> getDiscograficas() {
+		return discograficas;
+	}
+
+	public void setDiscograficas(List<Discografica> discograficas) {
+		this.discograficas = discograficas;
+	}
+
+}
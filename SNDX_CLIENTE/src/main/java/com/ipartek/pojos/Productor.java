@@ -6,9 +6,12 @@ import java.util.List;
 public class Productor {
 ////ATRIBUTOS
     private int id;
+    private Long version;
     private int notaMedia;
     private String nombre;
     private String foto;
+    private String fotoMiniatura;
+    private String fotoMedia;
     private String enlaceWikipedia;
     private List<Disco> discografia;
 
@@ -45,6 +48,14 @@ public class Productor {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getNotaMedia() {
 		return notaMedia;
 	}
@@ -69,6 +80,23 @@ public class Productor {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas que publica el API; sin ellas (imágenes antiguas) se usa la original
+	public String getFotoMiniatura() {
+		return fotoMiniatura != null ? fotoMiniatura : foto;
+	}
+
+	public void setFotoMiniatura(String fotoMiniatura) {
+		this.fotoMiniatura = fotoMiniatura;
+	}
+
+	public String getFotoMedia() {
+		return fotoMedia != null ? fotoMedia : foto;
+	}
+
+	public void setFotoMedia(String fotoMedia) {
+		this.fotoMedia = fotoMedia;
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
@@ -24,6 +24,17 @@ public interface ArtistaServicio {
      */
     List<Artista> obtenerTodosArtistas(String jwtToken);
 
+    /**
+     * Obtiene solo el id y el nombre de todos los artistas, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de artistas con id y nombre
+     */
+    List<Artista> obtenerNombresArtistas(String jwtToken);
+
     /**
      * Obtiene la discografía de un artista concreto.
      *
@@ -75,4 +86,12 @@ public interface ArtistaServicio {
      * @return artista seleccionado aleatoriamente
      */
     Artista obtenerArtistaAleatorio(String jwtToken);
+
+    /**
+     * Obtiene el artista de la semana, el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el artista de la semana
+     */
+    Artista obtenerArtistaSemana(String jwtToken);
 }
@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -36,7 +36,8 @@ public class ArtistaServicioImp implements ArtistaServicio {
     /**
      * Cliente REST para realizar llamadas HTTP al API externo.
      */
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
 
     /**
      * URL base del endpoint de artistas.
@@ -67,6 +68,33 @@ public class ArtistaServicioImp implements ArtistaServicio {
         return Arrays.asList(artista);
     }
 
+    /**
+     * Obtiene solo el id y el nombre de todos los artistas, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de artistas con id y nombre
+     */
+    @Override
+    public List<Artista> obtenerNombresArtistas(String jwtToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<Artista[]> response = restTemplate.exchange(
+            URL + "?fields=id,nombre",
+            HttpMethod.GET,
+            entity,
+            Artista[].class
+        );
+
+        Artista[] artista = response.getBody();
+        return Arrays.asList(artista);
+    }
+
     /**
      * Obtiene un artista por su identificador.
      *
@@ -216,31 +244,45 @@ public class ArtistaServicioImp implements ArtistaServicio {
 
     /**
      * Obtiene un artista aleatorio del sistema.
+     * <p>
+     * La elección la hace la API sobre sus ids, sin descargar la lista completa.
+     * </p>
      *
      * @param jwtToken token JWT de autenticación
      * @return artista seleccionado aleatoriamente, o null si no hay artistas
      */
     @Override
     public Artista obtenerArtistaAleatorio(String jwtToken) {
+        return obtenerDestacado(URL + "/aleatorio", jwtToken);
+    }
+
+    /**
+     * Obtiene el artista de la semana: el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el artista de la semana, o null si no hay artistas
+     */
+    @Override
+    public Artista obtenerArtistaSemana(String jwtToken) {
+        return obtenerDestacado(URL + "/semana", jwtToken);
+    }
+
+    /**
+     * Descarga un artista destacado de la API.
+     *
+     * @param url      URL del destacado (aleatorio o de la semana)
+     * @param jwtToken token JWT de autenticación
+     * @return el artista destacado, o null si la API responde 404 porque no hay artistas
+     */
+    private Artista obtenerDestacado(String url, String jwtToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(jwtToken);
-
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Artista[]> response = restTemplate.exchange(
-            URL,
-            HttpMethod.GET,
-            entity,
-            Artista[].class
-        );
-
-        Artista[] artistas = response.getBody();
-        if (artistas == null || artistas.length == 0) {
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, entity, Artista.class).getBody();
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
-
-        Random random = new Random();
-        int indice = random.nextInt(artistas.length);
-        return artistas[indice];
     }
 }
@@ -40,6 +40,14 @@ public interface DiscoServicio {
      */
     Disco obtenerDiscoAleatorio(String jwtToken);
 
+    /**
+     * Obtiene el disco de la semana, el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el disco de la semana
+     */
+    Disco obtenerDiscoSemana(String jwtToken);
+
     /**
      * Modifica los datos de un disco existente.
      *
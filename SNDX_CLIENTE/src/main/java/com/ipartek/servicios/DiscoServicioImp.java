@@ -3,7 +3,7 @@ package com.ipartek.servicios;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,7 +32,8 @@ import com.ipartek.pojos.ErrorMsg;
 @Service
 public class DiscoServicioImp implements DiscoServicio {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
     private final String URL = "http://localhost:9090/api/discos";
 
     /**
@@ -144,29 +146,46 @@ public class DiscoServicioImp implements DiscoServicio {
     }
 
     /**
-     * {@inheritDoc}
+     * Obtiene un disco aleatorio del sistema.
+     * <p>
+     * La elección la hace la API sobre sus ids, sin descargar la lista completa.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return disco seleccionado aleatoriamente, o null si no hay discos
      */
     @Override
     public Disco obtenerDiscoAleatorio(String jwtToken) {
+        return obtenerDestacado(URL + "/aleatorio", jwtToken);
+    }
+
+    /**
+     * Obtiene el disco de la semana: el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el disco de la semana, o null si no hay discos
+     */
+    @Override
+    public Disco obtenerDiscoSemana(String jwtToken) {
+        return obtenerDestacado(URL + "/semana", jwtToken);
+    }
+
+    /**
+     * Descarga un disco destacado de la API.
+     *
+     * @param url      URL del destacado (aleatorio o de la semana)
+     * @param jwtToken token JWT de autenticación
+     * @return el disco destacado, o null si la API responde 404 porque no hay discos
+     */
+    private Disco obtenerDestacado(String url, String jwtToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(jwtToken);
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Disco[]> response = restTemplate.exchange(
-            URL,
-            HttpMethod.GET,
-            entity,
-            Disco[].class
-        );
-
-        Disco[] disco = response.getBody();
-
-        if (disco == null || disco.length == 0) {
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, entity, Disco.class).getBody();
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
-
-        Random random = new Random();
-        int indice = random.nextInt(disco.length);
-        return disco[indice];
     }
 }
@@ -25,6 +25,17 @@ public interface DiscograficaServicio {
      */
     List<Discografica> obtenerTodasDiscograficas(String jwtToken);
 
+    /**
+     * Obtiene solo el id y el nombre de todas las discográficas, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de discográficas con id y nombre
+     */
+    List<Discografica> obtenerNombresDiscograficas(String jwtToken);
+
     /**
      * Obtiene la discografía de una discográfica concreta.
      *
@@ -51,6 +62,14 @@ public interface DiscograficaServicio {
      */
     Discografica obtenerDiscograficaAleatorio(String jwtToken);
 
+    /**
+     * Obtiene la discográfica de la semana, la misma durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return la discográfica de la semana
+     */
+    Discografica obtenerDiscograficaSemana(String jwtToken);
+
     /**
      * Modifica los datos de una discográfica existente.
      *
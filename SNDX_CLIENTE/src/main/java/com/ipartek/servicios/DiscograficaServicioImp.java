@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,7 +35,8 @@ public class DiscograficaServicioImp implements DiscograficaServicio {
     /**
      * Cliente REST para realizar llamadas HTTP al API externo.
      */
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
 
     /**
      * URL base del endpoint de discográficas.
@@ -65,6 +67,33 @@ public class DiscograficaServicioImp implements DiscograficaServicio {
         return Arrays.asList(discografica);
     }
 
+    /**
+     * Obtiene solo el id y el nombre de todas las discográficas, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de discográficas con id y nombre
+     */
+    @Override
+    public List<Discografica> obtenerNombresDiscograficas(String jwtToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<Discografica[]> response = restTemplate.exchange(
+            URL + "?fields=id,nombre",
+            HttpMethod.GET,
+            entity,
+            Discografica[].class
+        );
+
+        Discografica[] discografica = response.getBody();
+        return Arrays.asList(discografica);
+    }
+
     /**
      * Obtiene una discográfica por su identificador.
      *
@@ -208,31 +237,45 @@ public class DiscograficaServicioImp implements DiscograficaServicio {
 
     /**
      * Obtiene una discográfica aleatoria del sistema.
+     * <p>
+     * La elección la hace la API sobre sus ids, sin descargar la lista completa.
+     * </p>
      *
      * @param jwtToken token JWT de autenticación
      * @return discográfica seleccionada aleatoriamente, o null si no hay discográficas
      */
     @Override
     public Discografica obtenerDiscograficaAleatorio(String jwtToken) {
+        return obtenerDestacado(URL + "/aleatorio", jwtToken);
+    }
+
+    /**
+     * Obtiene la discográfica de la semana: la misma durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return la discográfica de la semana, o null si no hay discográficas
+     */
+    @Override
+    public Discografica obtenerDiscograficaSemana(String jwtToken) {
+        return obtenerDestacado(URL + "/semana", jwtToken);
+    }
+
+    /**
+     * Descarga una discográfica destacada de la API.
+     *
+     * @param url      URL del destacado (aleatorio o de la semana)
+     * @param jwtToken token JWT de autenticación
+     * @return la discográfica destacada, o null si la API responde 404 porque no hay discográficas
+     */
+    private Discografica obtenerDestacado(String url, String jwtToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(jwtToken);
-
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Discografica[]> response = restTemplate.exchange(
-                URL,
-                HttpMethod.GET,
-                entity,
-                Discografica[].class
-        );
-
-        Discografica[] discografica = response.getBody();
-        if (discografica == null || discografica.length == 0) {
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, entity, Discografica.class).getBody();
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
-
-        Random random = new Random();
-        int indice = random.nextInt(discografica.length);
-        return discografica[indice];
     }
 }
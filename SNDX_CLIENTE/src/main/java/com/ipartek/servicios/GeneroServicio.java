@@ -22,6 +22,17 @@ public interface GeneroServicio {
      */
     List<Genero> obtenerTodosGeneros(String jwtToken);
 
+    /**
+     * Obtiene solo el id y el nombre de todos los géneros, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de géneros con id y nombre
+     */
+    List<Genero> obtenerNombresGeneros(String jwtToken);
+
     /**
      * Obtiene todos los discos asociados a un género.
      *
@@ -3,6 +3,7 @@ package com.ipartek.servicios;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -24,7 +25,8 @@ import com.ipartek.pojos.Genero;
 public class GeneroServicioImp implements GeneroServicio {
 
     /** Cliente REST para consumir la API externa */
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
 
     /** URL base de la API de géneros */
     private final String URL = "http://localhost:9090/api/generos";
@@ -51,6 +53,34 @@ public class GeneroServicioImp implements GeneroServicio {
         return generos != null ? Arrays.asList(generos) : new ArrayList<>();
     }
 
+    /**
+     * Obtiene solo el id y el nombre de todos los géneros, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de géneros con id y nombre
+     */
+    @Override
+    public List<Genero> obtenerNombresGeneros(String jwtToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<Genero[]> response = restTemplate.exchange(
+            URL + "?fields=id,nombre",
+            HttpMethod.GET,
+            entity,
+            Genero[].class
+        );
+
+        Genero[] generos = response.getBody();
+
+        return generos != null ? Arrays.asList(generos) : new ArrayList<>();
+    }
+
     /**
      * {@inheritDoc}
      */
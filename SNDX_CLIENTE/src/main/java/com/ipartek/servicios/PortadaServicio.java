@@ -0,0 +1,22 @@
+package com.ipartek.servicios;
+
+import com.ipartek.pojos.Portada;
+
+/**
+ * Interfaz de servicio para obtener los datos de la página principal.
+ * <p>
+ * Sustituye a las llamadas sueltas a los servicios de cada entidad: la API
+ * devuelve los destacados de la semana, sus discografías y los datos de
+ * los desplegables en una sola respuesta.
+ * </p>
+ */
+public interface PortadaServicio {
+
+    /**
+     * Obtiene los datos de la página principal.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return portada con los destacados, sus discografías y los desplegables
+     */
+    Portada obtenerPortada(String jwtToken);
+}
@@ -0,0 +1,51 @@
+package com.ipartek.servicios;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import com.ipartek.pojos.Portada;
+
+/**
+ * Implementación del servicio {@link PortadaServicio}.
+ * <p>
+ * Hace una única petición a /api/portada; la API monta la respuesta con
+ * consultas en paralelo, así que la página principal cuesta una sola ida y
+ * vuelta en vez de una por cada dato.
+ * </p>
+ */
+@Service
+public class PortadaServicioImp implements PortadaServicio {
+
+    /** Cliente REST para consumir la API externa */
+    @Autowired
+    private RestTemplate restTemplate;
+
+    /** URL de la portada en la API */
+    private final String URL = "http://localhost:9090/api/portada";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Portada obtenerPortada(String jwtToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<Portada> response = restTemplate.exchange(
+            URL,
+            HttpMethod.GET,
+            entity,
+            Portada.class
+        );
+
+        Portada portada = response.getBody();
+
+        return portada != null ? portada : new Portada();
+    }
+}
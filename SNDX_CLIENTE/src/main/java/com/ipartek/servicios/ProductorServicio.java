@@ -24,6 +24,17 @@ public interface ProductorServicio {
      */
     List<Productor> obtenerTodosProductores(String jwtToken);
 
+    /**
+     * Obtiene solo el id y el nombre de todos los productores, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de productores con id y nombre
+     */
+    List<Productor> obtenerNombresProductores(String jwtToken);
+
     /**
      * Obtiene la discografía asociada a un productor específico.
      *
@@ -50,6 +61,14 @@ public interface ProductorServicio {
      */
     Productor obtenerProductorAleatorio(String jwtToken);
 
+    /**
+     * Obtiene el productor de la semana, el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el productor de la semana
+     */
+    Productor obtenerProductorSemana(String jwtToken);
+
     /**
      * Modifica los datos de un productor existente.
      *
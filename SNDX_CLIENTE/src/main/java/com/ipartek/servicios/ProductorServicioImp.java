@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -32,7 +32,8 @@ import com.ipartek.pojos.Productor;
 @Service
 public class ProductorServicioImp implements ProductorServicio {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
     private final String URL = "http://localhost:9090/api/productores";
 
     /**
@@ -55,6 +56,29 @@ public class ProductorServicioImp implements ProductorServicio {
         return Arrays.asList(productor);
     }
 
+    /**
+     * Obtiene solo el id y el nombre de todos los productores, para los desplegables.
+     * <p>
+     * Pide {@code ?fields=id,nombre}: el API solo lee esas dos columnas.
+     * </p>
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return lista de productores con id y nombre
+     */
+    @Override
+    public List<Productor> obtenerNombresProductores(String jwtToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<Productor[]> response = restTemplate.exchange(
+            URL + "?fields=id,nombre", HttpMethod.GET, entity, Productor[].class
+        );
+
+        Productor[] productor = response.getBody();
+        return Arrays.asList(productor);
+    }
+
     /**
      * Obtiene un productor por su ID.
      *
@@ -174,25 +198,45 @@ public class ProductorServicioImp implements ProductorServicio {
 
     /**
      * Obtiene un productor aleatorio del sistema.
+     * <p>
+     * La elección la hace la API sobre sus ids, sin descargar la lista completa.
+     * </p>
      *
-     * @param jwtToken Token JWT para autenticación.
-     * @return Productor seleccionado aleatoriamente o {@code null} si no hay productores.
+     * @param jwtToken token JWT de autenticación
+     * @return productor seleccionado aleatoriamente, o null si no hay productores
      */
     @Override
     public Productor obtenerProductorAleatorio(String jwtToken) {
+        return obtenerDestacado(URL + "/aleatorio", jwtToken);
+    }
+
+    /**
+     * Obtiene el productor de la semana: el mismo durante toda la semana ISO.
+     *
+     * @param jwtToken token JWT de autenticación
+     * @return el productor de la semana, o null si no hay productores
+     */
+    @Override
+    public Productor obtenerProductorSemana(String jwtToken) {
+        return obtenerDestacado(URL + "/semana", jwtToken);
+    }
+
+    /**
+     * Descarga un productor destacado de la API.
+     *
+     * @param url      URL del destacado (aleatorio o de la semana)
+     * @param jwtToken token JWT de autenticación
+     * @return el productor destacado, o null si la API responde 404 porque no hay productores
+     */
+    private Productor obtenerDestacado(String url, String jwtToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(jwtToken);
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Productor[]> response = restTemplate.exchange(
-            URL, HttpMethod.GET, entity, Productor[].class
-        );
-
-        Productor[] productor = response.getBody();
-        if (productor == null || productor.length == 0) return null;
-
-        Random random = new Random();
-        int indice = random.nextInt(productor.length);
-        return productor[indice];
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, entity, Productor.class).getBody();
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,115 @@
+package com.ipartek.componente;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Coste por petición de la autenticación JWT del filtro.
+ * <p>
+ * antes: lo que hacía el filtro hasta ahora, isTokenValid y extractClaims
+ * construyendo cada uno la clave HMAC y el parser. parserCompartido: una sola
+ * verificación con el parser de JwtUtil (primera petición de un token).
+ * filtroConCache: el filtro completo con el token ya en TokensVerificados.
+ * </p>
+ * <p>
+ * mvn -Pjmh test-compile exec:exec
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+	private String secreto;
+
+	private String token;
+
+	private JwtUtil jwtUtil;
+
+	private JwtRequestFilter filtro;
+
+	private MockHttpServletRequest peticion;
+
+	@Setup
+	public void preparar() {
+		jwtUtil = new JwtUtil();
+		secreto = (String) ReflectionTestUtils.getField(jwtUtil, "SECRET_KEY");
+		token = Jwts.builder()
+				.setSubject("admin")
+				.claim("rol", "ADMIN")
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+
+		TokensVerificados tokensVerificados = new TokensVerificados();
+		ReflectionTestUtils.setField(tokensVerificados, "jwtUtil", jwtUtil);
+		filtro = new JwtRequestFilter();
+		ReflectionTestUtils.setField(filtro, "tokensVerificados", tokensVerificados);
+
+		peticion = new MockHttpServletRequest("GET", "/api/discos");
+		peticion.addHeader("Authorization", "Bearer " + token);
+	}
+
+	@Benchmark
+	public Object antes() {
+		Claims claims = extraerAntes(token);
+		if (!claims.getExpiration().after(new Date())) {
+			return null;
+		}
+		claims = extraerAntes(token);
+		return new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+				List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("rol", String.class))));
+	}
+
+	@Benchmark
+	public Object parserCompartido() {
+		Claims claims = jwtUtil.verificar(token);
+		return new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+				List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("rol", String.class))));
+	}
+
+	@Benchmark
+	public Object filtroConCache() throws Exception {
+		MockHttpServletResponse respuesta = new MockHttpServletResponse();
+		filtro.doFilter(peticion, respuesta, new MockFilterChain());
+		peticion.removeAttribute(filtro.getClass().getName() + ".FILTERED");
+		SecurityContextHolder.clearContext();
+		return respuesta;
+	}
+
+	private Claims extraerAntes(String token) {
+		return Jwts.parserBuilder()
+				.setSigningKey(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
+}
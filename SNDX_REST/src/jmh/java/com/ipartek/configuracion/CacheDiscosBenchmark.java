@@ -0,0 +1,97 @@
+package com.ipartek.configuracion;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.Cache;
+
+import com.ipartek.componente.GeneracionesCache;
+
+/**
+ * Lecturas concurrentes de discos por id (CacheConfig.DISCO, como
+ * obtenerDiscoPorID con sync = true) mientras se modifican artistas.
+ * <p>
+ * Cada 1000 lecturas de un hilo hay una escritura que afecta a 10 discos.
+ * todo: se vacía la caché entera (allEntries = true). claves: se invalidan
+ * solo esos 10 discos (InvalidacionesCache). Cada fallo cuesta una carga
+ * simulada de unos 20 µs; cargas cuenta los fallos por segundo.
+ * </p>
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.argumentos=CacheDiscosBenchmark
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CacheDiscosBenchmark {
+
+	private static final int DISCOS = 4000;
+	private static final int LECTURAS_POR_ESCRITURA = 1000;
+	private static final int DISCOS_POR_ARTISTA = 10;
+
+	@Param({ "todo", "claves" })
+	public String invalidacion;
+
+	private Cache discos;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Hilo {
+		public long cargas;
+		private int lecturas;
+
+		@Setup(Level.Iteration)
+		public void reiniciar() {
+			cargas = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		discos = new CacheConfig().cacheManager(new GeneracionesCache()).getCache(CacheConfig.DISCO);
+		for (int id = 1; id <= DISCOS; id++) {
+			discos.put(id, "Disco " + id);
+		}
+	}
+
+	@Benchmark
+	public Object leer(Hilo hilo) {
+		ThreadLocalRandom azar = ThreadLocalRandom.current();
+		if (++hilo.lecturas % LECTURAS_POR_ESCRITURA == 0) {
+			if (invalidacion.equals("todo")) {
+				discos.clear();
+			} else {
+				int primero = azar.nextInt(1, DISCOS - DISCOS_POR_ARTISTA);
+				for (int id = primero; id < primero + DISCOS_POR_ARTISTA; id++) {
+					discos.evict(id);
+				}
+			}
+		}
+		int id = azar.nextInt(1, DISCOS + 1);
+		return discos.get(id, () -> {
+			hilo.cargas++;
+			Blackhole.consumeCPU(20_000);
+			return "Disco " + id;
+		});
+	}
+
+}
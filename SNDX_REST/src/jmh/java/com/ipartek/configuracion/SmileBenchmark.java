@@ -0,0 +1,147 @@
+package com.ipartek.configuracion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+
+/**
+ * Coste de serializar y leer el listado completo de discos (GET /api/discos)
+ * en JSON y en Smile, con los ObjectMapper que construye SmileConfig.
+ * <p>
+ * 10.000 discos con sus cuatro relaciones embebidas, repartidos entre 1000
+ * artistas, 20 géneros, 200 productores y 100 discográficas. Los bytes de
+ * cada formato, sin comprimir y con gzip, se escriben al preparar el estado.
+ * </p>
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.argumentos=SmileBenchmark
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmileBenchmark {
+
+	private static final int DISCOS = 10_000;
+
+	@Param({ "json", "smile" })
+	public String formato;
+
+	private ObjectMapper mapper;
+
+	private List<Disco> discos;
+
+	private byte[] cuerpo;
+
+	@Setup
+	public void preparar() throws IOException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		mapper = formato.equals("smile") ? builder.factory(new SmileFactory()).build() : builder.build();
+
+		discos = catalogo();
+		cuerpo = mapper.writeValueAsBytes(discos);
+
+		ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+			gzip.write(cuerpo);
+		}
+		System.out.println(formato + ": " + cuerpo.length + " bytes, " + comprimido.size() + " con gzip");
+	}
+
+	@Benchmark
+	public byte[] serializar() throws IOException {
+		return mapper.writeValueAsBytes(discos);
+	}
+
+	@Benchmark
+	public List<Disco> leer() throws IOException {
+		return mapper.readValue(cuerpo, new TypeReference<List<Disco>>() {
+		});
+	}
+
+	private static List<Disco> catalogo() {
+		List<Artista> artistas = new ArrayList<>();
+		for (int i = 1; i <= 1000; i++) {
+			Artista artista = new Artista();
+			artista.setId(i);
+			artista.setVersion(0L);
+			artista.setNombre("Artista " + i);
+			artista.setFoto("artista" + i + ".png");
+			artista.setEnlaceWikipedia("https://es.wikipedia.org/wiki/Artista_" + i);
+			artistas.add(artista);
+		}
+		List<Genero> generos = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			Genero genero = new Genero();
+			genero.setId(i);
+			genero.setVersion(0L);
+			genero.setNombre("Género " + i);
+			generos.add(genero);
+		}
+		List<Productor> productores = new ArrayList<>();
+		for (int i = 1; i <= 200; i++) {
+			Productor productor = new Productor();
+			productor.setId(i);
+			productor.setVersion(0L);
+			productor.setNombre("Productor " + i);
+			productor.setFoto("productor" + i + ".png");
+			productores.add(productor);
+		}
+		List<Discografica> discograficas = new ArrayList<>();
+		for (int i = 1; i <= 100; i++) {
+			Discografica discografica = new Discografica();
+			discografica.setId(i);
+			discografica.setVersion(0L);
+			discografica.setNombre("Discográfica " + i);
+			discografica.setLogo("logo" + i + ".png");
+			discograficas.add(discografica);
+		}
+
+		List<Disco> discos = new ArrayList<>(DISCOS);
+		for (int i = 1; i <= DISCOS; i++) {
+			Disco disco = new Disco();
+			disco.setId(i);
+			disco.setVersion(0L);
+			disco.setNombre("Disco " + i);
+			disco.setPuntuacion(i % 11);
+			disco.setFecha(Integer.toString(1960 + i % 60));
+			disco.setFoto("disco" + i + ".png");
+			disco.setEnlaceWikipedia("https://es.wikipedia.org/wiki/Disco_" + i);
+			disco.setEnlaceSpotify("https://open.spotify.com/album/" + Integer.toHexString(i * 7919));
+			disco.setArtista(artistas.get(i % artistas.size()));
+			disco.setGenero(generos.get(i % generos.size()));
+			disco.setProductor(productores.get(i % productores.size()));
+			disco.setDiscografica(discograficas.get(i % discograficas.size()));
+			discos.add(disco);
+		}
+		return discos;
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.ipartek.repositorio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ipartek.SndxRestApplication;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.FiltroDiscos;
+import com.ipartek.pojos.ResultadoFiltro;
+import com.ipartek.servicios.DiscoServicio;
+
+/**
+ * Coste de una llamada a /api/discos/filtro (página de resúmenes, recuento y
+ * las seis facetas) sobre una tabla de un millón de discos en H2 en memoria,
+ * con los índices que declara Disco.
+ * <p>
+ * 1000 artistas, 20 géneros, 200 productores y 100 discográficas; fechas de
+ * 1960 a 2019. sinFiltro: solo facetas; genero: un género (5% de la tabla);
+ * generoYPuntuacion: además puntuación mínima 8; anios: 1990 a 1994;
+ * combinado: género, discográfica, puntuación y años. H2 da el orden de
+ * magnitud y la diferencia entre filtros; las cifras de producción son las
+ * de MySQL.
+ * </p>
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.argumentos=FiltroDiscosBenchmark
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FiltroDiscosBenchmark {
+
+	private static final int ARTISTAS = 1000;
+	private static final int GENEROS = 20;
+	private static final int PRODUCTORES = 200;
+	private static final int DISCOGRAFICAS = 100;
+	private static final int DISCOS_POR_LOTE = 10_000;
+
+	@Param({ "1000000" })
+	public int discos;
+
+	@Param({ "sinFiltro", "genero", "generoYPuntuacion", "anios", "combinado" })
+	public String filtro;
+
+	private ConfigurableApplicationContext contexto;
+
+	private DiscoServicio discoServicio;
+
+	private FiltroDiscos consulta;
+
+	@Setup
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(SndxRestApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:filtro_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.jpa.hibernate.ddl-auto=create-drop",
+				"--spring.jpa.show-sql=false",
+				"--spring.jpa.properties.hibernate.generate_statistics=false",
+				"--logging.level.root=WARN");
+		discoServicio = contexto.getBean(DiscoServicio.class);
+
+		for (int i = 1; i <= ARTISTAS; i++) {
+			Artista artista = new Artista();
+			artista.setNombre("Artista " + i);
+			contexto.getBean(ArtistaRepositorio.class).save(artista);
+		}
+		for (int i = 1; i <= GENEROS; i++) {
+			Genero genero = new Genero();
+			genero.setNombre("Género " + i);
+			contexto.getBean(GeneroRepositorio.class).save(genero);
+		}
+		for (int i = 1; i <= PRODUCTORES; i++) {
+			Productor productor = new Productor();
+			productor.setNombre("Productor " + i);
+			contexto.getBean(ProductorRepositorio.class).save(productor);
+		}
+		for (int i = 1; i <= DISCOGRAFICAS; i++) {
+			Discografica discografica = new Discografica();
+			discografica.setNombre("Discográfica " + i);
+			contexto.getBean(DiscograficaRepositorio.class).save(discografica);
+		}
+
+		DiscoLoteRepositorio discoLoteRepo = contexto.getBean(DiscoLoteRepositorio.class);
+		List<Disco> lote = new ArrayList<>(DISCOS_POR_LOTE);
+		for (int i = 1; i <= discos; i++) {
+			lote.add(disco(i));
+			if (lote.size() == DISCOS_POR_LOTE || i == discos) {
+				discoLoteRepo.insertar(lote);
+				lote.clear();
+			}
+		}
+		contexto.getBean(JdbcTemplate.class).execute("ANALYZE");
+
+		consulta = new FiltroDiscos();
+		switch (filtro) {
+		case "genero" -> consulta.setGeneroId(3);
+		case "generoYPuntuacion" -> {
+			consulta.setGeneroId(3);
+			consulta.setPuntuacionMin(8);
+		}
+		case "anios" -> {
+			consulta.setAnioMin(1990);
+			consulta.setAnioMax(1994);
+		}
+		case "combinado" -> {
+			consulta.setGeneroId(3);
+			consulta.setDiscograficaId(23);
+			consulta.setPuntuacionMin(5);
+			consulta.setAnioMin(1970);
+			consulta.setAnioMax(1999);
+		}
+		default -> {
+		}
+		}
+	}
+
+	@TearDown
+	public void cerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public ResultadoFiltro filtrar() {
+		return discoServicio.filtrarDiscos(consulta);
+	}
+
+	// Los ids de las tablas relacionadas empiezan en 1, recién creadas
+	private static Disco disco(int i) {
+		Artista artista = new Artista();
+		artista.setId(1 + i % ARTISTAS);
+		Genero genero = new Genero();
+		genero.setId(1 + i % GENEROS);
+		Productor productor = new Productor();
+		productor.setId(1 + i % PRODUCTORES);
+		Discografica discografica = new Discografica();
+		discografica.setId(1 + (i / 7) % DISCOGRAFICAS);
+
+		Disco disco = new Disco();
+		disco.setNombre("Disco " + i);
+		disco.setPuntuacion(i % 11);
+		disco.setFecha(String.format("%04d-%02d-01", 1960 + (i / 13) % 60, 1 + i % 12));
+		disco.setFoto("default.png");
+		disco.setArtista(artista);
+		disco.setGenero(genero);
+		disco.setProductor(productor);
+		disco.setDiscografica(discografica);
+		return disco;
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.ipartek.servicios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ipartek.SndxRestApplication;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+
+/**
+ * Discos insertados por segundo con POST /api/discos/lote frente a un
+ * POST /api/discos por disco, llamando directamente a DiscoServicio.
+ * <p>
+ * Cada invocación inserta 1000 discos repartidos entre 100 artistas. uno:
+ * insertarDisco para cada uno (una transacción, un INSERT y un ajuste de
+ * nota por disco). lote: una llamada a insertarLote (trozos de 500 filas por
+ * transacción con addBatch). La tabla de discos se vacía en cada iteración.
+ * Sobre H2 en memoria no hay viaje de red, que es justo lo que el lote
+ * ahorra; contra MySQL la diferencia es mayor.
+ * </p>
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.argumentos=InsercionDiscosBenchmark
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercionDiscosBenchmark {
+
+	private static final int DISCOS = 1000;
+	private static final int RELACIONADOS = 100;
+
+	@Param({ "uno", "lote" })
+	public String metodo;
+
+	private ConfigurableApplicationContext contexto;
+
+	private DiscoServicio discoServicio;
+
+	private JdbcTemplate jdbc;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(SndxRestApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:insercion_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.jpa.hibernate.ddl-auto=create-drop",
+				"--spring.jpa.show-sql=false",
+				"--spring.jpa.properties.hibernate.generate_statistics=false",
+				"--logging.level.root=WARN");
+		discoServicio = contexto.getBean(DiscoServicio.class);
+		jdbc = contexto.getBean(JdbcTemplate.class);
+
+		for (int i = 1; i <= RELACIONADOS; i++) {
+			Artista artista = new Artista();
+			artista.setNombre("Artista " + i);
+			contexto.getBean(ArtistaRepositorio.class).save(artista);
+			Genero genero = new Genero();
+			genero.setNombre("Género " + i);
+			contexto.getBean(GeneroRepositorio.class).save(genero);
+			Productor productor = new Productor();
+			productor.setNombre("Productor " + i);
+			contexto.getBean(ProductorRepositorio.class).save(productor);
+			Discografica discografica = new Discografica();
+			discografica.setNombre("Discográfica " + i);
+			contexto.getBean(DiscograficaRepositorio.class).save(discografica);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void vaciar() {
+		jdbc.update("DELETE FROM discos");
+		jdbc.update("UPDATE artistas SET notaMedia = 0, sumaPuntuaciones = 0, numDiscos = 0");
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DISCOS)
+	public Object insertar() {
+		List<Disco> discos = discos();
+		if (metodo.equals("lote")) {
+			return discoServicio.insertarLote(discos);
+		}
+		int insertados = 0;
+		for (Disco disco : discos) {
+			if (discoServicio.insertarDisco(disco)) {
+				insertados++;
+			}
+		}
+		return insertados;
+	}
+
+	// Las relaciones llegan solo con el id, como desde el cliente
+	private static List<Disco> discos() {
+		List<Disco> discos = new ArrayList<>(DISCOS);
+		for (int i = 1; i <= DISCOS; i++) {
+			Artista artista = new Artista();
+			artista.setId(1 + i % RELACIONADOS);
+			Genero genero = new Genero();
+			genero.setId(1 + (i / 3) % RELACIONADOS);
+			Productor productor = new Productor();
+			productor.setId(1 + (i / 7) % RELACIONADOS);
+			Discografica discografica = new Discografica();
+			discografica.setId(1 + (i / 11) % RELACIONADOS);
+
+			Disco disco = new Disco();
+			disco.setNombre("Disco " + i);
+			disco.setPuntuacion(i % 11);
+			disco.setFecha(Integer.toString(1960 + i % 60));
+			disco.setFoto("default.png");
+			disco.setArtista(artista);
+			disco.setGenero(genero);
+			disco.setProductor(productor);
+			disco.setDiscografica(discografica);
+			discos.add(disco);
+		}
+		return discos;
+	}
+
+}
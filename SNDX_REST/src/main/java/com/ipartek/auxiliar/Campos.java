@@ -0,0 +1,56 @@
+package com.ipartek.auxiliar;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Campos y relaciones pedidos en una consulta parcial (?fields= y ?expand=).
+ * <p>
+ * fields lista los atributos que se devuelven, en ese orden; una relación
+ * nombrada en fields sin expandir sale solo con su id, leído de la clave
+ * ajena sin JOIN. expand lista las relaciones que se devuelven completas,
+ * con un LEFT JOIN. Sin fields se devuelven todos los atributos propios.
+ * </p>
+ */
+public class Campos {
+
+	private final Set<String> campos;
+	private final Set<String> expandir;
+
+	private Campos(Set<String> campos, Set<String> expandir) {
+		this.campos = campos;
+		this.expandir = expandir;
+	}
+
+	/** Devuelve null si la petición no pide campos ni relaciones: respuesta completa. */
+	public static Campos leer(String fields, String expand) {
+		if (fields == null && expand == null) {
+			return null;
+		}
+		return new Campos(lista(fields), lista(expand));
+	}
+
+	private static Set<String> lista(String valor) {
+		if (valor == null) {
+			return Collections.emptySet();
+		}
+		Set<String> leidos = new LinkedHashSet<>();
+		for (String nombre : valor.split(",")) {
+			if (!nombre.isBlank()) {
+				leidos.add(nombre.trim());
+			}
+		}
+		return leidos;
+	}
+
+	/** Atributos pedidos; vacío si se piden todos. */
+	public Set<String> getCampos() {
+		return campos;
+	}
+
+	public Set<String> getExpandir() {
+		return expandir;
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.ipartek.auxiliar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV mínimo (RFC 4180 sin saltos de línea dentro de los campos): separador
+ * coma, campos opcionalmente entre comillas dobles y "" como comilla escapada.
+ */
+public class Csv {
+
+	public static List<String> separar(String linea) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreComillas = false;
+
+		for (int i = 0; i < linea.length(); i++) {
+			char c = linea.charAt(i);
+			if (entreComillas) {
+				if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else if (c == '"') {
+					entreComillas = false;
+				} else {
+					campo.append(c);
+				}
+			} else if (c == '"') {
+				entreComillas = true;
+			} else if (c == ',') {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else {
+				campo.append(c);
+			}
+		}
+		if (entreComillas) {
+			throw new IllegalArgumentException("Comillas sin cerrar");
+		}
+		campos.add(campo.toString());
+		return campos;
+	}
+
+	/**
+	 * Valor listo para escribir en un campo CSV: null queda vacío y se
+	 * entrecomilla si contiene comas, comillas o saltos de línea.
+	 */
+	public static String escapar(Object valor) {
+		if (valor == null) {
+			return "";
+		}
+		String texto = valor.toString();
+		if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+			return texto;
+		}
+		return '"' + texto.replace("\"", "\"\"") + '"';
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.ipartek.auxiliar;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Nombres de las versiones reducidas de una imagen del almacén.
+ * <p>
+ * Cada imagen guardada por ImagenServicio (hash.extensión) tiene al lado una
+ * miniatura para las rejillas y una media para las fichas, con el mismo hash
+ * y el tamaño como sufijo: hash-miniatura.jpg, hash-media.jpg. Las PNG se
+ * mantienen en PNG por la transparencia de los logos. Las imágenes antiguas
+ * y default.png no tienen versiones y se devuelven tal cual.
+ * </p>
+ * <p>
+ * Las versiones se generan en segundo plano y no existen si ImageIO no sabe
+ * leer el original: mientras falten, ImagenControladorREST sirve el original
+ * en su lugar, sin immutable.
+ * </p>
+ */
+public class Miniaturas {
+
+	public static final String MINIATURA = "miniatura";
+	public static final String MEDIA = "media";
+
+	// Ancho máximo en píxeles de cada versión
+	public static final int ANCHO_MINIATURA = 240;
+	public static final int ANCHO_MEDIA = 640;
+
+	private static final Pattern DEL_ALMACEN = Pattern.compile("([0-9a-f]{64})(?:\\.([a-z0-9]{1,5}))?");
+
+	private static final Pattern VERSION = Pattern.compile("[0-9a-f]{64}-(?:" + MINIATURA + "|" + MEDIA + ")\\.(?:png|jpg)");
+
+	public static String nombre(String imagen, String tamano) {
+		if (imagen == null) {
+			return null;
+		}
+		Matcher partes = DEL_ALMACEN.matcher(imagen);
+		if (!partes.matches()) {
+			return imagen;
+		}
+		return partes.group(1) + "-" + tamano + "." + formato(imagen);
+	}
+
+	/** Formato de ImageIO de las versiones reducidas: png o jpg. */
+	public static String formato(String imagen) {
+		return imagen.endsWith(".png") ? "png" : "jpg";
+	}
+
+	public static boolean tieneVersiones(String imagen) {
+		return imagen != null && DEL_ALMACEN.matcher(imagen).matches();
+	}
+
+	/** Versión reducida de una imagen del almacén (hash-miniatura.jpg, hash-media.png...). */
+	public static boolean esVersion(String imagen) {
+		return imagen != null && VERSION.matcher(imagen).matches();
+	}
+
+	/** Imagen del almacén o versión suya: el hash del nombre fija el contenido. */
+	public static boolean inmutable(String imagen) {
+		return tieneVersiones(imagen) || esVersion(imagen);
+	}
+
+}
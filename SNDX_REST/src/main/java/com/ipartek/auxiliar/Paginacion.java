@@ -0,0 +1,83 @@
+package com.ipartek.auxiliar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import com.ipartek.pojos.Pagina;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) sobre (nombre, id).
+ * El cursor es opaco para el cliente: base64url de "id:nombre" del último
+ * elemento devuelto, o solo "id" si su nombre es NULL. Los nombres NULL van
+ * al principio del orden ascendente (así ordenan MySQL y H2) y las consultas
+ * de página siguiente los tratan aparte, porque ninguna comparación con
+ * NULL es cierta.
+ */
+public class Paginacion {
+
+	public static final int TAMANO_POR_DEFECTO = 50;
+	public static final int TAMANO_MAXIMO = 200;
+
+	public static int limitarTamano(Integer tamano) {
+		if (tamano == null || tamano <= 0) {
+			return TAMANO_POR_DEFECTO;
+		}
+		return Math.min(tamano, TAMANO_MAXIMO);
+	}
+
+	public static String codificarCursor(String nombre, int id) {
+		String valor = nombre == null ? String.valueOf(id) : id + ":" + nombre;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static Cursor decodificarCursor(String cursor) {
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separador = valor.indexOf(':');
+			if (separador < 0) {
+				return new Cursor(null, Integer.parseInt(valor));
+			}
+			int id = Integer.parseInt(valor.substring(0, separador));
+			return new Cursor(valor.substring(separador + 1), id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Cursor no válido: " + cursor);
+		}
+	}
+
+	/**
+	 * Construye la página a partir de las filas leídas. Se espera que el
+	 * repositorio haya leído tamano + 1 filas para saber si hay más.
+	 */
+	public static <T> Pagina<T> construir(List<T> filas, int tamano, Function<T, String> nombre,
+			ToIntFunction<T> id, Long total) {
+		if (filas.size() <= tamano) {
+			return new Pagina<T>(filas, null, total);
+		}
+
+		List<T> elementos = filas.subList(0, tamano);
+		T ultimo = elementos.get(tamano - 1);
+		return new Pagina<T>(elementos, codificarCursor(nombre.apply(ultimo), id.applyAsInt(ultimo)), total);
+	}
+
+	public static class Cursor {
+		private final String nombre;
+		private final int id;
+
+		public Cursor(String nombre, int id) {
+			this.nombre = nombre;
+			this.id = id;
+		}
+
+		public String getNombre() {
+			return nombre;
+		}
+
+		public int getId() {
+			return id;
+		}
+	}
+
+}
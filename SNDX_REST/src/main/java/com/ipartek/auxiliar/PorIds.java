@@ -0,0 +1,65 @@
+package com.ipartek.auxiliar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import com.ipartek.pojos.ResultadoPorIds;
+
+/**
+ * Utilidades para las consultas por lista de ids (?ids=1,2,3).
+ * <p>
+ * La lista se lee una vez, sin repetidos y con un máximo de elementos, se
+ * resuelve con una sola consulta IN y el resultado se vuelve a poner en el
+ * orden pedido, porque la base de datos no lo respeta.
+ * </p>
+ */
+public class PorIds {
+
+	public static final int MAXIMO = 200;
+
+	public static List<Integer> leer(String ids) {
+		LinkedHashSet<Integer> leidos = new LinkedHashSet<>();
+		for (String id : ids.split(",")) {
+			if (id.isBlank()) {
+				continue;
+			}
+			try {
+				leidos.add(Integer.parseInt(id.trim()));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("ID con formato no valido: " + id.trim());
+			}
+		}
+		if (leidos.isEmpty()) {
+			throw new IllegalArgumentException("La lista de ids está vacía");
+		}
+		if (leidos.size() > MAXIMO) {
+			throw new IllegalArgumentException("Se admiten como máximo " + MAXIMO + " ids");
+		}
+		return new ArrayList<>(leidos);
+	}
+
+	public static <T> ResultadoPorIds<T> ordenar(Collection<Integer> ids, List<T> filas, ToIntFunction<T> id) {
+		Map<Integer, T> porId = new HashMap<>();
+		for (T fila : filas) {
+			porId.put(id.applyAsInt(fila), fila);
+		}
+
+		List<T> encontrados = new ArrayList<>();
+		List<Integer> noEncontrados = new ArrayList<>();
+		for (Integer pedido : ids) {
+			T fila = porId.get(pedido);
+			if (fila != null) {
+				encontrados.add(fila);
+			} else {
+				noEncontrados.add(pedido);
+			}
+		}
+		return new ResultadoPorIds<>(encontrados, noEncontrados);
+	}
+
+}
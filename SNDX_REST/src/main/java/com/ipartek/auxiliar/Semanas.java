@@ -0,0 +1,22 @@
+package com.ipartek.auxiliar;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Semana ISO 8601 (lunes a domingo) como texto "2025-W07", para las claves
+ * de la caché del elegido de la semana y la semilla que lo decide.
+ */
+public class Semanas {
+
+	public static String actual() {
+		return de(LocalDate.now());
+	}
+
+	public static String de(LocalDate fecha) {
+		int anio = fecha.get(IsoFields.WEEK_BASED_YEAR);
+		int semana = fecha.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+		return String.format("%d-W%02d", anio, semana);
+	}
+
+}
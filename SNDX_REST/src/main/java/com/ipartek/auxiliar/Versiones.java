@@ -0,0 +1,24 @@
+package com.ipartek.auxiliar;
+
+import java.util.Objects;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Bloqueo optimista en los PUT: el cliente reenvía la versión que leyó y, si
+ * otro la ha cambiado entretanto, la modificación se rechaza en vez de pisar
+ * el cambio ajeno. Sin versión (clientes antiguos) se acepta sin comprobar.
+ * <p>
+ * Si dos peticiones pasan la comprobación a la vez, el UPDATE ... WHERE
+ * version=? de Hibernate detecta la segunda y lanza la misma excepción.
+ * </p>
+ */
+public class Versiones {
+
+	public static void comprobar(Long actual, Long recibida, Class<?> tipo, Object id) {
+		if (recibida != null && !Objects.equals(actual, recibida)) {
+			throw new ObjectOptimisticLockingFailureException(tipo, id);
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.ipartek.componente;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.ipartek.configuracion.SmileConfig;
+
+/**
+ * Contador de cambios por caché de servicio, para construir ETags sin leer
+ * la base de datos ni serializar la respuesta.
+ * <p>
+ * Cada vez que una escritura invalida una caché (CacheConfig) se apunta una
+ * generación nueva: si la vacía entera, para toda la caché; si invalida una
+ * clave, solo para esa clave. Así el ETag de un listado o de un elemento
+ * cambia exactamente cuando cambia lo que se cachea, incluidos los datos
+ * embebidos (la nota media de un artista cambia con sus discos).
+ * </p>
+ * <p>
+ * Las generaciones por clave se guardan para las CLAVES_POR_CACHE claves más
+ * usadas de cada caché. Al descartar una se sube el suelo de esa caché al
+ * valor descartado, y toda clave sin generación propia toma el suelo: el ETag
+ * de una clave nunca vuelve a un valor anterior (a lo sumo cambia sin que
+ * cambie el dato, y el cliente la vuelve a descargar una vez).
+ * </p>
+ * <p>
+ * Un ETag nuevo no sale con datos antiguos: la invalidación ocurre después
+ * del commit, y las cachés con ETag son @Cacheable(sync = true), así que el
+ * valor se carga dentro del compute atómico de Caffeine. Un evict sobre una
+ * clave que se está cargando espera a que termine la carga y después la
+ * descarta, de modo que una lectura que empezó antes del commit no deja el
+ * dato antiguo en la caché bajo la generación nueva. El instante de arranque
+ * forma parte del ETag: tras reiniciar, los ETags anteriores dejan de
+ * coincidir.
+ * </p>
+ */
+@Component
+public class GeneracionesCache {
+
+	// El doble de ELEMENTOS_POR_ID de CacheConfig
+	static final int CLAVES_POR_CACHE = 10_000;
+
+	private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong secuencia = new AtomicLong();
+	private final ConcurrentHashMap<String, Long> vaciadas = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Claves> invalidadas = new ConcurrentHashMap<>();
+
+	/** Generaciones de las claves de una caché y suelo para las descartadas. */
+	private static class Claves {
+
+		private final AtomicLong suelo = new AtomicLong();
+
+		// El listener de descarte se ejecuta dentro de la operación atómica que
+		// quita la entrada: el suelo ya está subido cuando la clave deja de verse
+		private final Cache<Object, Long> generaciones = Caffeine.newBuilder()
+				.maximumSize(CLAVES_POR_CACHE)
+				.executor(Runnable::run)
+				.evictionListener((Object clave, Long generacion, RemovalCause causa) -> {
+					if (generacion != null) {
+						suelo.accumulateAndGet(generacion, Math::max);
+					}
+				})
+				.build();
+
+		long generacion(Object clave) {
+			Long generacion = generaciones.getIfPresent(clave);
+			return generacion != null ? generacion : suelo.get();
+		}
+	}
+
+	public void vaciada(String cache) {
+		vaciadas.put(cache, secuencia.incrementAndGet());
+	}
+
+	public void invalidada(String cache, Object clave) {
+		invalidadas.computeIfAbsent(cache, c -> new Claves()).generaciones.put(clave, secuencia.incrementAndGet());
+	}
+
+	/** ETag fuerte de todo el contenido de una caché (un listado). */
+	public String etag(String cache) {
+		return "\"" + cache + "-" + arranque + "-" + vaciadas.getOrDefault(cache, 0L) + "\"";
+	}
+
+	/** ETag fuerte de un elemento de una caché (un obtener*PorID). */
+	public String etag(String cache, Object clave) {
+		Claves claves = invalidadas.get(cache);
+		long generacion = claves != null ? claves.generacion(clave) : 0L;
+		return "\"" + cache + "-" + arranque + "-" + vaciadas.getOrDefault(cache, 0L) + "." + generacion + "\"";
+	}
+
+	/**
+	 * ETag de la representación que se negocia con el Accept: JSON y Smile son
+	 * bytes distintos y no pueden compartir un ETag fuerte. Se responde en
+	 * Smile si el tipo preferido del Accept (por calidad y luego por
+	 * especificidad, como en la negociación de Spring) que admite JSON o Smile
+	 * es el de Smile; con un comodín gana JSON, que va delante (SmileConfig).
+	 */
+	public static String conFormato(String etag, String accept) {
+		if (accept == null) {
+			return etag;
+		}
+		List<MediaType> tipos;
+		try {
+			tipos = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return etag;
+		}
+		MimeTypeUtils.sortBySpecificity(tipos);
+		for (MediaType tipo : tipos) {
+			if (tipo.includes(MediaType.APPLICATION_JSON)) {
+				return etag;
+			}
+			if (tipo.includes(SmileConfig.SMILE)) {
+				return etag.substring(0, etag.length() - 1) + "-smile\"";
+			}
+		}
+		return etag;
+	}
+
+	/**
+	 * Comprueba un If-None-Match (lista de ETags separados por comas o *)
+	 * contra el ETag actual, con la comparación débil que pide HTTP para GET.
+	 */
+	public static boolean coincide(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidato : ifNoneMatch.split(",")) {
+			candidato = candidato.trim();
+			if (candidato.equals("*") || candidato.replaceFirst("^W/", "").equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
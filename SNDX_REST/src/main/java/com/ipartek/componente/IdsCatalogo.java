@@ -0,0 +1,51 @@
+package com.ipartek.componente;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+import com.ipartek.servicios.DestacadoServicio;
+
+/**
+ * Claves de cada tabla del catálogo en un int[], para elegir elementos al
+ * azar sin cargar la tabla.
+ * <p>
+ * La consulta solo lee la clave primaria (se resuelve con el índice) y el
+ * array queda en la caché CacheConfig.IDS: cada elección es un acceso por
+ * posición en memoria. Las altas y bajas de los servicios invalidan la
+ * entrada de su entidad.
+ * </p>
+ */
+@Component
+public class IdsCatalogo {
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+
+	@Cacheable(value = CacheConfig.IDS, key = "#entidad", sync = true)
+	public int[] ids(String entidad) {
+		List<Integer> ids = switch (entidad) {
+			case DestacadoServicio.DISCOS -> discoRepo.buscarTodosLosIds();
+			case DestacadoServicio.ARTISTAS -> artistaRepo.buscarTodosLosIds();
+			case DestacadoServicio.PRODUCTORES -> productorRepo.buscarTodosLosIds();
+			case DestacadoServicio.DISCOGRAFICAS -> discograficaRepo.buscarTodosLosIds();
+			default -> throw new IllegalArgumentException("Entidad no válida: " + entidad);
+		};
+		return ids.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.ipartek.componente;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidación de claves concretas de las cachés de servicio que no se
+ * conocen en los argumentos del método, y por tanto no caben en un
+ * @CacheEvict: el artista anterior de un disco modificado o los discos que
+ * embeben un artista, género, productor o discográfica.
+ * <p>
+ * Igual que el aspecto de caché, invalida después del commit (o en el
+ * momento si no hay transacción), para que ninguna petición concurrente
+ * vuelva a cachear el dato anterior. Cada clave invalidada cambia su ETag
+ * en GeneracionesCache; el resto de la caché no se toca.
+ * </p>
+ */
+@Component
+public class InvalidacionesCache {
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	public void invalidar(String cache, Collection<Integer> ids) {
+		// Sin relación el id es 0 (o null): no hay nada que invalidar
+		Set<Integer> claves = new LinkedHashSet<>();
+		for (Integer id : ids) {
+			if (id != null && id != 0) {
+				claves.add(id);
+			}
+		}
+		if (claves.isEmpty()) {
+			return;
+		}
+
+		Runnable invalidacion = () -> {
+			Cache destino = cacheManager.getCache(cache);
+			if (destino != null) {
+				claves.forEach(destino::evict);
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidacion.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				invalidacion.run();
+			}
+		});
+	}
+
+}
@@ -1,17 +1,13 @@
 package com.ipartek.componente;
 
 import java.io.IOException;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,7 +18,7 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private TokensVerificados tokensVerificados;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -43,31 +39,28 @@ public class JwtRequestFilter extends OncePerRequestFilter {
        }
        //Fin de ignorar swagger
 
+       //Las imágenes son públicas: los navegadores no mandan el token en <img>
+       if (path.startsWith("/api/imagenes/") && "GET".equals(request.getMethod())) {
+           chain.doFilter(request, response);
+           return;
+       }
+
         final String authHeader = request.getHeader("Authorization");
-        System.out.println("Authorization header: " + authHeader);
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            System.out.println("Token recibido: " + token);
-
-            if (jwtUtil.isTokenValid(token)) {
-                Claims claims = jwtUtil.extractClaims(token);
-                String username = claims.getSubject();
-                String rol = claims.get("rol", String.class);
-                System.out.println("Token válido para usuario: " + username + ", rol: " + rol);
 
-                List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + rol));
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+            // Firma y caducidad se comprueban una vez por token; las peticiones
+            // siguientes con el mismo token salen de la caché
+            UsernamePasswordAuthenticationToken auth = tokensVerificados.autenticar(token);
 
+            if (auth != null) {
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } else {
-            	System.out.println("Token inválido o expirado.");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
         } else {
-        	System.out.println("No se encontró cabecera Authorization o no comienza con Bearer");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -11,22 +12,31 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtil {
 	 private final String SECRET_KEY = "Lamayorpartedeloshombresnoquierennadarantesdesaber¿noesestoespiritual?ynoquierennadar,naturalmente!Hannacidoparalatierra,noparaelaguay,naturalmente,noquierenpensar,comoquehansidocreadosparalavidanoparapensar.Claroyelquepiensa,elquehacedelpensarloprincipalesepodráacasollegarmuylejosenesto,peroeseprecisamentehaconfundidoelaguaconlatierra,ytardeotempranoseahogara.";
 
+	 // La clave HMAC y el parser se construyen una vez: el parser es inmutable
+	 // y se puede usar desde varios hilos
+	 private final JwtParser parser = Jwts.parserBuilder()
+	                   .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+	                   .build();
+
 
 	 public Claims extractClaims(String token) {
-	        return Jwts.parserBuilder()
-	                   .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
-	                   .build()
-	                   .parseClaimsJws(token)
-	                   .getBody();
+	        return parser.parseClaimsJws(token).getBody();
 	    }
 
 	    public boolean isTokenValid(String token) {
+	        return verificar(token) != null;
+	    }
+
+	    /**
+	     * Comprueba firma y caducidad con una sola lectura del token.
+	     * Devuelve null si no es válido, ha caducado o no lleva caducidad.
+	     */
+	    public Claims verificar(String token) {
 	        try {
-	        	System.out.println("################################################3");
 	            Claims claims = extractClaims(token);
-	            return claims.getExpiration().after(new Date());
+	            return claims.getExpiration().after(new Date()) ? claims : null;
 	        } catch (Exception e) {
-	            return false;
+	            return null;
 	        }
 	    }
 }
@@ -0,0 +1,41 @@
+package com.ipartek.componente;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import com.ipartek.repositorio.ArtistaRepositorio;
+
+/**
+ * Reconstruye al arrancar la nota media de todos los artistas a partir de la
+ * puntuación de sus discos con un único UPDATE agregado, si hace falta.
+ * <p>
+ * Al desplegar sobre una base de datos existente, ddl-auto=update añade
+ * sumaPuntuaciones y numDiscos a 0, y el primer disco que se escribiera
+ * dejaría como nota la de ese disco. Por eso se comprueba en cada arranque
+ * si hay artistas con discos y sin agregados; a partir de la primera
+ * reconstrucción DiscoServicioImp los mantiene al día y no se repite.
+ * </p>
+ */
+@Component
+public class RecalculoNotaMedia implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(RecalculoNotaMedia.class);
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Override
+	@Transactional
+	public void run(ApplicationArguments args) {
+		if (artistaRepo.contarSinAgregados() == 0) {
+			return;
+		}
+		int artistas = artistaRepo.recalcularAgregados();
+		log.info("Nota media recalculada para {} artistas", artistas);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.ipartek.componente;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Caché de tokens JWT ya verificados, para no repetir la comprobación de la
+ * firma HMAC en cada petición de la misma sesión.
+ * <p>
+ * La clave es el SHA-256 del token (no se guarda el token en claro) y el
+ * valor el usuario y sus roles. Cada entrada caduca a la vez que su token
+ * (exp), así que un token caducado nunca se acepta desde la caché. Los
+ * tokens no válidos no se guardan.
+ * </p>
+ */
+@Component
+public class TokensVerificados {
+
+	private static final int MAXIMO = 10_000;
+
+	private record Verificado(String usuario, List<GrantedAuthority> roles, long caduca) {
+	}
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private final Cache<String, Verificado> verificados = Caffeine.newBuilder()
+			.maximumSize(MAXIMO)
+			.expireAfter(new Expiry<String, Verificado>() {
+				@Override
+				public long expireAfterCreate(String clave, Verificado verificado, long ahora) {
+					return TimeUnit.MILLISECONDS.toNanos(Math.max(0, verificado.caduca() - System.currentTimeMillis()));
+				}
+
+				@Override
+				public long expireAfterUpdate(String clave, Verificado verificado, long ahora, long restante) {
+					return restante;
+				}
+
+				@Override
+				public long expireAfterRead(String clave, Verificado verificado, long ahora, long restante) {
+					return restante;
+				}
+			})
+			.build();
+
+	/** Autenticación del token, o null si no es válido o ha caducado. */
+	public UsernamePasswordAuthenticationToken autenticar(String token) {
+		String clave = resumen(token);
+		Verificado verificado = verificados.getIfPresent(clave);
+
+		if (verificado == null) {
+			Claims claims = jwtUtil.verificar(token);
+			if (claims == null) {
+				return null;
+			}
+			verificado = new Verificado(claims.getSubject(),
+					List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("rol", String.class))),
+					claims.getExpiration().getTime());
+			verificados.put(clave, verificado);
+		}
+		return new UsernamePasswordAuthenticationToken(verificado.usuario(), null, verificado.roles());
+	}
+
+	private static String resumen(String token) {
+		try {
+			byte[] sha = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(sha);
+		} catch (NoSuchAlgorithmException e) {
+			// Todas las JVM traen SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.ipartek.configuracion;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ipartek.componente.GeneracionesCache;
+
+/**
+ * Cachés de los servicios (@Cacheable), en memoria con Caffeine.
+ * <p>
+ * Cada caché tiene un tamaño máximo y una caducidad: los listados completos
+ * guardan una sola entrada y las búsquedas por id hasta unos miles. La
+ * caducidad solo cubre cambios hechos fuera de los servicios (la base de
+ * datos a mano); los servicios invalidan al insertar, modificar y borrar.
+ * Una entrada caducada apunta una generación nueva igual que una invalidada,
+ * para que su ETag cambie con ella, y el planificador la hace caducar a su
+ * hora aunque nadie la vuelva a leer.
+ * </p>
+ * <p>
+ * El aspecto de caché va por fuera del transaccional para que la
+ * invalidación ocurra después del commit y ninguna petición concurrente
+ * vuelva a cachear el dato antiguo.
+ * </p>
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+	// Estadísticas del catálogo; se invalida con cualquier escritura
+	public static final String ESTADISTICAS = "estadisticas";
+
+	// Listados completos (obtenerTodos*)
+	public static final String DISCOS = "discos";
+	public static final String ARTISTAS = "artistas";
+	public static final String GENEROS = "generos";
+	public static final String PRODUCTORES = "productores";
+	public static final String DISCOGRAFICAS = "discograficas";
+
+	// Elementos por id (obtener*PorID)
+	public static final String DISCO = "disco";
+	public static final String ARTISTA = "artista";
+	public static final String GENERO = "genero";
+	public static final String PRODUCTOR = "productor";
+	public static final String DISCOGRAFICA = "discografica";
+
+	// Claves de cada tabla en un array (por entidad) y elegido de la semana
+	// (por entidad y semana ISO), para DestacadoServicio
+	public static final String IDS = "ids";
+	public static final String SEMANA = "semana";
+
+	private static final Duration CADUCIDAD = Duration.ofMinutes(10);
+	private static final int ELEMENTOS_POR_ID = 5000;
+	private static final int ENTIDADES_DESTACADAS = 4;
+
+	// Reloj de la caducidad (los tests lo sustituyen para adelantar el tiempo)
+	private Ticker reloj = Ticker.systemTicker();
+
+	@Bean
+	public CacheManager cacheManager(GeneracionesCache generaciones) {
+		// Cada invalidación se apunta en GeneracionesCache para los ETags
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+			@Override
+			protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+				return limitada(100, clave -> generaciones.invalidada(name, clave)).build();
+			}
+
+			@Override
+			protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+				return new CacheConGeneraciones(name, cache, isAllowNullValues(), generaciones);
+			}
+		};
+
+		cacheManager.registerCustomCache(ESTADISTICAS, limitada(1, clave -> generaciones.vaciada(ESTADISTICAS)).build());
+
+		for (String listado : new String[] { DISCOS, ARTISTAS, GENEROS, PRODUCTORES, DISCOGRAFICAS }) {
+			cacheManager.registerCustomCache(listado, limitada(1, clave -> generaciones.vaciada(listado)).build());
+		}
+		for (String porId : new String[] { DISCO, ARTISTA, GENERO, PRODUCTOR, DISCOGRAFICA }) {
+			cacheManager.registerCustomCache(porId,
+					limitada(ELEMENTOS_POR_ID, clave -> generaciones.invalidada(porId, clave)).build());
+		}
+		cacheManager.registerCustomCache(IDS,
+				limitada(ENTIDADES_DESTACADAS, clave -> generaciones.invalidada(IDS, clave)).build());
+		// El elegido de la semana no caduca por tiempo: la semana va en la
+		// clave y las entradas de semanas pasadas salen por tamaño
+		cacheManager.registerCustomCache(SEMANA, Caffeine.newBuilder()
+				.maximumSize(ENTIDADES_DESTACADAS * 2)
+				.recordStats()
+				.build());
+		return cacheManager;
+	}
+
+	// alCaducar apunta la generación nueva de la clave caducada (o de toda la
+	// caché en los listados); el listener de descarte se ejecuta dentro de la
+	// operación que quita la entrada
+	private Caffeine<Object, Object> limitada(int maximo, Consumer<Object> alCaducar) {
+		return Caffeine.newBuilder()
+				.maximumSize(maximo)
+				.expireAfterWrite(CADUCIDAD)
+				.scheduler(Scheduler.systemScheduler())
+				.ticker(reloj)
+				.evictionListener((Object clave, Object valor, RemovalCause causa) -> {
+					if (causa == RemovalCause.EXPIRED) {
+						alCaducar.accept(clave);
+					}
+				})
+				.recordStats();
+	}
+
+	private static class CacheConGeneraciones extends CaffeineCache {
+
+		private final GeneracionesCache generaciones;
+
+		CacheConGeneraciones(String name, Cache<Object, Object> cache, boolean allowNullValues,
+				GeneracionesCache generaciones) {
+			super(name, cache, allowNullValues);
+			this.generaciones = generaciones;
+		}
+
+		@Override
+		public void evict(Object key) {
+			super.evict(key);
+			generaciones.invalidada(getName(), key);
+		}
+
+		@Override
+		public boolean evictIfPresent(Object key) {
+			boolean presente = super.evictIfPresent(key);
+			generaciones.invalidada(getName(), key);
+			return presente;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			generaciones.vaciada(getName());
+		}
+
+		@Override
+		public boolean invalidate() {
+			boolean habia = super.invalidate();
+			generaciones.vaciada(getName());
+			return habia;
+		}
+	}
+
+}
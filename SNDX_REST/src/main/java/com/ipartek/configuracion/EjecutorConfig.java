@@ -0,0 +1,58 @@
+package com.ipartek.configuracion;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Hilos propios para las tareas que se lanzan en paralelo o en segundo plano.
+ * <p>
+ * El pool de la portada es acotado: con la cola llena la subconsulta se
+ * ejecuta en el hilo de la petición (CallerRunsPolicy), de modo que la
+ * portada se ralentiza en vez de fallar. Son pocos hilos porque cada
+ * subconsulta ocupa una conexión del pool de Hikari mientras dura.
+ * </p>
+ * <p>
+ * Las miniaturas de las imágenes subidas usan otro pool, aún más pequeño
+ * porque escalar una imagen es CPU y memoria; con su cola llena la subida
+ * genera las miniaturas en su propio hilo y así frena al que sube.
+ * </p>
+ */
+@Configuration
+public class EjecutorConfig {
+
+	public static final String PORTADA = "ejecutorPortada";
+
+	private static final int HILOS_PORTADA = 4;
+	private static final int COLA_PORTADA = 100;
+
+	public static final String MINIATURAS = "ejecutorMiniaturas";
+
+	private static final int HILOS_MINIATURAS = 2;
+	private static final int COLA_MINIATURAS = 20;
+
+	@Bean(name = PORTADA)
+	public ThreadPoolTaskExecutor ejecutorPortada() {
+		ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+		ejecutor.setCorePoolSize(HILOS_PORTADA);
+		ejecutor.setMaxPoolSize(HILOS_PORTADA);
+		ejecutor.setQueueCapacity(COLA_PORTADA);
+		ejecutor.setThreadNamePrefix("portada-");
+		ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return ejecutor;
+	}
+
+	@Bean(name = MINIATURAS)
+	public ThreadPoolTaskExecutor ejecutorMiniaturas() {
+		ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+		ejecutor.setCorePoolSize(HILOS_MINIATURAS);
+		ejecutor.setMaxPoolSize(HILOS_MINIATURAS);
+		ejecutor.setQueueCapacity(COLA_MINIATURAS);
+		ejecutor.setThreadNamePrefix("miniaturas-");
+		ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return ejecutor;
+	}
+
+}
@@ -12,6 +12,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.ipartek.componente.JwtRequestFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -26,9 +28,15 @@ public class SecurityConfig {
 	            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 	            .authorizeHttpRequests(auth -> auth
 	            		
+	                    // El despacho ASYNC que cierra una respuesta en streaming
+	                    // (exportaciones) no vuelve a traer el token: la petición
+	                    // original ya se autorizó
+	                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
 	                    // ======= DISCO =======
 	                    .requestMatchers(HttpMethod.GET, "/api/discos/**").hasAnyRole("ADMIN", "BOSS", "USER")
 	                    .requestMatchers(HttpMethod.POST, "/api/discos").hasAnyRole("ADMIN", "BOSS", "USER")
+	                    .requestMatchers(HttpMethod.POST, "/api/discos/lote").hasAnyRole("ADMIN", "BOSS")
 	                    .requestMatchers(HttpMethod.PUT, "/api/discos").hasAnyRole("ADMIN", "BOSS")
 	                    .requestMatchers(HttpMethod.DELETE, "/api/discos/**").hasRole("ADMIN")
 
@@ -50,6 +58,28 @@ public class SecurityConfig {
 	                    .requestMatchers(HttpMethod.PUT, "/api/artistas").hasAnyRole("ADMIN", "BOSS")
 	                    .requestMatchers(HttpMethod.DELETE, "/api/artistas/**").hasRole("ADMIN")
 
+	                    // ======= PORTADA =======
+	                    .requestMatchers(HttpMethod.GET, "/api/portada").hasAnyRole("ADMIN", "BOSS", "USER")
+
+	                    // ======= BUSQUEDA =======
+	                    .requestMatchers(HttpMethod.GET, "/api/buscar/**").hasAnyRole("ADMIN", "BOSS", "USER")
+
+	                    // ======= ESTADISTICAS =======
+	                    .requestMatchers(HttpMethod.GET, "/api/estadisticas/**").hasAnyRole("ADMIN", "BOSS")
+
+	                    // ======= IMPORTACION =======
+	                    .requestMatchers(HttpMethod.POST, "/api/importar/**").hasRole("ADMIN")
+
+	                    // ======= EXPORTACION =======
+	                    .requestMatchers(HttpMethod.GET, "/api/exportar/**").hasRole("ADMIN")
+
+	                    // ======= SUBIDAS =======
+	                    .requestMatchers("/api/subidas", "/api/subidas/**").hasAnyRole("ADMIN", "BOSS", "USER")
+
+	                    // ======= IMAGENES =======
+	                    // Las piden los navegadores desde <img>, sin token
+	                    .requestMatchers(HttpMethod.GET, "/api/imagenes/**").permitAll()
+
 	                    // ======= SWAGGER =======
 	                    .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
 
@@ -0,0 +1,37 @@
+package com.ipartek.configuracion;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile (JSON binario de Jackson) como formato alternativo a JSON.
+ * <p>
+ * Los controladores responden en Smile cuando el cliente lo pide en Accept
+ * (application/x-jackson-smile) y aceptan cuerpos con ese Content-Type. Sin
+ * Accept, con uno genérico o con application/json se sigue respondiendo en
+ * JSON, porque el conversor va detrás del de JSON. Las respuestas en Smile
+ * llevan su propio ETag (GeneracionesCache.conFormato).
+ * </p>
+ * <p>
+ * Se construye con el Jackson2ObjectMapperBuilder de Spring Boot para que
+ * tenga la misma configuración y módulos que el ObjectMapper de JSON.
+ * </p>
+ */
+@Configuration
+public class SmileConfig {
+
+	public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+	public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
+}
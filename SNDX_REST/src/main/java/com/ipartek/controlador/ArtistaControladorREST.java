@@ -2,26 +2,41 @@ package com.ipartek.controlador;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.ipartek.auxiliar.Auxiliar;
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.auxiliar.PorIds;
 import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.ArtistaResumen;
 import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.pojos.DiscografiaArtista;
+import com.ipartek.servicios.DestacadoServicio;
+import com.ipartek.servicios.ConsultaCamposServicio;
 import com.ipartek.servicios.ArtistaServicio;
+import com.ipartek.servicios.ImagenServicio;
+import com.ipartek.servicios.SubidaServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,36 +50,157 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Artistas", description = "Operaciones relacionadas con los artistas")
 public class ArtistaControladorREST {
 	
-	@Value("${ruta.imagenes.artistas}") // Inyecta la ruta de imágenes desde application.properties
-	String rutaFotos;
-	
 	@Autowired
 	private ArtistaServicio artistaServicio;
+
+	@Autowired
+	private GeneracionesCache generaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@Autowired
+	private ConsultaCamposServicio consultaCamposServicio;
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
 	
 	@GetMapping("")
 	@Operation(summary = "Obtener todos los artistas")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Artistas obtenidos", 
 			content = @Content(array = @ArraySchema(schema = @Schema(implementation = Artista.class)))), 
 		@ApiResponse(responseCode = "404", description = "Artista está vacío",
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "400", description = "Campo o relación desconocidos en fields o expand",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerTodosArtistas() {
+	public ResponseEntity<Object> obtenerTodosArtistas(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
+		// El ETag sale del contador de invalidaciones de la caché: un 304 no
+		// consulta la base de datos ni serializa nada
+		String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.ARTISTAS), accept);
+		if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+		}
+
+		Campos campos = Campos.leer(fields, expand);
+		if (campos != null) {
+			return parcial(etag, () -> consultaCamposServicio.obtenerTodos(Artista.class, campos));
+		}
 		
 		List<Artista> artista = artistaServicio.obtenerTodosArtistas();
 
 		if (artista.size()!=0) {//200
-			return ResponseEntity.ok().body(artista);
+			return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(artista);
 		}
 		else {//404
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el artista"));
 		}
 	}
 
+	@GetMapping(value = "", params = "ids")
+	@Operation(summary = "Obtener varios artistas por id (?ids=1,2,3) en una sola consulta")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Encontrados en el orden pedido e ids que no existen", 
+			content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+		@ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerArtistasPorIds(@RequestParam String ids) {
+		try {
+			ResultadoPorIds<Artista> resultado = artistaServicio.obtenerArtistasPorIds(PorIds.leer(ids));
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/discografias")
+	@Operation(summary = "Obtener las discografías de varios artistas (?ids=1,2,3) en una sola consulta")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Discografías en el orden pedido e ids de artistas que no existen", 
+			content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+		@ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscografiasPorArtistas(@RequestParam String ids) {
+		try {
+			ResultadoPorIds<DiscografiaArtista> resultado = artistaServicio.obtenerDiscografiasPorArtistas(PorIds.leer(ids));
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/pagina")
+	@Operation(summary = "Obtener los artistas paginados por cursor (ordenados por nombre)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de artistas obtenida", 
+			content = @Content(schema = @Schema(implementation = Pagina.class))), 
+		@ApiResponse(responseCode = "400", description = "Cursor no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerPaginaArtistas(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamano,
+			@RequestParam(defaultValue = "false") boolean total) {
+		try {
+			Pagina<ArtistaResumen> pagina = artistaServicio.obtenerPaginaArtistas(cursor, tamano, total);
+			return ResponseEntity.ok().body(pagina);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	
+	@GetMapping("/aleatorio")
+	@Operation(summary = "Obtener un artista al azar")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Artista obtenido", 
+			content = @Content(schema = @Schema(implementation =  Artista.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay artistas",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerArtistaAleatorio() {
+		// Se elige sobre el array de ids cacheado, sin leer la tabla
+		return destacado(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.ARTISTAS));
+	}
+	
+	@GetMapping("/semana")
+	@Operation(summary = "Obtener el artista de la semana (el mismo durante toda la semana ISO)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "El artista de la semana", 
+			content = @Content(schema = @Schema(implementation =  Artista.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay artistas",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerArtistaSemana() {
+		return destacado(destacadoServicio.obtenerIdSemana(DestacadoServicio.ARTISTAS));
+	}
+	
+	private ResponseEntity<Object> destacado(Integer id) {
+		// El elemento sale de la caché de obtenerArtistaPorID
+		Artista artista = id != null ? artistaServicio.obtenerArtistaPorID(id) : null;
+		
+		if (artista != null && artista.getId()!=0) {//200
+			return ResponseEntity.ok().body(artista);
+		}
+		else {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No hay artistas"));
+		}
+	}
+	
 	
 	@GetMapping("/{id}")
 	@Operation(summary = "Obtener un artista por su id en la barra de direcciones")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Artista obtenido", 
 			content = @Content(schema = @Schema(implementation =  Artista.class))), 
 		@ApiResponse(responseCode = "404", description = "Artista NO obtenido", 
@@ -72,14 +208,26 @@ public class ArtistaControladorREST {
 		@ApiResponse(responseCode = "400", description = "Parametro mal puesto", 
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerArtistaPorId(@PathVariable String id) {
+	public ResponseEntity<Object> obtenerArtistaPorId(@PathVariable String id, @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.ARTISTA, idTemp), accept);
+			if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+			}
+
+			Campos campos = Campos.leer(fields, expand);
+			if (campos != null) {
+				return parcial(etag, () -> consultaCamposServicio.obtenerPorId(Artista.class, idTemp, campos));
+			}
 			
 			Artista artista = artistaServicio.obtenerArtistaPorID(idTemp);
 			
 			if (artista.getId()!=0) {//200
-				return ResponseEntity.ok().body(artista);
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(artista);
 			}
 			else {//404
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el artista"));
@@ -127,22 +275,35 @@ public class ArtistaControladorREST {
 	@Operation(summary = "Insertar un artista")
 	@ApiResponses({
 	    @ApiResponse(responseCode = "200", description = "Artista guardado"), 
+	    @ApiResponse(responseCode = "400", description = "Subida no encontrada o sin completar"),
 	    @ApiResponse(responseCode = "500", description = "Artista NO guardado")
 	})
 	public ResponseEntity<ErrorMsg> insertarArtista(
 	        @RequestPart("artista") Artista artista,
-	        @RequestPart(name = "foto2", required = false) MultipartFile archivo) {
+	        @RequestPart(name = "foto2", required = false) MultipartFile archivo,
+	        @RequestParam(name = "subida", required = false) String subida) {
 
+	    // Imagen guardada en esta petición: si no se inserta, por el motivo
+	    // que sea, se suelta su referencia
+	    String imagen = null;
+	    boolean insertado = false;
 	    try {
 	        // Guardar la imagen si se ha enviado
-	        if (archivo != null && !archivo.isEmpty()) {
-	            String nombreArchivo = Auxiliar.guardarImagen(archivo, rutaFotos);
-	            artista.setFoto(nombreArchivo);
+	        if (subida != null) {
+	            // Imagen ya subida por trozos (/api/subidas)
+	            imagen = subidaServicio.adjuntar(subida, ImagenServicio.ARTISTAS);
+	            if (imagen == null) {
+	                return ResponseEntity.badRequest().body(new ErrorMsg(1, "Subida no encontrada, sin completar o de otra carpeta"));
+	            }
+	            artista.setFoto(imagen);
+	        } else if (archivo != null && !archivo.isEmpty()) {
+	            imagen = imagenServicio.guardar(archivo, ImagenServicio.ARTISTAS);
+	            artista.setFoto(imagen);
 	        } else {
 	            artista.setFoto("default.png");
 	        }
 
-	        boolean insertado = artistaServicio.insertarArtista(artista);
+	        insertado = artistaServicio.insertarArtista(artista);
 
 	        if (insertado) {
 	            return ResponseEntity.ok(new ErrorMsg(0, "Artista insertado correctamente"));
@@ -152,6 +313,10 @@ public class ArtistaControladorREST {
 
 	    } catch (IOException e) {
 	        return ResponseEntity.internalServerError().body(new ErrorMsg(1, "Error al guardar la imagen"));
+	    } finally {
+	        if (!insertado && imagen != null) {
+	            imagenServicio.soltar(ImagenServicio.ARTISTAS, imagen);
+	        }
 	    }
 	}
 
@@ -166,10 +331,14 @@ public class ArtistaControladorREST {
 	public ResponseEntity<ErrorMsg> borrarUnArtista(@PathVariable String id) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			// Imagen del elemento, para soltarla si se borra
+			String imagen = artistaServicio.obtenerArtistaPorID(idTemp).getFoto();
 			
 			boolean resultado = artistaServicio.borrarArtista(idTemp);
 			
 			if (resultado) {//200
+				imagenServicio.soltar(ImagenServicio.ARTISTAS, imagen);
 				return ResponseEntity.ok().body(new ErrorMsg(0, "Artista borrado correctamente"));
 			}
 			else {//500
@@ -184,18 +353,41 @@ public class ArtistaControladorREST {
 	@PutMapping()
 	@Operation(summary = "Modificar un artista")
 	@ApiResponses({
-		@ApiResponse(responseCode = "200", description = "Artista modificado", 
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))), 
-		@ApiResponse(responseCode = "500", description = "No se pudo modificar",
+		@ApiResponse(responseCode = "200", description = "Artista modificado, con su nueva versión",
+			content = @Content(schema = @Schema(implementation = Artista.class))),
+		@ApiResponse(responseCode = "404", description = "Artista no encontrado",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "409", description = "Otro usuario lo ha modificado desde que se leyó (version distinta)",
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<ErrorMsg> modificarArtista(@RequestBody Artista artista) {
-		boolean modificado = artistaServicio.modificarArtista(artista);;
-		
-		if (modificado) {
-			return ResponseEntity.ok().body(new ErrorMsg(0, "Artista modificada correctamente"));
-		}else {
-			return ResponseEntity.internalServerError().body(new ErrorMsg(1, "No se pudo modificar la artista"));
+	public ResponseEntity<Object> modificarArtista(@RequestBody Artista artista) {
+		try {
+			Artista modificado = artistaServicio.modificarArtista(artista);
+
+			if (modificado != null) {//200
+				return ResponseEntity.ok().body(modificado);
+			} else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No existe ningún artista con id " + artista.getId()));
+			}
+		} catch (ObjectOptimisticLockingFailureException e) {//409
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMsg(2, "El artista ha sido modificado por otro usuario; vuelve a cargarlo"));
+		}
+	}
+
+	// Respuesta con solo los campos de ?fields= y las relaciones de ?expand=:
+	// la consulta lee esas columnas y cada fila sale como un mapa con ellas
+	private ResponseEntity<Object> parcial(String etag, Supplier<Object> consulta) {
+		try {
+			Object filas = consulta.get();
+
+			if (filas != null && !(filas instanceof List<?> lista && lista.isEmpty())) {//200
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(filas);
+			}
+			else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el artista"));
+			}
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
 		}
 	}
 
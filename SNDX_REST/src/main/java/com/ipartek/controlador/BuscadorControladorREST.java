@@ -0,0 +1,50 @@
+package com.ipartek.controlador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoBusqueda;
+import com.ipartek.servicios.BuscadorServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/buscar")
+@Tag(name = "Búsqueda", description = "Búsqueda por nombre en todo el catálogo")
+public class BuscadorControladorREST {
+
+	@Autowired
+	private BuscadorServicio buscadorServicio;
+
+	@GetMapping("")
+	@Operation(summary = "Buscar discos, artistas, productores, discograficas y géneros por nombre")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Resultados ordenados por relevancia",
+			content = @Content(schema = @Schema(implementation = Pagina.class))),
+		@ApiResponse(responseCode = "400", description = "Búsqueda, tipo o cursor no válidos",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> buscar(
+			@RequestParam String q,
+			@RequestParam(required = false) String tipo,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamano) {
+		try {
+			Pagina<ResultadoBusqueda> resultados = buscadorServicio.buscar(q, tipo, cursor, tamano);
+			return ResponseEntity.ok().body(resultados);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+}
@@ -1,24 +1,42 @@
 package com.ipartek.controlador;
 
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.auxiliar.PorIds;
 import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscoResumen;
 import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.FiltroDiscos;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoFiltro;
+import com.ipartek.pojos.ResultadoLote;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.servicios.DestacadoServicio;
+import com.ipartek.servicios.ConsultaCamposServicio;
 import com.ipartek.servicios.DiscoServicio;
+import com.ipartek.servicios.ImagenServicio;
+import com.ipartek.servicios.SubidaServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,36 +50,157 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Discos", description = "Operaciones relacionadas con los discos")
 public class DiscoControladorREST {
 	
-	@Value("${ruta.imagenes.artistas}") // Inyecta la ruta de imágenes desde application.properties
-	String rutaFotos;
-	
 	@Autowired
 	private DiscoServicio discoServicio;
+
+	@Autowired
+	private GeneracionesCache generaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@Autowired
+	private ConsultaCamposServicio consultaCamposServicio;
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
 	
 	@GetMapping("")
 	@Operation(summary = "Obtener todos los discos")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Discos obtenidos", 
 			content = @Content(array = @ArraySchema(schema = @Schema(implementation = Artista.class)))), 
 		@ApiResponse(responseCode = "404", description = "Disco está vacío",
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "400", description = "Campo o relación desconocidos en fields o expand",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerTodosDiscos() {
+	public ResponseEntity<Object> obtenerTodosDiscos(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
+		// El ETag sale del contador de invalidaciones de la caché: un 304 no
+		// consulta la base de datos ni serializa nada
+		String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.DISCOS), accept);
+		if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+		}
+
+		Campos campos = Campos.leer(fields, expand);
+		if (campos != null) {
+			return parcial(etag, () -> consultaCamposServicio.obtenerTodos(Disco.class, campos));
+		}
 		
 		List<Disco> disco = discoServicio.obtenerTodosDiscos();
 
 		if (disco.size()!=0) {//200
-			return ResponseEntity.ok().body(disco);
+			return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(disco);
 		}
 		else {//404
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el disco"));
 		}
 	}
 
+	@GetMapping(value = "", params = "ids")
+	@Operation(summary = "Obtener varios discos por id (?ids=1,2,3) en una sola consulta")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Encontrados en el orden pedido e ids que no existen", 
+			content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+		@ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscosPorIds(@RequestParam String ids) {
+		try {
+			ResultadoPorIds<Disco> resultado = discoServicio.obtenerDiscosPorIds(PorIds.leer(ids));
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/pagina")
+	@Operation(summary = "Obtener los discos paginados por cursor (ordenados por nombre)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de discos obtenida", 
+			content = @Content(schema = @Schema(implementation = Pagina.class))), 
+		@ApiResponse(responseCode = "400", description = "Cursor no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerPaginaDiscos(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamano,
+			@RequestParam(defaultValue = "false") boolean total) {
+		try {
+			Pagina<DiscoResumen> pagina = discoServicio.obtenerPaginaDiscos(cursor, tamano, total);
+			return ResponseEntity.ok().body(pagina);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/filtro")
+	@Operation(summary = "Filtrar discos por género, discográfica, productor, artista, puntuación y año, con facetas")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de discos filtrados y recuentos por dimensión", 
+			content = @Content(schema = @Schema(implementation = ResultadoFiltro.class))), 
+		@ApiResponse(responseCode = "400", description = "Filtro no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> filtrarDiscos(FiltroDiscos filtro) {
+		try {
+			ResultadoFiltro resultado = discoServicio.filtrarDiscos(filtro);
+			return ResponseEntity.ok().body(resultado);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	
+	@GetMapping("/aleatorio")
+	@Operation(summary = "Obtener un disco al azar")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Disco obtenido", 
+			content = @Content(schema = @Schema(implementation =  Disco.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay discos",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscoAleatorio() {
+		// Se elige sobre el array de ids cacheado, sin leer la tabla
+		return destacado(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.DISCOS));
+	}
+	
+	@GetMapping("/semana")
+	@Operation(summary = "Obtener el disco de la semana (el mismo durante toda la semana ISO)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "El disco de la semana", 
+			content = @Content(schema = @Schema(implementation =  Disco.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay discos",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscoSemana() {
+		return destacado(destacadoServicio.obtenerIdSemana(DestacadoServicio.DISCOS));
+	}
+	
+	private ResponseEntity<Object> destacado(Integer id) {
+		// El elemento sale de la caché de obtenerDiscoPorID
+		Disco disco = id != null ? discoServicio.obtenerDiscoPorID(id) : null;
+		
+		if (disco != null && disco.getId()!=0) {//200
+			return ResponseEntity.ok().body(disco);
+		}
+		else {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No hay discos"));
+		}
+	}
+	
 	
 	@GetMapping("/{id}")
 	@Operation(summary = "Obtener un disco por su id en la barra de direcciones")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Disco obtenido", 
 			content = @Content(schema = @Schema(implementation =  Artista.class))), 
 		@ApiResponse(responseCode = "404", description = "Disco NO obtenido", 
@@ -69,14 +208,26 @@ public class DiscoControladorREST {
 		@ApiResponse(responseCode = "400", description = "Parametro mal puesto", 
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerDiscoPorId(@PathVariable String id) {
+	public ResponseEntity<Object> obtenerDiscoPorId(@PathVariable String id, @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.DISCO, idTemp), accept);
+			if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+			}
+
+			Campos campos = Campos.leer(fields, expand);
+			if (campos != null) {
+				return parcial(etag, () -> consultaCamposServicio.obtenerPorId(Disco.class, idTemp, campos));
+			}
 			
 			Disco disco = discoServicio.obtenerDiscoPorID(idTemp);
 			
 			if (disco.getId()!=0) {//200
-				return ResponseEntity.ok().body(disco);
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(disco);
 			}
 			else {//404
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el disco"));
@@ -92,23 +243,37 @@ public class DiscoControladorREST {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Disco insertado correctamente",
                      content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
+        @ApiResponse(responseCode = "400", description = "Artista, género, productor o discográfica inexistente, o subida no válida",
+                     content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
         @ApiResponse(responseCode = "500", description = "No se pudo insertar el disco",
                      content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
     })
     public ResponseEntity<ErrorMsg> insertarDisco(
             @RequestPart("disco") Disco disco,
-            @RequestPart(name = "foto2", required = false) MultipartFile archivo) {
+            @RequestPart(name = "foto2", required = false) MultipartFile archivo,
+            @RequestParam(name = "subida", required = false) String subida) {
 
+        // Imagen guardada en esta petición: si el disco no se inserta, por el
+        // motivo que sea, se suelta su referencia
+        String imagen = null;
+        boolean insertado = false;
         try {
             // Guardar archivo si existe
-            if (archivo != null && !archivo.isEmpty()) {
-                String nombreArchivo = archivo.getOriginalFilename();
-                disco.setFoto(nombreArchivo);
+            if (subida != null) {
+                // Imagen ya subida por trozos (/api/subidas)
+                imagen = subidaServicio.adjuntar(subida, ImagenServicio.DISCOS);
+                if (imagen == null) {
+                    return ResponseEntity.badRequest().body(new ErrorMsg(1, "Subida no encontrada, sin completar o de otra carpeta"));
+                }
+                disco.setFoto(imagen);
+            } else if (archivo != null && !archivo.isEmpty()) {
+                imagen = imagenServicio.guardar(archivo, ImagenServicio.DISCOS);
+                disco.setFoto(imagen);
             } else {
                 disco.setFoto("default.png");
             }
 
-            boolean insertado = discoServicio.insertarDisco(disco);
+            insertado = discoServicio.insertarDisco(disco);
 
             if (insertado) {
                 return ResponseEntity.ok(new ErrorMsg(0, "Disco insertado correctamente"));
@@ -116,8 +281,14 @@ public class DiscoControladorREST {
                 return ResponseEntity.status(500).body(new ErrorMsg(1, "No se pudo insertar el disco"));
             }
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorMsg(1, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(new ErrorMsg(1, "Error al procesar disco"));
+        } finally {
+            if (!insertado && imagen != null) {
+                imagenServicio.soltar(ImagenServicio.DISCOS, imagen);
+            }
         }
     }
 
@@ -132,10 +303,14 @@ public class DiscoControladorREST {
 	public ResponseEntity<ErrorMsg> borrarUnDisco(@PathVariable String id) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			// Imagen del elemento, para soltarla si se borra
+			String imagen = discoServicio.obtenerDiscoPorID(idTemp).getFoto();
 			
 			boolean resultado = discoServicio.borrarDisco(idTemp);
 			
 			if (resultado) {//200
+				imagenServicio.soltar(ImagenServicio.DISCOS, imagen);
 				return ResponseEntity.ok().body(new ErrorMsg(0, "Disco borrado correctamente"));
 			}
 			else {//500
@@ -147,21 +322,67 @@ public class DiscoControladorREST {
 	}
 	
 	
+	@PostMapping("/lote")
+	@Operation(summary = "Insertar varios discos en lotes (relaciones por id)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Resultado de cada disco: id asignado o error", 
+			content = @Content(schema = @Schema(implementation = ResultadoLote.class))), 
+		@ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> insertarLote(@RequestBody List<Disco> discos) {
+		if (discos == null || discos.isEmpty()) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, "El lote está vacío"));
+		}
+		try {
+			ResultadoLote resultado = discoServicio.insertarLote(discos);
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	
 	@PutMapping()
 	@Operation(summary = "Modificar un disco")
 	@ApiResponses({
-		@ApiResponse(responseCode = "200", description = "Disco modificado", 
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))), 
-		@ApiResponse(responseCode = "500", description = "No se pudo modificar",
+		@ApiResponse(responseCode = "200", description = "Disco modificado, con su nueva versión",
+			content = @Content(schema = @Schema(implementation = Disco.class))),
+		@ApiResponse(responseCode = "404", description = "Disco no encontrado",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "409", description = "Otro usuario lo ha modificado desde que se leyó (version distinta)",
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<ErrorMsg> modificarArtista(@RequestBody Disco disco) {
-		boolean modificado = discoServicio.modificarDisco(disco);;
-		
-		if (modificado) {
-			return ResponseEntity.ok().body(new ErrorMsg(0, "Disco modificada correctamente"));
-		}else {
-			return ResponseEntity.internalServerError().body(new ErrorMsg(1, "No se pudo modificar el disco"));
+	public ResponseEntity<Object> modificarDisco(@RequestBody Disco disco) {
+		try {
+			Disco modificado = discoServicio.modificarDisco(disco);
+
+			if (modificado != null) {//200
+				return ResponseEntity.ok().body(modificado);
+			} else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No existe ningún disco con id " + disco.getId()));
+			}
+		} catch (ObjectOptimisticLockingFailureException e) {//409
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMsg(2, "El disco ha sido modificado por otro usuario; vuelve a cargarlo"));
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	// Respuesta con solo los campos de ?fields= y las relaciones de ?expand=:
+	// la consulta lee esas columnas y cada fila sale como un mapa con ellas
+	private ResponseEntity<Object> parcial(String etag, Supplier<Object> consulta) {
+		try {
+			Object filas = consulta.get();
+
+			if (filas != null && !(filas instanceof List<?> lista && lista.isEmpty())) {//200
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(filas);
+			}
+			else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el disco"));
+			}
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
 		}
 	}
 
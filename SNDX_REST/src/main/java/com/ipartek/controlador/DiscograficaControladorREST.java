@@ -2,26 +2,40 @@ package com.ipartek.controlador;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.ipartek.auxiliar.Auxiliar;
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.auxiliar.PorIds;
 import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Discografica;
+import com.ipartek.pojos.DiscograficaResumen;
 import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.servicios.DestacadoServicio;
+import com.ipartek.servicios.ConsultaCamposServicio;
 import com.ipartek.servicios.DiscograficaServicio;
+import com.ipartek.servicios.ImagenServicio;
+import com.ipartek.servicios.SubidaServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,36 +50,140 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Discograficas", description = "Operaciones relacionadas con las discograficas")
 public class DiscograficaControladorREST {
 	
-	@Value("${ruta.imagenes.logos}") // Inyecta la ruta de imágenes desde application.properties
-	String rutaFotos;
-	
 	@Autowired
 	private DiscograficaServicio discograficaServicio;
+
+	@Autowired
+	private GeneracionesCache generaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@Autowired
+	private ConsultaCamposServicio consultaCamposServicio;
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
 	
 	@GetMapping("")
 	@Operation(summary = "Obtener todas las discograficas")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Discograficas obtenidas", 
 			content = @Content(array = @ArraySchema(schema = @Schema(implementation = Artista.class)))), 
 		@ApiResponse(responseCode = "404", description = "Discografica está vacía",
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "400", description = "Campo o relación desconocidos en fields o expand",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerTodasDiscograficas() {
+	public ResponseEntity<Object> obtenerTodasDiscograficas(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
+		// El ETag sale del contador de invalidaciones de la caché: un 304 no
+		// consulta la base de datos ni serializa nada
+		String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.DISCOGRAFICAS), accept);
+		if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+		}
+
+		Campos campos = Campos.leer(fields, expand);
+		if (campos != null) {
+			return parcial(etag, () -> consultaCamposServicio.obtenerTodos(Discografica.class, campos));
+		}
 		
 		List<Discografica> discografica = discograficaServicio.obtenerTodasDiscograficas();
 
 		if (discografica.size()!=0) {//200
-			return ResponseEntity.ok().body(discografica);
+			return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(discografica);
 		}
 		else {//404
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar la discografica"));
 		}
 	}
 
+	@GetMapping(value = "", params = "ids")
+	@Operation(summary = "Obtener varios discográficas por id (?ids=1,2,3) en una sola consulta")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Encontrados en el orden pedido e ids que no existen", 
+			content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+		@ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscograficasPorIds(@RequestParam String ids) {
+		try {
+			ResultadoPorIds<Discografica> resultado = discograficaServicio.obtenerDiscograficasPorIds(PorIds.leer(ids));
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/pagina")
+	@Operation(summary = "Obtener los discograficas paginados por cursor (ordenados por nombre)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de discograficas obtenida", 
+			content = @Content(schema = @Schema(implementation = Pagina.class))), 
+		@ApiResponse(responseCode = "400", description = "Cursor no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerPaginaDiscograficas(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamano,
+			@RequestParam(defaultValue = "false") boolean total) {
+		try {
+			Pagina<DiscograficaResumen> pagina = discograficaServicio.obtenerPaginaDiscograficas(cursor, tamano, total);
+			return ResponseEntity.ok().body(pagina);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	
+	@GetMapping("/aleatorio")
+	@Operation(summary = "Obtener una discografica al azar")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Discografica obtenida", 
+			content = @Content(schema = @Schema(implementation =  Discografica.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay discográficas",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscograficaAleatorio() {
+		// Se elige sobre el array de ids cacheado, sin leer la tabla
+		return destacado(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.DISCOGRAFICAS));
+	}
+	
+	@GetMapping("/semana")
+	@Operation(summary = "Obtener la discográfica de la semana (la misma durante toda la semana ISO)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "La discografica de la semana", 
+			content = @Content(schema = @Schema(implementation =  Discografica.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay discográficas",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerDiscograficaSemana() {
+		return destacado(destacadoServicio.obtenerIdSemana(DestacadoServicio.DISCOGRAFICAS));
+	}
+	
+	private ResponseEntity<Object> destacado(Integer id) {
+		// El elemento sale de la caché de obtenerDiscograficaPorID
+		Discografica discografica = id != null ? discograficaServicio.obtenerDiscograficaPorID(id) : null;
+		
+		if (discografica != null && discografica.getId()!=0) {//200
+			return ResponseEntity.ok().body(discografica);
+		}
+		else {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No hay discográficas"));
+		}
+	}
+	
 	
 	@GetMapping("/{id}")
 	@Operation(summary = "Obtener una discografica por su id en la barra de direcciones")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Discografica obtenida", 
 			content = @Content(schema = @Schema(implementation =  Artista.class))), 
 		@ApiResponse(responseCode = "404", description = "Discografica NO obtenida", 
@@ -73,14 +191,26 @@ public class DiscograficaControladorREST {
 		@ApiResponse(responseCode = "400", description = "Parametro mal puesto", 
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerDiscograficaPorId(@PathVariable String id) {
+	public ResponseEntity<Object> obtenerDiscograficaPorId(@PathVariable String id, @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.DISCOGRAFICA, idTemp), accept);
+			if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+			}
+
+			Campos campos = Campos.leer(fields, expand);
+			if (campos != null) {
+				return parcial(etag, () -> consultaCamposServicio.obtenerPorId(Discografica.class, idTemp, campos));
+			}
 			
 			Discografica discografica = discograficaServicio.obtenerDiscograficaPorID(idTemp);
 			
 			if (discografica.getId()!=0) {//200
-				return ResponseEntity.ok().body(discografica);
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(discografica);
 			}
 			else {//404
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar la discografica"));
@@ -133,22 +263,35 @@ public class DiscograficaControladorREST {
 	@Operation(summary = "Insertar una discográfica")
 	@ApiResponses({
 	    @ApiResponse(responseCode = "200", description = "Discográfica guardada"), 
+	    @ApiResponse(responseCode = "400", description = "Subida no encontrada o sin completar"),
 	    @ApiResponse(responseCode = "500", description = "Discográfica NO guardada")
 	})
 	public ResponseEntity<ErrorMsg> insertarDiscografica(
 	        @RequestPart("discografica") Discografica discografica,
-	        @RequestPart(name = "foto2", required = false) MultipartFile archivo) {
+	        @RequestPart(name = "foto2", required = false) MultipartFile archivo,
+	        @RequestParam(name = "subida", required = false) String subida) {
 
+	    // Imagen guardada en esta petición: si no se inserta, por el motivo
+	    // que sea, se suelta su referencia
+	    String imagen = null;
+	    boolean insertado = false;
 	    try {
 	        // Guardar el logo si se ha enviado
-	        if (archivo != null && !archivo.isEmpty()) {
-	            String nombreArchivo = Auxiliar.guardarImagen(archivo, rutaFotos);
-	            discografica.setLogo(nombreArchivo);
+	        if (subida != null) {
+	            // Imagen ya subida por trozos (/api/subidas)
+	            imagen = subidaServicio.adjuntar(subida, ImagenServicio.LOGOS);
+	            if (imagen == null) {
+	                return ResponseEntity.badRequest().body(new ErrorMsg(1, "Subida no encontrada, sin completar o de otra carpeta"));
+	            }
+	            discografica.setLogo(imagen);
+	        } else if (archivo != null && !archivo.isEmpty()) {
+	            imagen = imagenServicio.guardar(archivo, ImagenServicio.LOGOS);
+	            discografica.setLogo(imagen);
 	        } else {
 	            discografica.setLogo("default.png");
 	        }
 
-	        boolean insertado = discograficaServicio.insertarDiscografica(discografica);
+	        insertado = discograficaServicio.insertarDiscografica(discografica);
 
 	        if (insertado) {
 	            return ResponseEntity.ok(new ErrorMsg(0, "Discográfica insertada correctamente"));
@@ -158,6 +301,10 @@ public class DiscograficaControladorREST {
 
 	    } catch (IOException e) {
 	        return ResponseEntity.internalServerError().body(new ErrorMsg(1, "Error al guardar el logo"));
+	    } finally {
+	        if (!insertado && imagen != null) {
+	            imagenServicio.soltar(ImagenServicio.LOGOS, imagen);
+	        }
 	    }
 	}
 
@@ -172,10 +319,14 @@ public class DiscograficaControladorREST {
 	public ResponseEntity<ErrorMsg> borrarUnaDiscografica(@PathVariable String id) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			// Imagen del elemento, para soltarla si se borra
+			String imagen = discograficaServicio.obtenerDiscograficaPorID(idTemp).getLogo();
 			
 			boolean resultado = discograficaServicio.borrarDiscografica(idTemp);
 			
 			if (resultado) {//200
+				imagenServicio.soltar(ImagenServicio.LOGOS, imagen);
 				return ResponseEntity.ok().body(new ErrorMsg(0, "Discografica borrada correctamente"));
 			}
 			else {//500
@@ -190,18 +341,41 @@ public class DiscograficaControladorREST {
 	@PutMapping()
 	@Operation(summary = "Modificar una discografica")
 	@ApiResponses({
-		@ApiResponse(responseCode = "200", description = "Discografica modificada", 
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))), 
-		@ApiResponse(responseCode = "500", description = "No se pudo modificar",
+		@ApiResponse(responseCode = "200", description = "Discografica modificada, con su nueva versión",
+			content = @Content(schema = @Schema(implementation = Discografica.class))),
+		@ApiResponse(responseCode = "404", description = "Discografica no encontrada",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "409", description = "Otro usuario la ha modificado desde que se leyó (version distinta)",
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<ErrorMsg> modificarDiscografica(@RequestBody Discografica discografica) {
-		boolean modificado = discograficaServicio.modificarDiscografica(discografica);
-		
-		if (modificado) {
-			return ResponseEntity.ok().body(new ErrorMsg(0, "Discografica modificada correctamente"));
-		}else {
-			return ResponseEntity.internalServerError().body(new ErrorMsg(1, "No se pudo modificar la discografica"));
+	public ResponseEntity<Object> modificarDiscografica(@RequestBody Discografica discografica) {
+		try {
+			Discografica modificado = discograficaServicio.modificarDiscografica(discografica);
+
+			if (modificado != null) {//200
+				return ResponseEntity.ok().body(modificado);
+			} else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No existe una discografica con id " + discografica.getId()));
+			}
+		} catch (ObjectOptimisticLockingFailureException e) {//409
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMsg(2, "La discografica ha sido modificada por otro usuario; vuelve a cargarla"));
+		}
+	}
+
+	// Respuesta con solo los campos de ?fields= y las relaciones de ?expand=:
+	// la consulta lee esas columnas y cada fila sale como un mapa con ellas
+	private ResponseEntity<Object> parcial(String etag, Supplier<Object> consulta) {
+		try {
+			Object filas = consulta.get();
+
+			if (filas != null && !(filas instanceof List<?> lista && lista.isEmpty())) {//200
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(filas);
+			}
+			else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar la discografica"));
+			}
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
 		}
 	}
 
@@ -0,0 +1,50 @@
+package com.ipartek.controlador;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.ipartek.pojos.EstadisticaCache;
+import com.ipartek.pojos.Estadisticas;
+import com.ipartek.servicios.EstadisticaServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/estadisticas")
+@Tag(name = "Estadísticas", description = "Resumen numérico del catálogo")
+public class EstadisticaControladorREST {
+
+	@Autowired
+	private EstadisticaServicio estadisticaServicio;
+
+	@GetMapping("")
+	@Operation(summary = "Obtener los recuentos del catálogo por género, discográfica, productor, año y puntuación")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Estadísticas obtenidas",
+			content = @Content(schema = @Schema(implementation = Estadisticas.class)))
+	})
+	public ResponseEntity<Object> obtenerEstadisticas() {
+		Estadisticas estadisticas = estadisticaServicio.obtenerEstadisticas();
+		return ResponseEntity.ok().body(estadisticas);//200
+	}
+
+	@GetMapping("/cache")
+	@Operation(summary = "Obtener aciertos y fallos de la caché de segundo nivel y de las cachés de servicio")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Estadísticas de la caché obtenidas",
+			content = @Content(array = @ArraySchema(schema = @Schema(implementation = EstadisticaCache.class))))
+	})
+	public ResponseEntity<Object> obtenerEstadisticasCache() {
+		List<EstadisticaCache> regiones = estadisticaServicio.obtenerEstadisticasCache();
+		return ResponseEntity.ok().body(regiones);//200
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.ipartek.controlador;
+
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.servicios.ExportacionServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/exportar")
+@Tag(name = "Exportación", description = "Volcados completos del catálogo en NDJSON o CSV")
+public class ExportacionControladorREST {
+
+	private static final int BUFFER_GZIP = 64 * 1024;
+
+	@Autowired
+	private ExportacionServicio exportacionServicio;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@GetMapping("/{entidad}")
+	@Operation(summary = "Exportar discos, artistas, generos, productores o discograficas (NDJSON o CSV, opcionalmente en gzip)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Volcado de la tabla, fila a fila"),
+		@ApiResponse(responseCode = "400", description = "Formato no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "404", description = "Entidad desconocida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@PathVariable String entidad,
+			@RequestParam(defaultValue = ExportacionServicio.NDJSON) String formato,
+			@RequestParam(defaultValue = "false") boolean gzip) {
+
+		if (!exportacionServicio.existeEntidad(entidad)) {//404
+			return error(HttpStatus.NOT_FOUND, "No se puede exportar " + entidad);
+		}
+		if (!ExportacionServicio.NDJSON.equals(formato) && !ExportacionServicio.CSV.equals(formato)) {//400
+			return error(HttpStatus.BAD_REQUEST, "Formato no válido: " + formato);
+		}
+
+		// La respuesta se escribe mientras se leen las filas, en el hilo asíncrono de MVC
+		StreamingResponseBody cuerpo = salida -> {
+			if (gzip) {
+				GZIPOutputStream comprimida = new GZIPOutputStream(salida, BUFFER_GZIP);
+				exportacionServicio.exportar(entidad, formato, comprimida);
+				comprimida.finish();
+			} else {
+				exportacionServicio.exportar(entidad, formato, salida);
+			}
+		};
+
+		String fichero = entidad + "." + formato + (gzip ? ".gz" : "");
+		MediaType tipo = gzip ? MediaType.parseMediaType("application/gzip")
+				: ExportacionServicio.CSV.equals(formato) ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+				: MediaType.parseMediaType("application/x-ndjson");
+
+		return ResponseEntity.ok()//200
+				.contentType(tipo)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fichero + "\"")
+				.body(cuerpo);
+	}
+
+	// MVC solo trata la respuesta como streaming si el tipo declarado es
+	// ResponseEntity<StreamingResponseBody>: los errores también se escriben así
+	private ResponseEntity<StreamingResponseBody> error(HttpStatus estado, String mensaje) {
+		ErrorMsg error = new ErrorMsg(1, mensaje);
+		return ResponseEntity.status(estado)
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(salida -> mapper.writeValue(salida, error));
+	}
+
+}
@@ -1,13 +1,25 @@
 package com.ipartek.controlador;
 
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.auxiliar.PorIds;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Genero;
+import com.ipartek.pojos.DiscoResumen;
 import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.GeneroResumen;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.servicios.ConsultaCamposServicio;
 import com.ipartek.servicios.GeneroServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,6 +28,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
 
 @RestController
 @RequestMapping("/api/generos")
@@ -25,28 +38,89 @@ public class GeneroControladorREST {
     @Autowired
     private GeneroServicio generoServicio;
 
+    @Autowired
+    private GeneracionesCache generaciones;
+
+    @Autowired
+    private ConsultaCamposServicio consultaCamposServicio;
+
     @GetMapping("")
     @Operation(summary = "Obtener todos los géneros")
     @ApiResponses({
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Géneros obtenidos",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Genero.class)))),
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = GeneroResumen.class)))),
         @ApiResponse(responseCode = "404", description = "No se encontraron géneros",
+            content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
+        @ApiResponse(responseCode = "400", description = "Campo o relación desconocidos en fields o expand",
             content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
     })
-    public ResponseEntity<Object> obtenerTodosGeneros() {
-        List<Genero> generos = generoServicio.obtenerTodosGeneros();
+    public ResponseEntity<Object> obtenerTodosGeneros(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
+        // El ETag sale del contador de invalidaciones de la caché: un 304 no
+        // consulta la base de datos ni serializa nada
+        String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.GENEROS), accept);
+        if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        Campos campos = Campos.leer(fields, expand);
+        if (campos != null) {
+            return parcial(etag, () -> consultaCamposServicio.obtenerTodos(Genero.class, campos));
+        }
+
+        List<GeneroResumen> generos = generoServicio.obtenerTodosGeneros();
 
         if (!generos.isEmpty()) {
-            return ResponseEntity.ok().body(generos);
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(generos);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ErrorMsg(1, "No se pudieron encontrar géneros"));
         }
     }
 
+    @GetMapping(value = "", params = "ids")
+    @Operation(summary = "Obtener varios géneros por id (?ids=1,2,3) en una sola consulta")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Encontrados en el orden pedido e ids que no existen", 
+            content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+        @ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+            content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+    })
+    public ResponseEntity<Object> obtenerGenerosPorIds(@RequestParam String ids) {
+        try {
+            ResultadoPorIds<Genero> resultado = generoServicio.obtenerGenerosPorIds(PorIds.leer(ids));
+            return ResponseEntity.ok().body(resultado);//200
+        } catch (IllegalArgumentException e) {//400
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener los géneros paginados por cursor (ordenados por nombre)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de géneros obtenida", 
+            content = @Content(schema = @Schema(implementation = Pagina.class))), 
+        @ApiResponse(responseCode = "400", description = "Cursor no válido",
+            content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+    })
+    public ResponseEntity<Object> obtenerPaginaGeneros(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(defaultValue = "false") boolean total) {
+        try {
+            Pagina<GeneroResumen> pagina = generoServicio.obtenerPaginaGeneros(cursor, tamano, total);
+            return ResponseEntity.ok().body(pagina);
+        } catch (IllegalArgumentException e) {//400
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un género por su ID")
     @ApiResponses({
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Género obtenido",
             content = @Content(schema = @Schema(implementation = Genero.class))),
         @ApiResponse(responseCode = "404", description = "Género no encontrado",
@@ -54,14 +128,26 @@ public class GeneroControladorREST {
         @ApiResponse(responseCode = "400", description = "ID con formato inválido",
             content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
     })
-    public ResponseEntity<Object> obtenerGeneroPorId(@PathVariable String id) {
+    public ResponseEntity<Object> obtenerGeneroPorId(@PathVariable String id, @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
         try {
             int idInt = Integer.parseInt(id);
 
+            String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.GENERO, idInt), accept);
+            if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+
+            Campos campos = Campos.leer(fields, expand);
+            if (campos != null) {
+                return parcial(etag, () -> consultaCamposServicio.obtenerPorId(Genero.class, idInt, campos));
+            }
+
             Genero genero = generoServicio.obtenerGeneroPorID(idInt);
 
             if (genero != null && genero.getId() != 0) {
-                return ResponseEntity.ok().body(genero);
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(genero);
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorMsg(1, "No se pudo encontrar el género"));
@@ -73,19 +159,27 @@ public class GeneroControladorREST {
     }
 
     @GetMapping("/{id}/discos")
-    @Operation(summary = "Obtener discos asociados a un género por su ID")
+    @Operation(summary = "Obtener discos asociados a un género por su ID (paginados si se indica cursor o tamano)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Discos obtenidos",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = Disco.class)))),
         @ApiResponse(responseCode = "404", description = "Género no encontrado o sin discos",
             content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
-        @ApiResponse(responseCode = "400", description = "ID con formato inválido",
+        @ApiResponse(responseCode = "400", description = "ID o cursor con formato inválido",
             content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
     })
-    public ResponseEntity<Object> obtenerDiscosPorGenero(@PathVariable String id) {
+    public ResponseEntity<Object> obtenerDiscosPorGenero(@PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
         try {
             int idInt = Integer.parseInt(id);
 
+            // Con cursor o tamano se devuelve una página de resúmenes
+            if (cursor != null || tamano != null) {
+                Pagina<DiscoResumen> pagina = generoServicio.obtenerPaginaDiscografiaPorGenero(idInt, cursor, tamano);
+                return ResponseEntity.ok().body(pagina);
+            }
+
             List<Disco> discografia = generoServicio.obtenerDiscografiaPorGenero(idInt);
 
             if (discografia != null && !discografia.isEmpty()) {
@@ -97,6 +191,12 @@ public class GeneroControladorREST {
         } catch (NumberFormatException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorMsg(1, "ID con formato no válido"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorMsg(1, e.getMessage()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorMsg(1, e.getMessage()));
         }
     }
 
@@ -146,18 +246,43 @@ public class GeneroControladorREST {
     @PutMapping("")
     @Operation(summary = "Modificar un género")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Género modificado"),
-        @ApiResponse(responseCode = "500", description = "Error al modificar el género")
+        @ApiResponse(responseCode = "200", description = "Género modificado, con su nueva versión",
+            content = @Content(schema = @Schema(implementation = Genero.class))),
+        @ApiResponse(responseCode = "404", description = "Género no encontrado",
+            content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+        @ApiResponse(responseCode = "409", description = "Otro usuario lo ha modificado desde que se leyó (version distinta)",
+            content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
     })
-    public ResponseEntity<ErrorMsg> modificarGenero(@RequestBody Genero genero) {
-        boolean modificado = generoServicio.modificarGenero(genero);
+    public ResponseEntity<Object> modificarGenero(@RequestBody Genero genero) {
+        try {
+            Genero modificado = generoServicio.modificarGenero(genero);
 
-        if (modificado) {
-            return ResponseEntity.ok().body(new ErrorMsg(0, "Género modificado correctamente"));
-        } else {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ErrorMsg(1, "No se pudo modificar el género"));
+            if (modificado != null) {//200
+                return ResponseEntity.ok().body(modificado);
+            } else {//404
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No existe ningún género con id " + genero.getId()));
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {//409
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMsg(2, "El género ha sido modificado por otro usuario; vuelve a cargarlo"));
         }
     }
+
+    // Respuesta con solo los campos de ?fields= y las relaciones de ?expand=:
+    // la consulta lee esas columnas y cada fila sale como un mapa con ellas
+    private ResponseEntity<Object> parcial(String etag, Supplier<Object> consulta) {
+        try {
+            Object filas = consulta.get();
+
+            if (filas != null && !(filas instanceof List<?> lista && lista.isEmpty())) {//200
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(filas);
+            }
+            else {//404
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontrar el género"));
+            }
+        } catch (IllegalArgumentException e) {//400
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+        }
+    }
+
 }
 
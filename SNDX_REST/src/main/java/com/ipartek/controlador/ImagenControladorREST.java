@@ -0,0 +1,189 @@
+package com.ipartek.controlador;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import com.ipartek.auxiliar.Miniaturas;
+import com.ipartek.servicios.ImagenServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Fotos y logos del catálogo (ruta.imagenes.*), con sus versiones reducidas.
+ * <p>
+ * Las imágenes del almacén se llaman por su hash, así que una URL nunca
+ * cambia de contenido: se sirven con Cache-Control immutable y un año de
+ * max-age, y el navegador (o un proxy delante) no vuelve a pedirlas. Las
+ * anteriores al almacén se revalidan con ETag y Last-Modified, y también el
+ * original que se sirve en lugar de una versión reducida que aún no existe.
+ * </p>
+ * <p>
+ * El fichero lo envía Tomcat con sendfile (del disco al socket, sin copiarlo
+ * en la JVM); si el conector no lo admite, con FileChannel.transferTo. Se
+ * atienden peticiones Range de un solo rango (206); con varios rangos se
+ * devuelve la imagen entera.
+ * </p>
+ * <p>
+ * Solo jpg, jpeg, png, gif y webp llevan su tipo de imagen; cualquier otro
+ * fichero sale como application/octet-stream con Content-Disposition:
+ * attachment.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/imagenes")
+@Tag(name = "Imágenes", description = "Fotos y logos del catálogo")
+public class ImagenControladorREST {
+
+	private static final CacheControl INMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+	private static final CacheControl REVALIDAR = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+	// Atributos de petición de Tomcat para sendfile (org.apache.coyote.Constants)
+	private static final String SENDFILE = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FICHERO = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@GetMapping("/{carpeta}/{nombre:.+}")
+	@Operation(summary = "Imagen de artistas, discos, logos o productores (admite Range)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Imagen completa"),
+		@ApiResponse(responseCode = "206", description = "Rango pedido de la imagen"),
+		@ApiResponse(responseCode = "304", description = "La copia del cliente sigue valiendo"),
+		@ApiResponse(responseCode = "404", description = "Imagen no encontrada"),
+		@ApiResponse(responseCode = "416", description = "Rango fuera de la imagen")
+	})
+	public void servir(@PathVariable String carpeta, @PathVariable String nombre,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+		Path fichero = imagenServicio.buscar(carpeta, nombre);
+		boolean inmutable = Miniaturas.inmutable(nombre);
+		if (fichero == null) {
+			// Versión reducida que aún no existe (o no se pudo generar): va el
+			// original, sin immutable, para que el navegador la vuelva a pedir
+			fichero = imagenServicio.buscarOriginal(carpeta, nombre);
+			inmutable = false;
+		}
+		if (fichero == null) {//404
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		long longitud = Files.size(fichero);
+		long modificado = Files.getLastModifiedTime(fichero).toMillis();
+		String etag = inmutable ? "\"" + nombre + "\""
+				: "\"" + Long.toHexString(modificado) + "-" + Long.toHexString(longitud) + "\"";
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, (inmutable ? INMUTABLE : REVALIDAR).getHeaderValue());
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (new ServletWebRequest(request, response).checkNotModified(etag, modificado)) {//304
+			return;
+		}
+		tipo(fichero, response);
+
+		HttpRange rango = rango(request, etag, modificado);
+		if (rango == null) {//200
+			enviar(fichero, 0, longitud, request, response);
+			return;
+		}
+
+		long inicio = rango.getRangeStart(longitud);
+		long fin = rango.getRangeEnd(longitud);
+		if (inicio >= longitud || inicio > fin) {//416
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+			response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return;
+		}
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);//206
+		response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + longitud);
+		enviar(fichero, inicio, fin - inicio + 1, request, response);
+	}
+
+	// Solo las extensiones de imagen del almacén se sirven con su tipo; el resto
+	// (imágenes antiguas, nombres sin extensión) va como descarga, para que el
+	// navegador no lo interprete como HTML o SVG en el origen de la API
+	private static void tipo(Path fichero, HttpServletResponse response) {
+		String nombre = fichero.getFileName().toString();
+		int punto = nombre.lastIndexOf('.');
+		String extension = punto >= 0 ? nombre.substring(punto + 1).toLowerCase(Locale.ROOT) : "";
+		MediaType tipo = ImagenServicio.EXTENSIONES.contains(extension)
+				? MediaTypeFactory.getMediaType(nombre).orElse(MediaType.APPLICATION_OCTET_STREAM)
+				: MediaType.APPLICATION_OCTET_STREAM;
+		response.setContentType(tipo.toString());
+		if (MediaType.APPLICATION_OCTET_STREAM.equals(tipo)) {
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nombre).build().toString());
+		}
+	}
+
+	// Rango único pedido, o null si hay que enviar la imagen entera: sin Range,
+	// con una cabecera mal formada, con varios rangos o con un If-Range que ya no vale
+	private static HttpRange rango(HttpServletRequest request, String etag, long modificado) {
+		String cabecera = request.getHeader(HttpHeaders.RANGE);
+		if (cabecera == null) {
+			return null;
+		}
+		try {
+			String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+			if (siRango != null && (siRango.startsWith("\"") || siRango.startsWith("W/")
+					? !siRango.equals(etag)
+					: request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 != modificado / 1000)) {
+				return null;
+			}
+			List<HttpRange> rangos = HttpRange.parseRanges(cabecera);
+			return rangos.size() == 1 ? rangos.get(0) : null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static void enviar(Path fichero, long inicio, long longitud,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+		response.setContentLengthLong(longitud);
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE))) {
+			// Tomcat escribe el fichero al terminar la petición
+			request.setAttribute(SENDFILE_FICHERO, fichero.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_INICIO, inicio);
+			request.setAttribute(SENDFILE_FIN, inicio + longitud);
+			return;
+		}
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+			WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+			long enviados = 0;
+			while (enviados < longitud) {
+				long escritos = canal.transferTo(inicio + enviados, longitud - enviados, salida);
+				if (escritos <= 0) {
+					// El fichero ha encogido mientras se enviaba
+					break;
+				}
+				enviados += escritos;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.ipartek.controlador;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.ResultadoImportacion;
+import com.ipartek.servicios.ImportacionServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/importar")
+@Tag(name = "Importación", description = "Carga masiva del catálogo desde volcados NDJSON o CSV")
+public class ImportacionControladorREST {
+
+	@Autowired
+	private ImportacionServicio importacionServicio;
+
+	@PostMapping("/discos")
+	@Operation(summary = "Importar discos desde NDJSON (application/x-ndjson) o CSV con cabecera (text/csv)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Importación terminada",
+			content = @Content(schema = @Schema(implementation = ResultadoImportacion.class))),
+		@ApiResponse(responseCode = "400", description = "Formato no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "500", description = "Error al leer el cuerpo",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> importarDiscos(
+			InputStream cuerpo,
+			@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String tipo,
+			@RequestParam(required = false) String formato) {
+		// El formato se puede forzar con ?formato=csv|ndjson; si no, se deduce del Content-Type
+		if (formato == null) {
+			formato = tipo != null && tipo.toLowerCase().contains("csv") ? ImportacionServicio.CSV : ImportacionServicio.NDJSON;
+		}
+		try {
+			ResultadoImportacion resultado = importacionServicio.importarDiscos(cuerpo, formato);
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		} catch (IOException e) {//500
+			return ResponseEntity.internalServerError().body(new ErrorMsg(1, "Error al leer el volcado: " + e.getMessage()));
+		}
+	}
+
+}
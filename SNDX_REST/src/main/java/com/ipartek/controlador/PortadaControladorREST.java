@@ -0,0 +1,36 @@
+package com.ipartek.controlador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.ipartek.pojos.Portada;
+import com.ipartek.servicios.PortadaServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/portada")
+@Tag(name = "Portada", description = "Datos de la página principal en una sola llamada")
+public class PortadaControladorREST {
+
+	@Autowired
+	private PortadaServicio portadaServicio;
+
+	@GetMapping("")
+	@Operation(summary = "Obtener los destacados de la semana, sus discografías y los desplegables")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Portada obtenida",
+			content = @Content(schema = @Schema(implementation = Portada.class)))
+	})
+	public ResponseEntity<Object> obtenerPortada() {
+		Portada portada = portadaServicio.obtenerPortada();
+		return ResponseEntity.ok().body(portada);//200
+	}
+
+}
@@ -2,25 +2,39 @@ package com.ipartek.controlador;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import com.ipartek.auxiliar.Auxiliar;
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.auxiliar.PorIds;
 import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Productor;
 import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ProductorResumen;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.servicios.DestacadoServicio;
+import com.ipartek.servicios.ConsultaCamposServicio;
 import com.ipartek.servicios.ProductorServicio;
+import com.ipartek.servicios.ImagenServicio;
+import com.ipartek.servicios.SubidaServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,36 +49,140 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Productores", description = "Operaciones relacionadas con los productores")
 public class ProductorControladorREST {
 	
-	@Value("${ruta.imagenes.productores}") // Inyecta la ruta de imágenes desde application.properties
-	String rutaFotos;
-	
 	@Autowired
 	private ProductorServicio productorServicio;
+
+	@Autowired
+	private GeneracionesCache generaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@Autowired
+	private ConsultaCamposServicio consultaCamposServicio;
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
 	
 	@GetMapping("")
 	@Operation(summary = "Obtener todos los productores")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Productores obtenidos", 
 			content = @Content(array = @ArraySchema(schema = @Schema(implementation = Artista.class)))), 
 		@ApiResponse(responseCode = "404", description = "Productor está vacío",
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "400", description = "Campo o relación desconocidos en fields o expand",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerTodosProductores() {
+	public ResponseEntity<Object> obtenerTodosProductores(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
+		// El ETag sale del contador de invalidaciones de la caché: un 304 no
+		// consulta la base de datos ni serializa nada
+		String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.PRODUCTORES), accept);
+		if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+		}
+
+		Campos campos = Campos.leer(fields, expand);
+		if (campos != null) {
+			return parcial(etag, () -> consultaCamposServicio.obtenerTodos(Productor.class, campos));
+		}
 		
 		List<Productor> productor = productorServicio.obtenerTodosProductores();
 
 		if (productor.size()!=0) {//200
-			return ResponseEntity.ok().body(productor);
+			return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(productor);
 		}
 		else {//404
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el productor"));
 		}
 	}
 
+	@GetMapping(value = "", params = "ids")
+	@Operation(summary = "Obtener varios productores por id (?ids=1,2,3) en una sola consulta")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Encontrados en el orden pedido e ids que no existen", 
+			content = @Content(schema = @Schema(implementation = ResultadoPorIds.class))), 
+		@ApiResponse(responseCode = "400", description = "Lista de ids no válida",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerProductoresPorIds(@RequestParam String ids) {
+		try {
+			ResultadoPorIds<Productor> resultado = productorServicio.obtenerProductoresPorIds(PorIds.leer(ids));
+			return ResponseEntity.ok().body(resultado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	@GetMapping("/pagina")
+	@Operation(summary = "Obtener los productores paginados por cursor (ordenados por nombre)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de productores obtenida", 
+			content = @Content(schema = @Schema(implementation = Pagina.class))), 
+		@ApiResponse(responseCode = "400", description = "Cursor no válido",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerPaginaProductores(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer tamano,
+			@RequestParam(defaultValue = "false") boolean total) {
+		try {
+			Pagina<ProductorResumen> pagina = productorServicio.obtenerPaginaProductores(cursor, tamano, total);
+			return ResponseEntity.ok().body(pagina);
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
+		}
+	}
+
+	
+	@GetMapping("/aleatorio")
+	@Operation(summary = "Obtener un productor al azar")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Productor obtenido", 
+			content = @Content(schema = @Schema(implementation =  Productor.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay productores",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerProductorAleatorio() {
+		// Se elige sobre el array de ids cacheado, sin leer la tabla
+		return destacado(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.PRODUCTORES));
+	}
+	
+	@GetMapping("/semana")
+	@Operation(summary = "Obtener el productor de la semana (el mismo durante toda la semana ISO)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "El productor de la semana", 
+			content = @Content(schema = @Schema(implementation =  Productor.class))), 
+		@ApiResponse(responseCode = "404", description = "No hay productores",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerProductorSemana() {
+		return destacado(destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES));
+	}
+	
+	private ResponseEntity<Object> destacado(Integer id) {
+		// El elemento sale de la caché de obtenerProductorPorID
+		Productor productor = id != null ? productorServicio.obtenerProductorPorID(id) : null;
+		
+		if (productor != null && productor.getId()!=0) {//200
+			return ResponseEntity.ok().body(productor);
+		}
+		else {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No hay productores"));
+		}
+	}
+	
 	
 	@GetMapping("/{id}")
 	@Operation(summary = "Obtener un productor por su id en la barra de direcciones")
 	@ApiResponses({
+		@ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
 		@ApiResponse(responseCode = "200", description = "Productor obtenido", 
 			content = @Content(schema = @Schema(implementation =  Artista.class))), 
 		@ApiResponse(responseCode = "404", description = "Productor NO obtenido", 
@@ -72,14 +190,26 @@ public class ProductorControladorREST {
 		@ApiResponse(responseCode = "400", description = "Parametro mal puesto", 
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<Object> obtenerProductorPorId(@PathVariable String id) {
+	public ResponseEntity<Object> obtenerProductorPorId(@PathVariable String id, @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) String fields, @RequestParam(required = false) String expand) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			String etag = GeneracionesCache.conFormato(generaciones.etag(CacheConfig.PRODUCTOR, idTemp), accept);
+			if (GeneracionesCache.coincide(ifNoneMatch, etag)) {//304
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+			}
+
+			Campos campos = Campos.leer(fields, expand);
+			if (campos != null) {
+				return parcial(etag, () -> consultaCamposServicio.obtenerPorId(Productor.class, idTemp, campos));
+			}
 			
 			Productor productor = productorServicio.obtenerProductorPorID(idTemp);
 			
 			if (productor.getId()!=0) {//200
-				return ResponseEntity.ok().body(productor);
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(productor);
 			}
 			else {//404
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el productor"));
@@ -128,15 +258,20 @@ public class ProductorControladorREST {
 	@ApiResponses({
 	    @ApiResponse(responseCode = "200", description = "Productor insertado correctamente",
 	        content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
-	    @ApiResponse(responseCode = "400", description = "Datos del productor no válidos",
+	    @ApiResponse(responseCode = "400", description = "Datos del productor o subida no válidos",
 	        content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
 	    @ApiResponse(responseCode = "500", description = "Error interno del servidor",
 	        content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
 	})
 	public ResponseEntity<ErrorMsg> insertarProductor(
 	        @RequestPart("productor") Productor productor,
-	        @RequestPart(name = "foto2", required = false) MultipartFile archivo) {
+	        @RequestPart(name = "foto2", required = false) MultipartFile archivo,
+	        @RequestParam(name = "subida", required = false) String subida) {
 
+	    // Imagen guardada en esta petición: si no se inserta, por el motivo
+	    // que sea, se suelta su referencia
+	    String imagen = null;
+	    boolean insertado = false;
 	    try {
 	        // ✅ Validación básica del nombre
 	        if (productor == null || productor.getNombre() == null || productor.getNombre().isBlank()) {
@@ -145,15 +280,22 @@ public class ProductorControladorREST {
 	        }
 
 	        // ✅ Guardar imagen si se envía
-	        if (archivo != null && !archivo.isEmpty()) {
-	            String nombreArchivo = Auxiliar.guardarImagen(archivo, rutaFotos);
-	            productor.setFoto(nombreArchivo);
+	        if (subida != null) {
+	            // Imagen ya subida por trozos (/api/subidas)
+	            imagen = subidaServicio.adjuntar(subida, ImagenServicio.PRODUCTORES);
+	            if (imagen == null) {
+	                return ResponseEntity.badRequest().body(new ErrorMsg(1, "Subida no encontrada, sin completar o de otra carpeta"));
+	            }
+	            productor.setFoto(imagen);
+	        } else if (archivo != null && !archivo.isEmpty()) {
+	            imagen = imagenServicio.guardar(archivo, ImagenServicio.PRODUCTORES);
+	            productor.setFoto(imagen);
 	        } else {
 	            productor.setFoto("default.png");
 	        }
 
 	        // ✅ Insertar en la base de datos
-	        boolean insertado = productorServicio.insertarProductor(productor);
+	        insertado = productorServicio.insertarProductor(productor);
 
 	        if (insertado) {
 	            return ResponseEntity.ok(new ErrorMsg(0, "Productor insertado correctamente"));
@@ -169,6 +311,10 @@ public class ProductorControladorREST {
 	    } catch (Exception e) {
 	        return ResponseEntity.internalServerError()
 	            .body(new ErrorMsg(2, "Error interno del servidor: " + e.getMessage()));
+	    } finally {
+	        if (!insertado && imagen != null) {
+	            imagenServicio.soltar(ImagenServicio.PRODUCTORES, imagen);
+	        }
 	    }
 	}
 
@@ -185,10 +331,14 @@ public class ProductorControladorREST {
 	public ResponseEntity<ErrorMsg> borrarUnProductor(@PathVariable String id) {
 		try { 
 			int idTemp = Integer.parseInt(id.toString());
+
+			// Imagen del elemento, para soltarla si se borra
+			String imagen = productorServicio.obtenerProductorPorID(idTemp).getFoto();
 			
 			boolean resultado = productorServicio.borrarProductor(idTemp);
 			
 			if (resultado) {//200
+				imagenServicio.soltar(ImagenServicio.PRODUCTORES, imagen);
 				return ResponseEntity.ok().body(new ErrorMsg(0, "Productor borrado correctamente"));
 			}
 			else {//500
@@ -203,18 +353,41 @@ public class ProductorControladorREST {
 	@PutMapping()
 	@Operation(summary = "Modificar un productor")
 	@ApiResponses({
-		@ApiResponse(responseCode = "200", description = "Productor modificado", 
-			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))), 
-		@ApiResponse(responseCode = "500", description = "No se pudo modificar",
+		@ApiResponse(responseCode = "200", description = "Productor modificado, con su nueva versión",
+			content = @Content(schema = @Schema(implementation = Productor.class))),
+		@ApiResponse(responseCode = "404", description = "Productor no encontrado",
+			content = @Content(schema = @Schema(implementation =  ErrorMsg.class))),
+		@ApiResponse(responseCode = "409", description = "Otro usuario lo ha modificado desde que se leyó (version distinta)",
 			content = @Content(schema = @Schema(implementation =  ErrorMsg.class)))
 	})
-	public ResponseEntity<ErrorMsg> modificarProductor(@RequestBody Productor productor) {
-		boolean modificado = productorServicio.modificarProductor(productor);
-		
-		if (modificado) {
-			return ResponseEntity.ok().body(new ErrorMsg(0, "Productor modificado correctamente"));
-		}else {
-			return ResponseEntity.internalServerError().body(new ErrorMsg(1, "No se pudo modificar el productor"));
+	public ResponseEntity<Object> modificarProductor(@RequestBody Productor productor) {
+		try {
+			Productor modificado = productorServicio.modificarProductor(productor);
+
+			if (modificado != null) {//200
+				return ResponseEntity.ok().body(modificado);
+			} else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No existe ningún productor con id " + productor.getId()));
+			}
+		} catch (ObjectOptimisticLockingFailureException e) {//409
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMsg(2, "El productor ha sido modificado por otro usuario; vuelve a cargarlo"));
+		}
+	}
+
+	// Respuesta con solo los campos de ?fields= y las relaciones de ?expand=:
+	// la consulta lee esas columnas y cada fila sale como un mapa con ellas
+	private ResponseEntity<Object> parcial(String etag, Supplier<Object> consulta) {
+		try {
+			Object filas = consulta.get();
+
+			if (filas != null && !(filas instanceof List<?> lista && lista.isEmpty())) {//200
+				return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(filas);
+			}
+			else {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "No se pudo encontar el productor"));
+			}
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMsg(1, e.getMessage()));
 		}
 	}
 
@@ -0,0 +1,150 @@
+package com.ipartek.controlador;
+
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.ipartek.pojos.ErrorMsg;
+import com.ipartek.pojos.EstadoSubida;
+import com.ipartek.servicios.SubidaServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Subida reanudable de imágenes por trozos.
+ * <p>
+ * 1. POST /api/subidas con la carpeta, el nombre y el tamaño: devuelve el id
+ * y el tamaño de trozo. 2. PUT /api/subidas/{id}?offset=n por cada trozo,
+ * con los bytes en el cuerpo (application/octet-stream); GET /api/subidas/{id}
+ * dice qué offsets faltan para reanudar. 3. POST /api/subidas/{id}/completar
+ * con el SHA-256 del fichero. Después, el alta del disco, artista, productor
+ * o discográfica recibe ?subida={id} en vez de la imagen.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/subidas")
+@Tag(name = "Subidas", description = "Subida de imágenes por trozos, reanudable")
+public class SubidaControladorREST {
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@PostMapping
+	@Operation(summary = "Iniciar una subida (carpeta: artistas, discos, logos o productores)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "201", description = "Subida iniciada",
+			content = @Content(schema = @Schema(implementation = EstadoSubida.class))),
+		@ApiResponse(responseCode = "400", description = "Carpeta o tamaño no válidos",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> iniciarSubida(
+			@RequestParam String carpeta,
+			@RequestParam String nombre,
+			@RequestParam long tamano) {
+
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(subidaServicio.iniciar(carpeta, nombre, tamano));//201
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.badRequest().body(new ErrorMsg(1, e.getMessage()));
+		} catch (IOException e) {//500
+			return ResponseEntity.internalServerError().body(new ErrorMsg(2, "No se pudo iniciar la subida"));
+		}
+	}
+
+	@GetMapping("/{id}")
+	@Operation(summary = "Estado de una subida: bytes recibidos y offsets pendientes")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Estado de la subida",
+			content = @Content(schema = @Schema(implementation = EstadoSubida.class))),
+		@ApiResponse(responseCode = "404", description = "Subida no encontrada o caducada",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> obtenerSubida(@PathVariable String id) {
+		EstadoSubida estado = subidaServicio.obtenerEstado(id);
+
+		if (estado == null) {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "Subida no encontrada"));
+		}
+		return ResponseEntity.ok(estado);//200
+	}
+
+	@PutMapping("/{id}")
+	@Operation(summary = "Enviar el trozo que empieza en offset (cuerpo application/octet-stream)")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Trozo guardado",
+			content = @Content(schema = @Schema(implementation = EstadoSubida.class))),
+		@ApiResponse(responseCode = "400", description = "Offset o longitud no válidos, o subida ya completa",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
+		@ApiResponse(responseCode = "404", description = "Subida no encontrada o caducada",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> enviarTrozo(@PathVariable String id, @RequestParam long offset,
+			HttpServletRequest request) {
+
+		try {
+			// El cuerpo se lee en streaming y se escribe en su posición del fichero
+			EstadoSubida estado = subidaServicio.escribir(id, offset, request.getContentLengthLong(), request.getInputStream());
+			if (estado == null) {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "Subida no encontrada"));
+			}
+			return ResponseEntity.ok(estado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.badRequest().body(new ErrorMsg(1, e.getMessage()));
+		} catch (IOException e) {//500
+			return ResponseEntity.internalServerError().body(new ErrorMsg(2, "No se pudo guardar el trozo"));
+		}
+	}
+
+	@PostMapping("/{id}/completar")
+	@Operation(summary = "Completar una subida comprobando el SHA-256 (hexadecimal) del fichero")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Subida completa, lista para adjuntar",
+			content = @Content(schema = @Schema(implementation = EstadoSubida.class))),
+		@ApiResponse(responseCode = "400", description = "Faltan trozos o el SHA-256 no coincide",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
+		@ApiResponse(responseCode = "404", description = "Subida no encontrada o caducada",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
+	})
+	public ResponseEntity<Object> completarSubida(@PathVariable String id, @RequestParam String sha256) {
+		try {
+			EstadoSubida estado = subidaServicio.completar(id, sha256);
+			if (estado == null) {//404
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "Subida no encontrada"));
+			}
+			return ResponseEntity.ok(estado);//200
+		} catch (IllegalArgumentException e) {//400
+			return ResponseEntity.badRequest().body(new ErrorMsg(1, e.getMessage()));
+		} catch (IOException e) {//500
+			return ResponseEntity.internalServerError().body(new ErrorMsg(2, "No se pudo comprobar la subida"));
+		}
+	}
+
+	@DeleteMapping("/{id}")
+	@Operation(summary = "Cancelar una subida y borrar lo recibido")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Subida cancelada",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class))),
+		@ApiResponse(responseCode = "404", description = "Subida no encontrada o caducada",
+			content = @Content(schema = @Schema(implementation = ErrorMsg.class)))
+	})
+	public ResponseEntity<ErrorMsg> cancelarSubida(@PathVariable String id) {
+		if (!subidaServicio.cancelar(id)) {//404
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMsg(1, "Subida no encontrada"));
+		}
+		return ResponseEntity.ok(new ErrorMsg(0, "Subida cancelada"));//200
+	}
+
+}
@@ -3,23 +3,61 @@ package com.ipartek.modelo;
 import java.util.ArrayList;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ipartek.auxiliar.Miniaturas;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "artistas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "artistas")
+@DynamicUpdate
+@Table(name = "artistas", indexes = {
+		@Index(name = "idx_artistas_nombre_id", columnList = "nombre, id_artista"),
+		@Index(name = "idx_artistas_notamedia_id", columnList = "notaMedia, id_artista") })
 public class Artista {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_artista")
     private int id;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // La nota media y sus agregados (suma y número de puntuaciones de sus discos)
+    // solo los cambia ArtistaRepositorioNotas, con la fila bloqueada. Con
+    // @DynamicUpdate el UPDATE lleva solo las columnas cambiadas, así que
+    // modificar el artista no los pisa; y no suben la versión, para que un
+    // disco nuevo no invalide el formulario de edición del artista
+    @OptimisticLock(excluded = true)
     private int notaMedia;
+    
+    @JsonIgnore
+    @ColumnDefault("0")
+    @OptimisticLock(excluded = true)
+    @Column(nullable = false, insertable = false)
+    private long sumaPuntuaciones;
+    
+    @JsonIgnore
+    @ColumnDefault("0")
+    @OptimisticLock(excluded = true)
+    @Column(nullable = false, insertable = false)
+    private int numDiscos;
 
     private String nombre;
     private String foto;
@@ -28,6 +66,7 @@ public class Artista {
     private String enlaceTidal;
     
     @OneToMany(mappedBy = "artista")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "artistas-discos")
     @JsonIgnore // ✅ No serializamos los discos del artista para evitar el bucle
     private List<Disco> discografia;
 
@@ -68,6 +107,14 @@ public class Artista {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getNotaMedia() {
 		return notaMedia;
 	}
@@ -76,6 +123,22 @@ public class Artista {
 		this.notaMedia = notaMedia;
 	}
 
+	public long getSumaPuntuaciones() {
+		return sumaPuntuaciones;
+	}
+
+	public void setSumaPuntuaciones(long sumaPuntuaciones) {
+		this.sumaPuntuaciones = sumaPuntuaciones;
+	}
+
+	public int getNumDiscos() {
+		return numDiscos;
+	}
+
+	public void setNumDiscos(int numDiscos) {
+		this.numDiscos = numDiscos;
+	}
+
 	public String getNombre() {
 		return nombre;
 	}
@@ -92,6 +155,16 @@ public class Artista {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas de la imagen (Miniaturas), en la misma carpeta; solo se
+	// publican en el JSON, no son columnas
+	public String getFotoMiniatura() {
+		return Miniaturas.nombre(foto, Miniaturas.MINIATURA);
+	}
+
+	public String getFotoMedia() {
+		return Miniaturas.nombre(foto, Miniaturas.MEDIA);
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
@@ -1,17 +1,37 @@
 package com.ipartek.modelo;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ipartek.auxiliar.Miniaturas;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "discos")
+@NamedEntityGraph(name = "Disco.relaciones", attributeNodes = { // Carga las 4 relaciones en la misma SELECT
+		@NamedAttributeNode("productor"),
+		@NamedAttributeNode("discografica"),
+		@NamedAttributeNode("genero"),
+		@NamedAttributeNode("artista") })
+@Table(name = "discos", indexes = {
+		@Index(name = "idx_discos_nombre_id", columnList = "nombre, id_disco"),
+		@Index(name = "idx_discos_genero_nombre_id", columnList = "id_genero, nombre, id_disco"),
+		// Filtro y facetas de /api/discos/filtro: clave ajena + puntuación
+		@Index(name = "idx_discos_genero_puntuacion", columnList = "id_genero, puntuacion"),
+		@Index(name = "idx_discos_discografica_puntuacion", columnList = "id_discografica, puntuacion"),
+		@Index(name = "idx_discos_productor_puntuacion", columnList = "id_productor, puntuacion"),
+		@Index(name = "idx_discos_artista_puntuacion", columnList = "id_artista, puntuacion"),
+		@Index(name = "idx_discos_puntuacion", columnList = "puntuacion"),
+		@Index(name = "idx_discos_fecha", columnList = "fecha") })
 public class Disco {
 
     @Id
@@ -19,6 +39,12 @@ public class Disco {
     @Column(name = "id_disco")
     private int id;
 
+    // Bloqueo optimista: cada UPDATE comprueba y sube la versión
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private int puntuacion;
     private String fecha;
     private String nombre;
@@ -93,6 +119,14 @@ public class Disco {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getPuntuacion() {
 		return puntuacion;
 	}
@@ -125,6 +159,16 @@ public class Disco {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas de la imagen (Miniaturas), en la misma carpeta; solo se
+	// publican en el JSON, no son columnas
+	public String getFotoMiniatura() {
+		return Miniaturas.nombre(foto, Miniaturas.MINIATURA);
+	}
+
+	public String getFotoMedia() {
+		return Miniaturas.nombre(foto, Miniaturas.MEDIA);
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
@@ -4,18 +4,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.ipartek.auxiliar.Miniaturas;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "discograficas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "discograficas")
+@Table(name = "discograficas", indexes = @Index(name = "idx_discograficas_nombre_id", columnList = "nombre, id_discografica"))
 public class Discografica {
 ////ATRIBUTOS
     @Id
@@ -23,11 +33,17 @@ public class Discografica {
     @Column(name = "id_discografica")
     private int id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String nombre;
     private String logo;
     private String enlaceWikipedia;
 
     @OneToMany(mappedBy = "discografica", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "discograficas-discos")
     @JsonBackReference("discografica-discos")
     private List<Disco> discografia;
 
@@ -59,6 +75,14 @@ public class Discografica {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public String getNombre() {
 		return nombre;
 	}
@@ -91,6 +115,16 @@ public class Discografica {
 	public void setLogo(String logo) {
 		this.logo = logo;
 	}
+
+	// Versiones reducidas de la imagen (Miniaturas), en la misma carpeta; solo se
+	// publican en el JSON, no son columnas
+	public String getLogoMiniatura() {
+		return Miniaturas.nombre(logo, Miniaturas.MINIATURA);
+	}
+
+	public String getLogoMedia() {
+		return Miniaturas.nombre(logo, Miniaturas.MEDIA);
+	}
 	
 	
 ////TO STRING
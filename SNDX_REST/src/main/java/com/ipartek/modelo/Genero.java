@@ -3,27 +3,43 @@ package com.ipartek.modelo;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "generos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "generos")
+@Table(name = "generos", indexes = @Index(name = "idx_generos_nombre_id", columnList = "nombre, id_genero"))
 public class Genero {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(name = "id_genero")
 	private int id;
+
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	private String nombre;
 	
 	@OneToMany(mappedBy = "genero") 
-    @JsonIgnoreProperties("genero") 
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "generos-discos")
+    @JsonIgnore // Los discos de un género se piden aparte en /api/generos/{id}/discos
     private List<Disco> discos;
 	
 	
@@ -49,6 +65,14 @@ public class Genero {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public String getNombre() {
 		return nombre;
 	}
@@ -0,0 +1,62 @@
+package com.ipartek.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Cuenta de referencias de una imagen del almacén (ImagenServicio): cuántos
+ * artistas, discos, productores o discográficas usan ese fichero.
+ */
+@Entity
+@Table(name = "imagenes")
+public class Imagen {
+////ATRIBUTOS
+	// Carpeta y nombre del fichero, p. ej. "discos/3f2a...9c.jpg"
+	@Id
+	@Column(length = 100)
+	private String ruta;
+
+	private int referencias;
+
+
+////CONSTRUCTORES
+	public Imagen(String ruta, int referencias) {
+		super();
+		this.ruta = ruta;
+		this.referencias = referencias;
+	}
+
+	public Imagen() {
+		super();
+		this.ruta = "";
+		this.referencias = 0;
+	}
+
+
+////GETTERS & SETTERS
+	public String getRuta() {
+		return ruta;
+	}
+
+	public void setRuta(String ruta) {
+		this.ruta = ruta;
+	}
+
+	public int getReferencias() {
+		return referencias;
+	}
+
+	public void setReferencias(int referencias) {
+		this.referencias = referencias;
+	}
+
+
+////TO STRING
+	@Override
+	public String toString() {
+		return "Imagen [ruta=" + ruta + ", referencias=" + referencias + "]";
+	}
+
+}
@@ -4,18 +4,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.ipartek.auxiliar.Miniaturas;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "productores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productores")
+@Table(name = "productores", indexes = @Index(name = "idx_productores_nombre_id", columnList = "nombre, id_productor"))
 public class Productor {
 ////ATRIBUTOS
     @Id
@@ -23,12 +33,18 @@ public class Productor {
     @Column(name = "id_productor")
     private int id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private int notaMedia;
     private String nombre;
     private String foto;
     private String enlaceWikipedia;
 
     @OneToMany(mappedBy = "productor", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productores-discos")
     @JsonBackReference("productor-discos")
     private List<Disco> discografia;
 
@@ -65,6 +81,14 @@ public class Productor {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public int getNotaMedia() {
 		return notaMedia;
 	}
@@ -89,6 +113,16 @@ public class Productor {
 		this.foto = foto;
 	}
 
+	// Versiones reducidas de la imagen (Miniaturas), en la misma carpeta; solo se
+	// publican en el JSON, no son columnas
+	public String getFotoMiniatura() {
+		return Miniaturas.nombre(foto, Miniaturas.MINIATURA);
+	}
+
+	public String getFotoMedia() {
+		return Miniaturas.nombre(foto, Miniaturas.MEDIA);
+	}
+
 	public String getEnlaceWikipedia() {
 		return enlaceWikipedia;
 	}
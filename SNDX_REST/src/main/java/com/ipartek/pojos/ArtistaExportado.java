@@ -0,0 +1,6 @@
+package com.ipartek.pojos;
+
+public record ArtistaExportado(int id, String nombre, int notaMedia, String foto,
+		String enlaceWikipedia, String enlaceSpotify, String enlaceTidal) {
+
+}
@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Resumen de un artista para listados.
+ * Se construye directamente desde JPQL, sin cargar la entidad.
+ */
+public record ArtistaResumen(int id, String nombre, String foto, int notaMedia) {
+
+}
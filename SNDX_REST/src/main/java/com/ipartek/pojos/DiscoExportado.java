@@ -0,0 +1,11 @@
+package com.ipartek.pojos;
+
+/**
+ * Fila plana de la exportación de discos: las relaciones van como id y nombre.
+ */
+public record DiscoExportado(int id, String nombre, int puntuacion, String fecha, String foto,
+		String enlaceWikipedia, String enlaceSpotify, String enlaceTidal,
+		Integer artistaId, String artistaNombre, Integer generoId, String generoNombre,
+		Integer productorId, String productorNombre, Integer discograficaId, String discograficaNombre) {
+
+}
@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Resumen de un disco para listados: solo lo que pinta una fila, con el artista aplanado.
+ * Se construye directamente desde JPQL, sin cargar la entidad.
+ */
+public record DiscoResumen(int id, String nombre, String foto, int puntuacion, Integer artistaId, String artistaNombre) {
+
+}
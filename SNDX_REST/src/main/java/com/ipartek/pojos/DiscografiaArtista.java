@@ -0,0 +1,11 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+import com.ipartek.modelo.Disco;
+
+/**
+ * Discos de un artista en /api/artistas/discografias?ids=.
+ */
+public record DiscografiaArtista(int idArtista, List<Disco> discos) {
+
+}
@@ -0,0 +1,5 @@
+package com.ipartek.pojos;
+
+public record DiscograficaExportado(int id, String nombre, String logo, String enlaceWikipedia) {
+
+}
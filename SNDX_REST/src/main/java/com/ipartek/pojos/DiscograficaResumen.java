@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Resumen de una discográfica para listados.
+ * Se construye directamente desde JPQL, sin cargar la entidad.
+ */
+public record DiscograficaResumen(int id, String nombre, String logo) {
+
+}
@@ -0,0 +1,10 @@
+package com.ipartek.pojos;
+
+/**
+ * Aciertos y fallos de una región de la caché de segundo nivel de Hibernate
+ * o de una caché de servicio (prefijo "servicio.") desde el arranque.
+ * elementos es -1 si el proveedor no lo informa.
+ */
+public record EstadisticaCache(String region, long aciertos, long fallos, long escrituras, long elementos) {
+
+}
@@ -0,0 +1,121 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+
+/**
+ * Resumen del catálogo para la página de administración (/api/estadisticas).
+ * Los recuentos usan {@link Faceta}: valor (id, año o puntuación), nombre y total.
+ */
+public class Estadisticas {
+	private long totalDiscos;
+	private long totalArtistas;
+	private long totalGeneros;
+	private long totalProductores;
+	private long totalDiscograficas;
+	private List<Faceta> discosPorGenero;
+	private List<Faceta> discosPorDiscografica;
+	private List<Faceta> discosPorProductor;
+	private List<Faceta> discosPorAnio;
+	private List<Faceta> distribucionPuntuaciones;
+	private List<ArtistaResumen> mejoresArtistas;
+
+	public Estadisticas() {
+		super();
+	}
+
+	public long getTotalDiscos() {
+		return totalDiscos;
+	}
+
+	public void setTotalDiscos(long totalDiscos) {
+		this.totalDiscos = totalDiscos;
+	}
+
+	public long getTotalArtistas() {
+		return totalArtistas;
+	}
+
+	public void setTotalArtistas(long totalArtistas) {
+		this.totalArtistas = totalArtistas;
+	}
+
+	public long getTotalGeneros() {
+		return totalGeneros;
+	}
+
+	public void setTotalGeneros(long totalGeneros) {
+		this.totalGeneros = totalGeneros;
+	}
+
+	public long getTotalProductores() {
+		return totalProductores;
+	}
+
+	public void setTotalProductores(long totalProductores) {
+		this.totalProductores = totalProductores;
+	}
+
+	public long getTotalDiscograficas() {
+		return totalDiscograficas;
+	}
+
+	public void setTotalDiscograficas(long totalDiscograficas) {
+		this.totalDiscograficas = totalDiscograficas;
+	}
+
+	public List<Faceta> getDiscosPorGenero() {
+		return discosPorGenero;
+	}
+
+	public void setDiscosPorGenero(List<Faceta> discosPorGenero) {
+		this.discosPorGenero = discosPorGenero;
+	}
+
+	public List<Faceta> getDiscosPorDiscografica() {
+		return discosPorDiscografica;
+	}
+
+	public void setDiscosPorDiscografica(List<Faceta> discosPorDiscografica) {
+		this.discosPorDiscografica = discosPorDiscografica;
+	}
+
+	public List<Faceta> getDiscosPorProductor() {
+		return discosPorProductor;
+	}
+
+	public void setDiscosPorProductor(List<Faceta> discosPorProductor) {
+		this.discosPorProductor = discosPorProductor;
+	}
+
+	public List<Faceta> getDiscosPorAnio() {
+		return discosPorAnio;
+	}
+
+	public void setDiscosPorAnio(List<Faceta> discosPorAnio) {
+		this.discosPorAnio = discosPorAnio;
+	}
+
+	public List<Faceta> getDistribucionPuntuaciones() {
+		return distribucionPuntuaciones;
+	}
+
+	public void setDistribucionPuntuaciones(List<Faceta> distribucionPuntuaciones) {
+		this.distribucionPuntuaciones = distribucionPuntuaciones;
+	}
+
+	public List<ArtistaResumen> getMejoresArtistas() {
+		return mejoresArtistas;
+	}
+
+	public void setMejoresArtistas(List<ArtistaResumen> mejoresArtistas) {
+		this.mejoresArtistas = mejoresArtistas;
+	}
+
+	@Override
+	public String toString() {
+		return "Estadisticas [totalDiscos=" + totalDiscos + ", totalArtistas=" + totalArtistas + ", totalGeneros="
+				+ totalGeneros + ", totalProductores=" + totalProductores + ", totalDiscograficas="
+				+ totalDiscograficas + "]";
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+
+public class EstadoSubida {
+	private String id;
+	private String carpeta;
+	private long tamano;
+	private int trozo;
+	private long recibidos;
+	private List<Long> pendientes;
+	private boolean completa;
+
+	public EstadoSubida(String id, String carpeta, long tamano, int trozo, long recibidos, List<Long> pendientes,
+			boolean completa) {
+		super();
+		this.id = id;
+		this.carpeta = carpeta;
+		this.tamano = tamano;
+		this.trozo = trozo;
+		this.recibidos = recibidos;
+		this.pendientes = pendientes;
+		this.completa = completa;
+	}
+
+	public EstadoSubida() {
+		super();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getCarpeta() {
+		return carpeta;
+	}
+
+	public void setCarpeta(String carpeta) {
+		this.carpeta = carpeta;
+	}
+
+	public long getTamano() {
+		return tamano;
+	}
+
+	public void setTamano(long tamano) {
+		this.tamano = tamano;
+	}
+
+	public int getTrozo() {
+		return trozo;
+	}
+
+	public void setTrozo(int trozo) {
+		this.trozo = trozo;
+	}
+
+	public long getRecibidos() {
+		return recibidos;
+	}
+
+	public void setRecibidos(long recibidos) {
+		this.recibidos = recibidos;
+	}
+
+	public List<Long> getPendientes() {
+		return pendientes;
+	}
+
+	public void setPendientes(List<Long> pendientes) {
+		this.pendientes = pendientes;
+	}
+
+	public boolean isCompleta() {
+		return completa;
+	}
+
+	public void setCompleta(boolean completa) {
+		this.completa = completa;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadoSubida [id=" + id + ", carpeta=" + carpeta + ", tamano=" + tamano + ", recibidos=" + recibidos
+				+ ", completa=" + completa + "]";
+	}
+
+}
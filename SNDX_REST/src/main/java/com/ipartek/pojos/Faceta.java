@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Recuento de discos para un valor de una dimensión del filtro
+ * (un género, una discográfica, una puntuación, un año...).
+ */
+public record Faceta(String valor, String nombre, long total) {
+
+}
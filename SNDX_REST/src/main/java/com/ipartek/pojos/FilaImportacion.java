@@ -0,0 +1,118 @@
+package com.ipartek.pojos;
+
+/**
+ * Una línea del volcado que se importa (NDJSON o CSV con cabecera). Las
+ * relaciones vienen por nombre y se crean si no existen.
+ */
+public class FilaImportacion {
+	private String nombre;
+	private Integer puntuacion;
+	private String fecha;
+	private String foto;
+	private String enlaceWikipedia;
+	private String enlaceSpotify;
+	private String enlaceTidal;
+	private String artista;
+	private String genero;
+	private String productor;
+	private String discografica;
+
+	public FilaImportacion() {
+		super();
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public Integer getPuntuacion() {
+		return puntuacion;
+	}
+
+	public void setPuntuacion(Integer puntuacion) {
+		this.puntuacion = puntuacion;
+	}
+
+	public String getFecha() {
+		return fecha;
+	}
+
+	public void setFecha(String fecha) {
+		this.fecha = fecha;
+	}
+
+	public String getFoto() {
+		return foto;
+	}
+
+	public void setFoto(String foto) {
+		this.foto = foto;
+	}
+
+	public String getEnlaceWikipedia() {
+		return enlaceWikipedia;
+	}
+
+	public void setEnlaceWikipedia(String enlaceWikipedia) {
+		this.enlaceWikipedia = enlaceWikipedia;
+	}
+
+	public String getEnlaceSpotify() {
+		return enlaceSpotify;
+	}
+
+	public void setEnlaceSpotify(String enlaceSpotify) {
+		this.enlaceSpotify = enlaceSpotify;
+	}
+
+	public String getEnlaceTidal() {
+		return enlaceTidal;
+	}
+
+	public void setEnlaceTidal(String enlaceTidal) {
+		this.enlaceTidal = enlaceTidal;
+	}
+
+	public String getArtista() {
+		return artista;
+	}
+
+	public void setArtista(String artista) {
+		this.artista = artista;
+	}
+
+	public String getGenero() {
+		return genero;
+	}
+
+	public void setGenero(String genero) {
+		this.genero = genero;
+	}
+
+	public String getProductor() {
+		return productor;
+	}
+
+	public void setProductor(String productor) {
+		this.productor = productor;
+	}
+
+	public String getDiscografica() {
+		return discografica;
+	}
+
+	public void setDiscografica(String discografica) {
+		this.discografica = discografica;
+	}
+
+	@Override
+	public String toString() {
+		return "FilaImportacion [nombre=" + nombre + ", puntuacion=" + puntuacion + ", fecha=" + fecha + ", artista="
+				+ artista + ", genero=" + genero + ", productor=" + productor + ", discografica=" + discografica + "]";
+	}
+
+}
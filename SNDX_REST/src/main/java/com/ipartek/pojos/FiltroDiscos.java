@@ -0,0 +1,108 @@
+package com.ipartek.pojos;
+
+public class FiltroDiscos {
+	private Integer generoId;
+	private Integer discograficaId;
+	private Integer productorId;
+	private Integer artistaId;
+	private Integer puntuacionMin;
+	private Integer puntuacionMax;
+	private Integer anioMin;
+	private Integer anioMax;
+	private int pagina;
+	private Integer tamano;
+
+	public FiltroDiscos() {
+		super();
+		this.pagina = 0;
+	}
+
+	public Integer getGeneroId() {
+		return generoId;
+	}
+
+	public void setGeneroId(Integer generoId) {
+		this.generoId = generoId;
+	}
+
+	public Integer getDiscograficaId() {
+		return discograficaId;
+	}
+
+	public void setDiscograficaId(Integer discograficaId) {
+		this.discograficaId = discograficaId;
+	}
+
+	public Integer getProductorId() {
+		return productorId;
+	}
+
+	public void setProductorId(Integer productorId) {
+		this.productorId = productorId;
+	}
+
+	public Integer getArtistaId() {
+		return artistaId;
+	}
+
+	public void setArtistaId(Integer artistaId) {
+		this.artistaId = artistaId;
+	}
+
+	public Integer getPuntuacionMin() {
+		return puntuacionMin;
+	}
+
+	public void setPuntuacionMin(Integer puntuacionMin) {
+		this.puntuacionMin = puntuacionMin;
+	}
+
+	public Integer getPuntuacionMax() {
+		return puntuacionMax;
+	}
+
+	public void setPuntuacionMax(Integer puntuacionMax) {
+		this.puntuacionMax = puntuacionMax;
+	}
+
+	public Integer getAnioMin() {
+		return anioMin;
+	}
+
+	public void setAnioMin(Integer anioMin) {
+		this.anioMin = anioMin;
+	}
+
+	public Integer getAnioMax() {
+		return anioMax;
+	}
+
+	public void setAnioMax(Integer anioMax) {
+		this.anioMax = anioMax;
+	}
+
+	public int getPagina() {
+		return pagina;
+	}
+
+	public void setPagina(int pagina) {
+		this.pagina = pagina;
+	}
+
+	public Integer getTamano() {
+		return tamano;
+	}
+
+	public void setTamano(Integer tamano) {
+		this.tamano = tamano;
+	}
+
+	@Override
+	public String toString() {
+		return "FiltroDiscos [generoId=" + generoId + ", discograficaId=" + discograficaId + ", productorId="
+				+ productorId + ", artistaId=" + artistaId + ", puntuacionMin=" + puntuacionMin + ", puntuacionMax="
+				+ puntuacionMax + ", anioMin=" + anioMin + ", anioMax=" + anioMax + ", pagina=" + pagina + ", tamano="
+				+ tamano + "]";
+	}
+
+}
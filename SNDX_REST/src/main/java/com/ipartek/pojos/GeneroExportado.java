@@ -0,0 +1,5 @@
+package com.ipartek.pojos;
+
+public record GeneroExportado(int id, String nombre) {
+
+}
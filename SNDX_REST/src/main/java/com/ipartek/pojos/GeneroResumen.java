@@ -0,0 +1,10 @@
+package com.ipartek.pojos;
+
+/**
+ * Resumen de un género para listados y desplegables, con el número de
+ * discos calculado por agregado en la misma consulta.
+ * Se construye directamente desde JPQL, sin cargar la entidad.
+ */
+public record GeneroResumen(int id, String nombre, long numDiscos) {
+
+}
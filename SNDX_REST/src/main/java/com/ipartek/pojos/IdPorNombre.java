@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Id de un artista, género, productor o discográfica junto a su nombre en
+ * minúsculas, para resolver los nombres de una importación.
+ */
+public record IdPorNombre(String nombre, int id) {
+
+}
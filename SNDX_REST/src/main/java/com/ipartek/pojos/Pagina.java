@@ -0,0 +1,54 @@
+package com.ipartek.pojos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Pagina<T> {
+	private List<T> elementos;
+	private String siguienteCursor; // null cuando no hay más páginas
+	private Long total; // solo se rellena si se pide explícitamente
+
+	public Pagina(List<T> elementos, String siguienteCursor, Long total) {
+		super();
+		this.elementos = elementos;
+		this.siguienteCursor = siguienteCursor;
+		this.total = total;
+	}
+
+	public Pagina() {
+		super();
+		this.elementos = new ArrayList<T>();
+		this.siguienteCursor = null;
+		this.total = null;
+	}
+
+	public List<T> getElementos() {
+		return elementos;
+	}
+
+	public void setElementos(List<T> elementos) {
+		this.elementos = elementos;
+	}
+
+	public String getSiguienteCursor() {
+		return siguienteCursor;
+	}
+
+	public void setSiguienteCursor(String siguienteCursor) {
+		this.siguienteCursor = siguienteCursor;
+	}
+
+	public Long getTotal() {
+		return total;
+	}
+
+	public void setTotal(Long total) {
+		this.total = total;
+	}
+
+	@Override
+	public String toString() {
+		return "Pagina [elementos=" + elementos.size() + ", siguienteCursor=" + siguienteCursor + ", total=" + total + "]";
+	}
+
+}
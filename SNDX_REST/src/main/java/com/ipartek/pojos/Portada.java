@@ -0,0 +1,120 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Productor;
+
+/**
+ * Datos de la página principal del cliente en una sola respuesta
+ * (/api/portada): los destacados de la semana, la discografía del artista,
+ * el productor y la discográfica destacados, y los resúmenes para los
+ * desplegables. Los destacados son null si su tabla está vacía.
+ */
+public class Portada {
+	private Disco discoSemana;
+	private Artista artistaSemana;
+	private Productor productorSemana;
+	private Discografica discograficaSemana;
+	private List<Disco> artistaSemanaDiscografia;
+	private List<Disco> productorSemanaDiscografia;
+	private List<Disco> discograficaSemanaDiscografia;
+	private List<ArtistaResumen> artistas;
+	private List<GeneroResumen> generos;
+	private List<ProductorResumen> productores;
+	private List<DiscograficaResumen> discograficas;
+
+	public Portada() {
+		super();
+	}
+
+	public Disco getDiscoSemana() {
+		return discoSemana;
+	}
+
+	public void setDiscoSemana(Disco discoSemana) {
+		this.discoSemana = discoSemana;
+	}
+
+	public Artista getArtistaSemana() {
+		return artistaSemana;
+	}
+
+	public void setArtistaSemana(Artista artistaSemana) {
+		this.artistaSemana = artistaSemana;
+	}
+
+	public Productor getProductorSemana() {
+		return productorSemana;
+	}
+
+	public void setProductorSemana(Productor productorSemana) {
+		this.productorSemana = productorSemana;
+	}
+
+	public Discografica getDiscograficaSemana() {
+		return discograficaSemana;
+	}
+
+	public void setDiscograficaSemana(Discografica discograficaSemana) {
+		this.discograficaSemana = discograficaSemana;
+	}
+
+	public List<Disco> getArtistaSemanaDiscografia() {
+		return artistaSemanaDiscografia;
+	}
+
+	public void setArtistaSemanaDiscografia(List<Disco> artistaSemanaDiscografia) {
+		this.artistaSemanaDiscografia = artistaSemanaDiscografia;
+	}
+
+	public List<Disco> getProductorSemanaDiscografia() {
+		return productorSemanaDiscografia;
+	}
+
+	public void setProductorSemanaDiscografia(List<Disco> productorSemanaDiscografia) {
+		this.productorSemanaDiscografia = productorSemanaDiscografia;
+	}
+
+	public List<Disco> getDiscograficaSemanaDiscografia() {
+		return discograficaSemanaDiscografia;
+	}
+
+	public void setDiscograficaSemanaDiscografia(List<Disco> discograficaSemanaDiscografia) {
+		this.discograficaSemanaDiscografia = discograficaSemanaDiscografia;
+	}
+
+	public List<ArtistaResumen> getArtistas() {
+		return artistas;
+	}
+
+	public void setArtistas(List<ArtistaResumen> artistas) {
+		this.artistas = artistas;
+	}
+
+	public List<GeneroResumen> getGeneros() {
+		return generos;
+	}
+
+	public void setGeneros(List<GeneroResumen> generos) {
+		this.generos = generos;
+	}
+
+	public List<ProductorResumen> getProductores() {
+		return productores;
+	}
+
+	public void setProductores(List<ProductorResumen> productores) {
+		this.productores = productores;
+	}
+
+	public List<DiscograficaResumen> getDiscograficas() {
+		return discograficas;
+	}
+
+	public void setDiscograficas(List<DiscograficaResumen> discograficas) {
+		this.discograficas = discograficas;
+	}
+
+}
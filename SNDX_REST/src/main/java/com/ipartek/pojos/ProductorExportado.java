@@ -0,0 +1,5 @@
+package com.ipartek.pojos;
+
+public record ProductorExportado(int id, String nombre, int notaMedia, String foto, String enlaceWikipedia) {
+
+}
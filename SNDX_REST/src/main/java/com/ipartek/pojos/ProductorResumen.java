@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Resumen de un productor para listados.
+ * Se construye directamente desde JPQL, sin cargar la entidad.
+ */
+public record ProductorResumen(int id, String nombre, String foto) {
+
+}
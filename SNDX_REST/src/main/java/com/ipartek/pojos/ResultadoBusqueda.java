@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Elemento del catálogo encontrado por /api/buscar.
+ * tipo es "disco", "artista", "productor", "discografica" o "genero".
+ */
+public record ResultadoBusqueda(String tipo, int id, String nombre, int relevancia) {
+
+}
@@ -0,0 +1,80 @@
+package com.ipartek.pojos;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResultadoFiltro {
+	private List<DiscoResumen> elementos;
+	private int pagina;
+	private int tamano;
+	private long total;
+	private Map<String, List<Faceta>> facetas; // dimensión -> recuentos
+
+	public ResultadoFiltro(List<DiscoResumen> elementos, int pagina, int tamano, long total,
+			Map<String, List<Faceta>> facetas) {
+		super();
+		this.elementos = elementos;
+		this.pagina = pagina;
+		this.tamano = tamano;
+		this.total = total;
+		this.facetas = facetas;
+	}
+
+	public ResultadoFiltro() {
+		super();
+		this.elementos = new ArrayList<DiscoResumen>();
+		this.pagina = 0;
+		this.tamano = 0;
+		this.total = 0;
+		this.facetas = new LinkedHashMap<String, List<Faceta>>();
+	}
+
+	public List<DiscoResumen> getElementos() {
+		return elementos;
+	}
+
+	public void setElementos(List<DiscoResumen> elementos) {
+		this.elementos = elementos;
+	}
+
+	public int getPagina() {
+		return pagina;
+	}
+
+	public void setPagina(int pagina) {
+		this.pagina = pagina;
+	}
+
+	public int getTamano() {
+		return tamano;
+	}
+
+	public void setTamano(int tamano) {
+		this.tamano = tamano;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public Map<String, List<Faceta>> getFacetas() {
+		return facetas;
+	}
+
+	public void setFacetas(Map<String, List<Faceta>> facetas) {
+		this.facetas = facetas;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoFiltro [elementos=" + elementos.size() + ", pagina=" + pagina + ", tamano=" + tamano
+				+ ", total=" + total + ", facetas=" + facetas.keySet() + "]";
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.ipartek.pojos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una importación. De los errores solo se guardan los primeros,
+ * para que la respuesta no crezca con el tamaño del volcado.
+ */
+public class ResultadoImportacion {
+	private long lineas;
+	private long insertados;
+	private long fallidos;
+	private int artistasCreados;
+	private int generosCreados;
+	private int productoresCreados;
+	private int discograficasCreadas;
+	private long milisegundos;
+	private List<String> errores;
+
+	public ResultadoImportacion() {
+		super();
+		this.errores = new ArrayList<String>();
+	}
+
+	public long getLineas() {
+		return lineas;
+	}
+
+	public void setLineas(long lineas) {
+		this.lineas = lineas;
+	}
+
+	public long getInsertados() {
+		return insertados;
+	}
+
+	public void setInsertados(long insertados) {
+		this.insertados = insertados;
+	}
+
+	public long getFallidos() {
+		return fallidos;
+	}
+
+	public void setFallidos(long fallidos) {
+		this.fallidos = fallidos;
+	}
+
+	public int getArtistasCreados() {
+		return artistasCreados;
+	}
+
+	public void setArtistasCreados(int artistasCreados) {
+		this.artistasCreados = artistasCreados;
+	}
+
+	public int getGenerosCreados() {
+		return generosCreados;
+	}
+
+	public void setGenerosCreados(int generosCreados) {
+		this.generosCreados = generosCreados;
+	}
+
+	public int getProductoresCreados() {
+		return productoresCreados;
+	}
+
+	public void setProductoresCreados(int productoresCreados) {
+		this.productoresCreados = productoresCreados;
+	}
+
+	public int getDiscograficasCreadas() {
+		return discograficasCreadas;
+	}
+
+	public void setDiscograficasCreadas(int discograficasCreadas) {
+		this.discograficasCreadas = discograficasCreadas;
+	}
+
+	public long getMilisegundos() {
+		return milisegundos;
+	}
+
+	public void setMilisegundos(long milisegundos) {
+		this.milisegundos = milisegundos;
+	}
+
+	public List<String> getErrores() {
+		return errores;
+	}
+
+	public void setErrores(List<String> errores) {
+		this.errores = errores;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoImportacion [lineas=" + lineas + ", insertados=" + insertados + ", fallidos=" + fallidos
+				+ ", artistasCreados=" + artistasCreados + ", generosCreados=" + generosCreados
+				+ ", productoresCreados=" + productoresCreados + ", discograficasCreadas=" + discograficasCreadas
+				+ ", milisegundos=" + milisegundos + "]";
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.ipartek.pojos;
+
+/**
+ * Resultado de un elemento de una inserción por lotes: su posición en la
+ * petición y el id asignado, o el error si no se ha insertado.
+ */
+public record ResultadoInsercion(int indice, Integer id, String error) {
+
+}
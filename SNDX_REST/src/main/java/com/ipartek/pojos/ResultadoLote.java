@@ -0,0 +1,50 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+
+public class ResultadoLote {
+	private int insertados;
+	private int fallidos;
+	private List<ResultadoInsercion> resultados;
+
+	public ResultadoLote(int insertados, int fallidos, List<ResultadoInsercion> resultados) {
+		super();
+		this.insertados = insertados;
+		this.fallidos = fallidos;
+		this.resultados = resultados;
+	}
+
+	public ResultadoLote() {
+		super();
+	}
+
+	public int getInsertados() {
+		return insertados;
+	}
+
+	public void setInsertados(int insertados) {
+		this.insertados = insertados;
+	}
+
+	public int getFallidos() {
+		return fallidos;
+	}
+
+	public void setFallidos(int fallidos) {
+		this.fallidos = fallidos;
+	}
+
+	public List<ResultadoInsercion> getResultados() {
+		return resultados;
+	}
+
+	public void setResultados(List<ResultadoInsercion> resultados) {
+		this.resultados = resultados;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoLote [insertados=" + insertados + ", fallidos=" + fallidos + "]";
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.ipartek.pojos;
+
+import java.util.List;
+
+/**
+ * Respuesta de las consultas por lista de ids (?ids=1,2,3): los elementos
+ * encontrados en el orden pedido y los ids que no existen.
+ */
+public record ResultadoPorIds<T>(List<T> encontrados, List<Integer> noEncontrados) {
+
+}
@@ -1,12 +1,81 @@
 package com.ipartek.repositorio;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ipartek.modelo.Artista;
+import com.ipartek.pojos.ArtistaExportado;
+import com.ipartek.pojos.ArtistaResumen;
+import com.ipartek.pojos.IdPorNombre;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ArtistaRepositorio extends JpaRepository<Artista, Integer>{
+public interface ArtistaRepositorio extends JpaRepository<Artista, Integer>, ArtistaRepositorioNotas{
 	
+	// Listado completo en la caché de consultas de Hibernate: se invalida solo
+	// cuando cambia la tabla artistas
+	@Override
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Artista> findAll(Sort sort);
 	
+	// Paginación por cursor sobre (nombre, id), devolviendo resúmenes
+	@Query("SELECT new com.ipartek.pojos.ArtistaResumen(a.id, a.nombre, a.foto, a.notaMedia) FROM Artista a ORDER BY a.nombre ASC, a.id ASC")
+	List<ArtistaResumen> buscarPrimeraPagina(Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.ArtistaResumen(a.id, a.nombre, a.foto, a.notaMedia) FROM Artista a WHERE (:nombre IS NULL AND (a.nombre IS NOT NULL OR a.id > :id)) OR a.nombre > :nombre OR (a.nombre = :nombre AND a.id > :id) ORDER BY a.nombre ASC, a.id ASC")
+	List<ArtistaResumen> buscarPaginaTrasCursor(@Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	// Artistas con discos ordenados por nota media (índice idx_artistas_notamedia_id)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	@Query("SELECT new com.ipartek.pojos.ArtistaResumen(a.id, a.nombre, a.foto, a.notaMedia) FROM Artista a WHERE a.numDiscos > 0 ORDER BY a.notaMedia DESC, a.id ASC")
+	List<ArtistaResumen> buscarMejorValorados(Limit limite);
+	
+	// Reconstrucción de todos los agregados a partir de los discos, al arrancar
+	// sobre datos existentes (RecalculoNotaMedia). Es un UPDATE masivo y vacía
+	// la región de artistas; el día a día va por ArtistaRepositorioNotas
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Artista a SET "
+			+ "a.notaMedia = COALESCE(CAST(ROUND((SELECT AVG(d.puntuacion * 1.0) FROM Disco d WHERE d.artista = a), 0) AS Integer), 0), "
+			+ "a.sumaPuntuaciones = COALESCE((SELECT SUM(d.puntuacion) FROM Disco d WHERE d.artista = a), 0), "
+			+ "a.numDiscos = (SELECT COUNT(d) FROM Disco d WHERE d.artista = a)")
+	int recalcularAgregados();
+	
+	// Artistas con discos y sin agregados: las columnas se acaban de añadir
+	// (ddl-auto=update las crea a 0) y hay que reconstruirlos
+	@Query("SELECT COUNT(a) FROM Artista a WHERE a.numDiscos = 0 AND EXISTS (SELECT d.id FROM Disco d WHERE d.artista = a)")
+	long contarSinAgregados();
+	
+	// Ids de la lista que existen, para validar relaciones sin cargar entidades
+	@Query("SELECT a.id FROM Artista a WHERE a.id IN :ids")
+	List<Integer> buscarIdsExistentes(@Param("ids") Collection<Integer> ids);
+	
+	// Todas las claves, para elegir al azar sin cargar la tabla (DestacadoServicio)
+	@Query("SELECT a.id FROM Artista a ORDER BY a.id ASC")
+	List<Integer> buscarTodosLosIds();
+	
+	// Resolución de nombres a ids en la importación, sin distinguir mayúsculas:
+	// una consulta por lote con los nombres ya pasados a minúsculas
+	@Query("SELECT new com.ipartek.pojos.IdPorNombre(LOWER(a.nombre), a.id) FROM Artista a WHERE LOWER(a.nombre) IN :nombres ORDER BY a.id ASC")
+	List<IdPorNombre> buscarIdsPorNombres(@Param("nombres") Collection<String> nombres);
+	
+	// Exportación completa en streaming: filas planas leídas de 1000 en 1000
+	// (MySQL necesita useCursorFetch=true en la URL para respetar el fetch size)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.ipartek.pojos.ArtistaExportado(a.id, a.nombre, a.notaMedia, a.foto, a.enlaceWikipedia, a.enlaceSpotify, a.enlaceTidal) FROM Artista a ORDER BY a.id ASC")
+	Stream<ArtistaExportado> exportarTodos();
+	
+	// Borrado con un solo DELETE (deleteById hace antes un SELECT); devuelve 0 si no existía
+	@Modifying
+	@Query("DELETE FROM Artista a WHERE a.id = :id")
+	int borrarPorId(@Param("id") int id);
 
 }
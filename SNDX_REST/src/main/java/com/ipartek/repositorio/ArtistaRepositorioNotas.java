@@ -0,0 +1,22 @@
+package com.ipartek.repositorio;
+
+import java.util.Collection;
+
+/**
+ * Fragmento de {@link ArtistaRepositorio} que mantiene la nota media y sus
+ * agregados sobre la entidad gestionada, no con un UPDATE masivo.
+ * <p>
+ * Un UPDATE JPQL (o nativo sincronizado con Artista) hace que Hibernate vacíe
+ * entera la región "artistas" de la caché de segundo nivel y sus
+ * colecciones, y eso con cada disco que se escribe. Modificando la entidad,
+ * el flush actualiza solo la entrada de ese artista y la marca de tiempo de
+ * la tabla para la caché de consultas.
+ * </p>
+ */
+public interface ArtistaRepositorioNotas {
+
+	void ajustarNota(int id, long puntos, int discos);
+
+	int recalcularAgregados(Collection<Integer> ids);
+
+}
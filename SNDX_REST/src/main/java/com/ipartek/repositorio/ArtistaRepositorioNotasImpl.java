@@ -0,0 +1,78 @@
+package com.ipartek.repositorio;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ipartek.modelo.Artista;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+public class ArtistaRepositorioNotasImpl implements ArtistaRepositorioNotas {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	// Suma (o resta) puntos y discos al agregado del artista y recalcula la media
+	@Override
+	public void ajustarNota(int id, long puntos, int discos) {
+		Artista artista = bloquear(id);
+		if (artista != null) {
+			fijar(artista, artista.getSumaPuntuaciones() + puntos, artista.getNumDiscos() + discos);
+		}
+	}
+
+	// Reconstrucción a partir de los discos, tras un borrado de discos en cascada
+	@Override
+	public int recalcularAgregados(Collection<Integer> ids) {
+		// Primero los bloqueos: un disco escrito entre la suma y la asignación se perdería
+		Map<Integer, Artista> artistas = new LinkedHashMap<>();
+		for (Integer id : ids) {
+			// Los discos sin artista aportan un id nulo
+			Artista artista = id != null ? bloquear(id) : null;
+			if (artista != null) {
+				artistas.put(id, artista);
+			}
+		}
+		if (artistas.isEmpty()) {
+			return 0;
+		}
+
+		Map<Integer, long[]> agregados = new HashMap<>();
+		List<Object[]> filas = em.createQuery("SELECT d.artista.id, SUM(d.puntuacion), COUNT(d) FROM Disco d "
+				+ "WHERE d.artista.id IN :ids GROUP BY d.artista.id", Object[].class)
+				.setParameter("ids", artistas.keySet())
+				.getResultList();
+		for (Object[] fila : filas) {
+			agregados.put((Integer) fila[0], new long[] { ((Number) fila[1]).longValue(), ((Number) fila[2]).longValue() });
+		}
+		artistas.forEach((id, artista) -> {
+			long[] agregado = agregados.getOrDefault(id, new long[2]);
+			fijar(artista, agregado[0], (int) agregado[1]);
+		});
+		return artistas.size();
+	}
+
+	// Se relee con SELECT ... FOR UPDATE: la entidad puede venir de la caché o
+	// del contexto de persistencia con unos agregados que ya no son los últimos.
+	// Si ya está bloqueada en esta transacción es la última, y releerla
+	// descartaría los cambios aún sin volcar
+	private Artista bloquear(int id) {
+		Artista artista = em.find(Artista.class, id);
+		if (artista != null && em.getLockMode(artista) != LockModeType.PESSIMISTIC_WRITE) {
+			em.refresh(artista, LockModeType.PESSIMISTIC_WRITE);
+		}
+		return artista;
+	}
+
+	private static void fijar(Artista artista, long suma, int discos) {
+		artista.setSumaPuntuaciones(suma);
+		artista.setNumDiscos(discos);
+		artista.setNotaMedia(discos > 0 ? (int) Math.round((double) suma / discos) : 0);
+	}
+
+}
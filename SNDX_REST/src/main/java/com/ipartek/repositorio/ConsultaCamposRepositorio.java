@@ -0,0 +1,145 @@
+package com.ipartek.repositorio;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Repository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ipartek.auxiliar.Campos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * Consultas parciales (?fields= y ?expand=) de cualquier entidad del catálogo.
+ * <p>
+ * La SELECT lleva solo las columnas pedidas y un LEFT JOIN por relación
+ * expandida; cada fila se devuelve como un mapa con esos campos y en ese
+ * orden, así que el JSON no lleva nada que no se haya leído. Los atributos
+ * válidos salen del metamodelo: los propios (sin los @JsonIgnore, que no se
+ * publican) y las relaciones @ManyToOne.
+ * </p>
+ */
+@Repository
+public class ConsultaCamposRepositorio {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	/** Filas de la entidad ordenadas por nombre; con id, como mucho la de ese id. */
+	public List<Map<String, Object>> buscar(Class<?> entidad, Campos pedidos, Integer id) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<?> root = query.from(entidad);
+
+		Set<String> propios = atributos(entidad, PersistentAttributeType.BASIC);
+		Set<String> relaciones = atributos(entidad, PersistentAttributeType.MANY_TO_ONE);
+		for (String relacion : pedidos.getExpandir()) {
+			if (!relaciones.contains(relacion)) {
+				throw new IllegalArgumentException("Relación desconocida en expand: " + relacion);
+			}
+		}
+
+		// Cada columna seleccionada con su ruta en la fila: {campo} o {relación, campo}
+		List<Selection<?>> columnas = new ArrayList<>();
+		List<String[]> rutas = new ArrayList<>();
+		Set<String> campos = new LinkedHashSet<>(pedidos.getCampos().isEmpty() ? propios : pedidos.getCampos());
+		campos.addAll(pedidos.getExpandir());
+		for (String campo : campos) {
+			if (pedidos.getExpandir().contains(campo)) {
+				Join<?, ?> join = root.join(campo, JoinType.LEFT);
+				for (String subcampo : atributos(join.getJavaType(), PersistentAttributeType.BASIC)) {
+					columnas.add(join.get(subcampo));
+					rutas.add(new String[] { campo, subcampo });
+				}
+			} else if (relaciones.contains(campo)) {
+				// El id de la relación es la clave ajena: no hace falta JOIN
+				columnas.add(root.get(campo).get("id"));
+				rutas.add(new String[] { campo, "id" });
+			} else if (propios.contains(campo)) {
+				columnas.add(root.get(campo));
+				rutas.add(new String[] { campo });
+			} else {
+				throw new IllegalArgumentException("Campo desconocido en fields: " + campo);
+			}
+		}
+
+		query.multiselect(columnas);
+		if (id != null) {
+			query.where(cb.equal(root.get("id"), id));
+		}
+		query.orderBy(cb.asc(root.get("nombre")), cb.asc(root.get("id")));
+
+		List<Map<String, Object>> filas = new ArrayList<>();
+		for (Tuple tupla : em.createQuery(query).getResultList()) {
+			filas.add(fila(tupla, rutas));
+		}
+		return filas;
+	}
+
+	private static Map<String, Object> fila(Tuple tupla, List<String[]> rutas) {
+		Map<String, Object> fila = new LinkedHashMap<>();
+		for (int i = 0; i < rutas.size(); i++) {
+			String[] ruta = rutas.get(i);
+			Object valor = tupla.get(i);
+			if (ruta.length == 1) {
+				fila.put(ruta[0], valor);
+				continue;
+			}
+			// La primera columna de una relación es su id: si es null no hay relación
+			if (!fila.containsKey(ruta[0])) {
+				fila.put(ruta[0], valor != null ? new LinkedHashMap<String, Object>() : null);
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, Object> relacion = (Map<String, Object>) fila.get(ruta[0]);
+			if (relacion != null) {
+				relacion.put(ruta[1], valor);
+			}
+		}
+		return fila;
+	}
+
+	/** Atributos de un tipo en el orden de la clase, con el id primero. */
+	private Set<String> atributos(Class<?> entidad, PersistentAttributeType tipo) {
+		EntityType<?> metamodelo = em.getMetamodel().entity(entidad);
+		Set<String> atributos = new LinkedHashSet<>();
+		for (SingularAttribute<?, ?> atributo : metamodelo.getSingularAttributes()) {
+			if (atributo.isId() && atributo.getPersistentAttributeType() == tipo) {
+				atributos.add(atributo.getName());
+			}
+		}
+		for (Field campo : entidad.getDeclaredFields()) {
+			if (campo.isAnnotationPresent(JsonIgnore.class)) {
+				continue;
+			}
+			SingularAttribute<?, ?> atributo = singular(metamodelo, campo.getName());
+			if (atributo != null && atributo.getPersistentAttributeType() == tipo) {
+				atributos.add(atributo.getName());
+			}
+		}
+		return atributos;
+	}
+
+	private static SingularAttribute<?, ?> singular(EntityType<?> metamodelo, String nombre) {
+		for (SingularAttribute<?, ?> atributo : metamodelo.getSingularAttributes()) {
+			if (atributo.getName().equals(nombre)) {
+				return atributo;
+			}
+		}
+		return null;
+	}
+
+}
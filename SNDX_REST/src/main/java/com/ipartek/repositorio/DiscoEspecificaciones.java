@@ -0,0 +1,83 @@
+package com.ipartek.repositorio;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.FiltroDiscos;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Specifications para el filtro combinable de discos (/api/discos/filtro).
+ * <p>
+ * Cada dimensión se puede excluir del filtro para calcular sus facetas: los
+ * recuentos de una dimensión se hacen con el resto de filtros aplicados.
+ * </p>
+ */
+public class DiscoEspecificaciones {
+
+	public static final String GENERO = "genero";
+	public static final String DISCOGRAFICA = "discografica";
+	public static final String PRODUCTOR = "productor";
+	public static final String ARTISTA = "artista";
+	public static final String PUNTUACION = "puntuacion";
+	public static final String ANIO = "anio";
+
+	public static Specification<Disco> filtro(FiltroDiscos filtro) {
+		return filtroExcepto(filtro, null);
+	}
+
+	public static Specification<Disco> filtroExcepto(FiltroDiscos filtro, String dimension) {
+		return (root, query, cb) -> {
+			List<Predicate> predicados = new ArrayList<>();
+
+			// d.genero.id se resuelve sobre la clave ajena, sin JOIN
+			relacion(predicados, root, cb, GENERO, filtro.getGeneroId(), dimension);
+			relacion(predicados, root, cb, DISCOGRAFICA, filtro.getDiscograficaId(), dimension);
+			relacion(predicados, root, cb, PRODUCTOR, filtro.getProductorId(), dimension);
+			relacion(predicados, root, cb, ARTISTA, filtro.getArtistaId(), dimension);
+
+			if (!PUNTUACION.equals(dimension)) {
+				if (filtro.getPuntuacionMin() != null) {
+					predicados.add(cb.greaterThanOrEqualTo(root.get("puntuacion"), filtro.getPuntuacionMin()));
+				}
+				if (filtro.getPuntuacionMax() != null) {
+					predicados.add(cb.lessThanOrEqualTo(root.get("puntuacion"), filtro.getPuntuacionMax()));
+				}
+			}
+
+			if (!ANIO.equals(dimension)) {
+				// Rango sobre la propia columna para que use idx_discos_fecha:
+				// "1997-06-16" >= "1997" y < "1998"
+				if (filtro.getAnioMin() != null) {
+					predicados.add(cb.greaterThanOrEqualTo(root.get("fecha"), String.format("%04d", filtro.getAnioMin())));
+				}
+				if (filtro.getAnioMax() != null && filtro.getAnioMax() < 9999) {
+					predicados.add(cb.lessThan(root.get("fecha"), String.format("%04d", filtro.getAnioMax() + 1)));
+				}
+			}
+
+			return cb.and(predicados.toArray(new Predicate[0]));
+		};
+	}
+
+	/**
+	 * La fecha es texto libre; se toma como año sus 4 primeros caracteres
+	 * ("1997" o "1997-06-16"). Solo para agrupar: en un WHERE impediría usar
+	 * el índice de fecha.
+	 */
+	public static Expression<String> anio(Root<Disco> root, CriteriaBuilder cb) {
+		return cb.substring(root.get("fecha"), 1, 4);
+	}
+
+	private static void relacion(List<Predicate> predicados, Root<Disco> root, CriteriaBuilder cb,
+			String relacion, Integer id, String excluida) {
+		if (id != null && !relacion.equals(excluida)) {
+			predicados.add(cb.equal(root.get(relacion).get("id"), id));
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.ipartek.repositorio;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import com.ipartek.modelo.Disco;
+
+/**
+ * Inserción de discos por lotes JDBC.
+ * <p>
+ * Con GenerationType.IDENTITY Hibernate inserta fila a fila, así que aquí se
+ * usa un único INSERT preparado con addBatch/executeBatch. En MySQL, con
+ * rewriteBatchedStatements=true en la URL, el driver lo convierte en INSERTs
+ * multi-fila y devuelve igualmente los ids generados.
+ * </p>
+ * <p>
+ * No abre transacción: quien llama decide el tamaño de cada una.
+ * </p>
+ */
+@Repository
+public class DiscoLoteRepositorio {
+
+	private static final String INSERT = "INSERT INTO discos (nombre, puntuacion, fecha, foto, enlaceWikipedia, "
+			+ "enlaceSpotify, enlaceTidal, id_artista, id_genero, id_productor, id_discografica) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Inserta los discos en un solo lote y devuelve sus ids en el mismo orden.
+	 * Las relaciones se toman por id (0 o null se guarda como NULL).
+	 */
+	public int[] insertar(List<Disco> discos) {
+		KeyHolder claves = new GeneratedKeyHolder();
+
+		jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						Disco disco = discos.get(i);
+						ps.setString(1, disco.getNombre());
+						ps.setInt(2, disco.getPuntuacion());
+						ps.setString(3, disco.getFecha());
+						ps.setString(4, disco.getFoto());
+						ps.setString(5, disco.getEnlaceWikipedia());
+						ps.setString(6, disco.getEnlaceSpotify());
+						ps.setString(7, disco.getEnlaceTidal());
+						id(ps, 8, disco.getArtista() != null ? disco.getArtista().getId() : 0);
+						id(ps, 9, disco.getGenero() != null ? disco.getGenero().getId() : 0);
+						id(ps, 10, disco.getProductor() != null ? disco.getProductor().getId() : 0);
+						id(ps, 11, disco.getDiscografica() != null ? disco.getDiscografica().getId() : 0);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return discos.size();
+					}
+				}, claves);
+
+		// MySQL devuelve la clave como GENERATED_KEY y H2 como ID_DISCO: se
+		// toma la única columna de cada fila
+		List<Map<String, Object>> filas = claves.getKeyList();
+		int[] ids = new int[filas.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = ((Number) filas.get(i).values().iterator().next()).intValue();
+		}
+		return ids;
+	}
+
+	private static void id(PreparedStatement ps, int posicion, int id) throws SQLException {
+		if (id != 0) {
+			ps.setInt(posicion, id);
+		} else {
+			ps.setNull(posicion, Types.INTEGER);
+		}
+	}
+
+}
@@ -1,19 +1,131 @@
 package com.ipartek.repositorio;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscoExportado;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.Faceta;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface DiscoRepositorio extends JpaRepository<Disco, Integer>{
+public interface DiscoRepositorio extends JpaRepository<Disco, Integer>, JpaSpecificationExecutor<Disco>, DiscoRepositorioFacetas{
 	
+	// Todos los listados usan el grafo "Disco.relaciones" para evitar el N+1
+	// sobre productor, discografica, genero y artista
+	@Override
+	@EntityGraph("Disco.relaciones")
+	List<Disco> findAll();
+	
+	@Override
+	@EntityGraph("Disco.relaciones")
+	List<Disco> findAll(Sort sort);
+	
+	@Override
+	@EntityGraph("Disco.relaciones")
+	Page<Disco> findAll(Specification<Disco> spec, Pageable pageable);
+	
+	// Varios discos por id en una consulta IN, con sus relaciones
+	@EntityGraph("Disco.relaciones")
+	@Query("SELECT d FROM Disco d WHERE d.id IN :ids")
+	List<Disco> buscarPorIds(@Param("ids") Collection<Integer> ids);
+	
+	@EntityGraph("Disco.relaciones")
 	List<Disco> findByArtistaId(Integer artistaId);
 	
+	// Discografías de varios artistas en una consulta (/api/artistas/discografias)
+	@EntityGraph("Disco.relaciones")
+	@Query("SELECT d FROM Disco d WHERE d.artista.id IN :artistaIds ORDER BY d.id ASC")
+	List<Disco> buscarPorArtistas(@Param("artistaIds") Collection<Integer> artistaIds);
+	
+	@EntityGraph("Disco.relaciones")
 	List<Disco> findByProductorId(Integer productorId);
 	
+	@EntityGraph("Disco.relaciones")
 	List<Disco> findByDiscograficaId(Integer discograficaId);
 
+	@EntityGraph("Disco.relaciones")
 	List<Disco> findByGeneroId(Integer generoId);
+	
+	// Paginación por cursor sobre (nombre, id), devolviendo resúmenes
+	@Query("SELECT new com.ipartek.pojos.DiscoResumen(d.id, d.nombre, d.foto, d.puntuacion, a.id, a.nombre) FROM Disco d LEFT JOIN d.artista a ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscoResumen> buscarPrimeraPagina(Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.DiscoResumen(d.id, d.nombre, d.foto, d.puntuacion, a.id, a.nombre) FROM Disco d LEFT JOIN d.artista a WHERE (:nombre IS NULL AND (d.nombre IS NOT NULL OR d.id > :id)) OR d.nombre > :nombre OR (d.nombre = :nombre AND d.id > :id) ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscoResumen> buscarPaginaTrasCursor(@Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.DiscoResumen(d.id, d.nombre, d.foto, d.puntuacion, a.id, a.nombre) FROM Disco d LEFT JOIN d.artista a WHERE d.genero.id = :generoId ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscoResumen> buscarPrimeraPaginaPorGenero(@Param("generoId") int generoId, Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.DiscoResumen(d.id, d.nombre, d.foto, d.puntuacion, a.id, a.nombre) FROM Disco d LEFT JOIN d.artista a WHERE d.genero.id = :generoId AND ((:nombre IS NULL AND (d.nombre IS NOT NULL OR d.id > :id)) OR d.nombre > :nombre OR (d.nombre = :nombre AND d.id > :id)) ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscoResumen> buscarPaginaPorGeneroTrasCursor(@Param("generoId") int generoId, @Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	// Todas las claves, para elegir al azar sin cargar la tabla (DestacadoServicio)
+	@Query("SELECT d.id FROM Disco d ORDER BY d.id ASC")
+	List<Integer> buscarTodosLosIds();
+
+	// Discos que embeben una entidad, para invalidar solo esos en la caché
+	@Query("SELECT d.id FROM Disco d WHERE d.artista.id = :artistaId")
+	List<Integer> buscarIdsPorArtista(@Param("artistaId") int artistaId);
+
+	@Query("SELECT d.id FROM Disco d WHERE d.genero.id = :generoId")
+	List<Integer> buscarIdsPorGenero(@Param("generoId") int generoId);
+
+	@Query("SELECT d.id FROM Disco d WHERE d.productor.id = :productorId")
+	List<Integer> buscarIdsPorProductor(@Param("productorId") int productorId);
+	
+	@Query("SELECT d.id FROM Disco d WHERE d.discografica.id = :discograficaId")
+	List<Integer> buscarIdsPorDiscografica(@Param("discograficaId") int discograficaId);
+	
+	// Artistas afectados por el borrado en cascada de los discos de un productor o discográfica
+	@Query("SELECT DISTINCT d.artista.id FROM Disco d WHERE d.productor.id = :productorId")
+	List<Integer> buscarArtistasPorProductor(@Param("productorId") int productorId);
+	
+	@Query("SELECT DISTINCT d.artista.id FROM Disco d WHERE d.discografica.id = :discograficaId")
+	List<Integer> buscarArtistasPorDiscografica(@Param("discograficaId") int discograficaId);
+	
+	// Fotos de esos mismos discos (una por disco, con repetidas), para soltar sus referencias
+	@Query("SELECT d.foto FROM Disco d WHERE d.productor.id = :productorId")
+	List<String> buscarFotosPorProductor(@Param("productorId") int productorId);
+	
+	@Query("SELECT d.foto FROM Disco d WHERE d.discografica.id = :discograficaId")
+	List<String> buscarFotosPorDiscografica(@Param("discograficaId") int discograficaId);
+	
+	// Estadísticas del catálogo: recuentos agrupados en la base de datos
+	@Query("SELECT new com.ipartek.pojos.Faceta(CAST(g.id AS String), g.nombre, COUNT(d)) FROM Disco d JOIN d.genero g GROUP BY g.id, g.nombre ORDER BY COUNT(d) DESC, g.nombre ASC")
+	List<Faceta> contarPorGenero();
+	
+	@Query("SELECT new com.ipartek.pojos.Faceta(CAST(x.id AS String), x.nombre, COUNT(d)) FROM Disco d JOIN d.discografica x GROUP BY x.id, x.nombre ORDER BY COUNT(d) DESC, x.nombre ASC")
+	List<Faceta> contarPorDiscografica();
+	
+	@Query("SELECT new com.ipartek.pojos.Faceta(CAST(p.id AS String), p.nombre, COUNT(d)) FROM Disco d JOIN d.productor p GROUP BY p.id, p.nombre ORDER BY COUNT(d) DESC, p.nombre ASC")
+	List<Faceta> contarPorProductor();
+	
+	// El año son los 4 primeros caracteres de la fecha (texto libre)
+	@Query("SELECT new com.ipartek.pojos.Faceta(SUBSTRING(d.fecha, 1, 4), SUBSTRING(d.fecha, 1, 4), COUNT(d)) FROM Disco d WHERE LENGTH(d.fecha) >= 4 GROUP BY SUBSTRING(d.fecha, 1, 4) ORDER BY SUBSTRING(d.fecha, 1, 4) ASC")
+	List<Faceta> contarPorAnio();
+	
+	@Query("SELECT new com.ipartek.pojos.Faceta(CAST(d.puntuacion AS String), CAST(d.puntuacion AS String), COUNT(d)) FROM Disco d GROUP BY d.puntuacion ORDER BY d.puntuacion ASC")
+	List<Faceta> contarPorPuntuacion();
+	
+	// Exportación completa en streaming: filas planas leídas de 1000 en 1000
+	// (MySQL necesita useCursorFetch=true en la URL para respetar el fetch size)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.ipartek.pojos.DiscoExportado(d.id, d.nombre, d.puntuacion, d.fecha, d.foto, d.enlaceWikipedia, d.enlaceSpotify, d.enlaceTidal, a.id, a.nombre, g.id, g.nombre, p.id, p.nombre, x.id, x.nombre) FROM Disco d LEFT JOIN d.artista a LEFT JOIN d.genero g LEFT JOIN d.productor p LEFT JOIN d.discografica x ORDER BY d.id ASC")
+	Stream<DiscoExportado> exportarTodos();
 
 }
@@ -0,0 +1,25 @@
+package com.ipartek.repositorio;
+
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.Faceta;
+
+/**
+ * Fragmento de {@link DiscoRepositorio} con el listado y los recuentos
+ * agrupados (facetas) del filtro de discos, hechos con Criteria.
+ */
+public interface DiscoRepositorioFacetas {
+
+	List<DiscoResumen> buscarResumenes(Specification<Disco> filtro, int pagina, int tamano);
+
+	long contar(Specification<Disco> filtro);
+
+	List<Faceta> contarPorRelacion(String relacion, Specification<Disco> filtro);
+
+	List<Faceta> contarPorPuntuacion(Specification<Disco> filtro);
+
+	List<Faceta> contarPorAnio(Specification<Disco> filtro);
+
+}
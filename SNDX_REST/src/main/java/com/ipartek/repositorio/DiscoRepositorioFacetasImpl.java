@@ -0,0 +1,114 @@
+package com.ipartek.repositorio;
+
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.Faceta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+
+public class DiscoRepositorioFacetasImpl implements DiscoRepositorioFacetas {
+
+	// Las dimensiones con muchos valores (artistas) se recortan a los más frecuentes
+	private static final int MAX_VALORES = 50;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	// Solo las columnas del resumen y el artista: sin entidades ni las otras relaciones
+	@Override
+	public List<DiscoResumen> buscarResumenes(Specification<Disco> filtro, int pagina, int tamano) {
+		// En long: pagina * tamano puede desbordar un int
+		long desde = (long) pagina * tamano;
+		if (desde > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Página no válida: " + pagina);
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<DiscoResumen> query = cb.createQuery(DiscoResumen.class);
+		Root<Disco> root = query.from(Disco.class);
+		Join<Disco, Artista> artista = root.join("artista", JoinType.LEFT);
+
+		query.select(cb.construct(DiscoResumen.class, root.get("id"), root.get("nombre"), root.get("foto"),
+					root.get("puntuacion"), artista.get("id"), artista.get("nombre")))
+			.where(filtro.toPredicate(root, query, cb))
+			.orderBy(cb.asc(root.get("nombre")), cb.asc(root.get("id")));
+
+		return em.createQuery(query)
+				.setFirstResult((int) desde)
+				.setMaxResults(tamano)
+				.getResultList();
+	}
+
+	@Override
+	public long contar(Specification<Disco> filtro) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Disco> root = query.from(Disco.class);
+
+		query.select(cb.count(root)).where(filtro.toPredicate(root, query, cb));
+		return em.createQuery(query).getSingleResult();
+	}
+
+	@Override
+	public List<Faceta> contarPorRelacion(String relacion, Specification<Disco> filtro) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Disco> root = query.from(Disco.class);
+		Join<Disco, ?> join = root.join(relacion);
+		Expression<Long> total = cb.count(root);
+
+		query.multiselect(join.get("id"), join.get("nombre"), total)
+			.where(filtro.toPredicate(root, query, cb))
+			.groupBy(join.get("id"), join.get("nombre"))
+			.orderBy(cb.desc(total));
+
+		return em.createQuery(query).setMaxResults(MAX_VALORES).getResultList().stream()
+				.map(t -> new Faceta(String.valueOf(t.get(0)), t.get(1, String.class), t.get(2, Long.class)))
+				.toList();
+	}
+
+	@Override
+	public List<Faceta> contarPorPuntuacion(Specification<Disco> filtro) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Disco> root = query.from(Disco.class);
+		Expression<Integer> puntuacion = root.get("puntuacion");
+
+		query.multiselect(puntuacion, cb.count(root))
+			.where(filtro.toPredicate(root, query, cb))
+			.groupBy(puntuacion)
+			.orderBy(cb.asc(puntuacion));
+
+		return em.createQuery(query).getResultList().stream()
+				.map(t -> new Faceta(String.valueOf(t.get(0)), String.valueOf(t.get(0)), t.get(1, Long.class)))
+				.toList();
+	}
+
+	@Override
+	public List<Faceta> contarPorAnio(Specification<Disco> filtro) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Disco> root = query.from(Disco.class);
+		Expression<String> anio = DiscoEspecificaciones.anio(root, cb);
+
+		query.multiselect(anio, cb.count(root))
+			.where(filtro.toPredicate(root, query, cb), cb.greaterThanOrEqualTo(cb.length(root.get("fecha")), 4))
+			.groupBy(anio)
+			.orderBy(cb.asc(anio));
+
+		return em.createQuery(query).getResultList().stream()
+				.map(t -> new Faceta(t.get(0, String.class), t.get(0, String.class), t.get(1, Long.class)))
+				.toList();
+	}
+
+}
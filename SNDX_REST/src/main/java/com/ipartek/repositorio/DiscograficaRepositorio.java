@@ -1,10 +1,60 @@
 package com.ipartek.repositorio;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ipartek.modelo.Discografica;
+import com.ipartek.pojos.DiscograficaExportado;
+import com.ipartek.pojos.DiscograficaResumen;
+import com.ipartek.pojos.IdPorNombre;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface DiscograficaRepositorio extends JpaRepository<Discografica, Integer>{
+	
+	// Listado completo en la caché de consultas de Hibernate: se invalida solo
+	// cuando cambia la tabla discograficas
+	@Override
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Discografica> findAll(Sort sort);
+	
+	// Paginación por cursor sobre (nombre, id), devolviendo resúmenes
+	@Query("SELECT new com.ipartek.pojos.DiscograficaResumen(d.id, d.nombre, d.logo) FROM Discografica d ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscograficaResumen> buscarPrimeraPagina(Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.DiscograficaResumen(d.id, d.nombre, d.logo) FROM Discografica d WHERE (:nombre IS NULL AND (d.nombre IS NOT NULL OR d.id > :id)) OR d.nombre > :nombre OR (d.nombre = :nombre AND d.id > :id) ORDER BY d.nombre ASC, d.id ASC")
+	List<DiscograficaResumen> buscarPaginaTrasCursor(@Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	// Ids de la lista que existen, para validar relaciones sin cargar entidades
+	@Query("SELECT x.id FROM Discografica x WHERE x.id IN :ids")
+	List<Integer> buscarIdsExistentes(@Param("ids") Collection<Integer> ids);
+	
+	// Todas las claves, para elegir al azar sin cargar la tabla (DestacadoServicio)
+	@Query("SELECT d.id FROM Discografica d ORDER BY d.id ASC")
+	List<Integer> buscarTodosLosIds();
+	
+	// Resolución de nombres a ids en la importación, sin distinguir mayúsculas:
+	// una consulta por lote con los nombres ya pasados a minúsculas
+	@Query("SELECT new com.ipartek.pojos.IdPorNombre(LOWER(x.nombre), x.id) FROM Discografica x WHERE LOWER(x.nombre) IN :nombres ORDER BY x.id ASC")
+	List<IdPorNombre> buscarIdsPorNombres(@Param("nombres") Collection<String> nombres);
+	
+	// Exportación completa en streaming: filas planas leídas de 1000 en 1000
+	// (MySQL necesita useCursorFetch=true en la URL para respetar el fetch size)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.ipartek.pojos.DiscograficaExportado(x.id, x.nombre, x.logo, x.enlaceWikipedia) FROM Discografica x ORDER BY x.id ASC")
+	Stream<DiscograficaExportado> exportarTodos();
+	
+	@Modifying
+	@Query("DELETE FROM Discografica d WHERE d.id = :id")
+	int borrarPorId(@Param("id") int id);
 
 }
@@ -1,10 +1,52 @@
 package com.ipartek.repositorio;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ipartek.modelo.Genero;
+import com.ipartek.pojos.GeneroExportado;
+import com.ipartek.pojos.GeneroResumen;
+import com.ipartek.pojos.IdPorNombre;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface GeneroRepositorio extends JpaRepository<Genero, Integer>{
+	
+	@Query("SELECT new com.ipartek.pojos.GeneroResumen(g.id, g.nombre, COUNT(d)) FROM Genero g LEFT JOIN g.discos d GROUP BY g.id, g.nombre ORDER BY g.nombre ASC, g.id ASC")
+	List<GeneroResumen> obtenerResumenes();
+	
+	// Paginación por cursor sobre (nombre, id), devolviendo resúmenes
+	@Query("SELECT new com.ipartek.pojos.GeneroResumen(g.id, g.nombre, COUNT(d)) FROM Genero g LEFT JOIN g.discos d GROUP BY g.id, g.nombre ORDER BY g.nombre ASC, g.id ASC")
+	List<GeneroResumen> buscarPrimeraPagina(Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.GeneroResumen(g.id, g.nombre, COUNT(d)) FROM Genero g LEFT JOIN g.discos d WHERE (:nombre IS NULL AND (g.nombre IS NOT NULL OR g.id > :id)) OR g.nombre > :nombre OR (g.nombre = :nombre AND g.id > :id) GROUP BY g.id, g.nombre ORDER BY g.nombre ASC, g.id ASC")
+	List<GeneroResumen> buscarPaginaTrasCursor(@Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	// Ids de la lista que existen, para validar relaciones sin cargar entidades
+	@Query("SELECT g.id FROM Genero g WHERE g.id IN :ids")
+	List<Integer> buscarIdsExistentes(@Param("ids") Collection<Integer> ids);
+	
+	// Resolución de nombres a ids en la importación, sin distinguir mayúsculas:
+	// una consulta por lote con los nombres ya pasados a minúsculas
+	@Query("SELECT new com.ipartek.pojos.IdPorNombre(LOWER(g.nombre), g.id) FROM Genero g WHERE LOWER(g.nombre) IN :nombres ORDER BY g.id ASC")
+	List<IdPorNombre> buscarIdsPorNombres(@Param("nombres") Collection<String> nombres);
+	
+	// Exportación completa en streaming: filas planas leídas de 1000 en 1000
+	// (MySQL necesita useCursorFetch=true en la URL para respetar el fetch size)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.ipartek.pojos.GeneroExportado(g.id, g.nombre) FROM Genero g ORDER BY g.id ASC")
+	Stream<GeneroExportado> exportarTodos();
+	
+	@Modifying
+	@Query("DELETE FROM Genero g WHERE g.id = :id")
+	int borrarPorId(@Param("id") int id);
 
 }
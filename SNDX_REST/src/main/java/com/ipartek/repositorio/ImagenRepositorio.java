@@ -0,0 +1,20 @@
+package com.ipartek.repositorio;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.ipartek.modelo.Imagen;
+
+@Repository
+public interface ImagenRepositorio extends JpaRepository<Imagen, String> {
+
+	// Suma (o resta) referencias con un solo UPDATE; devuelve 0 si la imagen no tiene cuenta
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Imagen i SET i.referencias = i.referencias + :cambio WHERE i.ruta = :ruta")
+	int sumarReferencias(@Param("ruta") String ruta, @Param("cambio") int cambio);
+
+}
@@ -0,0 +1,84 @@
+package com.ipartek.repositorio;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Alta por lotes JDBC de artistas, géneros, productores y discográficas de
+ * los que solo se conoce el nombre (importación de volcados).
+ * <p>
+ * Igual que DiscoLoteRepositorio: un INSERT preparado por tabla con
+ * addBatch/executeBatch, con el resto de columnas a sus valores iniciales
+ * (versión 0, nota 0 e imagen default.png). No abre transacción ni vacía
+ * cachés: de eso se encarga quien llama, una vez por lote.
+ * </p>
+ */
+@Repository
+public class NombresLoteRepositorio {
+
+	private static final String INSERT_ARTISTAS = "INSERT INTO artistas (version, notaMedia, nombre, foto) VALUES (0, 0, ?, 'default.png')";
+	private static final String INSERT_GENEROS = "INSERT INTO generos (version, nombre) VALUES (0, ?)";
+	private static final String INSERT_PRODUCTORES = "INSERT INTO productores (version, notaMedia, nombre, foto) VALUES (0, 0, ?, 'default.png')";
+	private static final String INSERT_DISCOGRAFICAS = "INSERT INTO discograficas (version, nombre, logo) VALUES (0, ?, 'default.png')";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/** Inserta los artistas y devuelve sus ids en el mismo orden. */
+	public int[] insertarArtistas(List<String> nombres) {
+		return insertar(INSERT_ARTISTAS, nombres);
+	}
+
+	/** Inserta los géneros y devuelve sus ids en el mismo orden. */
+	public int[] insertarGeneros(List<String> nombres) {
+		return insertar(INSERT_GENEROS, nombres);
+	}
+
+	/** Inserta los productores y devuelve sus ids en el mismo orden. */
+	public int[] insertarProductores(List<String> nombres) {
+		return insertar(INSERT_PRODUCTORES, nombres);
+	}
+
+	/** Inserta las discográficas y devuelve sus ids en el mismo orden. */
+	public int[] insertarDiscograficas(List<String> nombres) {
+		return insertar(INSERT_DISCOGRAFICAS, nombres);
+	}
+
+	private int[] insertar(String sql, List<String> nombres) {
+		if (nombres.isEmpty()) {
+			return new int[0];
+		}
+		KeyHolder claves = new GeneratedKeyHolder();
+
+		jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ps.setString(1, nombres.get(i));
+					}
+
+					@Override
+					public int getBatchSize() {
+						return nombres.size();
+					}
+				}, claves);
+
+		// Una sola columna por fila, con el nombre que le dé cada driver
+		List<Map<String, Object>> filas = claves.getKeyList();
+		int[] ids = new int[filas.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = ((Number) filas.get(i).values().iterator().next()).intValue();
+		}
+		return ids;
+	}
+
+}
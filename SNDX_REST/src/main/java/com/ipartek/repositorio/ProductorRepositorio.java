@@ -1,10 +1,60 @@
 package com.ipartek.repositorio;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.IdPorNombre;
+import com.ipartek.pojos.ProductorExportado;
+import com.ipartek.pojos.ProductorResumen;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ProductorRepositorio extends JpaRepository<Productor, Integer>{
+	
+	// Listado completo en la caché de consultas de Hibernate: se invalida solo
+	// cuando cambia la tabla productores
+	@Override
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Productor> findAll(Sort sort);
+	
+	// Paginación por cursor sobre (nombre, id), devolviendo resúmenes
+	@Query("SELECT new com.ipartek.pojos.ProductorResumen(p.id, p.nombre, p.foto) FROM Productor p ORDER BY p.nombre ASC, p.id ASC")
+	List<ProductorResumen> buscarPrimeraPagina(Limit limite);
+	
+	@Query("SELECT new com.ipartek.pojos.ProductorResumen(p.id, p.nombre, p.foto) FROM Productor p WHERE (:nombre IS NULL AND (p.nombre IS NOT NULL OR p.id > :id)) OR p.nombre > :nombre OR (p.nombre = :nombre AND p.id > :id) ORDER BY p.nombre ASC, p.id ASC")
+	List<ProductorResumen> buscarPaginaTrasCursor(@Param("nombre") String nombre, @Param("id") int id, Limit limite);
+	
+	// Ids de la lista que existen, para validar relaciones sin cargar entidades
+	@Query("SELECT p.id FROM Productor p WHERE p.id IN :ids")
+	List<Integer> buscarIdsExistentes(@Param("ids") Collection<Integer> ids);
+	
+	// Todas las claves, para elegir al azar sin cargar la tabla (DestacadoServicio)
+	@Query("SELECT p.id FROM Productor p ORDER BY p.id ASC")
+	List<Integer> buscarTodosLosIds();
+	
+	// Resolución de nombres a ids en la importación, sin distinguir mayúsculas:
+	// una consulta por lote con los nombres ya pasados a minúsculas
+	@Query("SELECT new com.ipartek.pojos.IdPorNombre(LOWER(p.nombre), p.id) FROM Productor p WHERE LOWER(p.nombre) IN :nombres ORDER BY p.id ASC")
+	List<IdPorNombre> buscarIdsPorNombres(@Param("nombres") Collection<String> nombres);
+	
+	// Exportación completa en streaming: filas planas leídas de 1000 en 1000
+	// (MySQL necesita useCursorFetch=true en la URL para respetar el fetch size)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new com.ipartek.pojos.ProductorExportado(p.id, p.nombre, p.notaMedia, p.foto, p.enlaceWikipedia) FROM Productor p ORDER BY p.id ASC")
+	Stream<ProductorExportado> exportarTodos();
+	
+	@Modifying
+	@Query("DELETE FROM Productor p WHERE p.id = :id")
+	int borrarPorId(@Param("id") int id);
 
 }
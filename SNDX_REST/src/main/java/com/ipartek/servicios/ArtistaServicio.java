@@ -3,19 +3,29 @@ package com.ipartek.servicios;
 import java.util.List;
 import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.ArtistaResumen;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.DiscografiaArtista;
+import com.ipartek.pojos.ResultadoPorIds;
 
 public interface ArtistaServicio {
 
 	List<Artista> obtenerTodosArtistas();
+
+	Pagina<ArtistaResumen> obtenerPaginaArtistas(String cursor, Integer tamano, boolean conTotal);
 	
 	List<Disco> obtenerDiscografiaPorArtista(Integer artistaId);
 
 	Artista obtenerArtistaPorID(Integer id);
 
+	ResultadoPorIds<Artista> obtenerArtistasPorIds(List<Integer> ids);
+
+	ResultadoPorIds<DiscografiaArtista> obtenerDiscografiasPorArtistas(List<Integer> ids);
+
 	boolean insertarArtista(Artista artista);
 
 	boolean borrarArtista(Integer id);
 
-	boolean modificarArtista(Artista artista);
+	Artista modificarArtista(Artista artista);
 
 }
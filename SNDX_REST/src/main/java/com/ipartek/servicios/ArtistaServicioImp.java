@@ -2,13 +2,30 @@ package com.ipartek.servicios;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.auxiliar.Versiones;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
 import com.ipartek.modelo.Artista;
+import com.ipartek.pojos.ArtistaResumen;
+import com.ipartek.pojos.Pagina;
 import com.ipartek.modelo.Disco;
 import com.ipartek.repositorio.ArtistaRepositorio;
 import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.auxiliar.PorIds;
+import com.ipartek.pojos.ResultadoPorIds;
+import com.ipartek.pojos.DiscografiaArtista;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -17,16 +34,44 @@ public class ArtistaServicioImp implements ArtistaServicio{
 	@Autowired
 	private ArtistaRepositorio artistaRepo;
 	
+	@Autowired
+	private BuscadorServicio buscador;
+	
 	@Autowired
 	private DiscoRepositorio discoRepositorio;
 	
+	@Autowired
+	private InvalidacionesCache invalidaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+	
 	
 	@Override
+	@Cacheable(value = CacheConfig.ARTISTAS, sync = true)
 	public List<Artista> obtenerTodosArtistas() {
 		return artistaRepo.findAll(Sort.by("nombre").ascending());
 	}
 
 	@Override
+	public Pagina<ArtistaResumen> obtenerPaginaArtistas(String cursor, Integer tamano, boolean conTotal) {
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		// Se lee una fila de más para saber si existe página siguiente
+		List<ArtistaResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = artistaRepo.buscarPrimeraPagina(Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = artistaRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		Long total = conTotal ? artistaRepo.count() : null;
+		return Paginacion.construir(filas, limite, ArtistaResumen::nombre, ArtistaResumen::id, total);
+	}
+
+	@Override
+	@Cacheable(value = CacheConfig.ARTISTA, sync = true)
 	public Artista obtenerArtistaPorID(Integer id) {
 		int idTemp=0;
 		if (id!=null) {
@@ -42,13 +87,49 @@ public class ArtistaServicioImp implements ArtistaServicio{
 		}
 	}
 
+	// Una sola consulta IN; el resultado se ordena como se pidió
+	@Override
+	public ResultadoPorIds<Artista> obtenerArtistasPorIds(List<Integer> ids) {
+		return PorIds.ordenar(ids, artistaRepo.findAllById(ids), Artista::getId);
+	}
+
+	// Los discos de todos los artistas en una consulta, repartidos después
+	// por artista; los artistas sin discos tienen una lista vacía
+	@Override
+	public ResultadoPorIds<DiscografiaArtista> obtenerDiscografiasPorArtistas(List<Integer> ids) {
+		List<Integer> existentes = artistaRepo.buscarIdsExistentes(ids);
+		
+		Map<Integer, List<Disco>> discosPorArtista = new HashMap<>();
+		if (!existentes.isEmpty()) {
+			for (Disco disco : discoRepositorio.buscarPorArtistas(existentes)) {
+				discosPorArtista.computeIfAbsent(disco.getArtista().getId(), id -> new ArrayList<>()).add(disco);
+			}
+		}
+		
+		List<DiscografiaArtista> discografias = existentes.stream()
+				.map(id -> new DiscografiaArtista(id, discosPorArtista.getOrDefault(id, List.of())))
+				.toList();
+		return PorIds.ordenar(ids, discografias, DiscografiaArtista::idArtista);
+	}
+
 	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.ARTISTAS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.ARTISTA, key = "#artista.id"),
+		@CacheEvict(value = CacheConfig.IDS, key = "'artistas'")
+	})
 	public boolean insertarArtista(Artista artista) {
 	    // Verificamos que el ID sea 0 (es decir, que es una artista nueva)
 	    if (artista.getId() == 0) {
+	        // Entidad nueva: Hibernate le asigna la versión inicial
+	        artista.setVersion(null);
 	        
+	        // Un artista nuevo no tiene discos: su nota parte de 0
+	        artista.setNotaMedia(0);
+
 	        // Guardamos la artista en la base de datos
 	        Artista artistaTemp = artistaRepo.save(artista);
+	        buscador.indexar(BuscadorServicio.ARTISTA, artistaTemp.getId(), artistaTemp.getNombre());
 
 	        // Comparamos el nombre de la artista guardada con la original
 	        if (artistaTemp.getNombre().equals(artista.getNombre())) {
@@ -64,55 +145,48 @@ public class ArtistaServicioImp implements ArtistaServicio{
 
 
 	@Override
-	public boolean modificarArtista(Artista artista) {
-	    // Buscar la artista en la base de datos usando su ID
-	    Optional<Artista> categoriaTemp = artistaRepo.findById(artista.getId());
-
-	    // Si se encontró la artista
-	    if (categoriaTemp.isPresent()) {
-
-	        // Se guarda la artista modificada
-	    	artistaRepo.save(artista);
-
-	        // Se vuelve a buscar para verificar si se guardó correctamente
-	        Optional<Artista> artistaTemp2 = artistaRepo.findById(artista.getId());
-
-	        Artista artista2 = new Artista();
-
-	        // Si se encontró después de guardar
-	        if (artistaTemp2.isPresent()) {
-	        	artista2 = artistaTemp2.orElse(new Artista());
-	        }
-
-	        // Se compara la artista modificada con la recuperada
-	        if (!artista.equals(artista2)) {
-	            return true; // Se ha modificado correctamente
-	        } else {
-	            return false; // No se modificó (quizás se envió igual)
-	        }
-
-	    } else {
-	        // No se encontró la artista, no se puede modificar
-	        return false;
-	    }
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.ARTISTAS, CacheConfig.DISCOS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.ARTISTA, key = "#artista.id")
+	})
+	@Transactional
+	public Artista modificarArtista(Artista artista) {
+		// Se carga la entidad (una SELECT por clave) y se copian sobre ella los
+		// datos recibidos: el flush emite un único UPDATE ... WHERE version=?
+		Artista artistaTemp = artistaRepo.findById(artista.getId()).orElse(null);
+		if (artistaTemp == null) {
+			return null; // No existe, no se puede modificar
+		}
+		Versiones.comprobar(artistaTemp.getVersion(), artista.getVersion(), Artista.class, artista.getId());
+		String fotoAnterior = artistaTemp.getFoto();
+
+		artistaTemp.setNombre(artista.getNombre());
+		artistaTemp.setFoto(artista.getFoto());
+		artistaTemp.setEnlaceWikipedia(artista.getEnlaceWikipedia());
+		artistaTemp.setEnlaceSpotify(artista.getEnlaceSpotify());
+		artistaTemp.setEnlaceTidal(artista.getEnlaceTidal());
+		artistaRepo.flush();
+
+		buscador.indexar(BuscadorServicio.ARTISTA, artistaTemp.getId(), artistaTemp.getNombre());
+		imagenServicio.cambiar(ImagenServicio.ARTISTAS, fotoAnterior, artistaTemp.getFoto());
+		// Sus discos lo llevan embebido: solo esos salen de la caché
+		invalidaciones.invalidar(CacheConfig.DISCO, discoRepositorio.buscarIdsPorArtista(artistaTemp.getId()));
+		return artistaTemp;
 	}
 
 	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.ARTISTAS, CacheConfig.IDS, CacheConfig.SEMANA }, allEntries = true),
+		@CacheEvict(value = CacheConfig.ARTISTA, key = "#id")
+	})
+	@Transactional
 	public boolean borrarArtista(Integer id) {
-	    // Buscar la artista por ID
-	    Optional<Artista> artistaTemp = artistaRepo.findById(id);
-
-	    // Si existe, se elimina
-	    if (artistaTemp.isPresent()) {
-	    	artistaRepo.deleteById(id);
-
-	        // Verificación opcional: confirmar que ya no existe
-	        boolean existe = artistaRepo.findById(id).isPresent();
-	        return !existe;
-	    }
-
-	    // Si no existe la artista, no se puede eliminar
-	    return false;
+		// Un solo DELETE: si no existía no borra ninguna fila
+		if (artistaRepo.borrarPorId(id) == 0) {
+			return false;
+		}
+		buscador.desindexar(BuscadorServicio.ARTISTA, id);
+		return true;
 	}
 	
 	@Override
@@ -0,0 +1,22 @@
+package com.ipartek.servicios;
+
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoBusqueda;
+
+public interface BuscadorServicio {
+
+	String DISCO = "disco";
+	String ARTISTA = "artista";
+	String PRODUCTOR = "productor";
+	String DISCOGRAFICA = "discografica";
+	String GENERO = "genero";
+
+	void construirIndice();
+
+	void indexar(String tipo, int id, String nombre);
+
+	void desindexar(String tipo, int id);
+
+	Pagina<ResultadoBusqueda> buscar(String texto, String tipo, String cursor, Integer tamano);
+
+}
@@ -0,0 +1,350 @@
+package com.ipartek.servicios;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoBusqueda;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+
+/**
+ * Índice invertido en memoria sobre el nombre de discos, artistas,
+ * productores, discográficas y géneros.
+ * <p>
+ * Cada nombre se trocea en palabras en minúsculas y sin acentos. El índice
+ * guarda, por palabra, las claves de los elementos que la contienen; la clave
+ * combina el tipo (32 bits altos) y el id (32 bits bajos). Las palabras están
+ * ordenadas para poder resolver prefijos ("radi" encuentra "radiohead").
+ * </p>
+ * <p>
+ * Se construye al arrancar leyendo los repositorios por lotes y se mantiene
+ * al día desde los métodos insertar, modificar y borrar de los servicios.
+ * Dentro de una transacción los cambios se aplican al confirmarla, para que
+ * un rollback no deje en el índice elementos que no existen.
+ * </p>
+ * <p>
+ * Una búsqueda recorre los candidatos del término más selectivo (primero la
+ * palabra exacta, luego sus prefijos), como mucho MAXIMO_CANDIDATOS del
+ * tipo pedido (se filtra por la clave, antes de contarlos), y
+ * guarda solo los mejores hasta el final de la página pedida en un montículo
+ * acotado: un prefijo de una letra no ordena el catálogo entero. Si se corta
+ * en el máximo, el total no se devuelve.
+ * </p>
+ */
+@Service
+public class BuscadorServicioImp implements BuscadorServicio {
+
+	private static final String[] TIPOS = { DISCO, ARTISTA, PRODUCTOR, DISCOGRAFICA, GENERO };
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+	private static final int LOTE_CARGA = 1000;
+	private static final int MAXIMO_CANDIDATOS = 10_000;
+
+	private static final Logger log = LoggerFactory.getLogger(BuscadorServicioImp.class);
+
+	// Mejor relevancia primero; a igualdad, nombres más cortos y orden alfabético
+	private static final Comparator<ResultadoBusqueda> ORDEN = Comparator
+			.comparingInt(ResultadoBusqueda::relevancia).reversed()
+			.thenComparingInt(r -> r.nombre().length())
+			.thenComparing(ResultadoBusqueda::nombre)
+			.thenComparingInt(ResultadoBusqueda::id);
+
+	private final ConcurrentSkipListMap<String, Set<Long>> indice = new ConcurrentSkipListMap<>();
+	private final ConcurrentHashMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public void construirIndice() {
+		indice.clear();
+		documentos.clear();
+
+		cargar(DISCO, discoRepo::buscarPrimeraPagina, discoRepo::buscarPaginaTrasCursor, r -> r.id(), r -> r.nombre());
+		cargar(ARTISTA, artistaRepo::buscarPrimeraPagina, artistaRepo::buscarPaginaTrasCursor, r -> r.id(), r -> r.nombre());
+		cargar(PRODUCTOR, productorRepo::buscarPrimeraPagina, productorRepo::buscarPaginaTrasCursor, r -> r.id(), r -> r.nombre());
+		cargar(DISCOGRAFICA, discograficaRepo::buscarPrimeraPagina, discograficaRepo::buscarPaginaTrasCursor, r -> r.id(), r -> r.nombre());
+		cargar(GENERO, generoRepo::buscarPrimeraPagina, generoRepo::buscarPaginaTrasCursor, r -> r.id(), r -> r.nombre());
+
+		log.info("Índice de búsqueda construido: {} elementos, {} palabras", documentos.size(), indice.size());
+	}
+
+	@Override
+	public void indexar(String tipo, int id, String nombre) {
+		trasConfirmar(() -> guardar(tipo, id, nombre));
+	}
+
+	@Override
+	public void desindexar(String tipo, int id) {
+		long clave = clave(tipo, id);
+		trasConfirmar(() -> desindexar(clave));
+	}
+
+	@Override
+	public Pagina<ResultadoBusqueda> buscar(String texto, String tipo, String cursor, Integer tamano) {
+		String[] terminos = trocear(texto);
+		if (terminos.length == 0) {
+			throw new IllegalArgumentException("La búsqueda no contiene ninguna palabra");
+		}
+		if (tipo != null && !Arrays.asList(TIPOS).contains(tipo)) {
+			throw new IllegalArgumentException("Tipo no válido: " + tipo);
+		}
+		int limite = Paginacion.limitarTamano(tamano);
+		int desde = desplazamiento(cursor);
+
+		// Se parte del término con menos candidatos y el resto se comprueba
+		// contra las palabras de cada documento
+		Collection<Set<Long>> candidatos = null;
+		int menor = Integer.MAX_VALUE;
+		for (String termino : terminos) {
+			Collection<Set<Long>> conjuntos = conPrefijo(termino).values();
+			int tam = 0;
+			for (Set<Long> conjunto : conjuntos) {
+				tam += conjunto.size();
+				if (tam >= menor) {
+					break;
+				}
+			}
+			if (tam < menor) {
+				menor = tam;
+				candidatos = conjuntos;
+			}
+		}
+
+		// Montículo con los mejores desde + limite; en la cabeza, el peor de ellos
+		int mejores = desde + limite;
+		PriorityQueue<ResultadoBusqueda> seleccion = new PriorityQueue<>(Math.min(mejores, MAXIMO_CANDIDATOS) + 1, ORDEN.reversed());
+		String consulta = String.join(" ", terminos);
+		long ordinal = tipo != null ? Arrays.asList(TIPOS).indexOf(tipo) : -1;
+		Set<Long> vistos = new HashSet<>();
+		int total = 0;
+		boolean completo = true;
+		recorrido:
+		for (Set<Long> conjunto : candidatos) {
+			for (Long clave : conjunto) {
+				// Los de otro tipo no cuentan para el máximo
+				if (ordinal >= 0 && clave >>> 32 != ordinal) {
+					continue;
+				}
+				if (!vistos.add(clave)) {
+					continue;
+				}
+				if (vistos.size() > MAXIMO_CANDIDATOS) {
+					completo = false;
+					break recorrido;
+				}
+				Documento documento = documentos.get(clave);
+				if (documento == null) {
+					continue;
+				}
+				int relevancia = relevancia(documento, terminos, consulta);
+				if (relevancia > 0) {
+					total++;
+					seleccion.add(new ResultadoBusqueda(documento.tipo, documento.id, documento.nombre, relevancia));
+					if (seleccion.size() > mejores) {
+						seleccion.poll();
+					}
+				}
+			}
+		}
+
+		List<ResultadoBusqueda> ordenados = new ArrayList<>(seleccion);
+		ordenados.sort(ORDEN);
+		int hasta = Math.min(total, mejores);
+		List<ResultadoBusqueda> elementos = desde >= ordenados.size() ? new ArrayList<>() : new ArrayList<>(ordenados.subList(desde, ordenados.size()));
+		String siguiente = hasta < total ? String.valueOf(hasta) : null;
+
+		return new Pagina<ResultadoBusqueda>(elementos, siguiente, completo ? Long.valueOf(total) : null);
+	}
+
+	/**
+	 * Puntúa un documento: 2 por cada término que coincide con una palabra
+	 * completa, 1 si solo coincide como prefijo y 0 (descartado) si algún
+	 * término no aparece. Bonus si el nombre entero coincide o empieza igual.
+	 */
+	private int relevancia(Documento documento, String[] terminos, String consulta) {
+		int relevancia = 0;
+		for (String termino : terminos) {
+			int mejor = 0;
+			for (String palabra : documento.palabras) {
+				if (palabra.equals(termino)) {
+					mejor = 2;
+					break;
+				}
+				if (palabra.startsWith(termino)) {
+					mejor = 1;
+				}
+			}
+			if (mejor == 0) {
+				return 0;
+			}
+			relevancia += mejor;
+		}
+
+		if (documento.normalizado.equals(consulta)) {
+			relevancia += 10;
+		} else if (documento.normalizado.startsWith(consulta)) {
+			relevancia += 3;
+		}
+		return relevancia;
+	}
+
+	private void guardar(String tipo, int id, String nombre) {
+		long clave = clave(tipo, id);
+		desindexar(clave);
+
+		Documento documento = new Documento(tipo, id, nombre);
+		documentos.put(clave, documento);
+		for (String palabra : documento.palabras) {
+			indice.computeIfAbsent(palabra, p -> ConcurrentHashMap.newKeySet()).add(clave);
+		}
+	}
+
+	// Con una transacción en curso el cambio espera a que se confirme (y se
+	// descarta con un rollback); fuera de ella, como al construir el índice, se aplica ya
+	private static void trasConfirmar(Runnable cambio) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			cambio.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				cambio.run();
+			}
+		});
+	}
+
+	private ConcurrentNavigableMap<String, Set<Long>> conPrefijo(String prefijo) {
+		return indice.subMap(prefijo, true, prefijo + Character.MAX_VALUE, true);
+	}
+
+	private void desindexar(long clave) {
+		Documento anterior = documentos.remove(clave);
+		if (anterior == null) {
+			return;
+		}
+		for (String palabra : anterior.palabras) {
+			indice.computeIfPresent(palabra, (p, claves) -> {
+				claves.remove(clave);
+				return claves.isEmpty() ? null : claves;
+			});
+		}
+	}
+
+	private <R> void cargar(String tipo, Function<Limit, List<R>> primera,
+			CursorFunction<R> siguiente, ToIntFunction<R> id, Function<R, String> nombre) {
+		List<R> lote = primera.apply(Limit.of(LOTE_CARGA));
+		while (!lote.isEmpty()) {
+			for (R fila : lote) {
+				guardar(tipo, id.applyAsInt(fila), nombre.apply(fila));
+			}
+			if (lote.size() < LOTE_CARGA) {
+				break;
+			}
+			R ultimo = lote.get(lote.size() - 1);
+			lote = siguiente.apply(nombre.apply(ultimo), id.applyAsInt(ultimo), Limit.of(LOTE_CARGA));
+		}
+	}
+
+	private static int desplazamiento(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return 0;
+		}
+		int desde;
+		try {
+			desde = Math.max(0, Integer.parseInt(cursor));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Cursor no válido: " + cursor);
+		}
+		// Nunca se recorren más candidatos que estos: un desplazamiento mayor
+		// solo serviría para reservar un montículo enorme
+		if (desde > MAXIMO_CANDIDATOS) {
+			throw new IllegalArgumentException("Cursor no válido: " + cursor);
+		}
+		return desde;
+	}
+
+	private static long clave(String tipo, int id) {
+		int ordinal = Arrays.asList(TIPOS).indexOf(tipo);
+		return ((long) ordinal << 32) | (id & 0xffffffffL);
+	}
+
+	static String normalizar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+		String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+		return sinAcentos.toLowerCase(Locale.ROOT).trim();
+	}
+
+	static String[] trocear(String texto) {
+		return Arrays.stream(SEPARADORES.split(normalizar(texto)))
+				.filter(p -> !p.isEmpty())
+				.distinct()
+				.toArray(String[]::new);
+	}
+
+	@FunctionalInterface
+	private interface CursorFunction<R> {
+		List<R> apply(String nombre, int id, Limit limite);
+	}
+
+	private static final class Documento {
+		private final String tipo;
+		private final int id;
+		private final String nombre;
+		private final String normalizado;
+		private final String[] palabras;
+
+		private Documento(String tipo, int id, String nombre) {
+			this.tipo = tipo;
+			this.id = id;
+			this.nombre = nombre == null ? "" : nombre;
+			this.palabras = trocear(this.nombre);
+			this.normalizado = String.join(" ", this.palabras);
+		}
+	}
+
+}
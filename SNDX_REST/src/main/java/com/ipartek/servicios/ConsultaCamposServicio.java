@@ -0,0 +1,14 @@
+package com.ipartek.servicios;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ipartek.auxiliar.Campos;
+
+public interface ConsultaCamposServicio {
+
+	List<Map<String, Object>> obtenerTodos(Class<?> entidad, Campos campos);
+
+	Map<String, Object> obtenerPorId(Class<?> entidad, int id, Campos campos);
+
+}
@@ -0,0 +1,47 @@
+package com.ipartek.servicios;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.repositorio.ConsultaCamposRepositorio;
+
+/**
+ * Listados y fichas con solo los campos y relaciones que pide la página
+ * (?fields= y ?expand=). No pasan por las cachés de los servicios: cada
+ * combinación de campos es una consulta distinta y pequeña.
+ */
+@Service
+public class ConsultaCamposServicioImp implements ConsultaCamposServicio {
+
+	@Autowired
+	private ConsultaCamposRepositorio consultaCamposRepo;
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> obtenerTodos(Class<?> entidad, Campos campos) {
+		return buscar(entidad, campos, null);
+	}
+
+	/** Devuelve null si no existe. */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Object> obtenerPorId(Class<?> entidad, int id, Campos campos) {
+		List<Map<String, Object>> filas = buscar(entidad, campos, id);
+		return filas.isEmpty() ? null : filas.get(0);
+	}
+
+	// @Repository traduce el IllegalArgumentException de un campo desconocido
+	// a InvalidDataAccessApiUsageException; los controladores lo esperan tal cual
+	private List<Map<String, Object>> buscar(Class<?> entidad, Campos campos, Integer id) {
+		try {
+			return consultaCamposRepo.buscar(entidad, campos, id);
+		} catch (InvalidDataAccessApiUsageException e) {
+			throw new IllegalArgumentException(e.getMostSpecificCause().getMessage(), e);
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.ipartek.servicios;
+
+public interface DestacadoServicio {
+
+	String DISCOS = "discos";
+	String ARTISTAS = "artistas";
+	String PRODUCTORES = "productores";
+	String DISCOGRAFICAS = "discograficas";
+
+	Integer obtenerIdAleatorio(String entidad);
+
+	Integer obtenerIdSemana(String entidad);
+
+}
@@ -0,0 +1,70 @@
+package com.ipartek.servicios;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import com.ipartek.auxiliar.Semanas;
+import com.ipartek.componente.IdsCatalogo;
+import com.ipartek.configuracion.CacheConfig;
+
+/**
+ * Elementos destacados de la portada: uno al azar en cada petición y uno
+ * fijo para toda la semana.
+ * <p>
+ * Los dos se eligen sobre el array de claves de IdsCatalogo, así que no se
+ * lee la tabla; el controlador carga después el elemento con el
+ * obtener*PorID cacheado. El de la semana es el id con el menor resumen de
+ * (entidad, semana ISO, id): no depende de cuántos ids haya ni de su orden,
+ * así que es el mismo en todas las instancias y solo cambia si se borra o
+ * si llega uno nuevo con un resumen menor. Se guarda en la caché SEMANA
+ * hasta que cambia la semana (la semana forma parte de la clave); las bajas
+ * vacían esa caché por si el elegido era el borrado, y al recalcularlo
+ * sale el mismo si sigue existiendo.
+ * </p>
+ */
+@Service
+public class DestacadoServicioImp implements DestacadoServicio {
+
+	@Autowired
+	private IdsCatalogo idsCatalogo;
+
+	@Override
+	public Integer obtenerIdAleatorio(String entidad) {
+		int[] ids = idsCatalogo.ids(entidad);
+		if (ids.length == 0) {
+			return null;
+		}
+		return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+	}
+
+	@Override
+	// Sin sync para poder no cachear el null de una tabla vacía
+	@Cacheable(value = CacheConfig.SEMANA, key = "#entidad + ':' + T(com.ipartek.auxiliar.Semanas).actual()", unless = "#result == null")
+	public Integer obtenerIdSemana(String entidad) {
+		int[] ids = idsCatalogo.ids(entidad);
+		if (ids.length == 0) {
+			return null;
+		}
+		long semilla = (entidad + ":" + Semanas.actual()).hashCode();
+		int elegido = ids[0];
+		long menor = resumen(semilla, elegido);
+		for (int id : ids) {
+			long valor = resumen(semilla, id);
+			if (Long.compareUnsigned(valor, menor) < 0) {
+				menor = valor;
+				elegido = id;
+			}
+		}
+		return elegido;
+	}
+
+	// Mezcla de SplitMix64: ids consecutivos dan resúmenes sin relación
+	private static long resumen(long semilla, int id) {
+		long z = semilla * 0x9E3779B97F4A7C15L + id;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
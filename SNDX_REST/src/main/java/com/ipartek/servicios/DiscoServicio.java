@@ -2,17 +2,31 @@ package com.ipartek.servicios;
 
 import java.util.List;
 import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.FiltroDiscos;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoFiltro;
+import com.ipartek.pojos.ResultadoLote;
+import com.ipartek.pojos.ResultadoPorIds;
 
 public interface DiscoServicio {
 	
 	List<Disco> obtenerTodosDiscos();
 
+	Pagina<DiscoResumen> obtenerPaginaDiscos(String cursor, Integer tamano, boolean conTotal);
+
+	ResultadoFiltro filtrarDiscos(FiltroDiscos filtro);
+
 	Disco obtenerDiscoPorID(Integer id);
 
+	ResultadoPorIds<Disco> obtenerDiscosPorIds(List<Integer> ids);
+
 	boolean insertarDisco(Disco disco);
 
+	ResultadoLote insertarLote(List<Disco> discos);
+
 	boolean borrarDisco(Integer id);
 
-	boolean modificarDisco(Disco disco);
+	Disco modificarDisco(Disco disco);
 
 }
@@ -1,25 +1,158 @@
 package com.ipartek.servicios;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.auxiliar.Versiones;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.modelo.Artista;
 import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.Faceta;
+import com.ipartek.pojos.FiltroDiscos;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoFiltro;
+import com.ipartek.pojos.ResultadoInsercion;
+import com.ipartek.pojos.ResultadoLote;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoEspecificaciones;
+import com.ipartek.repositorio.DiscoLoteRepositorio;
 import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+import com.ipartek.auxiliar.PorIds;
+import com.ipartek.pojos.ResultadoPorIds;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.data.domain.Sort;
 
 @Service
 public class DiscoServicioImp implements DiscoServicio{
 	
+	// Inserción por lotes: máximo por petición y filas por transacción
+	private static final int TAMANO_MAXIMO_LOTE = 10000;
+	private static final int FILAS_POR_TRANSACCION = 500;
+	
+	private static final Logger log = LoggerFactory.getLogger(DiscoServicioImp.class);
+	
 	@Autowired
 	private DiscoRepositorio discoRepo;
+	
+	@Autowired
+	private DiscoLoteRepositorio discoLoteRepo;
+	
+	@Autowired
+	private GeneroRepositorio generoRepo;
+	
+	@Autowired
+	private ProductorRepositorio productorRepo;
+	
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Autowired
+	private EntityManagerFactory emf;
+	
+	@Autowired
+	private InvalidacionesCache invalidaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+	
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+	
+	@Autowired
+	private BuscadorServicio buscador;
 
 	@Override
+	@Cacheable(value = CacheConfig.DISCOS, sync = true)
 	public List<Disco> obtenerTodosDiscos() {
 		return discoRepo.findAll(Sort.by("nombre").ascending());
 	}
 
 	@Override
+	public Pagina<DiscoResumen> obtenerPaginaDiscos(String cursor, Integer tamano, boolean conTotal) {
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		// Se lee una fila de más para saber si existe página siguiente
+		List<DiscoResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = discoRepo.buscarPrimeraPagina(Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = discoRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		Long total = conTotal ? discoRepo.count() : null;
+		return Paginacion.construir(filas, limite, DiscoResumen::nombre, DiscoResumen::id, total);
+	}
+
+	@Override
+	public ResultadoFiltro filtrarDiscos(FiltroDiscos filtro) {
+		if (filtro.getPagina() < 0) {
+			throw new IllegalArgumentException("Página no válida: " + filtro.getPagina());
+		}
+		int limite = Paginacion.limitarTamano(filtro.getTamano());
+		if ((long) filtro.getPagina() * limite > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Página no válida: " + filtro.getPagina());
+		}
+		
+		Specification<Disco> especificacion = DiscoEspecificaciones.filtro(filtro);
+		List<DiscoResumen> elementos = discoRepo.buscarResumenes(especificacion, filtro.getPagina(), limite);
+		
+		// Si la página no está llena ya se sabe el total sin contar
+		long total = elementos.size() < limite && (!elementos.isEmpty() || filtro.getPagina() == 0)
+				? (long) filtro.getPagina() * limite + elementos.size()
+				: discoRepo.contar(especificacion);
+		
+		// Cada dimensión se cuenta con el resto de filtros, para que el cliente
+		// pueda ver cuántos discos quedarían al cambiar ese filtro
+		Map<String, List<Faceta>> facetas = new LinkedHashMap<>();
+		for (String relacion : new String[] { DiscoEspecificaciones.GENERO, DiscoEspecificaciones.DISCOGRAFICA,
+				DiscoEspecificaciones.PRODUCTOR, DiscoEspecificaciones.ARTISTA }) {
+			facetas.put(relacion, discoRepo.contarPorRelacion(relacion, DiscoEspecificaciones.filtroExcepto(filtro, relacion)));
+		}
+		facetas.put(DiscoEspecificaciones.PUNTUACION, discoRepo.contarPorPuntuacion(
+				DiscoEspecificaciones.filtroExcepto(filtro, DiscoEspecificaciones.PUNTUACION)));
+		facetas.put(DiscoEspecificaciones.ANIO, discoRepo.contarPorAnio(
+				DiscoEspecificaciones.filtroExcepto(filtro, DiscoEspecificaciones.ANIO)));
+		
+		return new ResultadoFiltro(elementos, filtro.getPagina(), limite, total, facetas);
+	}
+
+	@Override
+	@Cacheable(value = CacheConfig.DISCO, sync = true)
 	public Disco obtenerDiscoPorID(Integer id) {
 		int idTemp=0;
 		if (id!=null) {
@@ -35,13 +168,39 @@ public class DiscoServicioImp implements DiscoServicio{
 		}
 	}
 
+	// Una sola consulta IN; el resultado se ordena como se pidió
 	@Override
+	public ResultadoPorIds<Disco> obtenerDiscosPorIds(List<Integer> ids) {
+		return PorIds.ordenar(ids, discoRepo.buscarPorIds(ids), Disco::getId);
+	}
+
+	@Override
+	// Cambian también la nota media del artista (ajustarNotaArtista invalida
+	// ese artista y sus discos) y el número de discos del género
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCO, key = "#disco.id"),
+		@CacheEvict(value = CacheConfig.IDS, key = "'discos'")
+	})
+	@Transactional
 	public boolean insertarDisco(Disco disco) {
 		// Verificamos que el ID sea 0 (es decir, que es un disco nuevo)
 	    if (disco.getId() == 0) {
+	        // Entidad nueva: Hibernate le asigna la versión inicial
+	        disco.setVersion(null);
+	        
+	        // De las relaciones solo cuenta el id: el cliente no tiene que
+	        // descargarlas antes y llegan sin versión. Con @Version, save() las
+	        // trataría como entidades separadas y el INSERT fallaría
+	        disco.setArtista(relacion(null, disco.getArtista(), Artista::getId, artistaRepo, "el artista"));
+	        disco.setGenero(relacion(null, disco.getGenero(), Genero::getId, generoRepo, "el género"));
+	        disco.setProductor(relacion(null, disco.getProductor(), Productor::getId, productorRepo, "el productor"));
+	        disco.setDiscografica(relacion(null, disco.getDiscografica(), Discografica::getId, discograficaRepo, "la discográfica"));
 	        
 	        // Guardamos el disco en la base de datos
 	    	Disco discoTemp = discoRepo.save(disco);
+	    	buscador.indexar(BuscadorServicio.DISCO, discoTemp.getId(), discoTemp.getNombre());
+	    	ajustarNotaArtista(idArtista(discoTemp), discoTemp.getPuntuacion(), 1);
 
 	        // Comparamos el nombre del disco guardado con la original
 	        if (discoTemp.getNombre().equals(disco.getNombre())) {
@@ -56,55 +215,242 @@ public class DiscoServicioImp implements DiscoServicio{
 	}
 
 	@Override
-	public boolean borrarDisco(Integer id) {
-		// Buscar el disco por ID
-	    Optional<Disco> discoTemp = discoRepo.findById(id);
-
-	    // Si existe, se elimina
-	    if (discoTemp.isPresent()) {
-	    	discoRepo.deleteById(id);
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.IDS, key = "'discos'")
+	})
+	public ResultadoLote insertarLote(List<Disco> discos) {
+		if (discos.size() > TAMANO_MAXIMO_LOTE) {
+			throw new IllegalArgumentException("Un lote admite como máximo " + TAMANO_MAXIMO_LOTE + " discos");
+		}
+		ResultadoInsercion[] resultados = new ResultadoInsercion[discos.size()];
+		
+		// Las relaciones se validan con una consulta por tipo para todo el lote
+		Set<Integer> artistas = existentes(discos, Disco::getArtista, ids -> artistaRepo.buscarIdsExistentes(ids), a -> a.getId());
+		Set<Integer> generos = existentes(discos, Disco::getGenero, ids -> generoRepo.buscarIdsExistentes(ids), g -> g.getId());
+		Set<Integer> productores = existentes(discos, Disco::getProductor, ids -> productorRepo.buscarIdsExistentes(ids), p -> p.getId());
+		Set<Integer> discograficas = existentes(discos, Disco::getDiscografica, ids -> discograficaRepo.buscarIdsExistentes(ids), d -> d.getId());
+		
+		List<Integer> validos = new ArrayList<>();
+		for (int i = 0; i < discos.size(); i++) {
+			Disco disco = discos.get(i);
+			String error = validarLote(disco, artistas, generos, productores, discograficas);
+			if (error != null) {
+				resultados[i] = new ResultadoInsercion(i, null, error);
+			} else {
+				if (disco.getFoto() == null || disco.getFoto().isBlank()) {
+					disco.setFoto("default.png");
+				}
+				validos.add(i);
+			}
+		}
+		
+		// Cada trozo va en su propia transacción: un fallo solo afecta a sus filas
+		for (int desde = 0; desde < validos.size(); desde += FILAS_POR_TRANSACCION) {
+			List<Integer> trozo = validos.subList(desde, Math.min(desde + FILAS_POR_TRANSACCION, validos.size()));
+			List<Disco> lote = trozo.stream().map(discos::get).toList();
+			
+			try {
+				int[] ids = transactionTemplate.execute(estado -> {
+					int[] generados = discoLoteRepo.insertar(lote);
+					ajustarNotaArtistas(lote);
+					// Las fotos no se suben con el lote: cada disco suma una
+					// referencia a la suya, o al borrarlo se soltaría una ajena
+					imagenServicio.retenerTrasCommit(ImagenServicio.DISCOS, lote.stream().map(Disco::getFoto).toList());
+					return generados;
+				});
+				for (int j = 0; j < trozo.size(); j++) {
+					resultados[trozo.get(j)] = new ResultadoInsercion(trozo.get(j), ids[j], null);
+					buscador.indexar(BuscadorServicio.DISCO, ids[j], lote.get(j).getNombre());
+				}
+				// Un id pedido antes de existir puede estar en caché como vacío
+				invalidaciones.invalidar(CacheConfig.DISCO, Arrays.stream(ids).boxed().toList());
+			} catch (DataAccessException e) {
+				log.warn("Error al insertar un lote de {} discos", trozo.size(), e);
+				for (Integer indice : trozo) {
+					resultados[indice] = new ResultadoInsercion(indice, null, "Error al insertar: " + e.getMostSpecificCause().getMessage());
+				}
+			}
+		}
+		
+		// Los INSERT JDBC no pasan por Hibernate: las colecciones de discos de la
+		// caché de segundo nivel de sus relaciones quedarían incompletas
+		Cache cache = emf.getCache().unwrap(Cache.class);
+		for (Integer indice : validos) {
+			Disco disco = discos.get(indice);
+			if (disco.getArtista() != null) {
+				cache.evictCollectionData(Artista.class.getName() + ".discografia", disco.getArtista().getId());
+			}
+			if (disco.getGenero() != null) {
+				cache.evictCollectionData(Genero.class.getName() + ".discos", disco.getGenero().getId());
+			}
+			if (disco.getProductor() != null) {
+				cache.evictCollectionData(Productor.class.getName() + ".discografia", disco.getProductor().getId());
+			}
+			if (disco.getDiscografica() != null) {
+				cache.evictCollectionData(Discografica.class.getName() + ".discografia", disco.getDiscografica().getId());
+			}
+		}
+		
+		int insertados = (int) Arrays.stream(resultados).filter(r -> r.error() == null).count();
+		return new ResultadoLote(insertados, resultados.length - insertados, Arrays.asList(resultados));
+	}
 
-	        // Verificación opcional: confirmar que ya no existe
-	        boolean existe = discoRepo.findById(id).isPresent();
-	        return !existe;
-	    }
+	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS, CacheConfig.IDS, CacheConfig.SEMANA }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCO, key = "#id")
+	})
+	@Transactional
+	public boolean borrarDisco(Integer id) {
+		// Hace falta el artista y la puntuación para descontarlos de su nota
+		Disco discoTemp = discoRepo.findById(id).orElse(null);
+		if (discoTemp == null) {
+			return false; // No existe, no se puede eliminar
+		}
 
-	    // Si no existe el disco, no se puede eliminar
-	    return false;
+		// Como entidad y no con DELETE masivo: de la caché de segundo nivel solo
+		// salen las colecciones de discos de sus cuatro relaciones
+		discoRepo.delete(discoTemp);
+		buscador.desindexar(BuscadorServicio.DISCO, id);
+		ajustarNotaArtista(idArtista(discoTemp), -discoTemp.getPuntuacion(), -1);
+		return true;
 	}
 
 	@Override
-	public boolean modificarDisco(Disco disco) {
-		// Buscar el disco en la base de datos usando su ID
-	    Optional<Disco> discoTemp = discoRepo.findById(disco.getId());
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCO, key = "#disco.id")
+	})
+	@Transactional
+	public Disco modificarDisco(Disco disco) {
+		// Se carga el disco (una SELECT con sus relaciones) y se copian sobre él
+		// los datos recibidos: el flush emite un único UPDATE ... WHERE version=?
+		Disco discoTemp = discoRepo.findById(disco.getId()).orElse(null);
+		if (discoTemp == null) {
+			return null; // No existe, no se puede modificar
+		}
+		Versiones.comprobar(discoTemp.getVersion(), disco.getVersion(), Disco.class, disco.getId());
 
-	    // Si se encontró el disco
-	    if (discoTemp.isPresent()) {
+		// Artista y puntuación anteriores, antes de sobrescribirlos
+		int idArtistaAnterior = idArtista(discoTemp);
+		int puntuacionAnterior = discoTemp.getPuntuacion();
+		String fotoAnterior = discoTemp.getFoto();
 
-	        // Se guarda el disco modificado
-	    	discoRepo.save(disco);
+		discoTemp.setPuntuacion(disco.getPuntuacion());
+		discoTemp.setFecha(disco.getFecha());
+		discoTemp.setNombre(disco.getNombre());
+		discoTemp.setFoto(disco.getFoto());
+		discoTemp.setEnlaceWikipedia(disco.getEnlaceWikipedia());
+		discoTemp.setEnlaceSpotify(disco.getEnlaceSpotify());
+		discoTemp.setEnlaceTidal(disco.getEnlaceTidal());
+		discoTemp.setArtista(relacion(discoTemp.getArtista(), disco.getArtista(), Artista::getId, artistaRepo, "el artista"));
+		discoTemp.setGenero(relacion(discoTemp.getGenero(), disco.getGenero(), Genero::getId, generoRepo, "el género"));
+		discoTemp.setProductor(relacion(discoTemp.getProductor(), disco.getProductor(), Productor::getId, productorRepo, "el productor"));
+		discoTemp.setDiscografica(relacion(discoTemp.getDiscografica(), disco.getDiscografica(), Discografica::getId, discograficaRepo, "la discográfica"));
+		discoRepo.flush();
 
-	        // Se vuelve a buscar para verificar si se guardó correctamente
-	        Optional<Disco> discoTemp2 = discoRepo.findById(disco.getId());
+		buscador.indexar(BuscadorServicio.DISCO, discoTemp.getId(), discoTemp.getNombre());
+		imagenServicio.cambiar(ImagenServicio.DISCOS, fotoAnterior, discoTemp.getFoto());
 
-	        Disco disco2 = new Disco();
+		int idArtista = idArtista(discoTemp);
+		if (idArtista == idArtistaAnterior) {
+			ajustarNotaArtista(idArtista, discoTemp.getPuntuacion() - puntuacionAnterior, 0);
+		} else {
+			ajustarNotaArtista(idArtistaAnterior, -puntuacionAnterior, -1);
+			ajustarNotaArtista(idArtista, discoTemp.getPuntuacion(), 1);
+		}
+		// ajustarNota modifica el artista gestionado: la respuesta ya lleva su nota nueva
+		return discoTemp;
+	}
 
-	        // Si se encontró después de guardar
-	        if (discoTemp2.isPresent()) {
-	        	disco2 = discoTemp2.orElse(new Disco());
-	        }
+	/**
+	 * Suma (o resta) la puntuación de un disco al agregado de su artista, en la
+	 * misma transacción que el cambio del disco, e invalida tras el commit ese
+	 * artista y sus discos, que lo llevan embebido con la nota. No hace nada
+	 * sin artista.
+	 */
+	private void ajustarNotaArtista(int idArtista, long puntos, int discos) {
+		if (idArtista != 0 && (puntos != 0 || discos != 0)) {
+			artistaRepo.ajustarNota(idArtista, puntos, discos);
+			invalidaciones.invalidar(CacheConfig.ARTISTA, List.of(idArtista));
+			invalidaciones.invalidar(CacheConfig.DISCO, discoRepo.buscarIdsPorArtista(idArtista));
+		}
+	}
 
-	        // Se compara el disco modificado con la recuperado
-	        if (!disco.equals(disco2)) {
-	            return true; // Se ha modificado correctamente
-	        } else {
-	            return false; // No se modificó (quizás se envió igual)
-	        }
+	private static int idArtista(Disco disco) {
+		return disco.getArtista() != null ? disco.getArtista().getId() : 0;
+	}
 
-	    } else {
-	        // No se encontró el disco, no se puede modificar
-	        return false;
-	    }
+	/**
+	 * Relación de un disco insertado o modificado a partir de la recibida, de
+	 * la que solo cuenta el id (0 o null la quita). Si no cambia se conserva
+	 * la entidad ya cargada; si cambia se busca, normalmente en la caché de
+	 * segundo nivel.
+	 */
+	private static <T> T relacion(T actual, T recibida, ToIntFunction<T> id,
+			JpaRepository<T, Integer> repo, String descripcion) {
+		int nueva = recibida != null ? id.applyAsInt(recibida) : 0;
+		if (nueva == 0) {
+			return null;
+		}
+		if (actual != null && id.applyAsInt(actual) == nueva) {
+			return actual;
+		}
+		return repo.findById(nueva)
+				.orElseThrow(() -> new IllegalArgumentException("No existe " + descripcion + " " + nueva));
+	}
+
+	/**
+	 * Igual que ajustarNotaArtista, pero agrupando por artista los discos de
+	 * un lote: un UPDATE por artista en vez de uno por disco.
+	 */
+	private void ajustarNotaArtistas(List<Disco> discos) {
+		Map<Integer, long[]> porArtista = new HashMap<>();
+		for (Disco disco : discos) {
+			long[] agregado = porArtista.computeIfAbsent(idArtista(disco), id -> new long[2]);
+			agregado[0] += disco.getPuntuacion();
+			agregado[1]++;
+		}
+		porArtista.forEach((idArtista, agregado) -> ajustarNotaArtista(idArtista, agregado[0], (int) agregado[1]));
+	}
+
+	private static String validarLote(Disco disco, Set<Integer> artistas, Set<Integer> generos,
+			Set<Integer> productores, Set<Integer> discograficas) {
+		if (disco == null) {
+			return "Disco vacío";
+		}
+		if (disco.getId() != 0) {
+			return "Ya tiene ID, no es nuevo";
+		}
+		if (disco.getNombre() == null || disco.getNombre().isBlank()) {
+			return "El nombre es obligatorio";
+		}
+		if (disco.getArtista() != null && disco.getArtista().getId() != 0 && !artistas.contains(disco.getArtista().getId())) {
+			return "No existe el artista " + disco.getArtista().getId();
+		}
+		if (disco.getGenero() != null && disco.getGenero().getId() != 0 && !generos.contains(disco.getGenero().getId())) {
+			return "No existe el género " + disco.getGenero().getId();
+		}
+		if (disco.getProductor() != null && disco.getProductor().getId() != 0 && !productores.contains(disco.getProductor().getId())) {
+			return "No existe el productor " + disco.getProductor().getId();
+		}
+		if (disco.getDiscografica() != null && disco.getDiscografica().getId() != 0 && !discograficas.contains(disco.getDiscografica().getId())) {
+			return "No existe la discográfica " + disco.getDiscografica().getId();
+		}
+		return null;
+	}
+
+	private static <T> Set<Integer> existentes(List<Disco> discos, Function<Disco, T> relacion,
+			Function<Set<Integer>, List<Integer>> consulta, Function<T, Integer> id) {
+		Set<Integer> ids = new HashSet<>();
+		for (Disco disco : discos) {
+			T relacionada = disco != null ? relacion.apply(disco) : null;
+			if (relacionada != null && id.apply(relacionada) != 0) {
+				ids.add(id.apply(relacionada));
+			}
+		}
+		return ids.isEmpty() ? ids : new HashSet<>(consulta.apply(ids));
 	}
 
 }
@@ -3,20 +3,27 @@ package com.ipartek.servicios;
 import java.util.List;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Discografica;
+import com.ipartek.pojos.DiscograficaResumen;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoPorIds;
 
 public interface DiscograficaServicio {
 	
 	List<Discografica> obtenerTodasDiscograficas();
+
+	Pagina<DiscograficaResumen> obtenerPaginaDiscograficas(String cursor, Integer tamano, boolean conTotal);
 	
 	List<Disco> obtenerDiscografiaPorDiscografica(Integer discograficaId);
 
 	Discografica obtenerDiscograficaPorID(Integer id);
 
+	ResultadoPorIds<Discografica> obtenerDiscograficasPorIds(List<Integer> ids);
+
 	boolean insertarDiscografica(Discografica discografica);
 
 	boolean borrarDiscografica(Integer id);
 
-	boolean modificarDiscografica(Discografica discografica);
+	Discografica modificarDiscografica(Discografica discografica);
 
 	
 
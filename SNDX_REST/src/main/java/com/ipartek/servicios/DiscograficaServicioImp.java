@@ -3,13 +3,27 @@ package com.ipartek.servicios;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ipartek.modelo.Disco;
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.auxiliar.Versiones;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
 import com.ipartek.modelo.Discografica;
+import com.ipartek.pojos.DiscograficaResumen;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.repositorio.ArtistaRepositorio;
 import com.ipartek.repositorio.DiscoRepositorio;
 import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.auxiliar.PorIds;
+import com.ipartek.pojos.ResultadoPorIds;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -19,16 +33,47 @@ public class DiscograficaServicioImp implements DiscograficaServicio{
 	@Autowired
 	private DiscograficaRepositorio discograficaRepo;
 	
+	@Autowired
+	private BuscadorServicio buscador;
+	
 	@Autowired
 	private DiscoRepositorio discoRepositorio;
 	
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+	
+	@Autowired
+	private InvalidacionesCache invalidaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+	
 
 	@Override
+	@Cacheable(value = CacheConfig.DISCOGRAFICAS, sync = true)
 	public List<Discografica> obtenerTodasDiscograficas() {
 		return discograficaRepo.findAll(Sort.by("nombre").ascending());
 	}
 
 	@Override
+	public Pagina<DiscograficaResumen> obtenerPaginaDiscograficas(String cursor, Integer tamano, boolean conTotal) {
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		// Se lee una fila de más para saber si existe página siguiente
+		List<DiscograficaResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = discograficaRepo.buscarPrimeraPagina(Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = discograficaRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		Long total = conTotal ? discograficaRepo.count() : null;
+		return Paginacion.construir(filas, limite, DiscograficaResumen::nombre, DiscograficaResumen::id, total);
+	}
+
+	@Override
+	@Cacheable(value = CacheConfig.DISCOGRAFICA, sync = true)
 	public Discografica obtenerDiscograficaPorID(Integer id) {
 		int idTemp=0;
 		if (id!=null) {
@@ -44,13 +89,27 @@ public class DiscograficaServicioImp implements DiscograficaServicio{
 		}
 	}
 
+	// Una sola consulta IN; el resultado se ordena como se pidió
 	@Override
+	public ResultadoPorIds<Discografica> obtenerDiscograficasPorIds(List<Integer> ids) {
+		return PorIds.ordenar(ids, discograficaRepo.findAllById(ids), Discografica::getId);
+	}
+
+	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOGRAFICAS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCOGRAFICA, key = "#discografica.id"),
+		@CacheEvict(value = CacheConfig.IDS, key = "'discograficas'")
+	})
 	public boolean insertarDiscografica(Discografica discografica) {
 		// Verificamos que el ID sea 0 (es decir, que es una discografica nueva)
 	    if (discografica.getId() == 0) {
+	        // Entidad nueva: Hibernate le asigna la versión inicial
+	        discografica.setVersion(null);
 	        
 	        // Guardamos la discografica en la base de datos
 	    	Discografica discograficaTemp = discograficaRepo.save(discografica);
+	    	buscador.indexar(BuscadorServicio.DISCOGRAFICA, discograficaTemp.getId(), discograficaTemp.getNombre());
 
 	        // Comparamos el nombre de la discografica guardada con la original
 	        if (discograficaTemp.getNombre().equals(discografica.getNombre())) {
@@ -65,56 +124,70 @@ public class DiscograficaServicioImp implements DiscograficaServicio{
 	}
 
 	@Override
+	// El borrado arrastra sus discos (cascade) y recalcula la nota de los artistas
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOGRAFICAS, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS, CacheConfig.IDS, CacheConfig.SEMANA }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCOGRAFICA, key = "#id")
+	})
+	@Transactional
 	public boolean borrarDiscografica(Integer id) {
-		// Buscar la discografica por ID
-	    Optional<Discografica> discograficaTemp = discograficaRepo.findById(id);
-
-	    // Si existe, se elimina
-	    if (discograficaTemp.isPresent()) {
-	    	discograficaRepo.deleteById(id);
-
-	        // Verificación opcional: confirmar que ya no existe
-	        boolean existe = discograficaRepo.findById(id).isPresent();
-	        return !existe;
-	    }
+		// El borrado se propaga a sus discos: se leen antes sus ids y artistas
+		// y se borran como entidades (DELETE en lote JDBC). Un DELETE masivo
+		// vaciaría en la caché de segundo nivel las colecciones de discos de
+		// todos los artistas, géneros, productores y discográficas; así solo
+		// salen las de los dueños de cada disco (auto_evict_collection_cache)
+		List<Integer> discos = discoRepositorio.buscarIdsPorDiscografica(id);
+		List<Integer> artistas = discoRepositorio.buscarArtistasPorDiscografica(id);
+		List<String> fotos = discoRepositorio.buscarFotosPorDiscografica(id);
+		discoRepositorio.deleteAll(discoRepositorio.findAllById(discos));
+		discoRepositorio.flush();
+		if (discograficaRepo.borrarPorId(id) == 0) {
+			return false; // No existe
+		}
 
-	    // Si no existe la discografica, no se puede eliminar
-	    return false;
+		buscador.desindexar(BuscadorServicio.DISCOGRAFICA, id);
+		for (Integer idDisco : discos) {
+			buscador.desindexar(BuscadorServicio.DISCO, idDisco);
+		}
+		// La nota media de sus artistas se recalcula sin los discos borrados
+		if (!artistas.isEmpty()) {
+			artistaRepo.recalcularAgregados(artistas);
+		}
+		// De las cachés por id salen solo los discos borrados y sus artistas
+		invalidaciones.invalidar(CacheConfig.DISCO, discos);
+		invalidaciones.invalidar(CacheConfig.ARTISTA, artistas);
+		// Cada disco borrado tenía una referencia a su foto
+		imagenServicio.soltarTrasCommit(ImagenServicio.DISCOS, fotos);
+		return true;
 	}
 		
 
 	@Override
-	public boolean modificarDiscografica(Discografica discografica) {
-		// Buscar la discografica en la base de datos usando su ID
-	    Optional<Discografica> discograficaTemp = discograficaRepo.findById(discografica.getId());
-
-	    // Si se encontró la discografica
-	    if (discograficaTemp.isPresent()) {
-
-	        // Se guarda la discografica modificada
-	    	discograficaRepo.save(discografica);
-
-	        // Se vuelve a buscar para verificar si se guardó correctamente
-	        Optional<Discografica> discograficaTemp2 = discograficaRepo.findById(discografica.getId());
-
-	        Discografica discografica2 = new Discografica();
-
-	        // Si se encontró después de guardar
-	        if (discograficaTemp2.isPresent()) {
-	        	discografica2 = discograficaTemp2.orElse(new Discografica());
-	        }
-
-	        // Se compara la discografica modificada con la recuperada
-	        if (!discografica.equals(discografica2)) {
-	            return true; // Se ha modificado correctamente
-	        } else {
-	            return false; // No se modificó (quizás se envió igual)
-	        }
-
-	    } else {
-	        // No se encontró la discografica, no se puede modificar
-	        return false;
-	    }
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.DISCOGRAFICAS, CacheConfig.DISCOS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.DISCOGRAFICA, key = "#discografica.id")
+	})
+	@Transactional
+	public Discografica modificarDiscografica(Discografica discografica) {
+		// Se carga la entidad (una SELECT por clave) y se copian sobre ella los
+		// datos recibidos: el flush emite un único UPDATE ... WHERE version=?
+		Discografica discograficaTemp = discograficaRepo.findById(discografica.getId()).orElse(null);
+		if (discograficaTemp == null) {
+			return null; // No existe, no se puede modificar
+		}
+		Versiones.comprobar(discograficaTemp.getVersion(), discografica.getVersion(), Discografica.class, discografica.getId());
+		String logoAnterior = discograficaTemp.getLogo();
+
+		discograficaTemp.setNombre(discografica.getNombre());
+		discograficaTemp.setLogo(discografica.getLogo());
+		discograficaTemp.setEnlaceWikipedia(discografica.getEnlaceWikipedia());
+		discograficaRepo.flush();
+
+		buscador.indexar(BuscadorServicio.DISCOGRAFICA, discograficaTemp.getId(), discograficaTemp.getNombre());
+		imagenServicio.cambiar(ImagenServicio.LOGOS, logoAnterior, discograficaTemp.getLogo());
+		// Sus discos lo llevan embebido: solo esos salen de la caché
+		invalidaciones.invalidar(CacheConfig.DISCO, discoRepositorio.buscarIdsPorDiscografica(discograficaTemp.getId()));
+		return discograficaTemp;
 	}
 	
 	@Override
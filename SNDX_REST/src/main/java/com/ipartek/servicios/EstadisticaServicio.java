@@ -0,0 +1,13 @@
+package com.ipartek.servicios;
+
+import java.util.List;
+import com.ipartek.pojos.EstadisticaCache;
+import com.ipartek.pojos.Estadisticas;
+
+public interface EstadisticaServicio {
+
+	Estadisticas obtenerEstadisticas();
+
+	List<EstadisticaCache> obtenerEstadisticasCache();
+
+}
@@ -0,0 +1,104 @@
+package com.ipartek.servicios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.pojos.EstadisticaCache;
+import com.ipartek.pojos.Estadisticas;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class EstadisticaServicioImp implements EstadisticaServicio {
+
+	private static final int MEJORES_ARTISTAS = 10;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	// Se calcula una vez y se guarda hasta la siguiente escritura en el
+	// catálogo (los insertar/modificar/borrar de los servicios vacían la caché)
+	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(CacheConfig.ESTADISTICAS)
+	public Estadisticas obtenerEstadisticas() {
+		Estadisticas estadisticas = new Estadisticas();
+
+		estadisticas.setTotalDiscos(discoRepo.count());
+		estadisticas.setTotalArtistas(artistaRepo.count());
+		estadisticas.setTotalGeneros(generoRepo.count());
+		estadisticas.setTotalProductores(productorRepo.count());
+		estadisticas.setTotalDiscograficas(discograficaRepo.count());
+
+		estadisticas.setDiscosPorGenero(discoRepo.contarPorGenero());
+		estadisticas.setDiscosPorDiscografica(discoRepo.contarPorDiscografica());
+		estadisticas.setDiscosPorProductor(discoRepo.contarPorProductor());
+		estadisticas.setDiscosPorAnio(discoRepo.contarPorAnio());
+		estadisticas.setDistribucionPuntuaciones(discoRepo.contarPorPuntuacion());
+		estadisticas.setMejoresArtistas(artistaRepo.buscarMejorValorados(Limit.of(MEJORES_ARTISTAS)));
+
+		return estadisticas;
+	}
+
+	// Contadores de Hibernate (hibernate.generate_statistics=true); no se cachea
+	@Override
+	public List<EstadisticaCache> obtenerEstadisticasCache() {
+		Statistics estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+
+		List<EstadisticaCache> regiones = new ArrayList<>();
+		Arrays.stream(estadisticas.getSecondLevelCacheRegionNames())
+				.sorted()
+				.forEach(region -> {
+					CacheRegionStatistics r = estadisticas.getCacheRegionStatistics(region);
+					regiones.add(new EstadisticaCache(region, r.getHitCount(), r.getMissCount(), r.getPutCount(),
+							r.getElementCountInMemory()));
+				});
+
+		// Cachés de los servicios (@Cacheable), con el prefijo "servicio."
+		cacheManager.getCacheNames().stream()
+				.sorted()
+				.forEach(nombre -> {
+					if (cacheManager.getCache(nombre) instanceof CaffeineCache cache) {
+						CacheStats r = cache.getNativeCache().stats();
+						regiones.add(new EstadisticaCache("servicio." + nombre, r.hitCount(), r.missCount(),
+								r.loadCount(), cache.getNativeCache().estimatedSize()));
+					}
+				});
+		return regiones;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportacionServicio {
+
+	String NDJSON = "ndjson";
+	String CSV = "csv";
+
+	boolean existeEntidad(String entidad);
+
+	void exportar(String entidad, String formato, OutputStream salida) throws IOException;
+
+}
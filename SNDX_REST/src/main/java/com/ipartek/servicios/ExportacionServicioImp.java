@@ -0,0 +1,142 @@
+package com.ipartek.servicios;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.ipartek.auxiliar.Csv;
+import com.ipartek.pojos.ArtistaExportado;
+import com.ipartek.pojos.DiscoExportado;
+import com.ipartek.pojos.DiscograficaExportado;
+import com.ipartek.pojos.GeneroExportado;
+import com.ipartek.pojos.ProductorExportado;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+
+/**
+ * Volcado completo de una tabla fila a fila.
+ * <p>
+ * Las consultas exportarTodos de los repositorios devuelven un Stream de
+ * records (no entidades gestionadas), así que ni el contexto de persistencia
+ * ni la respuesta crecen con el tamaño de la tabla: cada fila se escribe en
+ * la salida en cuanto se lee.
+ * </p>
+ */
+@Service
+public class ExportacionServicioImp implements ExportacionServicio {
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+
+	private final ObjectMapper mapper = new ObjectMapper()
+			.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+	// El tipo de cada fila va aparte: la cabecera CSV no puede depender de
+	// que la tabla tenga filas
+	private record Consulta(Class<? extends Record> tipo, Supplier<Stream<? extends Record>> filas) {
+	}
+
+	private Map<String, Consulta> consultas() {
+		return Map.of(
+				"discos", new Consulta(DiscoExportado.class, discoRepo::exportarTodos),
+				"artistas", new Consulta(ArtistaExportado.class, artistaRepo::exportarTodos),
+				"generos", new Consulta(GeneroExportado.class, generoRepo::exportarTodos),
+				"productores", new Consulta(ProductorExportado.class, productorRepo::exportarTodos),
+				"discograficas", new Consulta(DiscograficaExportado.class, discograficaRepo::exportarTodos));
+	}
+
+	@Override
+	public boolean existeEntidad(String entidad) {
+		return consultas().containsKey(entidad);
+	}
+
+	// El Stream solo se puede recorrer dentro de una transacción; este método
+	// se llama desde el hilo del StreamingResponseBody, fuera de la petición
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(String entidad, String formato, OutputStream salida) throws IOException {
+		Consulta consulta = consultas().get(entidad);
+		if (consulta == null) {
+			throw new IllegalArgumentException("Entidad no válida: " + entidad);
+		}
+
+		try (Stream<? extends Record> filas = consulta.filas().get()) {
+			if (CSV.equals(formato)) {
+				escribirCsv(consulta.tipo(), filas.iterator(), salida);
+			} else {
+				escribirNdjson(filas.iterator(), salida);
+			}
+		}
+	}
+
+	private void escribirNdjson(Iterator<? extends Record> filas, OutputStream salida) throws IOException {
+		boolean vacio = !filas.hasNext();
+		try (SequenceWriter escritor = mapper.writer().withRootValueSeparator("\n").writeValues(salida)) {
+			while (filas.hasNext()) {
+				escritor.write(filas.next());
+			}
+		}
+		if (!vacio) {
+			salida.write('\n');
+		}
+	}
+
+	private void escribirCsv(Class<? extends Record> tipo, Iterator<? extends Record> filas, OutputStream salida) throws IOException {
+		Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+		// La cabecera sale de los componentes del record, también sin filas
+		RecordComponent[] columnas = tipo.getRecordComponents();
+		for (int i = 0; i < columnas.length; i++) {
+			escritor.write(i == 0 ? "" : ",");
+			escritor.write(columnas[i].getName());
+		}
+		escritor.write("\n");
+
+		while (filas.hasNext()) {
+			Record fila = filas.next();
+			for (int i = 0; i < columnas.length; i++) {
+				escritor.write(i == 0 ? "" : ",");
+				escritor.write(Csv.escapar(valor(columnas[i], fila)));
+			}
+			escritor.write("\n");
+		}
+		escritor.flush();
+	}
+
+	private static Object valor(RecordComponent columna, Record fila) {
+		try {
+			return columna.getAccessor().invoke(fila);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("No se pudo leer " + columna.getName(), e);
+		}
+	}
+
+}
@@ -3,19 +3,29 @@ package com.ipartek.servicios;
 import java.util.List;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Genero;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.GeneroResumen;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoPorIds;
 
 public interface GeneroServicio {
 	
-	List<Genero> obtenerTodosGeneros();
+	List<GeneroResumen> obtenerTodosGeneros();
+
+	Pagina<GeneroResumen> obtenerPaginaGeneros(String cursor, Integer tamano, boolean conTotal);
 	
 	List<Disco> obtenerDiscografiaPorGenero(Integer generoId);
+	
+	Pagina<DiscoResumen> obtenerPaginaDiscografiaPorGenero(Integer generoId, String cursor, Integer tamano);
 
 	Genero obtenerGeneroPorID(Integer id);
 
+	ResultadoPorIds<Genero> obtenerGenerosPorIds(List<Integer> ids);
+
 	boolean insertarGenero(Genero genero);
 
 	boolean borrarGenero(Integer id);
 
-	boolean modificarGenero(Genero genero);
+	Genero modificarGenero(Genero genero);
 
 }
@@ -3,13 +3,26 @@ package com.ipartek.servicios;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ipartek.modelo.Disco;
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.auxiliar.Versiones;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
 import com.ipartek.modelo.Genero;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.GeneroResumen;
+import com.ipartek.pojos.Pagina;
 import com.ipartek.repositorio.DiscoRepositorio;
 import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.auxiliar.PorIds;
+import com.ipartek.pojos.ResultadoPorIds;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -19,15 +32,40 @@ public class GeneroServicioImp implements GeneroServicio{
 	@Autowired
 	private GeneroRepositorio generoRepo;
 	
+	@Autowired
+	private BuscadorServicio buscador;
+	
 	@Autowired
 	private DiscoRepositorio discoRepo;
+	
+	@Autowired
+	private InvalidacionesCache invalidaciones;
 
 	@Override
-	public List<Genero> obtenerTodosGeneros() {
-		return generoRepo.findAll(Sort.by("nombre").ascending());
+	@Cacheable(value = CacheConfig.GENEROS, sync = true)
+	public List<GeneroResumen> obtenerTodosGeneros() {
+		return generoRepo.obtenerResumenes();
+	}
+
+	@Override
+	public Pagina<GeneroResumen> obtenerPaginaGeneros(String cursor, Integer tamano, boolean conTotal) {
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		// Se lee una fila de más para saber si existe página siguiente
+		List<GeneroResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = generoRepo.buscarPrimeraPagina(Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = generoRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		Long total = conTotal ? generoRepo.count() : null;
+		return Paginacion.construir(filas, limite, GeneroResumen::nombre, GeneroResumen::id, total);
 	}
 
 	@Override
+	@Cacheable(value = CacheConfig.GENERO, sync = true)
 	public Genero obtenerGeneroPorID(Integer id) {
 		int idTemp=0;
 		if (id!=null) {
@@ -43,13 +81,26 @@ public class GeneroServicioImp implements GeneroServicio{
 		}
 	}
 
+	// Una sola consulta IN; el resultado se ordena como se pidió
 	@Override
+	public ResultadoPorIds<Genero> obtenerGenerosPorIds(List<Integer> ids) {
+		return PorIds.ordenar(ids, generoRepo.findAllById(ids), Genero::getId);
+	}
+
+	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.GENEROS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.GENERO, key = "#genero.id")
+	})
 	public boolean insertarGenero(Genero genero) {
 		// Verificamos que el ID sea 0 (es decir, que es un genero nuevo)
 	    if (genero.getId() == 0) {
+	        // Entidad nueva: Hibernate le asigna la versión inicial
+	        genero.setVersion(null);
 	        
 	        // Guardamos el genero en la base de datos
 	    	Genero generoTemp = generoRepo.save(genero);
+	    	buscador.indexar(BuscadorServicio.GENERO, generoTemp.getId(), generoTemp.getNombre());
 
 	        // Comparamos el nombre del genero guardado con la original
 	        if (generoTemp.getNombre().equals(genero.getNombre())) {
@@ -64,55 +115,42 @@ public class GeneroServicioImp implements GeneroServicio{
 	}
 
 	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.GENEROS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.GENERO, key = "#id")
+	})
+	@Transactional
 	public boolean borrarGenero(Integer id) {
-		// Buscar el genero por ID
-	    Optional<Genero> generoTemp = generoRepo.findById(id);
-
-	    // Si existe, se elimina
-	    if (generoTemp.isPresent()) {
-	    	generoRepo.deleteById(id);
-
-	        // Verificación opcional: confirmar que ya no existe
-	        boolean existe = generoRepo.findById(id).isPresent();
-	        return !existe;
-	    }
-
-	    // Si no existe el genero, no se puede eliminar
-	    return false;
+		// Un solo DELETE: si no existía no borra ninguna fila
+		if (generoRepo.borrarPorId(id) == 0) {
+			return false;
+		}
+		buscador.desindexar(BuscadorServicio.GENERO, id);
+		return true;
 	}
 
 	@Override
-	public boolean modificarGenero(Genero genero) {
-		// Buscar el disco en la base de datos usando su ID
-	    Optional<Genero> generoTemp = generoRepo.findById(genero.getId());
-
-	    // Si se encontró el disco
-	    if (generoTemp.isPresent()) {
-
-	        // Se guarda el disco modificado
-	    	generoRepo.save(genero);
-
-	        // Se vuelve a buscar para verificar si se guardó correctamente
-	        Optional<Genero> generoTemp2 = generoRepo.findById(genero.getId());
-
-	        Genero genero2 = new Genero();
-
-	        // Si se encontró después de guardar
-	        if (generoTemp2.isPresent()) {
-	        	genero2 = generoTemp2.orElse(new Genero());
-	        }
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.GENEROS, CacheConfig.DISCOS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.GENERO, key = "#genero.id")
+	})
+	@Transactional
+	public Genero modificarGenero(Genero genero) {
+		// Se carga la entidad (una SELECT por clave) y se copian sobre ella los
+		// datos recibidos: el flush emite un único UPDATE ... WHERE version=?
+		Genero generoTemp = generoRepo.findById(genero.getId()).orElse(null);
+		if (generoTemp == null) {
+			return null; // No existe, no se puede modificar
+		}
+		Versiones.comprobar(generoTemp.getVersion(), genero.getVersion(), Genero.class, genero.getId());
 
-	        // Se compara el disco modificado con la recuperado
-	        if (!genero.equals(genero2)) {
-	            return true; // Se ha modificado correctamente
-	        } else {
-	            return false; // No se modificó (quizás se envió igual)
-	        }
+		generoTemp.setNombre(genero.getNombre());
+		generoRepo.flush();
 
-	    } else {
-	        // No se encontró el disco, no se puede modificar
-	        return false;
-	    }
+		buscador.indexar(BuscadorServicio.GENERO, generoTemp.getId(), generoTemp.getNombre());
+		// Sus discos lo llevan embebido: solo esos salen de la caché
+		invalidaciones.invalidar(CacheConfig.DISCO, discoRepo.buscarIdsPorGenero(generoTemp.getId()));
+		return generoTemp;
 	}
 	
 	@Override
@@ -123,4 +161,22 @@ public class GeneroServicioImp implements GeneroServicio{
         return discoRepo.findByGeneroId(generoId);
     }
 	
+	@Override
+	public Pagina<DiscoResumen> obtenerPaginaDiscografiaPorGenero(Integer generoId, String cursor, Integer tamano) {
+		if (!generoRepo.existsById(generoId)) {
+			throw new EntityNotFoundException("Género no encontrado con id: " + generoId);
+		}
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		List<DiscoResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = discoRepo.buscarPrimeraPaginaPorGenero(generoId, Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = discoRepo.buscarPaginaPorGeneroTrasCursor(generoId, posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		return Paginacion.construir(filas, limite, DiscoResumen::nombre, DiscoResumen::id, null);
+	}
+	
 }
@@ -0,0 +1,41 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImagenServicio {
+
+	// Carpetas del almacén (ruta.imagenes.* en application.properties)
+	String ARTISTAS = "artistas";
+	String DISCOS = "discos";
+	String LOGOS = "logos";
+	String PRODUCTORES = "productores";
+
+	// Extensiones que conserva el almacén y que se sirven como imagen
+	Set<String> EXTENSIONES = Set.of("jpg", "jpeg", "png", "gif", "webp");
+
+	String guardar(MultipartFile archivo, String carpeta) throws IOException;
+
+	Path temporal(String carpeta, String id) throws IOException;
+
+	String publicar(Path temporal, String hash, String original, String carpeta) throws IOException;
+
+	void soltar(String carpeta, String nombre);
+
+	void retener(String carpeta, String nombre);
+
+	void cambiar(String carpeta, String anterior, String nueva);
+
+	void retenerTrasCommit(String carpeta, Collection<String> nombres);
+
+	void soltarTrasCommit(String carpeta, Collection<String> nombres);
+
+	Path buscar(String carpeta, String nombre);
+
+	Path buscarOriginal(String carpeta, String version);
+
+}
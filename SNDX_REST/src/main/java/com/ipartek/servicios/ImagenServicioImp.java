@@ -0,0 +1,320 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import com.ipartek.auxiliar.Miniaturas;
+import com.ipartek.modelo.Imagen;
+import com.ipartek.repositorio.ImagenRepositorio;
+
+/**
+ * Almacén de imágenes direccionado por contenido.
+ * <p>
+ * La subida se copia en streaming (búfer fijo) a un temporal de la misma
+ * carpeta mientras se calcula su SHA-256, y se publica con un move atómico
+ * con el hash como nombre. Una imagen repetida no se vuelve a escribir: solo
+ * suma una referencia. Al soltar la última referencia se borra el fichero.
+ * La primera vez que se publica una imagen se encargan sus versiones
+ * reducidas (MiniaturaServicio), que se borran con ella. Las subidas por
+ * trozos (SubidaServicio) llegan a un temporal de la carpeta y se publican
+ * del mismo modo.
+ * </p>
+ * <p>
+ * Publicar y soltar un mismo fichero se serializan con un cerrojo por
+ * nombre, para que un borrado no se cruce con una subida de la misma imagen.
+ * Las imágenes anteriores al almacén (y default.png) no tienen cuenta y no
+ * se borran nunca.
+ * </p>
+ * <p>
+ * Los servicios que cambian la imagen de un elemento o borran elementos en
+ * cascada ajustan las cuentas después del commit (cambiar, soltarTrasCommit),
+ * en una transacción propia: si la suya se deshace, las cuentas no cambian.
+ * </p>
+ */
+@Service
+public class ImagenServicioImp implements ImagenServicio {
+
+	private static final int CERROJOS = 64;
+
+	// Un solo componente de ruta, sin separadores ni unidad, y que no empiece
+	// por punto: ni se sale de la carpeta ni se sirven los temporales
+	private static final Pattern NOMBRE_SERVIBLE = Pattern.compile("[^./\\\\:][^/\\\\:]*");
+
+	private final Object[] cerrojos = new Object[CERROJOS];
+
+	@Value("${ruta.imagenes.artistas}")
+	private String rutaArtistas;
+
+	@Value("${ruta.imagenes.discos}")
+	private String rutaDiscos;
+
+	@Value("${ruta.imagenes.logos}")
+	private String rutaLogos;
+
+	@Value("${ruta.imagenes.productores}")
+	private String rutaProductores;
+
+	@Autowired
+	private ImagenRepositorio imagenRepo;
+
+	@Autowired
+	private MiniaturaServicio miniaturaServicio;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	public ImagenServicioImp() {
+		for (int i = 0; i < CERROJOS; i++) {
+			cerrojos[i] = new Object();
+		}
+	}
+
+	/** Guarda la imagen y devuelve su nombre en la carpeta (hash + extensión). */
+	@Override
+	public String guardar(MultipartFile archivo, String carpeta) throws IOException {
+		Path directorio = directorio(carpeta);
+		Files.createDirectories(directorio);
+
+		// En la misma carpeta, para que el move final sea atómico
+		Path temporal = Files.createTempFile(directorio, ".subida-", ".tmp");
+		try {
+			MessageDigest sha = sha256();
+			try (InputStream entrada = new DigestInputStream(archivo.getInputStream(), sha)) {
+				Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return publicar(temporal, HexFormat.of().formatHex(sha.digest()), archivo.getOriginalFilename(), carpeta);
+		} finally {
+			Files.deleteIfExists(temporal);
+		}
+	}
+
+	/** Fichero para una subida por trozos, en la carpeta de destino (el move final es atómico). */
+	@Override
+	public Path temporal(String carpeta, String id) throws IOException {
+		Path directorio = directorio(carpeta);
+		Files.createDirectories(directorio);
+		return directorio.resolve(".subida-" + id + ".part");
+	}
+
+	/**
+	 * Publica un temporal de la carpeta ya resumido (SHA-256 en hexadecimal) y
+	 * suma una referencia; devuelve su nombre. El temporal desaparece siempre.
+	 */
+	@Override
+	public String publicar(Path temporal, String hash, String original, String carpeta) throws IOException {
+		String nombre = hash + extension(original);
+		Path destino = directorio(carpeta).resolve(nombre);
+		boolean nueva;
+		try {
+			synchronized (cerrojo(carpeta, nombre)) {
+				nueva = !Files.exists(destino);
+				if (nueva) {
+					Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+				}
+				String ruta = carpeta + "/" + nombre;
+				if (imagenRepo.sumarReferencias(ruta, 1) == 0) {
+					imagenRepo.save(new Imagen(ruta, 1));
+				}
+			}
+			// Fuera del cerrojo: con la cola del pool llena las versiones se
+			// generan en este hilo, y no deben parar a quien publique o suelte
+			// otra imagen del mismo cerrojo. Si se suelta antes, no se dejan huérfanas
+			if (nueva) {
+				miniaturaServicio.generar(destino);
+			}
+			return nombre;
+		} finally {
+			Files.deleteIfExists(temporal);
+		}
+	}
+
+	/** Quita una referencia; con la última se borran la cuenta y el fichero. */
+	@Override
+	public void soltar(String carpeta, String nombre) {
+		if (nombre == null || nombre.isBlank()) {
+			return;
+		}
+		String ruta = carpeta + "/" + nombre;
+
+		synchronized (cerrojo(carpeta, nombre)) {
+			if (imagenRepo.sumarReferencias(ruta, -1) == 0) {
+				return;
+			}
+			Imagen imagen = imagenRepo.findById(ruta).orElse(null);
+			if (imagen != null && imagen.getReferencias() <= 0) {
+				imagenRepo.delete(imagen);
+				Path fichero = directorio(carpeta).resolve(nombre);
+				try {
+					Files.deleteIfExists(fichero);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				miniaturaServicio.borrar(fichero);
+			}
+		}
+	}
+
+	/** Suma una referencia a una imagen ya publicada; las que no tienen cuenta no cambian. */
+	@Override
+	public void retener(String carpeta, String nombre) {
+		if (nombre == null || nombre.isBlank()) {
+			return;
+		}
+		synchronized (cerrojo(carpeta, nombre)) {
+			imagenRepo.sumarReferencias(carpeta + "/" + nombre, 1);
+		}
+	}
+
+	/** Un elemento pasa de una imagen a otra: tras el commit se retiene la nueva y se suelta la anterior. */
+	@Override
+	public void cambiar(String carpeta, String anterior, String nueva) {
+		if (Objects.equals(anterior, nueva)) {
+			return;
+		}
+		trasCommit(() -> {
+			retener(carpeta, nueva);
+			soltar(carpeta, anterior);
+		});
+	}
+
+	/** Retiene tras el commit una referencia por nombre (los discos de un lote o una importación). */
+	@Override
+	public void retenerTrasCommit(String carpeta, Collection<String> nombres) {
+		if (nombres.isEmpty()) {
+			return;
+		}
+		List<String> copia = new ArrayList<>(nombres);
+		trasCommit(() -> copia.forEach(nombre -> retener(carpeta, nombre)));
+	}
+
+	/** Suelta tras el commit una referencia por nombre (los discos de un borrado en cascada). */
+	@Override
+	public void soltarTrasCommit(String carpeta, Collection<String> nombres) {
+		if (nombres.isEmpty()) {
+			return;
+		}
+		List<String> copia = new ArrayList<>(nombres);
+		trasCommit(() -> copia.forEach(nombre -> soltar(carpeta, nombre)));
+	}
+
+	/** Fichero de la imagen, o null si la carpeta o el nombre no son válidos o no existe. */
+	@Override
+	public Path buscar(String carpeta, String nombre) {
+		if (nombre == null || !NOMBRE_SERVIBLE.matcher(nombre).matches()) {
+			return null;
+		}
+		Path fichero;
+		try {
+			fichero = directorio(carpeta).resolve(nombre);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		return Files.isRegularFile(fichero) ? fichero : null;
+	}
+
+	// En afterCommit la transacción original ya no escribe: las cuentas se
+	// ajustan en una nueva. Sin transacción en curso, en el momento
+	private void trasCommit(Runnable accion) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			accion.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				TransactionTemplate nueva = new TransactionTemplate(transactionManager);
+				nueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+				nueva.executeWithoutResult(estado -> accion.run());
+			}
+		});
+	}
+
+	/**
+	 * Original de una versión reducida que no existe, porque se está generando
+	 * o porque ImageIO no pudo leer el original; null si tampoco está. Solo se
+	 * llama en ese caso, así que recorrer la carpeta no pesa en cada petición.
+	 */
+	@Override
+	public Path buscarOriginal(String carpeta, String version) {
+		if (!Miniaturas.esVersion(version)) {
+			return null;
+		}
+		String hash = version.substring(0, version.indexOf('-'));
+		try (DirectoryStream<Path> candidatos = Files.newDirectoryStream(directorio(carpeta), hash + "*")) {
+			for (Path candidato : candidatos) {
+				String nombre = candidato.getFileName().toString();
+				if (Miniaturas.tieneVersiones(nombre)
+						&& (version.equals(Miniaturas.nombre(nombre, Miniaturas.MINIATURA))
+								|| version.equals(Miniaturas.nombre(nombre, Miniaturas.MEDIA)))) {
+					return candidato;
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			return null;
+		}
+		return null;
+	}
+
+	private Object cerrojo(String carpeta, String nombre) {
+		return cerrojos[Math.floorMod((carpeta + "/" + nombre).hashCode(), CERROJOS)];
+	}
+
+	private Path directorio(String carpeta) {
+		switch (carpeta) {
+		case ARTISTAS:
+			return Paths.get(rutaArtistas);
+		case DISCOS:
+			return Paths.get(rutaDiscos);
+		case LOGOS:
+			return Paths.get(rutaLogos);
+		case PRODUCTORES:
+			return Paths.get(rutaProductores);
+		default:
+			throw new IllegalArgumentException("Carpeta de imágenes desconocida: " + carpeta);
+		}
+	}
+
+	// Solo las extensiones de EXTENSIONES: el nombre original no llega al disco,
+	// y un .html o un .svg se guarda sin extensión (y se sirve como descarga)
+	private static String extension(String original) {
+		if (original == null) {
+			return "";
+		}
+		int punto = original.lastIndexOf('.');
+		String extension = punto >= 0 ? original.substring(punto + 1).toLowerCase(Locale.ROOT) : "";
+		return EXTENSIONES.contains(extension) ? "." + extension : "";
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Todas las JVM traen SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
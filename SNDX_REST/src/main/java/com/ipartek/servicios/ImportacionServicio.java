@@ -0,0 +1,14 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import com.ipartek.pojos.ResultadoImportacion;
+
+public interface ImportacionServicio {
+
+	String NDJSON = "ndjson";
+	String CSV = "csv";
+
+	ResultadoImportacion importarDiscos(InputStream entrada, String formato) throws IOException;
+
+}
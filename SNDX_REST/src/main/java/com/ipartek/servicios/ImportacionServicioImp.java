@@ -0,0 +1,407 @@
+package com.ipartek.servicios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ipartek.auxiliar.Csv;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.FilaImportacion;
+import com.ipartek.pojos.IdPorNombre;
+import com.ipartek.pojos.ResultadoImportacion;
+import com.ipartek.pojos.ResultadoInsercion;
+import com.ipartek.pojos.ResultadoLote;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscograficaRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.NombresLoteRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Importación de volcados de discos línea a línea.
+ * <p>
+ * El cuerpo se lee en streaming y solo se guarda en memoria el lote en curso
+ * (FILAS_POR_LOTE filas) y los nombres ya resueltos de artistas, géneros,
+ * productores y discográficas. Por cada lote, los nombres nuevos se buscan
+ * con una consulta por tipo, los que no existen se dan de alta con un INSERT
+ * JDBC por lotes (NombresLoteRepositorio) y las cachés se vacían una sola
+ * vez; después los discos se escriben con DiscoServicio.insertarLote.
+ * </p>
+ */
+@Service
+public class ImportacionServicioImp implements ImportacionServicio {
+
+	private static final Logger log = LoggerFactory.getLogger(ImportacionServicioImp.class);
+
+	private static final int FILAS_POR_LOTE = 500;
+	private static final int AVISO_PROGRESO = 10000;
+	private static final int MAX_ERRORES = 100;
+
+	private final ObjectMapper mapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	@Autowired
+	private DiscoServicio discoServicio;
+
+	@Autowired
+	private BuscadorServicio buscador;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private DiscograficaRepositorio discograficaRepo;
+
+	@Autowired
+	private NombresLoteRepositorio nombresLoteRepo;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Override
+	public ResultadoImportacion importarDiscos(InputStream entrada, String formato) throws IOException {
+		boolean csv = CSV.equals(formato);
+		if (!csv && !NDJSON.equals(formato)) {
+			throw new IllegalArgumentException("Formato no válido: " + formato);
+		}
+
+		long inicio = System.currentTimeMillis();
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Nombres nombres = new Nombres();
+		List<FilaImportacion> lote = new ArrayList<>();
+		List<Long> lineasLote = new ArrayList<>();
+		List<String> cabecera = null;
+
+		BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+		String linea;
+		long numero = 0;
+		while ((linea = lector.readLine()) != null) {
+			numero++;
+			if (linea.isBlank()) {
+				continue;
+			}
+			if (csv && cabecera == null) {
+				cabecera = Csv.separar(linea.replace("\uFEFF", "")).stream().map(String::trim).toList();
+				continue;
+			}
+
+			try {
+				lote.add(csv ? leerCsv(cabecera, linea) : mapper.readValue(linea, FilaImportacion.class));
+				lineasLote.add(numero);
+			} catch (JsonProcessingException e) {
+				anotarError(resultado, numero, "JSON no válido: " + e.getOriginalMessage());
+			} catch (IllegalArgumentException e) {
+				anotarError(resultado, numero, e.getMessage());
+			}
+
+			if (lote.size() == FILAS_POR_LOTE) {
+				guardar(lote, lineasLote, nombres, resultado);
+			}
+			if (numero % AVISO_PROGRESO == 0) {
+				log.info("Importación: {} líneas, {} discos insertados, {} fallidos ({} ms)", numero,
+						resultado.getInsertados(), resultado.getFallidos(), System.currentTimeMillis() - inicio);
+			}
+		}
+		guardar(lote, lineasLote, nombres, resultado);
+
+		resultado.setLineas(numero);
+		resultado.setMilisegundos(System.currentTimeMillis() - inicio);
+		log.info("Importación terminada: {} líneas, {} discos insertados, {} fallidos ({} ms)", numero,
+				resultado.getInsertados(), resultado.getFallidos(), resultado.getMilisegundos());
+		return resultado;
+	}
+
+	private void guardar(List<FilaImportacion> lote, List<Long> lineasLote, Nombres nombres, ResultadoImportacion resultado) {
+		if (lote.isEmpty()) {
+			return;
+		}
+		try {
+			nombres.resolver(lote, resultado);
+		} catch (DataAccessException e) {
+			// Sin los nombres no se puede guardar ningún disco del lote
+			log.warn("Error al crear los nombres de un lote de la importación", e);
+			for (Long linea : lineasLote) {
+				anotarError(resultado, linea, "Error al crear los nombres: " + e.getMostSpecificCause().getMessage());
+			}
+			lote.clear();
+			lineasLote.clear();
+			return;
+		}
+
+		List<Disco> discos = lote.stream().map(fila -> crearDisco(fila, nombres)).toList();
+		ResultadoLote guardado = discoServicio.insertarLote(discos);
+		resultado.setInsertados(resultado.getInsertados() + guardado.getInsertados());
+		for (ResultadoInsercion insercion : guardado.getResultados()) {
+			if (insercion.error() != null) {
+				anotarError(resultado, lineasLote.get(insercion.indice()), insercion.error());
+			}
+		}
+		lote.clear();
+		lineasLote.clear();
+	}
+
+	private static Disco crearDisco(FilaImportacion fila, Nombres nombres) {
+		Disco disco = new Disco();
+		disco.setNombre(fila.getNombre());
+		disco.setPuntuacion(fila.getPuntuacion() != null ? fila.getPuntuacion() : 0);
+		disco.setFecha(fila.getFecha() != null ? fila.getFecha() : "");
+		disco.setFoto(fila.getFoto());
+		disco.setEnlaceWikipedia(vacio(fila.getEnlaceWikipedia()));
+		disco.setEnlaceSpotify(vacio(fila.getEnlaceSpotify()));
+		disco.setEnlaceTidal(vacio(fila.getEnlaceTidal()));
+
+		Integer idArtista = nombres.artistas.id(fila.getArtista());
+		Integer idGenero = nombres.generos.id(fila.getGenero());
+		Integer idProductor = nombres.productores.id(fila.getProductor());
+		Integer idDiscografica = nombres.discograficas.id(fila.getDiscografica());
+
+		// Las relaciones van solo con el id, que es lo que usa la inserción por lotes
+		disco.setArtista(null);
+		if (idArtista != null) {
+			disco.setArtista(new Artista());
+			disco.getArtista().setId(idArtista);
+		}
+		disco.setGenero(null);
+		if (idGenero != null) {
+			disco.setGenero(new Genero());
+			disco.getGenero().setId(idGenero);
+		}
+		disco.setProductor(null);
+		if (idProductor != null) {
+			disco.setProductor(new Productor());
+			disco.getProductor().setId(idProductor);
+		}
+		disco.setDiscografica(null);
+		if (idDiscografica != null) {
+			disco.setDiscografica(new Discografica());
+			disco.getDiscografica().setId(idDiscografica);
+		}
+		return disco;
+	}
+
+	private static FilaImportacion leerCsv(List<String> cabecera, String linea) {
+		List<String> campos = Csv.separar(linea);
+		FilaImportacion fila = new FilaImportacion();
+		for (int i = 0; i < cabecera.size() && i < campos.size(); i++) {
+			String valor = campos.get(i);
+			switch (cabecera.get(i)) {
+			case "nombre" -> fila.setNombre(valor);
+			case "puntuacion" -> fila.setPuntuacion(puntuacion(valor));
+			case "fecha" -> fila.setFecha(valor);
+			case "foto" -> fila.setFoto(valor);
+			case "enlaceWikipedia" -> fila.setEnlaceWikipedia(valor);
+			case "enlaceSpotify" -> fila.setEnlaceSpotify(valor);
+			case "enlaceTidal" -> fila.setEnlaceTidal(valor);
+			case "artista" -> fila.setArtista(valor);
+			case "genero" -> fila.setGenero(valor);
+			case "productor" -> fila.setProductor(valor);
+			case "discografica" -> fila.setDiscografica(valor);
+			default -> {
+				// Columnas desconocidas: se ignoran
+			}
+			}
+		}
+		return fila;
+	}
+
+	private static Integer puntuacion(String valor) {
+		if (valor.isBlank()) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(valor.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Puntuación no válida: " + valor);
+		}
+	}
+
+	private static void anotarError(ResultadoImportacion resultado, long linea, String mensaje) {
+		resultado.setFallidos(resultado.getFallidos() + 1);
+		if (resultado.getErrores().size() < MAX_ERRORES) {
+			resultado.getErrores().add("Línea " + linea + ": " + mensaje);
+		}
+	}
+
+	private static String vacio(String texto) {
+		return texto != null ? texto : "";
+	}
+
+	private static String clave(String nombre) {
+		return nombre == null || nombre.isBlank() ? null : nombre.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Caché de nombre (en minúsculas) a id de una importación, con un Tipo
+	 * por cada relación del disco.
+	 */
+	private class Nombres {
+		private final Tipo artistas = new Tipo(FilaImportacion::getArtista, artistaRepo::buscarIdsPorNombres,
+				nombresLoteRepo::insertarArtistas, BuscadorServicio.ARTISTA,
+				CacheConfig.ARTISTAS, CacheConfig.ARTISTA, "artistas");
+		private final Tipo generos = new Tipo(FilaImportacion::getGenero, generoRepo::buscarIdsPorNombres,
+				nombresLoteRepo::insertarGeneros, BuscadorServicio.GENERO,
+				CacheConfig.GENEROS, CacheConfig.GENERO, null);
+		private final Tipo productores = new Tipo(FilaImportacion::getProductor, productorRepo::buscarIdsPorNombres,
+				nombresLoteRepo::insertarProductores, BuscadorServicio.PRODUCTOR,
+				CacheConfig.PRODUCTORES, CacheConfig.PRODUCTOR, "productores");
+		private final Tipo discograficas = new Tipo(FilaImportacion::getDiscografica, discograficaRepo::buscarIdsPorNombres,
+				nombresLoteRepo::insertarDiscograficas, BuscadorServicio.DISCOGRAFICA,
+				CacheConfig.DISCOGRAFICAS, CacheConfig.DISCOGRAFICA, "discograficas");
+		private final List<Tipo> tipos = List.of(artistas, generos, productores, discograficas);
+
+		/**
+		 * Deja resueltos todos los nombres del lote: una consulta por tipo
+		 * para los que aún no se conocen y un INSERT por lotes para los que
+		 * no existen, todos en la misma transacción.
+		 */
+		private void resolver(List<FilaImportacion> lote, ResultadoImportacion resultado) {
+			for (Tipo tipo : tipos) {
+				tipo.buscar(lote);
+			}
+			int[][] creados = transactionTemplate.execute(estado -> {
+				int[][] ids = new int[tipos.size()][];
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = tipos.get(i).insertar.apply(new ArrayList<>(tipos.get(i).pendientes.values()));
+				}
+				return ids;
+			});
+			if (creados == null) {
+				return;
+			}
+
+			boolean hayNuevos = false;
+			for (int i = 0; i < creados.length; i++) {
+				hayNuevos |= tipos.get(i).confirmar(creados[i]);
+			}
+			resultado.setArtistasCreados(resultado.getArtistasCreados() + creados[0].length);
+			resultado.setGenerosCreados(resultado.getGenerosCreados() + creados[1].length);
+			resultado.setProductoresCreados(resultado.getProductoresCreados() + creados[2].length);
+			resultado.setDiscograficasCreadas(resultado.getDiscograficasCreadas() + creados[3].length);
+
+			if (hayNuevos) {
+				cacheManager.getCache(CacheConfig.ESTADISTICAS).clear();
+				// Los INSERT JDBC no pasan por Hibernate: las consultas cacheadas
+				// de esas tablas no se enterarían de las filas nuevas
+				emf.getCache().unwrap(Cache.class).evictQueryRegions();
+			}
+		}
+	}
+
+	/**
+	 * Nombres de una relación (artista, género, productor o discográfica):
+	 * los ya resueltos y los pendientes de crear en el lote en curso.
+	 */
+	private class Tipo {
+		private final Function<FilaImportacion, String> campo;
+		private final Function<Collection<String>, List<IdPorNombre>> buscarIds;
+		private final Function<List<String>, int[]> insertar;
+		private final String tipoBuscador;
+		private final String cacheListado;
+		private final String cachePorId;
+		private final String claveIds;
+		private final Map<String, Integer> ids = new HashMap<>();
+		// Clave en minúsculas -> nombre tal y como llega en la primera fila
+		private final Map<String, String> pendientes = new LinkedHashMap<>();
+
+		private Tipo(Function<FilaImportacion, String> campo, Function<Collection<String>, List<IdPorNombre>> buscarIds,
+				Function<List<String>, int[]> insertar, String tipoBuscador,
+				String cacheListado, String cachePorId, String claveIds) {
+			this.campo = campo;
+			this.buscarIds = buscarIds;
+			this.insertar = insertar;
+			this.tipoBuscador = tipoBuscador;
+			this.cacheListado = cacheListado;
+			this.cachePorId = cachePorId;
+			this.claveIds = claveIds;
+		}
+
+		private Integer id(String nombre) {
+			String clave = clave(nombre);
+			return clave != null ? ids.get(clave) : null;
+		}
+
+		// Busca de una vez los nombres del lote que aún no se conocen; los que
+		// no aparecen quedan pendientes de crear
+		private void buscar(List<FilaImportacion> lote) {
+			pendientes.clear();
+			for (FilaImportacion fila : lote) {
+				String nombre = campo.apply(fila);
+				String clave = clave(nombre);
+				if (clave != null && !ids.containsKey(clave)) {
+					pendientes.putIfAbsent(clave, nombre.trim());
+				}
+			}
+			if (pendientes.isEmpty()) {
+				return;
+			}
+			// Con nombres repetidos en la tabla se queda el de menor id
+			for (IdPorNombre encontrado : buscarIds.apply(pendientes.keySet())) {
+				if (pendientes.remove(encontrado.nombre()) != null) {
+					ids.put(encontrado.nombre(), encontrado.id());
+				}
+			}
+		}
+
+		// Apunta los ids de los pendientes ya confirmados, los indexa y vacía
+		// las cachés del tipo una sola vez
+		private boolean confirmar(int[] creados) {
+			if (creados.length == 0) {
+				return false;
+			}
+			org.springframework.cache.Cache porId = cacheManager.getCache(cachePorId);
+			int i = 0;
+			for (Map.Entry<String, String> pendiente : pendientes.entrySet()) {
+				int id = creados[i++];
+				ids.put(pendiente.getKey(), id);
+				buscador.indexar(tipoBuscador, id, pendiente.getValue());
+				// Un id pedido antes de existir puede estar en caché como vacío
+				porId.evict(id);
+			}
+			pendientes.clear();
+			cacheManager.getCache(cacheListado).clear();
+			if (claveIds != null) {
+				cacheManager.getCache(CacheConfig.IDS).evict(claveIds);
+			}
+			return true;
+		}
+	}
+
+}
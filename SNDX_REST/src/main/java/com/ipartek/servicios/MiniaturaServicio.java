@@ -0,0 +1,11 @@
+package com.ipartek.servicios;
+
+import java.nio.file.Path;
+
+public interface MiniaturaServicio {
+
+	void generar(Path original);
+
+	void borrar(Path original);
+
+}
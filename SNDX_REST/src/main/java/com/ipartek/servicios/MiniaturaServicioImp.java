@@ -0,0 +1,173 @@
+package com.ipartek.servicios;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import com.ipartek.auxiliar.Miniaturas;
+import com.ipartek.configuracion.EjecutorConfig;
+
+/**
+ * Versiones reducidas (miniatura y media) de las imágenes del almacén, con
+ * ImageIO y Java2D, sin librerías externas.
+ * <p>
+ * Se generan en segundo plano en el pool acotado de EjecutorConfig: la
+ * subida no espera salvo que la cola esté llena. Cada versión se escribe en
+ * un temporal y se publica con un move atómico, así que nunca se sirve una
+ * miniatura a medio escribir. Si el original no es una imagen que ImageIO
+ * sepa leer no se genera nada y las páginas usan el original.
+ * </p>
+ * <p>
+ * Las dimensiones se leen de la cabecera antes de decodificar: un PNG de
+ * pocos KB puede declarar cien mil píxeles de lado. Por encima de
+ * MAXIMO_PIXELES no se generan versiones, y el resto se decodifica
+ * submuestreado (ImageReadParam.setSourceSubsampling), sin tener nunca en
+ * memoria más de MAXIMO_PIXELES_LEIDOS.
+ * </p>
+ */
+@Service
+public class MiniaturaServicioImp implements MiniaturaServicio {
+
+	// Píxeles del original por encima de los cuales no se generan versiones
+	private static final long MAXIMO_PIXELES = 100_000_000L;
+	// Píxeles decodificados como mucho (16M, 64 MB en ARGB)
+	private static final long MAXIMO_PIXELES_LEIDOS = 16_000_000L;
+
+	@Autowired
+	@Qualifier(EjecutorConfig.MINIATURAS)
+	private Executor ejecutor;
+
+	@Override
+	public void generar(Path original) {
+		ejecutor.execute(() -> {
+			try {
+				escribirVersiones(original);
+			} catch (IOException | RuntimeException e) {
+				e.printStackTrace();
+			}
+		});
+	}
+
+	@Override
+	public void borrar(Path original) {
+		String nombre = original.getFileName().toString();
+		for (String tamano : new String[] { Miniaturas.MINIATURA, Miniaturas.MEDIA }) {
+			try {
+				Files.deleteIfExists(original.resolveSibling(Miniaturas.nombre(nombre, tamano)));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void escribirVersiones(Path original) throws IOException {
+		BufferedImage imagen = leer(original);
+		if (imagen == null) {
+			return;
+		}
+		String nombre = original.getFileName().toString();
+		String formato = Miniaturas.formato(nombre);
+
+		// La media se escala desde el original y la miniatura desde la media
+		BufferedImage media = reducir(imagen, Miniaturas.ANCHO_MEDIA, formato);
+		escribir(media, formato, original.resolveSibling(Miniaturas.nombre(nombre, Miniaturas.MEDIA)));
+		BufferedImage miniatura = reducir(media, Miniaturas.ANCHO_MINIATURA, formato);
+		escribir(miniatura, formato, original.resolveSibling(Miniaturas.nombre(nombre, Miniaturas.MINIATURA)));
+
+		// Si se soltó la imagen mientras se generaban, no se dejan huérfanas
+		if (!Files.exists(original)) {
+			borrar(original);
+		}
+	}
+
+	/**
+	 * Decodifica el original tomando una de cada n filas y columnas, con n lo
+	 * bastante grande para no pasar de MAXIMO_PIXELES_LEIDOS y sin bajar del
+	 * doble del ancho de la media. Null si ImageIO no sabe leerlo o supera
+	 * MAXIMO_PIXELES.
+	 */
+	private static BufferedImage leer(Path original) throws IOException {
+		try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+			if (entrada == null) {
+				return null;
+			}
+			Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+			if (!lectores.hasNext()) {
+				return null;
+			}
+			ImageReader lector = lectores.next();
+			try {
+				lector.setInput(entrada, true, true);
+				long ancho = lector.getWidth(0);
+				long alto = lector.getHeight(0);
+				long pixeles = ancho * alto;
+				if (pixeles <= 0 || pixeles > MAXIMO_PIXELES) {
+					return null;
+				}
+				int paso = (int) Math.max(1, Math.max(ancho / (2 * Miniaturas.ANCHO_MEDIA),
+						(long) Math.ceil(Math.sqrt((double) pixeles / MAXIMO_PIXELES_LEIDOS))));
+				ImageReadParam parametros = lector.getDefaultReadParam();
+				parametros.setSourceSubsampling(paso, paso, 0, 0);
+				return lector.read(0, parametros);
+			} finally {
+				lector.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Reduce al ancho indicado manteniendo la proporción (nunca amplía). Se
+	 * reduce a la mitad en varios pasos: un solo paso bilineal desde una
+	 * imagen grande pierde detalle y deja dientes de sierra.
+	 */
+	private static BufferedImage reducir(BufferedImage imagen, int anchoMaximo, String formato) {
+		int ancho = Math.min(anchoMaximo, imagen.getWidth());
+		int alto = Math.max(1, (int) Math.round((double) imagen.getHeight() * ancho / imagen.getWidth()));
+		// JPEG no admite transparencia: el fondo transparente pasa a blanco
+		int tipo = formato.equals("png") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+		BufferedImage actual = imagen;
+		do {
+			int siguienteAncho = Math.max(ancho, actual.getWidth() / 2);
+			int siguienteAlto = Math.max(alto, actual.getHeight() / 2);
+			BufferedImage paso = new BufferedImage(siguienteAncho, siguienteAlto, tipo);
+			Graphics2D g = paso.createGraphics();
+			if (tipo == BufferedImage.TYPE_INT_RGB) {
+				g.setColor(Color.WHITE);
+				g.fillRect(0, 0, siguienteAncho, siguienteAlto);
+			}
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(actual, 0, 0, siguienteAncho, siguienteAlto, null);
+			g.dispose();
+			actual = paso;
+		} while (actual.getWidth() > ancho || actual.getHeight() > alto);
+		return actual;
+	}
+
+	private static void escribir(BufferedImage imagen, String formato, Path destino) throws IOException {
+		Path temporal = Files.createTempFile(destino.getParent(), ".miniatura-", ".tmp");
+		try {
+			if (!ImageIO.write(imagen, formato, temporal.toFile())) {
+				return;
+			}
+			Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporal);
+		}
+	}
+
+}
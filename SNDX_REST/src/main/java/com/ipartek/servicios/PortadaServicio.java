@@ -0,0 +1,9 @@
+package com.ipartek.servicios;
+
+import com.ipartek.pojos.Portada;
+
+public interface PortadaServicio {
+
+	Portada obtenerPortada();
+
+}
@@ -0,0 +1,127 @@
+package com.ipartek.servicios;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.ArtistaResumen;
+import com.ipartek.pojos.DiscograficaResumen;
+import com.ipartek.pojos.GeneroResumen;
+import com.ipartek.pojos.Portada;
+import com.ipartek.pojos.ProductorResumen;
+
+/**
+ * Monta la portada con subconsultas en paralelo.
+ * <p>
+ * Cada destacado (id de la semana, elemento y, si procede, su discografía)
+ * y cada desplegable es una tarea independiente en el ejecutor de la
+ * portada, así que la respuesta tarda lo que la subconsulta más lenta y no
+ * la suma de todas. Las tareas pasan por los servicios, de modo que
+ * aprovechan sus cachés: con ellas calientes la portada no consulta la
+ * base de datos salvo para las discografías.
+ * </p>
+ */
+@Service
+public class PortadaServicioImp implements PortadaServicio {
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
+
+	@Autowired
+	private DiscoServicio discoServicio;
+
+	@Autowired
+	private ArtistaServicio artistaServicio;
+
+	@Autowired
+	private GeneroServicio generoServicio;
+
+	@Autowired
+	private ProductorServicio productorServicio;
+
+	@Autowired
+	private DiscograficaServicio discograficaServicio;
+
+	@Autowired
+	@Qualifier(EjecutorConfig.PORTADA)
+	private Executor ejecutor;
+
+	@Override
+	public Portada obtenerPortada() {
+		CompletableFuture<Disco> disco = destacado(DestacadoServicio.DISCOS, discoServicio::obtenerDiscoPorID, Disco::getId);
+		CompletableFuture<Artista> artista = destacado(DestacadoServicio.ARTISTAS, artistaServicio::obtenerArtistaPorID, Artista::getId);
+		CompletableFuture<Productor> productor = destacado(DestacadoServicio.PRODUCTORES, productorServicio::obtenerProductorPorID, Productor::getId);
+		CompletableFuture<Discografica> discografica = destacado(DestacadoServicio.DISCOGRAFICAS, discograficaServicio::obtenerDiscograficaPorID, Discografica::getId);
+
+		// La discografía depende del destacado: se encadena a su tarea
+		CompletableFuture<List<Disco>> discosArtista = artista.thenApplyAsync(
+				a -> a != null ? artistaServicio.obtenerDiscografiaPorArtista(a.getId()) : null, ejecutor);
+		CompletableFuture<List<Disco>> discosProductor = productor.thenApplyAsync(
+				p -> p != null ? productorServicio.obtenerDiscografiaPorProductor(p.getId()) : null, ejecutor);
+		CompletableFuture<List<Disco>> discosDiscografica = discografica.thenApplyAsync(
+				d -> d != null ? discograficaServicio.obtenerDiscografiaPorDiscografica(d.getId()) : null, ejecutor);
+
+		// Desplegables: resúmenes de los listados cacheados
+		CompletableFuture<List<ArtistaResumen>> artistas = tarea(() -> artistaServicio.obtenerTodosArtistas().stream()
+				.map(a -> new ArtistaResumen(a.getId(), a.getNombre(), a.getFoto(), a.getNotaMedia()))
+				.toList());
+		CompletableFuture<List<GeneroResumen>> generos = tarea(generoServicio::obtenerTodosGeneros);
+		CompletableFuture<List<ProductorResumen>> productores = tarea(() -> productorServicio.obtenerTodosProductores().stream()
+				.map(p -> new ProductorResumen(p.getId(), p.getNombre(), p.getFoto()))
+				.toList());
+		CompletableFuture<List<DiscograficaResumen>> discograficas = tarea(() -> discograficaServicio.obtenerTodasDiscograficas().stream()
+				.map(d -> new DiscograficaResumen(d.getId(), d.getNombre(), d.getLogo()))
+				.toList());
+
+		try {
+			CompletableFuture.allOf(disco, discosArtista, discosProductor, discosDiscografica,
+					artistas, generos, productores, discograficas).join();
+		} catch (CompletionException e) {
+			// Se relanza el error original de la subconsulta
+			if (e.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw e;
+		}
+
+		Portada portada = new Portada();
+		portada.setDiscoSemana(disco.join());
+		portada.setArtistaSemana(artista.join());
+		portada.setProductorSemana(productor.join());
+		portada.setDiscograficaSemana(discografica.join());
+		portada.setArtistaSemanaDiscografia(discosArtista.join());
+		portada.setProductorSemanaDiscografia(discosProductor.join());
+		portada.setDiscograficaSemanaDiscografia(discosDiscografica.join());
+		portada.setArtistas(artistas.join());
+		portada.setGeneros(generos.join());
+		portada.setProductores(productores.join());
+		portada.setDiscograficas(discograficas.join());
+		return portada;
+	}
+
+	// Elemento de la semana de una entidad, o null si no hay ninguno (los
+	// obtener*PorID devuelven un elemento con id 0 cuando no existe)
+	private <T> CompletableFuture<T> destacado(String entidad, Function<Integer, T> porId, ToIntFunction<T> idDe) {
+		return tarea(() -> {
+			Integer id = destacadoServicio.obtenerIdSemana(entidad);
+			T elemento = id != null ? porId.apply(id) : null;
+			return elemento != null && idDe.applyAsInt(elemento) != 0 ? elemento : null;
+		});
+	}
+
+	private <T> CompletableFuture<T> tarea(Supplier<T> subconsulta) {
+		return CompletableFuture.supplyAsync(subconsulta, ejecutor);
+	}
+
+}
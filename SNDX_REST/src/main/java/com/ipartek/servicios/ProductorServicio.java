@@ -3,19 +3,26 @@ package com.ipartek.servicios;
 import java.util.List;
 import com.ipartek.modelo.Disco;
 import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ProductorResumen;
+import com.ipartek.pojos.ResultadoPorIds;
 
 public interface ProductorServicio {
 	
 	List<Productor> obtenerTodosProductores();
+
+	Pagina<ProductorResumen> obtenerPaginaProductores(String cursor, Integer tamano, boolean conTotal);
 	
 	List<Disco> obtenerDiscografiaPorProductor(Integer productorId);
 
 	Productor obtenerProductorPorID(Integer id);
 
+	ResultadoPorIds<Productor> obtenerProductoresPorIds(List<Integer> ids);
+
 	boolean insertarProductor(Productor productor);
 
 	boolean borrarProductor(Integer id);
 
-	boolean modificarProductor(Productor productor);
+	Productor modificarProductor(Productor productor);
 
 }
\ No newline at end of file
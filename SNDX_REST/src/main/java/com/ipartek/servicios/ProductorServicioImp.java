@@ -3,13 +3,27 @@ package com.ipartek.servicios;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ipartek.modelo.Disco;
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.auxiliar.Versiones;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
 import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ProductorResumen;
+import com.ipartek.repositorio.ArtistaRepositorio;
 import com.ipartek.repositorio.DiscoRepositorio;
 import com.ipartek.repositorio.ProductorRepositorio;
+import com.ipartek.auxiliar.PorIds;
+import com.ipartek.pojos.ResultadoPorIds;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -19,16 +33,47 @@ public class ProductorServicioImp implements ProductorServicio{
 	@Autowired
 	private ProductorRepositorio productorRepo;
 	
+	@Autowired
+	private BuscadorServicio buscador;
+	
 	@Autowired
 	private DiscoRepositorio discoRepositorio;
 	
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+	
+	@Autowired
+	private InvalidacionesCache invalidaciones;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+	
 
 	@Override
+	@Cacheable(value = CacheConfig.PRODUCTORES, sync = true)
 	public List<Productor> obtenerTodosProductores() {
 		return productorRepo.findAll(Sort.by("nombre").ascending());
 	}
 
 	@Override
+	public Pagina<ProductorResumen> obtenerPaginaProductores(String cursor, Integer tamano, boolean conTotal) {
+		int limite = Paginacion.limitarTamano(tamano);
+		
+		// Se lee una fila de más para saber si existe página siguiente
+		List<ProductorResumen> filas;
+		if (cursor == null || cursor.isBlank()) {
+			filas = productorRepo.buscarPrimeraPagina(Limit.of(limite + 1));
+		} else {
+			Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+			filas = productorRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(limite + 1));
+		}
+		
+		Long total = conTotal ? productorRepo.count() : null;
+		return Paginacion.construir(filas, limite, ProductorResumen::nombre, ProductorResumen::id, total);
+	}
+
+	@Override
+	@Cacheable(value = CacheConfig.PRODUCTOR, sync = true)
 	public Productor obtenerProductorPorID(Integer id) {
 		int idTemp=0;
 		if (id!=null) {
@@ -44,13 +89,27 @@ public class ProductorServicioImp implements ProductorServicio{
 		}
 	}
 
+	// Una sola consulta IN; el resultado se ordena como se pidió
 	@Override
+	public ResultadoPorIds<Productor> obtenerProductoresPorIds(List<Integer> ids) {
+		return PorIds.ordenar(ids, productorRepo.findAllById(ids), Productor::getId);
+	}
+
+	@Override
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.PRODUCTORES }, allEntries = true),
+		@CacheEvict(value = CacheConfig.PRODUCTOR, key = "#productor.id"),
+		@CacheEvict(value = CacheConfig.IDS, key = "'productores'")
+	})
 	public boolean insertarProductor(Productor productor) {
 		// Verificamos que el ID sea 0 (es decir, que es un productor nuevo)
 	    if (productor.getId() == 0) {
+	        // Entidad nueva: Hibernate le asigna la versión inicial
+	        productor.setVersion(null);
 	        
 	        // Guardamos el productor en la base de datos
 	    	Productor productorTemp = productorRepo.save(productor);
+	    	buscador.indexar(BuscadorServicio.PRODUCTOR, productorTemp.getId(), productorTemp.getNombre());
 
 	        // Comparamos el nombre del productor guardado con la original
 	        if (productorTemp.getNombre().equals(productor.getNombre())) {
@@ -65,55 +124,70 @@ public class ProductorServicioImp implements ProductorServicio{
 	}
 
 	@Override
+	// El borrado arrastra sus discos (cascade) y recalcula la nota de los artistas
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.PRODUCTORES, CacheConfig.DISCOS, CacheConfig.ARTISTAS, CacheConfig.GENEROS, CacheConfig.IDS, CacheConfig.SEMANA }, allEntries = true),
+		@CacheEvict(value = CacheConfig.PRODUCTOR, key = "#id")
+	})
+	@Transactional
 	public boolean borrarProductor(Integer id) {
-		// Buscar el disco por ID
-	    Optional<Productor> productorTemp = productorRepo.findById(id);
-
-	    // Si existe, se elimina
-	    if (productorTemp.isPresent()) {
-	    	productorRepo.deleteById(id);
-
-	        // Verificación opcional: confirmar que ya no existe
-	        boolean existe = productorRepo.findById(id).isPresent();
-	        return !existe;
-	    }
+		// El borrado se propaga a sus discos: se leen antes sus ids y artistas
+		// y se borran como entidades (DELETE en lote JDBC). Un DELETE masivo
+		// vaciaría en la caché de segundo nivel las colecciones de discos de
+		// todos los artistas, géneros, productores y discográficas; así solo
+		// salen las de los dueños de cada disco (auto_evict_collection_cache)
+		List<Integer> discos = discoRepositorio.buscarIdsPorProductor(id);
+		List<Integer> artistas = discoRepositorio.buscarArtistasPorProductor(id);
+		List<String> fotos = discoRepositorio.buscarFotosPorProductor(id);
+		discoRepositorio.deleteAll(discoRepositorio.findAllById(discos));
+		discoRepositorio.flush();
+		if (productorRepo.borrarPorId(id) == 0) {
+			return false; // No existe
+		}
 
-	    // Si no existe el disco, no se puede eliminar
-	    return false;
+		buscador.desindexar(BuscadorServicio.PRODUCTOR, id);
+		for (Integer idDisco : discos) {
+			buscador.desindexar(BuscadorServicio.DISCO, idDisco);
+		}
+		// La nota media de sus artistas se recalcula sin los discos borrados
+		if (!artistas.isEmpty()) {
+			artistaRepo.recalcularAgregados(artistas);
+		}
+		// De las cachés por id salen solo los discos borrados y sus artistas
+		invalidaciones.invalidar(CacheConfig.DISCO, discos);
+		invalidaciones.invalidar(CacheConfig.ARTISTA, artistas);
+		// Cada disco borrado tenía una referencia a su foto
+		imagenServicio.soltarTrasCommit(ImagenServicio.DISCOS, fotos);
+		return true;
 	}
 
 	@Override
-	public boolean modificarProductor(Productor productor) {
-		// Buscar el productor en la base de datos usando su ID
-	    Optional<Productor> productorTemp = productorRepo.findById(productor.getId());
-
-	    // Si se encontró el productor
-	    if (productorTemp.isPresent()) {
-
-	        // Se guarda el productor modificado
-	    	productorRepo.save(productor);
-
-	        // Se vuelve a buscar para verificar si se guardó correctamente
-	        Optional<Productor> productorTemp2 = productorRepo.findById(productor.getId());
-
-	        Productor productor2 = new Productor();
-
-	        // Si se encontró después de guardar
-	        if (productorTemp2.isPresent()) {
-	        	productor2 = productorTemp2.orElse(new Productor());
-	        }
-
-	        // Se compara el productor modificado con el recuperado
-	        if (!productor.equals(productor2)) {
-	            return true; // Se ha modificado correctamente
-	        } else {
-	            return false; // No se modificó (quizás se envió igual)
-	        }
-
-	    } else {
-	        // No se encontró el productor, no se puede modificar
-	        return false;
-	    }
+	@Caching(evict = {
+		@CacheEvict(value = { CacheConfig.ESTADISTICAS, CacheConfig.PRODUCTORES, CacheConfig.DISCOS }, allEntries = true),
+		@CacheEvict(value = CacheConfig.PRODUCTOR, key = "#productor.id")
+	})
+	@Transactional
+	public Productor modificarProductor(Productor productor) {
+		// Se carga la entidad (una SELECT por clave) y se copian sobre ella los
+		// datos recibidos: el flush emite un único UPDATE ... WHERE version=?
+		Productor productorTemp = productorRepo.findById(productor.getId()).orElse(null);
+		if (productorTemp == null) {
+			return null; // No existe, no se puede modificar
+		}
+		Versiones.comprobar(productorTemp.getVersion(), productor.getVersion(), Productor.class, productor.getId());
+		String fotoAnterior = productorTemp.getFoto();
+
+		productorTemp.setNotaMedia(productor.getNotaMedia());
+		productorTemp.setNombre(productor.getNombre());
+		productorTemp.setFoto(productor.getFoto());
+		productorTemp.setEnlaceWikipedia(productor.getEnlaceWikipedia());
+		productorRepo.flush();
+
+		buscador.indexar(BuscadorServicio.PRODUCTOR, productorTemp.getId(), productorTemp.getNombre());
+		imagenServicio.cambiar(ImagenServicio.PRODUCTORES, fotoAnterior, productorTemp.getFoto());
+		// Sus discos lo llevan embebido: solo esos salen de la caché
+		invalidaciones.invalidar(CacheConfig.DISCO, discoRepositorio.buscarIdsPorProductor(productorTemp.getId()));
+		return productorTemp;
 	}
 	
 	@Override
@@ -0,0 +1,26 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.ipartek.pojos.EstadoSubida;
+
+public interface SubidaServicio {
+
+	// Tamaño de cada trozo (el último puede ser menor) y de la imagen entera
+	int TROZO = 1024 * 1024;
+	long TAMANO_MAXIMO = 50L * 1024 * 1024;
+
+	EstadoSubida iniciar(String carpeta, String nombre, long tamano) throws IOException;
+
+	EstadoSubida obtenerEstado(String id);
+
+	EstadoSubida escribir(String id, long offset, long longitud, InputStream datos) throws IOException;
+
+	EstadoSubida completar(String id, String sha256) throws IOException;
+
+	String adjuntar(String id, String carpeta) throws IOException;
+
+	boolean cancelar(String id);
+
+}
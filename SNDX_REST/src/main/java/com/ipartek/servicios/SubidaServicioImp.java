@@ -0,0 +1,318 @@
+package com.ipartek.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.ipartek.pojos.EstadoSubida;
+
+/**
+ * Subidas de imágenes por trozos, reanudables.
+ * <p>
+ * Se inicia con el tamaño total y se envían trozos de TROZO bytes por su
+ * offset, en cualquier orden y repitiendo los que fallen; cada trozo se
+ * escribe directamente en su posición de un fichero disperso de la carpeta
+ * de destino, sin pasar entero por memoria. La escritura va fuera del
+ * cerrojo de la subida, que solo cuenta los trozos en curso: completar y
+ * adjuntar se niegan mientras haya alguno, y una vez completa no se admiten
+ * más, así que el fichero no cambia después de resumirlo. Al completar se comprueba el
+ * SHA-256 del fichero con el que manda el cliente, y el alta del disco,
+ * artista, productor o discográfica lo adjunta por su id: se publica en el
+ * almacén (ImagenServicio) como cualquier otra imagen.
+ * </p>
+ * <p>
+ * El estado vive en memoria y caduca tras un día sin actividad; al caducar
+ * o cancelarse se descarta y se borra el fichero, o, si hay trozos
+ * escribiéndose, lo borra el último en terminar. Tras un reinicio la subida
+ * se empieza de nuevo.
+ * </p>
+ */
+@Service
+public class SubidaServicioImp implements SubidaServicio {
+
+	private static final int MAXIMO_SUBIDAS = 1_000;
+	private static final Duration CADUCIDAD = Duration.ofDays(1);
+	private static final int BUFER = 64 * 1024;
+
+	private static class Subida {
+		private final String id;
+		private final String carpeta;
+		private final String nombre;
+		private final long tamano;
+		private final Path fichero;
+		private final BitSet recibidos = new BitSet();
+		// Trozos escribiéndose fuera del cerrojo: mientras haya alguno no se completa ni se adjunta
+		private int escribiendo;
+		// Cancelada o caducada: el fichero se borra en cuanto no haya trozos en curso
+		private boolean descartada;
+		private String hash;
+
+		private Subida(String id, String carpeta, String nombre, long tamano, Path fichero) {
+			this.id = id;
+			this.carpeta = carpeta;
+			this.nombre = nombre;
+			this.tamano = tamano;
+			this.fichero = fichero;
+		}
+
+		private int trozos() {
+			return (int) ((tamano + TROZO - 1) / TROZO);
+		}
+	}
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	private final Cache<String, Subida> subidas = Caffeine.newBuilder()
+			.maximumSize(MAXIMO_SUBIDAS)
+			.expireAfterAccess(CADUCIDAD)
+			.scheduler(Scheduler.systemScheduler())
+			// Solo caducadas o desalojadas: al adjuntar, el fichero aún hace falta
+			.removalListener((String id, Subida subida, RemovalCause causa) -> {
+				if (causa.wasEvicted()) {
+					descartar(subida);
+				}
+			})
+			.build();
+
+	@Override
+	public EstadoSubida iniciar(String carpeta, String nombre, long tamano) throws IOException {
+		if (tamano <= 0 || tamano > TAMANO_MAXIMO) {
+			throw new IllegalArgumentException("El tamaño debe estar entre 1 y " + TAMANO_MAXIMO + " bytes");
+		}
+		String id = UUID.randomUUID().toString();
+		Path fichero = imagenServicio.temporal(carpeta, id);
+
+		// SPARSE solo se tiene en cuenta al crear: los huecos no ocupan disco
+		FileChannel.open(fichero, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SPARSE).close();
+
+		Subida subida = new Subida(id, carpeta, nombre, tamano, fichero);
+		subidas.put(id, subida);
+		return estado(subida);
+	}
+
+	/** Estado de la subida, o null si no existe. */
+	@Override
+	public EstadoSubida obtenerEstado(String id) {
+		Subida subida = subidas.getIfPresent(id);
+		return subida != null ? estado(subida) : null;
+	}
+
+	/** Escribe un trozo en su posición; null si la subida no existe o se ha descartado. */
+	@Override
+	public EstadoSubida escribir(String id, long offset, long longitud, InputStream datos) throws IOException {
+		Subida subida = subidas.getIfPresent(id);
+		if (subida == null) {
+			return null;
+		}
+		if (offset < 0 || offset >= subida.tamano || offset % TROZO != 0) {
+			throw new IllegalArgumentException("Offset no válido: debe ser múltiplo de " + TROZO + " y menor que " + subida.tamano);
+		}
+		long esperada = Math.min(TROZO, subida.tamano - offset);
+		if (longitud != esperada) {
+			throw new IllegalArgumentException("El trozo en " + offset + " debe tener " + esperada + " bytes");
+		}
+		synchronized (subida) {
+			if (subida.descartada) {
+				return null;
+			}
+			if (subida.hash != null) {
+				throw new IllegalArgumentException("La subida ya está completa");
+			}
+			subida.escribiendo++;
+		}
+
+		try {
+			copiar(datos, subida.fichero, offset, longitud);
+		} catch (IOException | RuntimeException e) {
+			synchronized (subida) {
+				terminarEscritura(subida);
+			}
+			throw e;
+		}
+
+		synchronized (subida) {
+			if (terminarEscritura(subida)) {
+				return null;
+			}
+			subida.recibidos.set((int) (offset / TROZO));
+			return estado(subida);
+		}
+	}
+
+	// Con el cerrojo de la subida: si se descartó mientras se escribía, el
+	// último trozo en terminar borra el fichero. Devuelve si está descartada
+	private static boolean terminarEscritura(Subida subida) {
+		subida.escribiendo--;
+		if (subida.descartada && subida.escribiendo == 0) {
+			borrar(subida);
+		}
+		return subida.descartada;
+	}
+
+	/**
+	 * Comprueba que han llegado todos los trozos y que el SHA-256 coincide;
+	 * null si la subida no existe. Si el resumen no coincide la subida se
+	 * descarta.
+	 */
+	@Override
+	public EstadoSubida completar(String id, String sha256) throws IOException {
+		Subida subida = subidas.getIfPresent(id);
+		if (subida == null) {
+			return null;
+		}
+		synchronized (subida) {
+			if (subida.hash != null) {
+				return estado(subida);
+			}
+			if (subida.escribiendo > 0) {
+				throw new IllegalArgumentException("Hay trozos escribiéndose; completa la subida cuando terminen");
+			}
+			if (subida.recibidos.cardinality() < subida.trozos()) {
+				throw new IllegalArgumentException("Faltan trozos: " + pendientes(subida));
+			}
+			String hash = resumen(subida.fichero);
+			if (sha256 == null || !hash.equals(sha256.toLowerCase(Locale.ROOT))) {
+				subidas.asMap().remove(id);
+				descartar(subida);
+				throw new IllegalArgumentException("El SHA-256 no coincide; la subida se ha descartado");
+			}
+			subida.hash = hash;
+			return estado(subida);
+		}
+	}
+
+	/**
+	 * Publica una subida completa en el almacén y devuelve el nombre de la
+	 * imagen; null si no existe, no está completa, tiene trozos escribiéndose o
+	 * es de otra carpeta.
+	 */
+	@Override
+	public String adjuntar(String id, String carpeta) throws IOException {
+		Subida subida = subidas.getIfPresent(id);
+		if (subida == null) {
+			return null;
+		}
+		synchronized (subida) {
+			if (subida.descartada || subida.hash == null || subida.escribiendo > 0 || !subida.carpeta.equals(carpeta)) {
+				return null;
+			}
+			// Se quita antes de publicar para que no se pueda adjuntar dos veces;
+			// si no se llega a publicar, el temporal no se queda en la carpeta
+			subidas.asMap().remove(id);
+			try {
+				return imagenServicio.publicar(subida.fichero, subida.hash, subida.nombre, carpeta);
+			} catch (IOException | RuntimeException e) {
+				borrar(subida);
+				throw e;
+			}
+		}
+	}
+
+	@Override
+	public boolean cancelar(String id) {
+		Subida subida = subidas.asMap().remove(id);
+		if (subida == null) {
+			return false;
+		}
+		descartar(subida);
+		return true;
+	}
+
+	private static EstadoSubida estado(Subida subida) {
+		long recibidos = 0;
+		for (int i = subida.recibidos.nextSetBit(0); i >= 0; i = subida.recibidos.nextSetBit(i + 1)) {
+			recibidos += Math.min(TROZO, subida.tamano - (long) i * TROZO);
+		}
+		return new EstadoSubida(subida.id, subida.carpeta, subida.tamano, TROZO, recibidos, pendientes(subida),
+				subida.hash != null);
+	}
+
+	/** Offsets de los trozos que faltan. */
+	private static List<Long> pendientes(Subida subida) {
+		List<Long> pendientes = new ArrayList<>();
+		for (int i = subida.recibidos.nextClearBit(0); i < subida.trozos(); i = subida.recibidos.nextClearBit(i + 1)) {
+			pendientes.add((long) i * TROZO);
+		}
+		return pendientes;
+	}
+
+	// Escribe el trozo en su posición del fichero, leyéndolo de BUFER en BUFER
+	private static void copiar(InputStream datos, Path fichero, long offset, long longitud) throws IOException {
+		long posicion = offset;
+		long fin = offset + longitud;
+		ByteBuffer bufer = ByteBuffer.allocate(BUFER);
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+			ReadableByteChannel entrada = Channels.newChannel(datos);
+			while (posicion < fin) {
+				bufer.clear().limit((int) Math.min(BUFER, fin - posicion));
+				if (entrada.read(bufer) < 0) {
+					throw new IllegalArgumentException("Trozo incompleto: faltan " + (fin - posicion) + " bytes");
+				}
+				bufer.flip();
+				// write con posición (no transferFrom) para poder escribir más allá del final
+				while (bufer.hasRemaining()) {
+					posicion += canal.write(bufer, posicion);
+				}
+			}
+		}
+	}
+
+	private static String resumen(Path fichero) throws IOException {
+		MessageDigest sha;
+		try {
+			sha = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Todas las JVM traen SHA-256
+			throw new IllegalStateException(e);
+		}
+		ByteBuffer bufer = ByteBuffer.allocate(BUFER);
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+			while (canal.read(bufer) >= 0) {
+				bufer.flip();
+				sha.update(bufer);
+				bufer.clear();
+			}
+		}
+		return HexFormat.of().formatHex(sha.digest());
+	}
+
+	// Sin trozos en curso se borra ya; si no, lo borra el último (terminarEscritura)
+	private static void descartar(Subida subida) {
+		synchronized (subida) {
+			subida.descartada = true;
+			if (subida.escribiendo == 0) {
+				borrar(subida);
+			}
+		}
+	}
+
+	private static void borrar(Subida subida) {
+		try {
+			Files.deleteIfExists(subida.fichero);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
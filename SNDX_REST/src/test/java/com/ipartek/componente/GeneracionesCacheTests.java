@@ -0,0 +1,123 @@
+package com.ipartek.componente;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ipartek.configuracion.CacheConfig;
+
+/**
+ * Generaciones de los ETags: acotadas sin volver a valores anteriores, con
+ * la caducidad como un cambio más y sin datos antiguos bajo un ETag nuevo.
+ */
+class GeneracionesCacheTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private GeneracionesCache generaciones;
+
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void preparar() {
+		generaciones = new GeneracionesCache();
+		CacheConfig config = new CacheConfig();
+		ReflectionTestUtils.setField(config, "reloj", (Ticker) nanos::get);
+		cacheManager = config.cacheManager(generaciones);
+	}
+
+	@Test
+	void lasClavesDescartadasNoVuelvenAlEtagInicial() {
+		String inicial = generaciones.etag(CacheConfig.DISCO, 1);
+
+		// El doble de las claves que se guardan: la mitad se descartan
+		int claves = GeneracionesCache.CLAVES_POR_CACHE * 2;
+		for (int id = 1; id <= claves; id++) {
+			generaciones.invalidada(CacheConfig.DISCO, id);
+		}
+
+		for (int id = 1; id <= claves; id++) {
+			assertNotEquals(inicial, generaciones.etag(CacheConfig.DISCO, id), "clave " + id);
+		}
+		String antes = generaciones.etag(CacheConfig.DISCO, 1);
+		generaciones.invalidada(CacheConfig.DISCO, 1);
+		assertNotEquals(antes, generaciones.etag(CacheConfig.DISCO, 1));
+	}
+
+	@Test
+	void caducarUnaEntradaCambiaSuEtag() {
+		Cache discos = cacheManager.getCache(CacheConfig.DISCO);
+		discos.put(1, "Disco 1");
+		String etag1 = generaciones.etag(CacheConfig.DISCO, 1);
+		String etag2 = generaciones.etag(CacheConfig.DISCO, 2);
+
+		nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+		((com.github.benmanes.caffeine.cache.Cache<?, ?>) discos.getNativeCache()).cleanUp();
+
+		assertNull(discos.get(1));
+		assertNotEquals(etag1, generaciones.etag(CacheConfig.DISCO, 1));
+		assertEquals(etag2, generaciones.etag(CacheConfig.DISCO, 2));
+	}
+
+	@Test
+	void caducarUnListadoCambiaSuEtag() {
+		Cache listado = cacheManager.getCache(CacheConfig.DISCOS);
+		listado.put(SimpleKey.EMPTY, "Todos los discos");
+		String etag = generaciones.etag(CacheConfig.DISCOS);
+
+		nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+		((com.github.benmanes.caffeine.cache.Cache<?, ?>) listado.getNativeCache()).cleanUp();
+
+		assertNotEquals(etag, generaciones.etag(CacheConfig.DISCOS));
+	}
+
+	@Test
+	void unaCargaEmpezadaAntesDelCommitNoQuedaBajoElEtagNuevo() throws Exception {
+		Cache discos = cacheManager.getCache(CacheConfig.DISCO);
+		CountDownLatch cargando = new CountDownLatch(1);
+		CountDownLatch leido = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(2);
+		try {
+			// Lectura que leyó la base de datos antes del commit (sync = true)
+			Future<Object> lectura = hilos.submit(() -> discos.get(1, () -> {
+				cargando.countDown();
+				leido.await();
+				return "Disco 1 anterior";
+			}));
+			assertTrue(cargando.await(5, TimeUnit.SECONDS));
+
+			// Invalidación tras el commit: espera a la carga en curso
+			Future<?> invalidacion = hilos.submit(() -> discos.evict(1));
+			Thread.sleep(100);
+			assertFalse(invalidacion.isDone());
+
+			leido.countDown();
+			assertEquals("Disco 1 anterior", lectura.get(5, TimeUnit.SECONDS));
+			invalidacion.get(5, TimeUnit.SECONDS);
+		} finally {
+			hilos.shutdownNow();
+		}
+
+		// Con el ETag nuevo ya no se sirve el dato anterior
+		assertNull(discos.get(1));
+	}
+
+}
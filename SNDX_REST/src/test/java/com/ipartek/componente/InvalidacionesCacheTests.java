@@ -0,0 +1,114 @@
+package com.ipartek.componente;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.ipartek.configuracion.CacheConfig;
+
+/**
+ * Invalidación de claves sueltas de las cachés de servicio: solo las
+ * pedidas, después del commit, y sin tocar el ETag del resto.
+ */
+class InvalidacionesCacheTests {
+
+	private GeneracionesCache generaciones;
+
+	private Cache discos;
+
+	private InvalidacionesCache invalidaciones;
+
+	@BeforeEach
+	void preparar() {
+		generaciones = new GeneracionesCache();
+		CacheManager cacheManager = new CacheConfig().cacheManager(generaciones);
+		discos = cacheManager.getCache(CacheConfig.DISCO);
+		invalidaciones = new InvalidacionesCache();
+		ReflectionTestUtils.setField(invalidaciones, "cacheManager", cacheManager);
+
+		for (int id = 1; id <= 3; id++) {
+			discos.put(id, "Disco " + id);
+		}
+	}
+
+	@Test
+	void sinTransaccionInvalidaEnElMomentoSoloEsasClaves() {
+		String etag1 = generaciones.etag(CacheConfig.DISCO, 1);
+		String etag2 = generaciones.etag(CacheConfig.DISCO, 2);
+
+		// 0 y null son relaciones vacías y se ignoran
+		invalidaciones.invalidar(CacheConfig.DISCO, Arrays.asList(1, 0, null, 3));
+
+		assertNull(discos.get(1));
+		assertNotNull(discos.get(2));
+		assertNull(discos.get(3));
+		assertNotEquals(etag1, generaciones.etag(CacheConfig.DISCO, 1));
+		assertEquals(etag2, generaciones.etag(CacheConfig.DISCO, 2));
+	}
+
+	@Test
+	void conTransaccionEsperaAlCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			invalidaciones.invalidar(CacheConfig.DISCO, List.of(2));
+			assertNotNull(discos.get(2));
+
+			TransactionSynchronizationUtils.triggerAfterCommit();
+			assertNull(discos.get(2));
+			assertNotNull(discos.get(1));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void losFallosConcurrentesDeUnaClaveInvalidadaCarganUnaVez() throws Exception {
+		invalidaciones.invalidar(CacheConfig.DISCO, List.of(1));
+
+		// Como @Cacheable(sync = true): los hilos que fallan a la vez esperan
+		// a la única carga en curso
+		AtomicInteger cargas = new AtomicInteger();
+		CountDownLatch salida = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> lecturas = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				lecturas.add(hilos.submit(() -> {
+					salida.await();
+					return discos.get(1, () -> {
+						cargas.incrementAndGet();
+						Thread.sleep(100);
+						return "Disco 1 recargado";
+					});
+				}));
+			}
+			salida.countDown();
+			for (Future<Object> lectura : lecturas) {
+				assertEquals("Disco 1 recargado", lectura.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			hilos.shutdownNow();
+		}
+		assertEquals(1, cargas.get());
+	}
+
+}
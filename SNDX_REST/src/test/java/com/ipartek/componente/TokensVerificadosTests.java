@@ -0,0 +1,75 @@
+package com.ipartek.componente;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Verificación de tokens con caché: una sola comprobación de firma por
+ * token y rechazo de tokens alterados o caducados.
+ */
+class TokensVerificadosTests {
+
+	private final AtomicInteger verificaciones = new AtomicInteger();
+
+	private TokensVerificados tokensVerificados;
+
+	private String secreto;
+
+	@BeforeEach
+	void preparar() {
+		JwtUtil jwtUtil = new JwtUtil() {
+			@Override
+			public Claims verificar(String token) {
+				verificaciones.incrementAndGet();
+				return super.verificar(token);
+			}
+		};
+		secreto = (String) ReflectionTestUtils.getField(jwtUtil, "SECRET_KEY");
+		tokensVerificados = new TokensVerificados();
+		ReflectionTestUtils.setField(tokensVerificados, "jwtUtil", jwtUtil);
+	}
+
+	@Test
+	void elMismoTokenSeVerificaUnaSolaVez() {
+		String token = token(TimeUnit.HOURS.toMillis(1));
+
+		UsernamePasswordAuthenticationToken primera = tokensVerificados.autenticar(token);
+		UsernamePasswordAuthenticationToken segunda = tokensVerificados.autenticar(token);
+
+		assertEquals("admin", segunda.getName());
+		assertEquals("ROLE_ADMIN", primera.getAuthorities().iterator().next().getAuthority());
+		assertEquals(1, verificaciones.get());
+	}
+
+	@Test
+	void tokenAlteradoOCaducadoSeRechaza() {
+		String token = token(TimeUnit.HOURS.toMillis(1));
+
+		assertNull(tokensVerificados.autenticar(token.substring(0, token.length() - 2) + "xx"));
+		assertNull(tokensVerificados.autenticar(token(-1000)));
+	}
+
+	private String token(long duracion) {
+		return Jwts.builder()
+				.setSubject("admin")
+				.claim("rol", "ADMIN")
+				.setExpiration(new Date(System.currentTimeMillis() + duracion))
+				.signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+}
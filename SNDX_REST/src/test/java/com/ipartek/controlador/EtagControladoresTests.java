@@ -0,0 +1,180 @@
+package com.ipartek.controlador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.ipartek.componente.JwtUtil;
+import com.ipartek.configuracion.SmileConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * ETags de los controladores: 304 con el ETag vigente, 200 con otro y un
+ * ETag nuevo en cuanto una escritura confirmada cambia el disco. JSON y
+ * Smile, que son bytes distintos, tienen cada uno su ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EtagControladoresTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	private String token;
+
+	private int idArtista;
+
+	private int idDisco;
+
+	@BeforeEach
+	void cargarDatos() {
+		String secreto = (String) ReflectionTestUtils.getField(jwtUtil, "SECRET_KEY");
+		token = Jwts.builder()
+				.setSubject("admin")
+				.claim("rol", "ADMIN")
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		idArtista = artistaRepo.save(artista).getId();
+
+		Disco disco = new Disco();
+		disco.setNombre("Disco");
+		disco.setPuntuacion(8);
+		disco.setArtista(artista);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		idDisco = discoRepo.save(disco).getId();
+	}
+
+	@AfterEach
+	void borrarDatos() {
+		discoRepo.deleteById(idDisco);
+		artistaRepo.deleteById(idArtista);
+	}
+
+	@Test
+	void conElEtagVigenteDevuelve304() throws Exception {
+		String etag = etagDelDisco();
+
+		mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	@Test
+	void conOtroEtagDevuelveElDisco() throws Exception {
+		String etag = etagDelDisco();
+
+		mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"otro\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(jsonPath("$.nombre").value("Disco"));
+	}
+
+	@Test
+	void trasModificarElEtagCambia() throws Exception {
+		String etag = etagDelDisco();
+		String etagListado = mvc.perform(get("/api/discos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(put("/api/discos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"id\":" + idDisco + ",\"version\":0,\"nombre\":\"Disco remasterizado\",\"puntuacion\":8,"
+						+ "\"artista\":{\"id\":" + idArtista + "}}"))
+				.andExpect(status().isOk());
+
+		String nuevo = mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nombre").value("Disco remasterizado"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, nuevo);
+
+		mvc.perform(get("/api/discos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etagListado))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void smileYJsonTienenEtagsDistintos() throws Exception {
+		String json = etagDelDisco();
+
+		MvcResult smile = mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.ACCEPT, SmileConfig.SMILE_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, json))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, SmileConfig.SMILE_VALUE))
+				.andReturn();
+		String etagSmile = smile.getResponse().getHeader(HttpHeaders.ETAG);
+		assertEquals(json.replaceFirst("\"$", "-smile\""), etagSmile);
+
+		mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.ACCEPT, SmileConfig.SMILE_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, etagSmile))
+				.andExpect(status().isNotModified());
+		// El ETag de Smile no vale para JSON
+		mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etagSmile))
+				.andExpect(status().isOk());
+
+		// Con los dos en el Accept, el ETag es el del formato que se responde
+		for (String accept : new String[] { "application/json, " + SmileConfig.SMILE_VALUE + ";q=0.9",
+				SmileConfig.SMILE_VALUE + ", application/json;q=0.5", "*/*", SmileConfig.SMILE_VALUE + ", */*" }) {
+			MvcResult resultado = mvc.perform(get("/api/discos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.header(HttpHeaders.ACCEPT, accept))
+					.andExpect(status().isOk())
+					.andReturn();
+			boolean esSmile = resultado.getResponse().getContentType().startsWith(SmileConfig.SMILE_VALUE);
+			assertEquals(esSmile, resultado.getResponse().getHeader(HttpHeaders.ETAG).endsWith("-smile\""), accept);
+		}
+	}
+
+	private String etagDelDisco() throws Exception {
+		return mvc.perform(get("/api/discos/" + idDisco).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.ipartek.controlador;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.ipartek.componente.JwtUtil;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Exportación por HTTP: entidad y formato validados antes de empezar a
+ * escribir y volcado en gzip cuando se pide.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportacionControladorTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private String token;
+
+	@BeforeEach
+	void crearToken() {
+		String secreto = (String) ReflectionTestUtils.getField(jwtUtil, "SECRET_KEY");
+		token = Jwts.builder()
+				.setSubject("admin")
+				.claim("rol", "ADMIN")
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	@Test
+	void unaEntidadDesconocidaDevuelve404() throws Exception {
+		MvcResult inicio = mvc.perform(get("/api/exportar/usuarios").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.mensaje").value("No se puede exportar usuarios"));
+	}
+
+	@Test
+	void unFormatoDesconocidoDevuelve400() throws Exception {
+		MvcResult inicio = mvc.perform(get("/api/exportar/generos").param("formato", "xml")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensaje").value("Formato no válido: xml"));
+	}
+
+	@Test
+	void conGzipElVolcadoSaleComprimido() throws Exception {
+		MvcResult inicio = mvc.perform(get("/api/exportar/generos").param("formato", "csv").param("gzip", "true")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		byte[] cuerpo = mvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"generos.csv.gz\""))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(cuerpo))) {
+			String csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+			assertTrue(csv.startsWith("id,nombre\n"));
+		}
+	}
+
+}
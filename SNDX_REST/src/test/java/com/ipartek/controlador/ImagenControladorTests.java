@@ -0,0 +1,144 @@
+package com.ipartek.controlador;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ipartek.auxiliar.Miniaturas;
+import com.ipartek.componente.JwtUtil;
+import com.ipartek.repositorio.ImagenRepositorio;
+import com.ipartek.servicios.ImagenServicio;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Imágenes servidas: el original es inmutable y, mientras falta una versión
+ * reducida, se sirve el original en su lugar sin immutable. Lo que no tiene
+ * extensión de imagen se sirve como descarga. Un alta que falla suelta la
+ * imagen que se guardó con ella.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImagenControladorTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private ImagenRepositorio imagenRepo;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Value("${ruta.imagenes.discos}")
+	private String rutaDiscos;
+
+	private byte[] contenido;
+
+	private String nombre;
+
+	@BeforeEach
+	void guardarImagen() throws Exception {
+		// ImageIO no sabe leerla: sus versiones no llegan a existir
+		contenido = ("no es una imagen " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+		nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "portada.jpg", "image/jpeg", contenido), ImagenServicio.DISCOS);
+	}
+
+	@AfterEach
+	void soltarImagen() {
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+	}
+
+	@Test
+	void elOriginalEsInmutable() throws Exception {
+		mvc.perform(get("/api/imagenes/discos/" + nombre))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+				.andExpect(content().bytes(contenido));
+	}
+
+	@Test
+	void sinLaVersionSeSirveElOriginalSinImmutable() throws Exception {
+		mvc.perform(get("/api/imagenes/discos/" + Miniaturas.nombre(nombre, Miniaturas.MINIATURA)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+				.andExpect(content().bytes(contenido));
+	}
+
+	@Test
+	void loQueNoEsUnaImagenSeSirveComoDescarga() throws Exception {
+		// Una imagen antigua, de antes del almacén, con extensión .html
+		Path antigua = Paths.get(rutaDiscos, "pagina-" + System.nanoTime() + ".html");
+		Files.write(antigua, "<script>alert(1)</script>".getBytes(StandardCharsets.UTF_8));
+		try {
+			mvc.perform(get("/api/imagenes/discos/" + antigua.getFileName()))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/octet-stream"))
+					.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment")));
+		} finally {
+			Files.delete(antigua);
+		}
+	}
+
+	@Test
+	void unAltaQueFallaSueltaLaImagen() throws Exception {
+		String secreto = (String) ReflectionTestUtils.getField(jwtUtil, "SECRET_KEY");
+		String token = Jwts.builder()
+				.setSubject("admin")
+				.claim("rol", "ADMIN")
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		// Un nombre más largo que la columna: falla el INSERT, no la validación
+		String disco = "{\"nombre\":\"" + "x".repeat(300) + "\",\"puntuacion\":5}";
+
+		mvc.perform(multipart("/api/discos")
+				.file(new MockMultipartFile("disco", "", MediaType.APPLICATION_JSON_VALUE, disco.getBytes(StandardCharsets.UTF_8)))
+				.file(new MockMultipartFile("foto2", "portada.jpg", "image/jpeg", contenido))
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isInternalServerError());
+
+		// Solo queda la referencia de la imagen guardada antes de la prueba
+		assertEquals(1, imagenRepo.findById("discos/" + nombre).orElseThrow().getReferencias());
+	}
+
+	@Test
+	void sinOriginalDevuelve404() throws Exception {
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+
+		mvc.perform(get("/api/imagenes/discos/" + Miniaturas.nombre(nombre, Miniaturas.MEDIA)))
+				.andExpect(status().isNotFound());
+	}
+
+}
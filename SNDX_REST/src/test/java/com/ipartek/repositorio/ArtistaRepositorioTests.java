@@ -0,0 +1,100 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+
+@DataJpaTest
+class ArtistaRepositorioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	private int idArtista;
+
+	@BeforeEach
+	void cargarDatos() {
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		em.persist(artista);
+		idArtista = artista.getId();
+
+		// Puntuaciones 7, 8 y 10: media 8.33
+		for (int puntuacion : new int[] { 7, 8, 10 }) {
+			Disco disco = new Disco();
+			disco.setNombre("Disco " + puntuacion);
+			disco.setPuntuacion(puntuacion);
+			disco.setArtista(artista);
+			disco.setGenero(null);
+			disco.setProductor(null);
+			disco.setDiscografica(null);
+			em.persist(disco);
+		}
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void recalcularAgregadosParteDeLosDiscos() {
+		assertEquals(1, artistaRepo.recalcularAgregados());
+		em.clear();
+
+		Artista artista = artistaRepo.findById(idArtista).orElseThrow();
+		assertEquals(25, artista.getSumaPuntuaciones());
+		assertEquals(3, artista.getNumDiscos());
+		assertEquals(8, artista.getNotaMedia());
+	}
+
+	@Test
+	void ajustarNotaSumaYRestaDiscos() {
+		artistaRepo.recalcularAgregados(List.of(idArtista));
+
+		// Se añade un 9 (34 / 4 = 8.5) y luego se quita el 7 (27 / 3 = 9)
+		artistaRepo.ajustarNota(idArtista, 9, 1);
+		em.flush();
+		em.clear();
+		assertEquals(9, artistaRepo.findById(idArtista).orElseThrow().getNotaMedia());
+
+		artistaRepo.ajustarNota(idArtista, -7, -1);
+		em.flush();
+		em.clear();
+		Artista artista = artistaRepo.findById(idArtista).orElseThrow();
+		assertEquals(27, artista.getSumaPuntuaciones());
+		assertEquals(3, artista.getNumDiscos());
+		assertEquals(9, artista.getNotaMedia());
+	}
+
+	@Test
+	void guardarElArtistaNoPisaLosAgregados() {
+		artistaRepo.recalcularAgregados();
+		em.clear();
+
+		// Un disco escrito entre la lectura del artista y su guardado cambia la
+		// nota (y no la versión): el UPDATE del nombre no la devuelve a la leída
+		Artista artista = artistaRepo.findById(idArtista).orElseThrow();
+		em.getEntityManager().createNativeQuery("UPDATE artistas SET notaMedia = 9, sumaPuntuaciones = 35, numDiscos = 4 WHERE id_artista = " + idArtista)
+				.executeUpdate();
+		artista.setNombre("Artista renombrado");
+		artistaRepo.saveAndFlush(artista);
+		em.clear();
+
+		Artista guardado = artistaRepo.findById(idArtista).orElseThrow();
+		assertEquals("Artista renombrado", guardado.getNombre());
+		assertEquals(9, guardado.getNotaMedia());
+		assertEquals(4, guardado.getNumDiscos());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ipartek.modelo.Genero;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Sin transacción de test: la caché de segundo nivel solo se llena con datos
+// confirmados, así que cada llamada al repositorio va en su propia transacción
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTests {
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	private Statistics estadisticas;
+	private Genero genero;
+
+	@BeforeEach
+	void cargarDatos() {
+		genero = new Genero();
+		genero.setNombre("Genero en caché");
+		genero = generoRepo.save(genero);
+
+		emf.getCache().evictAll();
+		estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@AfterEach
+	void borrarDatos() {
+		generoRepo.deleteById(genero.getId());
+	}
+
+	@Test
+	void generoSoloSeLeeUnaVezDeLaBaseDeDatos() {
+		for (int i = 0; i < 5; i++) {
+			assertEquals("Genero en caché", generoRepo.findById(genero.getId()).orElseThrow().getNombre());
+		}
+
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertEquals(4, estadisticas.getSecondLevelCacheHitCount());
+	}
+
+	@Test
+	void modificarElGeneroActualizaLaCache() {
+		generoRepo.findById(genero.getId()).orElseThrow();
+
+		genero.setNombre("Genero renombrado");
+		generoRepo.save(genero);
+
+		assertEquals("Genero renombrado", generoRepo.findById(genero.getId()).orElseThrow().getNombre());
+	}
+
+}
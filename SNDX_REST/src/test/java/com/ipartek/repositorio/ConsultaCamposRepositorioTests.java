@@ -0,0 +1,112 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.auxiliar.Campos;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+
+/**
+ * Consultas parciales: solo los campos pedidos, relaciones por id o
+ * expandidas y rechazo de nombres desconocidos.
+ */
+@DataJpaTest
+@Import(ConsultaCamposRepositorio.class)
+class ConsultaCamposRepositorioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ConsultaCamposRepositorio consultaCamposRepo;
+
+	private Statistics estadisticas;
+
+	private int idArtista;
+
+	private int idDisco;
+
+	@BeforeEach
+	void cargarDatos() {
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		em.persist(artista);
+		idArtista = artista.getId();
+
+		Disco conArtista = disco("B", artista);
+		idDisco = conArtista.getId();
+		disco("A", null);
+
+		em.flush();
+		em.clear();
+
+		estadisticas = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@Test
+	void devuelveSoloLosCamposPedidosEnOrden() {
+		List<Map<String, Object>> filas = consultaCamposRepo.buscar(Disco.class, Campos.leer("id,nombre", null), null);
+
+		assertEquals(2, filas.size());
+		assertEquals(List.of("id", "nombre"), List.copyOf(filas.get(0).keySet()));
+		assertEquals("A", filas.get(0).get("nombre"));
+		assertEquals("B", filas.get(1).get("nombre"));
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void relacionSinExpandirSaleSoloConSuId() {
+		List<Map<String, Object>> filas = consultaCamposRepo.buscar(Disco.class, Campos.leer("nombre,artista", null), null);
+
+		assertNull(filas.get(0).get("artista"));
+		assertEquals(Map.of("id", idArtista), filas.get(1).get("artista"));
+	}
+
+	@Test
+	void relacionExpandidaSaleCompletaEnLaMismaConsulta() {
+		List<Map<String, Object>> filas = consultaCamposRepo.buscar(Disco.class, Campos.leer("nombre", "artista"), idDisco);
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> artista = (Map<String, Object>) filas.get(0).get("artista");
+		assertEquals("Artista", artista.get("nombre"));
+		// Los atributos con @JsonIgnore no se publican
+		assertFalse(artista.containsKey("numDiscos"));
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void camposYRelacionesDesconocidosSeRechazan() {
+		assertThrows(IllegalArgumentException.class,
+				() -> consultaCamposRepo.buscar(Disco.class, Campos.leer("nombre,clave", null), null));
+		assertThrows(IllegalArgumentException.class,
+				() -> consultaCamposRepo.buscar(Artista.class, Campos.leer(null, "discografia"), null));
+	}
+
+	private Disco disco(String nombre, Artista artista) {
+		Disco disco = new Disco();
+		disco.setNombre(nombre);
+		disco.setArtista(artista);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		em.persist(disco);
+		return disco;
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+
+@DataJpaTest
+@Import(DiscoLoteRepositorio.class)
+class DiscoLoteRepositorioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private DiscoLoteRepositorio discoLoteRepo;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Test
+	void insertarDevuelveLosIdsEnOrdenYGuardaLasRelaciones() {
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		em.persist(artista);
+		em.flush();
+
+		List<Disco> discos = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			Disco disco = new Disco();
+			disco.setNombre("Disco " + i);
+			disco.setPuntuacion(i % 10);
+			// Solo los pares tienen artista; el resto de relaciones van vacías (id 0)
+			if (i % 2 == 1) {
+				disco.setArtista(null);
+			} else {
+				Artista referencia = new Artista();
+				referencia.setId(artista.getId());
+				disco.setArtista(referencia);
+			}
+			discos.add(disco);
+		}
+
+		int[] ids = discoLoteRepo.insertar(discos);
+		em.clear();
+
+		assertEquals(25, ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			Disco guardado = discoRepo.findById(ids[i]).orElseThrow();
+			assertEquals("Disco " + i, guardado.getNombre());
+			assertEquals(i % 10, guardado.getPuntuacion());
+			assertNull(guardado.getGenero());
+			if (i % 2 == 0) {
+				assertEquals(artista.getId(), guardado.getArtista().getId());
+			} else {
+				assertNull(guardado.getArtista());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,250 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.ipartek.auxiliar.Paginacion;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.pojos.DiscoResumen;
+import com.ipartek.pojos.Faceta;
+import com.ipartek.pojos.FiltroDiscos;
+import com.ipartek.pojos.Pagina;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+class DiscoRepositorioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	private Statistics estadisticas;
+	private Artista artista;
+	private Genero genero;
+
+	@BeforeEach
+	void cargarDatos() {
+		// 4 de cada entidad relacionada, combinadas de forma distinta en 12 discos
+		Artista[] artistas = new Artista[4];
+		Genero[] generos = new Genero[4];
+		Productor[] productores = new Productor[4];
+		Discografica[] discograficas = new Discografica[4];
+
+		for (int i = 0; i < 4; i++) {
+			artistas[i] = new Artista();
+			artistas[i].setNombre("Artista " + i);
+			em.persist(artistas[i]);
+
+			generos[i] = new Genero();
+			generos[i].setNombre("Genero " + i);
+			em.persist(generos[i]);
+
+			productores[i] = new Productor();
+			productores[i].setNombre("Productor " + i);
+			em.persist(productores[i]);
+
+			discograficas[i] = new Discografica();
+			discograficas[i].setNombre("Discografica " + i);
+			em.persist(discograficas[i]);
+		}
+
+		for (int i = 0; i < 12; i++) {
+			Disco disco = new Disco();
+			disco.setNombre("Disco " + i);
+			disco.setArtista(artistas[i % 4]);
+			disco.setGenero(generos[(i / 4) % 4]);
+			disco.setProductor(productores[(i + 1) % 4]);
+			disco.setDiscografica(discograficas[(i + 2) % 4]);
+			disco.setPuntuacion(i % 5);
+			disco.setFecha("199" + (i % 3) + "-01-01");
+			em.persist(disco);
+		}
+
+		artista = artistas[0];
+		genero = generos[0];
+
+		em.flush();
+		em.clear();
+
+		estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@Test
+	void findAllCargaLasRelacionesEnUnaSolaSentencia() {
+		List<Disco> discos = discoRepo.findAll(Sort.by("nombre"));
+
+		assertEquals(12, discos.size());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void findByArtistaIdCargaLasRelacionesEnUnaSolaSentencia() {
+		List<Disco> discos = discoRepo.findByArtistaId(artista.getId());
+
+		assertEquals(3, discos.size());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void findByGeneroIdCargaLasRelacionesEnUnaSolaSentencia() {
+		List<Disco> discos = discoRepo.findByGeneroId(genero.getId());
+
+		assertEquals(4, discos.size());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void paginaDeResumenesEsUnaSolaSentencia() {
+		List<DiscoResumen> discos = discoRepo.buscarPrimeraPagina(Limit.of(5));
+
+		assertEquals(5, discos.size());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void elCursorRecorreTodaLaTablaSinRepetirNiSaltarFilas() {
+		// Nombres repetidos y NULL a ambos lados de los cortes de página
+		for (String nombre : new String[] { null, "Disco 3", null, "Disco 3", "Disco 7" }) {
+			Disco disco = new Disco();
+			disco.setNombre(nombre);
+			disco.setArtista(null);
+			disco.setGenero(null);
+			disco.setProductor(null);
+			disco.setDiscografica(null);
+			em.persist(disco);
+		}
+		em.flush();
+		em.clear();
+
+		List<Integer> ids = new ArrayList<>();
+		String cursor = null;
+		int paginas = 0;
+		do {
+			List<DiscoResumen> filas;
+			if (cursor == null) {
+				filas = discoRepo.buscarPrimeraPagina(Limit.of(4));
+			} else {
+				Paginacion.Cursor posicion = Paginacion.decodificarCursor(cursor);
+				filas = discoRepo.buscarPaginaTrasCursor(posicion.getNombre(), posicion.getId(), Limit.of(4));
+			}
+			Pagina<DiscoResumen> pagina = Paginacion.construir(filas, 3, DiscoResumen::nombre, DiscoResumen::id, null);
+			pagina.getElementos().forEach(d -> ids.add(d.id()));
+			cursor = pagina.getSiguienteCursor();
+			paginas++;
+		} while (cursor != null);
+
+		Set<Integer> distintos = new HashSet<>(ids);
+		assertEquals(17, ids.size());
+		assertEquals(17, distintos.size());
+		assertEquals(discoRepo.count(), distintos.size());
+		assertTrue(distintos.containsAll(discoRepo.findAll().stream().map(Disco::getId).toList()));
+		assertEquals(6, paginas);
+	}
+
+	@Test
+	void filtroCombinaDimensionesYCargaLasRelacionesEnUnaSolaSentencia() {
+		FiltroDiscos filtro = new FiltroDiscos();
+		filtro.setArtistaId(artista.getId());
+		filtro.setPuntuacionMin(1);
+		filtro.setAnioMin(1991);
+		filtro.setAnioMax(1992);
+
+		// Del artista 0 son los discos 0, 4 y 8; el 0 tiene puntuación 0 y es de 1990
+		Page<Disco> pagina = discoRepo.findAll(DiscoEspecificaciones.filtro(filtro), PageRequest.of(0, 10, Sort.by("nombre")));
+
+		assertEquals(List.of("Disco 4", "Disco 8"), pagina.getContent().stream().map(Disco::getNombre).toList());
+		assertEquals("Artista 0", pagina.getContent().get(0).getArtista().getNombre());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void resumenesDelFiltroSalenEnUnaSolaSentenciaSinCargarEntidades() {
+		FiltroDiscos filtro = new FiltroDiscos();
+		filtro.setArtistaId(artista.getId());
+		filtro.setAnioMax(1991);
+
+		// Del artista 0: disco 0 (1990), 4 (1991) y 8 (1992)
+		List<DiscoResumen> discos = discoRepo.buscarResumenes(DiscoEspecificaciones.filtro(filtro), 0, 10);
+
+		assertEquals(List.of("Disco 0", "Disco 4"), discos.stream().map(DiscoResumen::nombre).toList());
+		assertEquals("Artista 0", discos.get(0).artistaNombre());
+		assertEquals(2, discoRepo.contar(DiscoEspecificaciones.filtro(filtro)));
+		assertEquals(2, estadisticas.getPrepareStatementCount());
+		assertEquals(0, estadisticas.getEntityLoadCount());
+	}
+
+	@Test
+	void unaPaginaCuyoDesplazamientoNoCabeEnUnIntSeRechaza() {
+		FiltroDiscos filtro = new FiltroDiscos();
+
+		assertTrue(discoRepo.buscarResumenes(DiscoEspecificaciones.filtro(filtro), 10_000_000, 200).isEmpty());
+		// El proxy del repositorio traduce la IllegalArgumentException
+		assertThrows(InvalidDataAccessApiUsageException.class,
+				() -> discoRepo.buscarResumenes(DiscoEspecificaciones.filtro(filtro), 20_000_000, 200));
+	}
+
+	@Test
+	void facetasIgnoranElFiltroDeSuPropiaDimension() {
+		FiltroDiscos filtro = new FiltroDiscos();
+		filtro.setGeneroId(genero.getId());
+
+		// Discos 0..3 son del género 0; la faceta de género ve los 12
+		List<Faceta> porGenero = discoRepo.contarPorRelacion(DiscoEspecificaciones.GENERO,
+				DiscoEspecificaciones.filtroExcepto(filtro, DiscoEspecificaciones.GENERO));
+		List<Faceta> porArtista = discoRepo.contarPorRelacion(DiscoEspecificaciones.ARTISTA,
+				DiscoEspecificaciones.filtroExcepto(filtro, DiscoEspecificaciones.ARTISTA));
+		List<Faceta> porAnio = discoRepo.contarPorAnio(
+				DiscoEspecificaciones.filtroExcepto(filtro, DiscoEspecificaciones.ANIO));
+
+		assertEquals(3, porGenero.size());
+		assertEquals(12, porGenero.stream().mapToLong(Faceta::total).sum());
+		assertEquals(4, porArtista.size());
+		assertEquals(4, porArtista.stream().mapToLong(Faceta::total).sum());
+		assertEquals(List.of("1990", "1991", "1992"), porAnio.stream().map(Faceta::valor).toList());
+		assertEquals(3, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void estadisticasSeAgrupanEnLaBaseDeDatos() {
+		List<Faceta> porGenero = discoRepo.contarPorGenero();
+		List<Faceta> porAnio = discoRepo.contarPorAnio();
+		List<Faceta> porPuntuacion = discoRepo.contarPorPuntuacion();
+
+		assertEquals(List.of(4L, 4L, 4L), porGenero.stream().map(Faceta::total).toList());
+		assertEquals(List.of("1990", "1991", "1992"), porAnio.stream().map(Faceta::valor).toList());
+		assertEquals(List.of("0", "1", "2", "3", "4"), porPuntuacion.stream().map(Faceta::valor).toList());
+		assertEquals(12, porPuntuacion.stream().mapToLong(Faceta::total).sum());
+		assertEquals(3, estadisticas.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.ipartek.repositorio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Genero;
+import com.ipartek.pojos.GeneroResumen;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+class GeneroRepositorioTests {
+
+	private static final int GENEROS = 5;
+	private static final int DISCOS_POR_GENERO = 40;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private Statistics estadisticas;
+	private int idGenero;
+
+	@BeforeEach
+	void cargarDatos() {
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		em.persist(artista);
+
+		for (int g = 0; g < GENEROS; g++) {
+			Genero genero = new Genero();
+			genero.setNombre("Genero " + g);
+			em.persist(genero);
+			idGenero = genero.getId();
+
+			for (int i = 0; i < DISCOS_POR_GENERO; i++) {
+				Disco disco = new Disco();
+				disco.setNombre("Disco " + g + "-" + i);
+				disco.setGenero(genero);
+				disco.setArtista(artista);
+				disco.setProductor(null);
+				disco.setDiscografica(null);
+				em.persist(disco);
+			}
+		}
+
+		em.flush();
+		em.clear();
+
+		estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@Test
+	void resumenesSeObtienenEnUnaSolaSentencia() {
+		List<GeneroResumen> generos = generoRepo.obtenerResumenes();
+
+		assertEquals(GENEROS, generos.size());
+		assertEquals(DISCOS_POR_GENERO, generos.get(0).numDiscos());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void listadoNoCreceConElNumeroDeDiscos() throws Exception {
+		String json = mapper.writeValueAsString(generoRepo.obtenerResumenes());
+
+		// ~50 bytes por género, independientemente de los 40 discos de cada uno
+		assertTrue(json.length() < GENEROS * 80, "Payload demasiado grande: " + json.length() + " bytes");
+		assertFalse(json.contains("Disco "));
+	}
+
+	@Test
+	void generoNoSerializaSusDiscos() throws Exception {
+		Genero genero = generoRepo.findById(idGenero).orElseThrow();
+
+		String json = mapper.writeValueAsString(genero);
+
+		assertFalse(json.contains("discos"));
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+}
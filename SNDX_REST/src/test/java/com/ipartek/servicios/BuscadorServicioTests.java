@@ -0,0 +1,142 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ipartek.pojos.Pagina;
+import com.ipartek.pojos.ResultadoBusqueda;
+
+/**
+ * Índice de búsqueda: troceado de nombres, prefijos, orden por relevancia,
+ * paginación con cursor y cambios aplicados al confirmar la transacción.
+ */
+class BuscadorServicioTests {
+
+	private BuscadorServicioImp buscador;
+
+	@BeforeEach
+	void crearIndice() {
+		buscador = new BuscadorServicioImp();
+		buscador.indexar(BuscadorServicio.ARTISTA, 1, "Radiohead");
+		buscador.indexar(BuscadorServicio.DISCO, 1, "OK Computer");
+		buscador.indexar(BuscadorServicio.DISCO, 2, "Kid A");
+		buscador.indexar(BuscadorServicio.DISCO, 3, "Radio Ga Ga");
+		buscador.indexar(BuscadorServicio.DISCO, 4, "Radio");
+		buscador.indexar(BuscadorServicio.GENERO, 1, "Rock alternativo");
+	}
+
+	@Test
+	void losNombresSeTroceanEnMinusculasYSinAcentos() {
+		assertArrayEquals(new String[] { "canciones", "de", "amor", "y", "camion" },
+				BuscadorServicioImp.trocear("  Canciones DE amor, y... ¡Camión!"));
+		assertArrayEquals(new String[] { "ok" }, BuscadorServicioImp.trocear("ok OK Ok"));
+		assertThrows(IllegalArgumentException.class, () -> buscador.buscar(" ,;- ", null, null, null));
+	}
+
+	@Test
+	void unPrefijoEncuentraLasPalabrasQueEmpiezanPorEl() {
+		List<ResultadoBusqueda> encontrados = buscador.buscar("rad", null, null, null).getElementos();
+
+		assertEquals(3, encontrados.size());
+		assertTrue(buscador.buscar("ead", null, null, null).getElementos().isEmpty());
+		// Todos los términos tienen que aparecer
+		assertEquals(List.of("Radio Ga Ga"), nombres(buscador.buscar("radio ga", null, null, null)));
+		assertEquals(List.of("Radiohead"), nombres(buscador.buscar("rad", BuscadorServicio.ARTISTA, null, null)));
+	}
+
+	@Test
+	void laPalabraExactaYElNombreCompletoPuntuanMas() {
+		// "Radio" entero, luego la palabra exacta en un nombre más largo, luego el prefijo
+		assertEquals(List.of("Radio", "Radio Ga Ga", "Radiohead"), nombres(buscador.buscar("Radió", null, null, null)));
+	}
+
+	@Test
+	void elCursorRecorreLosResultadosSinRepetir() {
+		Pagina<ResultadoBusqueda> primera = buscador.buscar("radio", null, null, 2);
+		assertEquals(List.of("Radio", "Radio Ga Ga"), nombres(primera));
+		assertEquals(3L, primera.getTotal());
+
+		Pagina<ResultadoBusqueda> segunda = buscador.buscar("radio", null, primera.getSiguienteCursor(), 2);
+		assertEquals(List.of("Radiohead"), nombres(segunda));
+		assertNull(segunda.getSiguienteCursor());
+		assertThrows(IllegalArgumentException.class, () -> buscador.buscar("radio", null, "x", 2));
+	}
+
+	@Test
+	void unCursorMasAllaDelMaximoDeCandidatosSeRechaza() {
+		assertTrue(buscador.buscar("radio", null, "10000", 2).getElementos().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> buscador.buscar("radio", null, "100000000", 2));
+		assertThrows(IllegalArgumentException.class, () -> buscador.buscar("radio", null, String.valueOf(Integer.MAX_VALUE), 2));
+	}
+
+	@Test
+	void unPrefijoMuyComunNoRecorreTodoElCatalogo() {
+		for (int id = 100; id < 20_100; id++) {
+			buscador.indexar(BuscadorServicio.DISCO, id, "Demo " + id);
+		}
+		Pagina<ResultadoBusqueda> pagina = buscador.buscar("d", null, null, 5);
+
+		assertEquals(5, pagina.getElementos().size());
+		// Cortado en el máximo de candidatos: hay más páginas pero no total
+		assertNull(pagina.getTotal());
+		assertEquals("5", pagina.getSiguienteCursor());
+	}
+
+	@Test
+	void elMaximoDeCandidatosSoloCuentaLosDelTipoPedido() {
+		for (int id = 100; id < 20_100; id++) {
+			buscador.indexar(BuscadorServicio.DISCO, id, "Demo " + id);
+		}
+		// "dz" va detrás de "demo": sin filtrar antes, los discos agotan el máximo
+		buscador.indexar(BuscadorServicio.ARTISTA, 2, "Dz");
+		Pagina<ResultadoBusqueda> pagina = buscador.buscar("d", BuscadorServicio.ARTISTA, null, 5);
+
+		assertEquals(List.of("Dz"), nombres(pagina));
+		assertEquals(1L, pagina.getTotal());
+	}
+
+	@Test
+	void dentroDeUnaTransaccionElIndiceCambiaAlConfirmar() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			buscador.indexar(BuscadorServicio.ARTISTA, 2, "Blur");
+			buscador.desindexar(BuscadorServicio.DISCO, 2);
+			assertTrue(buscador.buscar("blur", null, null, null).getElementos().isEmpty());
+			assertEquals(1, buscador.buscar("kid", null, null, null).getElementos().size());
+
+			for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+				sincronizacion.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(List.of("Blur"), nombres(buscador.buscar("blur", null, null, null)));
+		assertTrue(buscador.buscar("kid", null, null, null).getElementos().isEmpty());
+	}
+
+	@Test
+	void conUnRollbackElIndiceNoCambia() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			buscador.indexar(BuscadorServicio.ARTISTA, 2, "Blur");
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertTrue(buscador.buscar("blur", null, null, null).getElementos().isEmpty());
+	}
+
+	private static List<String> nombres(Pagina<ResultadoBusqueda> pagina) {
+		return pagina.getElementos().stream().map(ResultadoBusqueda::nombre).toList();
+	}
+
+}
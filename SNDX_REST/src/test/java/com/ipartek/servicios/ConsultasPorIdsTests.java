@@ -0,0 +1,109 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.DiscografiaArtista;
+import com.ipartek.pojos.ResultadoPorIds;
+
+/**
+ * Consultas por lista de ids: orden pedido, ids inexistentes y una sola
+ * consulta por petición.
+ */
+@DataJpaTest
+@Import({ ArtistaServicioImp.class, BuscadorServicioImp.class,
+		InvalidacionesCache.class, CacheConfig.class, GeneracionesCache.class,
+		ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class ConsultasPorIdsTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ArtistaServicio artistaServicio;
+
+	private Statistics estadisticas;
+
+	private int idPrimero;
+
+	private int idSegundo;
+
+	private int idSinDiscos;
+
+	@BeforeEach
+	void cargarDatos() {
+		idPrimero = artista("Primero");
+		idSegundo = artista("Segundo");
+		idSinDiscos = artista("Sin discos");
+		disco("A", idPrimero);
+		disco("B", idSegundo);
+		disco("C", idSegundo);
+
+		em.flush();
+		em.clear();
+		em.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+
+		estadisticas = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@Test
+	void artistasEnElOrdenPedidoConLosInexistentesAparte() {
+		int inexistente = idSinDiscos + 1000;
+
+		ResultadoPorIds<Artista> resultado = artistaServicio.obtenerArtistasPorIds(List.of(idSegundo, inexistente, idPrimero));
+
+		assertEquals(List.of("Segundo", "Primero"), resultado.encontrados().stream().map(Artista::getNombre).toList());
+		assertEquals(List.of(inexistente), resultado.noEncontrados());
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void discografiasDeVariosArtistasEnDosConsultas() {
+		int inexistente = idSinDiscos + 1000;
+
+		ResultadoPorIds<DiscografiaArtista> resultado = artistaServicio
+				.obtenerDiscografiasPorArtistas(List.of(idSinDiscos, idSegundo, inexistente, idPrimero));
+
+		// Una consulta para los artistas existentes y otra para todos sus discos
+		assertEquals(2, estadisticas.getPrepareStatementCount());
+		assertEquals(List.of(idSinDiscos, idSegundo, idPrimero),
+				resultado.encontrados().stream().map(DiscografiaArtista::idArtista).toList());
+		assertEquals(List.of(0, 2, 1), resultado.encontrados().stream().map(d -> d.discos().size()).toList());
+		assertEquals(List.of(inexistente), resultado.noEncontrados());
+	}
+
+	private int artista(String nombre) {
+		Artista artista = new Artista();
+		artista.setNombre(nombre);
+		em.persist(artista);
+		return artista.getId();
+	}
+
+	private void disco(String nombre, int idArtista) {
+		Disco disco = new Disco();
+		disco.setNombre(nombre);
+		disco.setArtista(em.find(Artista.class, idArtista));
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		em.persist(disco);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.auxiliar.Semanas;
+import com.ipartek.componente.IdsCatalogo;
+import com.ipartek.modelo.Productor;
+
+/**
+ * Elección de destacados sobre el array de ids, sin cargar las entidades.
+ */
+@DataJpaTest
+@Import({ DestacadoServicioImp.class, IdsCatalogo.class })
+class DestacadoServicioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private DestacadoServicio destacadoServicio;
+
+	@Test
+	void sinFilasNoHayDestacado() {
+		assertNull(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.PRODUCTORES));
+		assertNull(destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES));
+	}
+
+	@Test
+	void aleatorioDevuelveIdsExistentesSinCargarEntidades() {
+		Set<Integer> ids = insertarProductores(5);
+		Statistics estadisticas = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+
+		for (int i = 0; i < 20; i++) {
+			assertTrue(ids.contains(destacadoServicio.obtenerIdAleatorio(DestacadoServicio.PRODUCTORES)));
+		}
+		assertEquals(0, estadisticas.getEntityLoadCount());
+	}
+
+	@Test
+	void elDeLaSemanaNoCambiaDentroDeLaSemana() {
+		Set<Integer> ids = insertarProductores(5);
+
+		Integer elegido = destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES);
+		assertTrue(ids.contains(elegido));
+		assertEquals(elegido, destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES));
+	}
+
+	@Test
+	void elDeLaSemanaSigueSiendoElMismoTrasAltasYBajasDeOtros() {
+		Set<Integer> ids = insertarProductores(10);
+		Integer elegido = destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES);
+
+		// Sin caché en el test: cada llamada vuelve a elegir sobre los ids actuales
+		ids.stream().filter(id -> !id.equals(elegido)).limit(5)
+				.forEach(id -> em.remove(em.find(Productor.class, id)));
+		em.flush();
+		assertEquals(elegido, destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES));
+
+		// Un alta solo lo cambia si el nuevo tiene un resumen menor
+		Set<Integer> nuevos = insertarProductores(10);
+		Integer despues = destacadoServicio.obtenerIdSemana(DestacadoServicio.PRODUCTORES);
+		assertTrue(despues.equals(elegido) || nuevos.contains(despues));
+	}
+
+	@Test
+	void semanaIso() {
+		// El 1 de enero de 2021 (viernes) pertenece a la última semana de 2020
+		assertEquals("2020-W53", Semanas.de(LocalDate.of(2021, 1, 1)));
+		assertEquals("2025-W07", Semanas.de(LocalDate.of(2025, 2, 10)));
+	}
+
+	private Set<Integer> insertarProductores(int cantidad) {
+		Set<Integer> ids = new HashSet<>();
+		for (int i = 0; i < cantidad; i++) {
+			Productor productor = new Productor();
+			productor.setNombre("Productor " + i);
+			em.persist(productor);
+			ids.add(productor.getId());
+		}
+		em.flush();
+		em.clear();
+		return ids;
+	}
+
+}
@@ -0,0 +1,259 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Discografica;
+import com.ipartek.modelo.Genero;
+import com.ipartek.modelo.Productor;
+import com.ipartek.repositorio.DiscoLoteRepositorio;
+
+/**
+ * Sentencias que lanzan los modificar y borrar de los servicios y detección
+ * de modificaciones perdidas con la versión.
+ */
+@DataJpaTest
+@Import({ ArtistaServicioImp.class, DiscoServicioImp.class, BuscadorServicioImp.class, DiscoLoteRepositorio.class,
+		InvalidacionesCache.class, CacheConfig.class, GeneracionesCache.class,
+		ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class EscrituraServiciosTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ArtistaServicio artistaServicio;
+
+	@Autowired
+	private DiscoServicio discoServicio;
+
+	private Statistics estadisticas;
+
+	private int idArtista;
+
+	private int idDisco;
+
+	@BeforeEach
+	void cargarDatos() {
+		Artista artista = new Artista();
+		artista.setNombre("Artista");
+		em.persist(artista);
+		idArtista = artista.getId();
+
+		Disco disco = new Disco();
+		disco.setNombre("Disco");
+		disco.setPuntuacion(8);
+		disco.setArtista(artista);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		em.persist(disco);
+		idDisco = disco.getId();
+
+		em.flush();
+		em.clear();
+		em.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+
+		estadisticas = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+	}
+
+	@Test
+	void modificarArtistaLanzaUnSelectYUnUpdateMasLosIdsDeSusDiscos() {
+		Artista artista = artistaServicio.modificarArtista(cambioDeNombre(0L));
+
+		// La tercera sentencia lee los ids de sus discos, para invalidar solo
+		// esos en la caché de discos
+		assertEquals(3, estadisticas.getPrepareStatementCount());
+		assertEquals(1, estadisticas.getEntityUpdateCount());
+		assertEquals("Nuevo nombre", artista.getNombre());
+		assertEquals(1L, artista.getVersion());
+	}
+
+	@Test
+	void modificarArtistaInexistenteDevuelveNull() {
+		Artista artista = new Artista();
+		artista.setId(idArtista + 1000);
+
+		assertEquals(null, artistaServicio.modificarArtista(artista));
+	}
+
+	@Test
+	void modificarConVersionAntiguaSeRechaza() {
+		artistaServicio.modificarArtista(cambioDeNombre(0L));
+
+		// Segundo cliente que leyó la versión 0 antes de la primera modificación
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> artistaServicio.modificarArtista(cambioDeNombre(0L)));
+	}
+
+	@Test
+	void updateConcurrenteSeDetectaConLaVersion() {
+		// La entidad queda cargada en la versión 0 y otra transacción la sube a 1
+		em.find(Artista.class, idArtista);
+		em.getEntityManager()
+				.createNativeQuery("UPDATE artistas SET version = version + 1 WHERE id_artista = " + idArtista)
+				.executeUpdate();
+
+		// Sin versión en la petición la comprobación la hace el UPDATE ... WHERE version=?
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> artistaServicio.modificarArtista(cambioDeNombre(null)));
+	}
+
+	@Test
+	void borrarArtistaLanzaUnSoloDelete() {
+		Artista artista = new Artista();
+		artista.setNombre("Sin discos");
+		em.persist(artista);
+		em.flush();
+		estadisticas.clear();
+
+		assertTrue(artistaServicio.borrarArtista(artista.getId()));
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertFalse(artistaServicio.borrarArtista(artista.getId()));
+	}
+
+	@Test
+	void modificarDiscoLanzaUnSelectYUnUpdate() {
+		Disco cambios = new Disco();
+		cambios.setId(idDisco);
+		cambios.setVersion(0L);
+		cambios.setNombre("Disco remasterizado");
+		cambios.setPuntuacion(8);
+		cambios.setArtista(new Artista());
+		cambios.getArtista().setId(idArtista);
+		cambios.setGenero(null);
+		cambios.setProductor(null);
+		cambios.setDiscografica(null);
+
+		Disco disco = discoServicio.modificarDisco(cambios);
+
+		// La puntuación y el artista no cambian: no hay que ajustar la nota media
+		assertEquals(2, estadisticas.getPrepareStatementCount());
+		assertEquals("Disco remasterizado", disco.getNombre());
+		assertEquals("Artista", disco.getArtista().getNombre());
+		assertEquals(1L, disco.getVersion());
+	}
+
+	@Test
+	void modificarDiscoDevuelveLaNotaNuevaDelArtista() {
+		// Agregado del artista con su único disco (puntuación 8)
+		em.getEntityManager()
+				.createNativeQuery("UPDATE artistas SET notaMedia = 8, sumaPuntuaciones = 8, numDiscos = 1 WHERE id_artista = " + idArtista)
+				.executeUpdate();
+
+		Disco cambios = new Disco();
+		cambios.setId(idDisco);
+		cambios.setVersion(0L);
+		cambios.setNombre("Disco");
+		cambios.setPuntuacion(4);
+		cambios.setArtista(new Artista());
+		cambios.getArtista().setId(idArtista);
+		cambios.setGenero(null);
+		cambios.setProductor(null);
+		cambios.setDiscografica(null);
+
+		Disco disco = discoServicio.modificarDisco(cambios);
+
+		assertEquals(4, disco.getArtista().getNotaMedia());
+	}
+
+	@Test
+	void insertarDiscoConRelacionesSoloPorId() {
+		// Como las envía el cliente: solo el id, sin versión
+		Artista artista = new Artista();
+		artista.setId(idArtista);
+		artista.setVersion(null);
+
+		Disco disco = new Disco();
+		disco.setNombre("Segundo disco");
+		disco.setPuntuacion(6);
+		disco.setArtista(artista);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+
+		assertTrue(discoServicio.insertarDisco(disco));
+		assertEquals("Artista", disco.getArtista().getNombre());
+	}
+
+	@Test
+	void insertarDiscoConLasCuatroRelacionesSoloPorId() {
+		Genero genero = new Genero();
+		genero.setNombre("Rock");
+		em.persist(genero);
+		Productor productor = new Productor();
+		productor.setNombre("Productor");
+		em.persist(productor);
+		Discografica discografica = new Discografica();
+		discografica.setNombre("Discográfica");
+		em.persist(discografica);
+		em.flush();
+		em.clear();
+
+		// Lo que envía el formulario del cliente: cada relación con su id y el
+		// resto de campos vacíos, sin versión
+		Disco disco = new Disco();
+		disco.setNombre("Tercer disco");
+		disco.setPuntuacion(7);
+		disco.getArtista().setId(idArtista);
+		disco.getGenero().setId(genero.getId());
+		disco.getProductor().setId(productor.getId());
+		disco.getDiscografica().setId(discografica.getId());
+
+		assertTrue(discoServicio.insertarDisco(disco));
+		em.flush();
+		em.clear();
+
+		// Las relaciones se enlazan por id sin copiar encima sus campos vacíos
+		Disco guardado = em.find(Disco.class, disco.getId());
+		assertEquals(0L, guardado.getVersion());
+		assertEquals("Artista", guardado.getArtista().getNombre());
+		assertEquals("Rock", guardado.getGenero().getNombre());
+		assertEquals("Productor", guardado.getProductor().getNombre());
+		assertEquals("Discográfica", guardado.getDiscografica().getNombre());
+		assertEquals(0L, guardado.getGenero().getVersion());
+	}
+
+	@Test
+	void insertarDiscoConArtistaInexistenteSeRechaza() {
+		Artista artista = new Artista();
+		artista.setId(idArtista + 1000);
+
+		Disco disco = new Disco();
+		disco.setNombre("Huérfano");
+		disco.setArtista(artista);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+
+		assertThrows(IllegalArgumentException.class, () -> discoServicio.insertarDisco(disco));
+	}
+
+	private Artista cambioDeNombre(Long version) {
+		Artista artista = new Artista();
+		artista.setId(idArtista);
+		artista.setVersion(version);
+		artista.setNombre("Nuevo nombre");
+		return artista;
+	}
+
+}
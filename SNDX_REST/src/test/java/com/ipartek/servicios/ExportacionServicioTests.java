@@ -0,0 +1,94 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Genero;
+
+/**
+ * Volcados NDJSON y CSV: una fila por línea, campos escapados y cabecera
+ * CSV aunque la tabla esté vacía.
+ */
+@DataJpaTest
+@Import(ExportacionServicioImp.class)
+class ExportacionServicioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ExportacionServicio exportacionServicio;
+
+	@Test
+	void ndjsonEscribeUnaFilaPorLinea() throws IOException {
+		int rock = genero("Rock");
+		int pop = genero("Pop");
+
+		assertEquals("{\"id\":" + rock + ",\"nombre\":\"Rock\"}\n{\"id\":" + pop + ",\"nombre\":\"Pop\"}\n",
+				exportar("generos", ExportacionServicio.NDJSON));
+	}
+
+	@Test
+	void csvEscapaComasComillasYSaltosDeLinea() throws IOException {
+		Disco disco = new Disco();
+		disco.setNombre("Dijo \"hola\", y\nse fue");
+		disco.setPuntuacion(7);
+		disco.setFecha("1999");
+		disco.setFoto("default.png");
+		disco.setEnlaceWikipedia(null);
+		disco.setArtista(null);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		em.persist(disco);
+		em.flush();
+
+		String[] lineas = exportar("discos", ExportacionServicio.CSV).split("\n", 2);
+
+		assertEquals("id,nombre,puntuacion,fecha,foto,enlaceWikipedia,enlaceSpotify,enlaceTidal,"
+				+ "artistaId,artistaNombre,generoId,generoNombre,productorId,productorNombre,discograficaId,discograficaNombre",
+				lineas[0]);
+		assertEquals(disco.getId() + ",\"Dijo \"\"hola\"\", y\nse fue\",7,1999,default.png,,,,,,,,,,,\n", lineas[1]);
+	}
+
+	@Test
+	void unaTablaVaciaSacaSoloLaCabeceraCsv() throws IOException {
+		assertEquals("id,nombre\n", exportar("generos", ExportacionServicio.CSV));
+		assertEquals("", exportar("generos", ExportacionServicio.NDJSON));
+	}
+
+	@Test
+	void unaEntidadDesconocidaNoSeExporta() {
+		assertTrue(exportacionServicio.existeEntidad("discograficas"));
+		assertFalse(exportacionServicio.existeEntidad("usuarios"));
+		assertThrows(IllegalArgumentException.class, () -> exportar("usuarios", ExportacionServicio.CSV));
+	}
+
+	private int genero(String nombre) {
+		Genero genero = new Genero();
+		genero.setNombre(nombre);
+		em.persist(genero);
+		em.flush();
+		return genero.getId();
+	}
+
+	private String exportar(String entidad, String formato) throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		exportacionServicio.exportar(entidad, formato, salida);
+		return salida.toString(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.ipartek.auxiliar.Miniaturas;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.repositorio.ImagenRepositorio;
+
+/**
+ * Almacén de imágenes: una copia por contenido, cuenta de referencias,
+ * versiones reducidas, borrado de todo con la última referencia y búsqueda
+ * de los ficheros que se sirven.
+ */
+@DataJpaTest
+@Import({ ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class ImagenServicioTests {
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private ImagenRepositorio imagenRepo;
+
+	@Value("${ruta.imagenes.discos}")
+	private String rutaDiscos;
+
+	@Test
+	void unaExtensionQueNoEsDeImagenNoSeConserva() throws Exception {
+		byte[] contenido = ("<svg onload=alert(1)/> " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+
+		String nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "portada.svg", "image/svg+xml", contenido), ImagenServicio.DISCOS);
+
+		assertTrue(nombre.matches("[0-9a-f]{64}"));
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+	}
+
+	@Test
+	void laMismaImagenSeGuardaUnaVezYSeBorraConLaUltimaReferencia() throws Exception {
+		byte[] contenido = ("portada " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+
+		String primera = imagenServicio.guardar(new MockMultipartFile("foto2", "portada.JPG", "image/jpeg", contenido), ImagenServicio.DISCOS);
+		String segunda = imagenServicio.guardar(new MockMultipartFile("foto2", "otra.jpg", "image/jpeg", contenido), ImagenServicio.DISCOS);
+
+		Path fichero = Paths.get(rutaDiscos, primera);
+		assertEquals(primera, segunda);
+		assertTrue(primera.endsWith(".jpg"));
+		assertEquals(2, imagenRepo.findById("discos/" + primera).get().getReferencias());
+		try (var ficheros = Files.list(Paths.get(rutaDiscos))) {
+			// Ni duplicados ni temporales
+			assertEquals(1, ficheros.filter(f -> f.getFileName().toString().equals(primera) || f.getFileName().toString().startsWith(".subida-")).count());
+		}
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, primera);
+		assertTrue(Files.exists(fichero));
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, primera);
+		assertFalse(Files.exists(fichero));
+		assertFalse(imagenRepo.existsById("discos/" + primera));
+	}
+
+	@Test
+	void seGeneranLaMiniaturaYLaMediaEnSegundoPlano() throws Exception {
+		BufferedImage portada = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+		portada.setRGB(0, 0, (int) System.nanoTime());
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(portada, "png", png);
+
+		String nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "portada.png", "image/png", png.toByteArray()), ImagenServicio.DISCOS);
+
+		Path miniatura = Paths.get(rutaDiscos, Miniaturas.nombre(nombre, Miniaturas.MINIATURA));
+		Path media = Paths.get(rutaDiscos, Miniaturas.nombre(nombre, Miniaturas.MEDIA));
+		for (int i = 0; i < 100 && !Files.exists(miniatura); i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(Miniaturas.ANCHO_MINIATURA, ImageIO.read(miniatura.toFile()).getWidth());
+		assertEquals(160, ImageIO.read(miniatura.toFile()).getHeight());
+		assertEquals(Miniaturas.ANCHO_MEDIA, ImageIO.read(media.toFile()).getWidth());
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+		assertFalse(Files.exists(miniatura));
+		assertFalse(Files.exists(media));
+	}
+
+	@Test
+	void unaImagenDeDimensionesEnormesNoSeDecodifica() throws Exception {
+		// PNG de 1x1 cuya cabecera dice 100000x100000: decodificado serían 40 GB
+		BufferedImage punto = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		punto.setRGB(0, 0, (int) System.nanoTime());
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(punto, "png", png);
+		byte[] bomba = png.toByteArray();
+		ByteBuffer.wrap(bomba, 16, 8).putInt(100_000).putInt(100_000);
+		CRC32 crc = new CRC32();
+		crc.update(bomba, 12, 17);
+		ByteBuffer.wrap(bomba, 29, 4).putInt((int) crc.getValue());
+
+		// Detrás, una grande que sí se lee (submuestreada)
+		BufferedImage grande = new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_RGB);
+		grande.setRGB(0, 0, (int) System.nanoTime());
+		ByteArrayOutputStream jpg = new ByteArrayOutputStream();
+		ImageIO.write(grande, "jpg", jpg);
+
+		String enorme = imagenServicio.guardar(new MockMultipartFile("foto2", "bomba.png", "image/png", bomba), ImagenServicio.DISCOS);
+		String nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "grande.jpg", "image/jpeg", jpg.toByteArray()), ImagenServicio.DISCOS);
+
+		Path media = Paths.get(rutaDiscos, Miniaturas.nombre(nombre, Miniaturas.MEDIA));
+		Path miniatura = Paths.get(rutaDiscos, Miniaturas.nombre(nombre, Miniaturas.MINIATURA));
+		for (int i = 0; i < 100 && !Files.exists(miniatura); i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(Miniaturas.ANCHO_MEDIA, ImageIO.read(media.toFile()).getWidth());
+		assertEquals(427, ImageIO.read(media.toFile()).getHeight());
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, Miniaturas.nombre(enorme, Miniaturas.MEDIA)));
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, Miniaturas.nombre(enorme, Miniaturas.MINIATURA)));
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, enorme);
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+	}
+
+	@Test
+	void sinVersionesSeEncuentraElOriginal() throws Exception {
+		// ImageIO no sabe leerla: no se generan versiones
+		byte[] contenido = ("no es una imagen " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+		String nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "portada.jpg", "image/jpeg", contenido), ImagenServicio.DISCOS);
+		String miniatura = Miniaturas.nombre(nombre, Miniaturas.MINIATURA);
+		String media = Miniaturas.nombre(nombre, Miniaturas.MEDIA);
+
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, miniatura));
+		assertEquals(Paths.get(rutaDiscos, nombre), imagenServicio.buscarOriginal(ImagenServicio.DISCOS, miniatura));
+		assertEquals(Paths.get(rutaDiscos, nombre), imagenServicio.buscarOriginal(ImagenServicio.DISCOS, media));
+		assertNull(imagenServicio.buscarOriginal(ImagenServicio.DISCOS, nombre));
+		assertNull(imagenServicio.buscarOriginal(ImagenServicio.ARTISTAS, miniatura));
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+		assertNull(imagenServicio.buscarOriginal(ImagenServicio.DISCOS, miniatura));
+	}
+
+	@Test
+	void lasImagenesSinCuentaNoSeBorran() throws Exception {
+		Path antigua = Paths.get(rutaDiscos, "2024-01-01-00-00-00-000portada.jpg");
+		Files.createDirectories(antigua.getParent());
+		Files.write(antigua, new byte[] { 1, 2, 3 });
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, antigua.getFileName().toString());
+		imagenServicio.soltar(ImagenServicio.DISCOS, "default.png");
+
+		assertTrue(Files.exists(antigua));
+	}
+
+	@Test
+	void soloSeSirvenImagenesDeLasCarpetasDelAlmacen() throws Exception {
+		byte[] contenido = ("logo " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+		String nombre = imagenServicio.guardar(new MockMultipartFile("foto2", "logo.jpg", "image/jpeg", contenido), ImagenServicio.DISCOS);
+
+		assertEquals(Paths.get(rutaDiscos, nombre), imagenServicio.buscar(ImagenServicio.DISCOS, nombre));
+		assertNull(imagenServicio.buscar(ImagenServicio.ARTISTAS, nombre));
+		assertNull(imagenServicio.buscar("discos/..", nombre));
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, ".."));
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, "..\\" + nombre));
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, ".subida-1.tmp"));
+
+		imagenServicio.soltar(ImagenServicio.DISCOS, nombre);
+		assertNull(imagenServicio.buscar(ImagenServicio.DISCOS, nombre));
+	}
+
+}
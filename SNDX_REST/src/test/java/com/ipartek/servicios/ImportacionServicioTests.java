@@ -0,0 +1,159 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.pojos.ResultadoImportacion;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoLoteRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.GeneroRepositorio;
+import com.ipartek.repositorio.NombresLoteRepositorio;
+
+/**
+ * Lectura de volcados CSV y NDJSON, errores por línea y resolución de los
+ * nombres de las relaciones.
+ */
+@DataJpaTest
+@Import({ ImportacionServicioImp.class, DiscoServicioImp.class, BuscadorServicioImp.class,
+		DiscoLoteRepositorio.class, NombresLoteRepositorio.class, InvalidacionesCache.class, CacheConfig.class, GeneracionesCache.class,
+		ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class ImportacionServicioTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private ImportacionServicio importacionServicio;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private GeneroRepositorio generoRepo;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	private int idArtista;
+
+	@BeforeEach
+	void cargarDatos() {
+		Artista artista = new Artista();
+		artista.setNombre("The Beatles");
+		em.persist(artista);
+		idArtista = artista.getId();
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void csvConCabeceraComillasYColumnasDesconocidas() throws IOException {
+		ResultadoImportacion resultado = importar(ImportacionServicio.CSV,
+				"\uFEFFnombre,puntuacion,artista,genero,otra\n"
+				+ "\"Abbey Road, remaster\",9,The Beatles,Rock,x\n"
+				+ "\n"
+				+ "\"Dijo \"\"hola\"\"\",,Otro,,\n");
+
+		assertEquals(4, resultado.getLineas());
+		assertEquals(2, resultado.getInsertados());
+		assertEquals(0, resultado.getFallidos());
+
+		List<String> nombres = discoRepo.findAll(Sort.by("id")).stream().map(Disco::getNombre).toList();
+		assertEquals(List.of("Abbey Road, remaster", "Dijo \"hola\""), nombres);
+		Disco sinPuntuacion = discoRepo.findAll(Sort.by("id")).get(1);
+		assertEquals(0, sinPuntuacion.getPuntuacion());
+		assertNull(sinPuntuacion.getGenero());
+	}
+
+	@Test
+	void losErroresLlevanElNumeroDeLinea() throws IOException {
+		ResultadoImportacion resultado = importar(ImportacionServicio.NDJSON,
+				"{\"nombre\":\"Bueno\",\"puntuacion\":7}\n"
+				+ "{\"nombre\":\n"
+				+ "{\"puntuacion\":5}\n"
+				+ "{\"nombre\":\"Otro bueno\",\"campoNuevo\":1}\n");
+
+		assertEquals(4, resultado.getLineas());
+		assertEquals(2, resultado.getInsertados());
+		assertEquals(2, resultado.getFallidos());
+		assertEquals(2, resultado.getErrores().size());
+		assertTrue(resultado.getErrores().get(0).startsWith("Línea 2: JSON no válido"));
+		assertEquals("Línea 3: El nombre es obligatorio", resultado.getErrores().get(1));
+	}
+
+	@Test
+	void puntuacionNoNumericaEnCsvEsUnErrorDeLinea() throws IOException {
+		ResultadoImportacion resultado = importar(ImportacionServicio.CSV,
+				"nombre,puntuacion\nUno,8\nDos,muy alta\n");
+
+		assertEquals(1, resultado.getInsertados());
+		assertEquals(List.of("Línea 3: Puntuación no válida: muy alta"), resultado.getErrores());
+	}
+
+	@Test
+	void losNombresSeResuelvenSinDistinguirMayusculasYSeCreanUnaVez() throws IOException {
+		ResultadoImportacion resultado = importar(ImportacionServicio.NDJSON,
+				"{\"nombre\":\"A\",\"artista\":\"the beatles\",\"genero\":\"Rock\"}\n"
+				+ "{\"nombre\":\"B\",\"artista\":\"THE BEATLES \",\"genero\":\"rock\"}\n"
+				+ "{\"nombre\":\"C\",\"artista\":\"Nuevo\",\"genero\":\"ROCK\",\"productor\":\"Martin\",\"discografica\":\"EMI\"}\n"
+				+ "{\"nombre\":\"D\",\"artista\":\"nuevo\",\"productor\":\"martin\",\"discografica\":\"emi\"}\n");
+		em.clear();
+
+		assertEquals(4, resultado.getInsertados());
+		assertEquals(1, resultado.getArtistasCreados());
+		assertEquals(1, resultado.getGenerosCreados());
+		assertEquals(1, resultado.getProductoresCreados());
+		assertEquals(1, resultado.getDiscograficasCreadas());
+
+		// Los artistas que ya existían se reutilizan; los nuevos guardan el
+		// nombre de la primera fila en que aparecen
+		assertEquals(List.of("The Beatles", "Nuevo"), artistaRepo.findAll(Sort.by("id")).stream().map(Artista::getNombre).toList());
+		assertEquals("Rock", generoRepo.findAll().get(0).getNombre());
+		assertEquals("default.png", artistaRepo.findAll(Sort.by("id")).get(1).getFoto());
+		assertEquals(0L, artistaRepo.findAll(Sort.by("id")).get(1).getVersion());
+
+		List<Disco> discos = discoRepo.findAll(Sort.by("id"));
+		assertEquals(idArtista, discos.get(0).getArtista().getId());
+		assertEquals(idArtista, discos.get(1).getArtista().getId());
+		assertEquals(discos.get(2).getArtista().getId(), discos.get(3).getArtista().getId());
+		assertEquals(1, discos.stream().map(d -> d.getGenero() != null ? d.getGenero().getId() : null)
+				.filter(id -> id != null).collect(Collectors.toSet()).size());
+		assertEquals(discos.get(2).getProductor().getId(), discos.get(3).getProductor().getId());
+		assertEquals(discos.get(2).getDiscografica().getId(), discos.get(3).getDiscografica().getId());
+	}
+
+	@Test
+	void formatoDesconocido() {
+		assertThrows(IllegalArgumentException.class, () -> importar("xml", "<discos/>"));
+	}
+
+	private ResultadoImportacion importar(String formato, String contenido) throws IOException {
+		InputStream entrada = new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+		return importacionServicio.importarDiscos(entrada, formato);
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.componente.RecalculoNotaMedia;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Artista;
+import com.ipartek.modelo.Disco;
+import com.ipartek.repositorio.ArtistaRepositorio;
+import com.ipartek.repositorio.DiscoLoteRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Nota media de los artistas mantenida desde los discos: los discos cacheados
+ * del artista no se quedan con la anterior, escribir un disco no saca de la
+ * caché de segundo nivel a los demás artistas, y al arrancar sobre datos sin
+ * agregados se reconstruye. Sin transacción de test: las cachés se invalidan
+ * después del commit de cada servicio.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ DiscoServicioImp.class, BuscadorServicioImp.class, DiscoLoteRepositorio.class, RecalculoNotaMedia.class,
+		InvalidacionesCache.class, CacheConfig.class, GeneracionesCache.class,
+		ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class NotaMediaArtistaTests {
+
+	@Autowired
+	private DiscoServicio discoServicio;
+
+	@Autowired
+	private GeneracionesCache generaciones;
+
+	@Autowired
+	private RecalculoNotaMedia recalculo;
+
+	@Autowired
+	private ArtistaRepositorio artistaRepo;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private Artista artista;
+
+	@BeforeEach
+	void cargarDatos() {
+		artista = new Artista();
+		artista.setNombre("Artista con nota");
+		artista = artistaRepo.save(artista);
+	}
+
+	@AfterEach
+	void borrarDatos() {
+		discoRepo.deleteAll();
+		artistaRepo.deleteAll();
+	}
+
+	@Test
+	void losOtrosDiscosDelArtistaNoSeQuedanConLaNotaAnterior() {
+		int primero = insertar("Primero", 4);
+		assertEquals(4, discoServicio.obtenerDiscoPorID(primero).getArtista().getNotaMedia());
+		String etag = generaciones.etag(CacheConfig.DISCO, primero);
+
+		insertar("Segundo", 8);
+
+		assertEquals(6, discoServicio.obtenerDiscoPorID(primero).getArtista().getNotaMedia());
+		assertNotEquals(etag, generaciones.etag(CacheConfig.DISCO, primero));
+	}
+
+	@Test
+	void escribirUnDiscoNoSacaDeLaCacheAOtroArtista() {
+		Artista otro = new Artista();
+		otro.setNombre("Otro artista");
+		otro = artistaRepo.save(otro);
+		emf.getCache().evictAll();
+		artistaRepo.findById(otro.getId()).orElseThrow();
+
+		// Alta, cambio de puntuación y baja de un disco del primer artista
+		int id = insertar("Disco", 5);
+		Disco cambios = discoServicio.obtenerDiscoPorID(id);
+		cambios.setPuntuacion(9);
+		discoServicio.modificarDisco(cambios);
+		assertTrue(discoServicio.borrarDisco(id));
+
+		Statistics estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+		assertEquals("Otro artista", artistaRepo.findById(otro.getId()).orElseThrow().getNombre());
+		assertEquals(1, estadisticas.getSecondLevelCacheHitCount());
+		assertEquals(0, estadisticas.getPrepareStatementCount());
+		assertEquals(0, artistaRepo.findById(artista.getId()).orElseThrow().getNumDiscos());
+	}
+
+	@Test
+	void alArrancarSinAgregadosSeReconstruyen() {
+		insertar("Primero", 4);
+		insertar("Segundo", 9);
+		// Como tras añadir las columnas con ddl-auto=update
+		jdbc.update("UPDATE artistas SET sumaPuntuaciones = 0, numDiscos = 0, notaMedia = 0");
+		assertEquals(1, artistaRepo.contarSinAgregados());
+
+		recalculo.run(null);
+
+		Artista recalculado = artistaRepo.findById(artista.getId()).orElseThrow();
+		assertEquals(7, recalculado.getNotaMedia());
+		assertEquals(2, recalculado.getNumDiscos());
+		assertEquals(0, artistaRepo.contarSinAgregados());
+	}
+
+	private int insertar(String nombre, int puntuacion) {
+		Artista soloId = new Artista();
+		soloId.setId(artista.getId());
+		Disco disco = new Disco();
+		disco.setNombre(nombre);
+		disco.setPuntuacion(puntuacion);
+		disco.setArtista(soloId);
+		disco.setGenero(null);
+		disco.setProductor(null);
+		disco.setDiscografica(null);
+		assertTrue(discoServicio.insertarDisco(disco));
+		return disco.getId();
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ipartek.componente.GeneracionesCache;
+import com.ipartek.componente.InvalidacionesCache;
+import com.ipartek.configuracion.CacheConfig;
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.modelo.Disco;
+import com.ipartek.modelo.Productor;
+import com.ipartek.repositorio.DiscoLoteRepositorio;
+import com.ipartek.repositorio.DiscoRepositorio;
+import com.ipartek.repositorio.ImagenRepositorio;
+import com.ipartek.repositorio.NombresLoteRepositorio;
+import com.ipartek.repositorio.ProductorRepositorio;
+
+/**
+ * Cuentas de referencias de las imágenes al cambiar la foto de un elemento, al
+ * importar discos y al borrarlos en cascada. Sin transacción de test: las cuentas se
+ * ajustan después del commit de cada servicio.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ DiscoServicioImp.class, ProductorServicioImp.class, BuscadorServicioImp.class, DiscoLoteRepositorio.class,
+		ImportacionServicioImp.class, NombresLoteRepositorio.class,
+		InvalidacionesCache.class, CacheConfig.class, GeneracionesCache.class,
+		ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class ReferenciasImagenesTests {
+
+	@Autowired
+	private DiscoServicio discoServicio;
+
+	@Autowired
+	private ProductorServicio productorServicio;
+
+	@Autowired
+	private ImagenServicio imagenServicio;
+
+	@Autowired
+	private ImportacionServicio importacionServicio;
+
+	@Autowired
+	private DiscoRepositorio discoRepo;
+
+	@Autowired
+	private ProductorRepositorio productorRepo;
+
+	@Autowired
+	private ImagenRepositorio imagenRepo;
+
+	@Value("${ruta.imagenes.discos}")
+	private String rutaDiscos;
+
+	// Contenido distinto en cada ejecución, para no encontrar ficheros de otra
+	private final long semilla = System.nanoTime();
+
+	@AfterEach
+	void borrarDatos() {
+		discoRepo.deleteAll();
+		productorRepo.deleteAll();
+		imagenRepo.deleteAll();
+	}
+
+	@Test
+	void modificarLaFotoSueltaLaAnteriorYRetieneLaNueva() throws Exception {
+		// La nueva ya la usa otro elemento (una referencia)
+		String anterior = guardar("anterior");
+		String nueva = guardar("nueva");
+		Disco disco = discoRepo.save(disco("Disco", anterior, null));
+
+		Disco cambios = disco("Disco", nueva, null);
+		cambios.setId(disco.getId());
+		cambios.setVersion(disco.getVersion());
+		discoServicio.modificarDisco(cambios);
+
+		assertFalse(imagenRepo.existsById("discos/" + anterior));
+		assertFalse(Files.exists(Paths.get(rutaDiscos, anterior)));
+		assertEquals(2, imagenRepo.findById("discos/" + nueva).get().getReferencias());
+	}
+
+	@Test
+	void modificarSinCambiarLaFotoNoTocaLasCuentas() throws Exception {
+		String foto = guardar("igual");
+		Disco disco = discoRepo.save(disco("Disco", foto, null));
+
+		Disco cambios = disco("Disco remasterizado", foto, null);
+		cambios.setId(disco.getId());
+		cambios.setVersion(disco.getVersion());
+		discoServicio.modificarDisco(cambios);
+
+		assertEquals(1, imagenRepo.findById("discos/" + foto).get().getReferencias());
+	}
+
+	@Test
+	void borrarUnProductorSueltaLasFotosDeSusDiscos() throws Exception {
+		Productor productor = new Productor();
+		productor.setNombre("Productor");
+		productor = productorRepo.save(productor);
+
+		// Dos discos con la misma portada (dos referencias) y uno sin cuenta
+		String portada = guardar("cascada");
+		guardar("cascada");
+		discoRepo.save(disco("Primero", portada, productor));
+		discoRepo.save(disco("Segundo", portada, productor));
+		discoRepo.save(disco("Tercero", "default.png", productor));
+		assertEquals(2, imagenRepo.findById("discos/" + portada).get().getReferencias());
+
+		assertTrue(productorServicio.borrarProductor(productor.getId()));
+
+		assertFalse(imagenRepo.existsById("discos/" + portada));
+		assertFalse(Files.exists(Paths.get(rutaDiscos, portada)));
+	}
+
+	@Test
+	void borrarUnDiscoImportadoNoSueltaLaFotoDeOtro() throws Exception {
+		String portada = guardar("importada");
+		Disco original = discoRepo.save(disco("Original", portada, null));
+
+		// La fila importada reutiliza la portada, con un productor nuevo
+		String fila = "{\"nombre\":\"Importado\",\"foto\":\"" + portada + "\",\"productor\":\"Productor importado\"}\n";
+		importacionServicio.importarDiscos(new ByteArrayInputStream(fila.getBytes(StandardCharsets.UTF_8)), ImportacionServicio.NDJSON);
+		assertEquals(2, imagenRepo.findById("discos/" + portada).get().getReferencias());
+
+		// Borrar el productor se lleva el disco importado en cascada
+		Productor productor = productorRepo.findAll().get(0);
+		assertTrue(productorServicio.borrarProductor(productor.getId()));
+
+		assertTrue(discoRepo.existsById(original.getId()));
+		assertTrue(Files.exists(Paths.get(rutaDiscos, portada)));
+		assertEquals(1, imagenRepo.findById("discos/" + portada).get().getReferencias());
+	}
+
+	private String guardar(String texto) throws Exception {
+		return imagenServicio.guardar(new MockMultipartFile("foto2", "portada.jpg", "image/jpeg", contenido(texto)), ImagenServicio.DISCOS);
+	}
+
+	private byte[] contenido(String texto) {
+		return (texto + " " + semilla).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Disco disco(String nombre, String foto, Productor productor) {
+		Disco disco = new Disco();
+		disco.setNombre(nombre);
+		disco.setFoto(foto);
+		disco.setArtista(null);
+		disco.setGenero(null);
+		disco.setProductor(productor);
+		disco.setDiscografica(null);
+		return disco;
+	}
+
+}
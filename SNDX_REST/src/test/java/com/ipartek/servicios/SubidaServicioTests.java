@@ -0,0 +1,211 @@
+package com.ipartek.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.ipartek.configuracion.EjecutorConfig;
+import com.ipartek.pojos.EstadoSubida;
+import com.ipartek.repositorio.ImagenRepositorio;
+
+/**
+ * Subidas por trozos: en cualquier orden, reanudables, comprobadas con el
+ * SHA-256 y publicadas en el almacén al adjuntarlas. No se completan con un
+ * trozo a medio escribir, y si se cancelan mientras se escribe uno el
+ * fichero lo borra ese trozo al terminar.
+ */
+@DataJpaTest
+@Import({ SubidaServicioImp.class, ImagenServicioImp.class, MiniaturaServicioImp.class, EjecutorConfig.class })
+class SubidaServicioTests {
+
+	@Autowired
+	private SubidaServicio subidaServicio;
+
+	@Autowired
+	private ImagenRepositorio imagenRepo;
+
+	@Value("${ruta.imagenes.productores}")
+	private String rutaProductores;
+
+	@Test
+	void losTrozosSeRecibenEnCualquierOrdenYSeAdjuntanAlAlmacen() throws Exception {
+		byte[] imagen = contenido(SubidaServicio.TROZO * 2 + 1000);
+		EstadoSubida estado = subidaServicio.iniciar(ImagenServicio.PRODUCTORES, "retrato.jpg", imagen.length);
+		String id = estado.getId();
+		assertEquals(List.of(0L, (long) SubidaServicio.TROZO, 2L * SubidaServicio.TROZO), estado.getPendientes());
+
+		trozo(id, imagen, 2);
+		trozo(id, imagen, 0);
+		// Sin el trozo del medio no se puede completar; el estado dice cuál falta
+		assertThrows(IllegalArgumentException.class, () -> subidaServicio.completar(id, sha256(imagen)));
+		assertEquals(List.of((long) SubidaServicio.TROZO), subidaServicio.obtenerEstado(id).getPendientes());
+
+		trozo(id, imagen, 1);
+		assertTrue(subidaServicio.completar(id, sha256(imagen).toUpperCase()).isCompleta());
+
+		// Otra carpeta no puede llevársela
+		assertNull(subidaServicio.adjuntar(id, ImagenServicio.DISCOS));
+		String nombre = subidaServicio.adjuntar(id, ImagenServicio.PRODUCTORES);
+		assertEquals(sha256(imagen) + ".jpg", nombre);
+		assertTrue(Arrays.equals(imagen, Files.readAllBytes(Paths.get(rutaProductores, nombre))));
+		assertEquals(1, imagenRepo.findById("productores/" + nombre).get().getReferencias());
+
+		// Solo se adjunta una vez y no queda el temporal
+		assertNull(subidaServicio.adjuntar(id, ImagenServicio.PRODUCTORES));
+		try (var ficheros = Files.list(Paths.get(rutaProductores))) {
+			assertFalse(ficheros.anyMatch(f -> f.getFileName().toString().contains(id)));
+		}
+	}
+
+	@Test
+	void unTrozoDeLongitudIncorrectaOUnResumenDistintoSeRechazan() throws Exception {
+		byte[] imagen = contenido(1000);
+		String id = subidaServicio.iniciar(ImagenServicio.PRODUCTORES, "retrato.png", imagen.length).getId();
+		Path temporal = Paths.get(rutaProductores, ".subida-" + id + ".part");
+
+		assertThrows(IllegalArgumentException.class,
+				() -> subidaServicio.escribir(id, 0, 999, new ByteArrayInputStream(imagen)));
+		assertThrows(IllegalArgumentException.class,
+				() -> subidaServicio.escribir(id, 0, 1000, new ByteArrayInputStream(imagen, 0, 10)));
+		trozo(id, imagen, 0);
+
+		assertThrows(IllegalArgumentException.class, () -> subidaServicio.completar(id, sha256(new byte[1])));
+		assertNull(subidaServicio.obtenerEstado(id));
+		assertFalse(Files.exists(temporal));
+	}
+
+	@Test
+	void noSeCompletaMientrasSeEscribeUnTrozo() throws Exception {
+		byte[] imagen = contenido(SubidaServicio.TROZO + 1000);
+		String id = subidaServicio.iniciar(ImagenServicio.PRODUCTORES, "retrato.jpg", imagen.length).getId();
+		trozo(id, imagen, 0);
+		trozo(id, imagen, 1);
+
+		// El cliente repite el primer trozo y se para a mitad
+		CountDownLatch empezado = new CountDownLatch(1);
+		CountDownLatch seguir = new CountDownLatch(1);
+		InputStream datos = new SequenceInputStream(new ByteArrayInputStream(imagen, 0, 1000),
+				new Retenida(new ByteArrayInputStream(imagen, 1000, SubidaServicio.TROZO - 1000), empezado, seguir));
+		ExecutorService hilo = Executors.newSingleThreadExecutor();
+		try {
+			Future<EstadoSubida> escritura = hilo.submit(() -> subidaServicio.escribir(id, 0, SubidaServicio.TROZO, datos));
+			assertTrue(empezado.await(10, TimeUnit.SECONDS));
+
+			assertThrows(IllegalArgumentException.class, () -> subidaServicio.completar(id, sha256(imagen)));
+			assertNull(subidaServicio.adjuntar(id, ImagenServicio.PRODUCTORES));
+
+			seguir.countDown();
+			escritura.get(10, TimeUnit.SECONDS);
+		} finally {
+			seguir.countDown();
+			hilo.shutdownNow();
+		}
+
+		// Ya sin trozos en curso se completa, y después no se admiten más
+		assertTrue(subidaServicio.completar(id, sha256(imagen)).isCompleta());
+		assertThrows(IllegalArgumentException.class, () -> trozo(id, imagen, 1));
+		String nombre = subidaServicio.adjuntar(id, ImagenServicio.PRODUCTORES);
+		assertTrue(Arrays.equals(imagen, Files.readAllBytes(Paths.get(rutaProductores, nombre))));
+	}
+
+	@Test
+	void cancelarConUnTrozoEscribiendoseBorraElFicheroAlTerminar() throws Exception {
+		byte[] imagen = contenido(SubidaServicio.TROZO + 1000);
+		String id = subidaServicio.iniciar(ImagenServicio.PRODUCTORES, "retrato.jpg", imagen.length).getId();
+		Path temporal = Paths.get(rutaProductores, ".subida-" + id + ".part");
+
+		CountDownLatch empezado = new CountDownLatch(1);
+		CountDownLatch seguir = new CountDownLatch(1);
+		InputStream datos = new SequenceInputStream(new ByteArrayInputStream(imagen, 0, 1000),
+				new Retenida(new ByteArrayInputStream(imagen, 1000, SubidaServicio.TROZO - 1000), empezado, seguir));
+		ExecutorService hilo = Executors.newSingleThreadExecutor();
+		try {
+			Future<EstadoSubida> escritura = hilo.submit(() -> subidaServicio.escribir(id, 0, SubidaServicio.TROZO, datos));
+			assertTrue(empezado.await(10, TimeUnit.SECONDS));
+
+			// Cancelada ya para el cliente, pero el fichero sigue abierto
+			assertTrue(subidaServicio.cancelar(id));
+			assertNull(subidaServicio.obtenerEstado(id));
+			assertTrue(Files.exists(temporal));
+
+			seguir.countDown();
+			assertNull(escritura.get(10, TimeUnit.SECONDS));
+		} finally {
+			seguir.countDown();
+			hilo.shutdownNow();
+		}
+
+		assertFalse(Files.exists(temporal));
+		assertFalse(subidaServicio.cancelar(id));
+	}
+
+	private void trozo(String id, byte[] imagen, int indice) throws Exception {
+		int inicio = indice * SubidaServicio.TROZO;
+		int longitud = Math.min(SubidaServicio.TROZO, imagen.length - inicio);
+		subidaServicio.escribir(id, inicio, longitud, new ByteArrayInputStream(imagen, inicio, longitud));
+	}
+
+	private static byte[] contenido(int longitud) {
+		byte[] datos = new byte[longitud];
+		new Random(System.nanoTime()).nextBytes(datos);
+		return datos;
+	}
+
+	private static String sha256(byte[] datos) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(datos));
+	}
+
+	// Avisa al leer por primera vez y espera a que el test la deje seguir
+	private static class Retenida extends FilterInputStream {
+
+		private final CountDownLatch empezado;
+		private final CountDownLatch seguir;
+
+		private Retenida(InputStream entrada, CountDownLatch empezado, CountDownLatch seguir) {
+			super(entrada);
+			this.empezado = empezado;
+			this.seguir = seguir;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			empezado.countDown();
+			try {
+				seguir.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			return super.read(b, off, len);
+		}
+
+	}
+
+}